@@ -31,6 +31,7 @@ import mciv.server.route.Route;
 import sog.core.Procedure;
 import sog.core.Test;
 import sog.core.json.JSON.JsonValue;
+import sog.util.Concurrent;
 import sog.util.FixedWidth;
 import sog.util.Macro;
 
@@ -67,6 +68,8 @@ public class Status extends AdminRoute {
 	
 	private final FixedWidth errorStats;
 	
+	private final FixedWidth poolStats;
+	
 	public Status() {
 		this.serviceStats = new FixedWidth()
 			.right( "Count", 8, ' ' )
@@ -80,6 +83,17 @@ public class Status extends AdminRoute {
 			.right( "Errors", 8, ' ' )
 			.sep( "  " )
 			.left( "Endpoint", 50, ' ' );
+		this.poolStats = new FixedWidth()
+			.right( "Workers", 8, ' ' )
+			.right( "Queued", 8, ' ' )
+			.right( "Active", 8, ' ' )
+			.right( "Completed", 10, ' ' )
+			.right( "Per sec", 9, ' ' )
+			.right( "Wait p99", 10, ' ' )
+			.right( "Exec p50", 10, ' ' )
+			.right( "Exec p99", 10, ' ' )
+			.sep( "  " )
+			.left( "Pool", 30, ' ' );
 	}
 
 
@@ -105,6 +119,10 @@ public class Status extends AdminRoute {
 		// BODY   ${error header}
 		// BODY   ${error rows}
 		// BODY 
+		// BODY POOLS: (latencies in microseconds)
+		// BODY   ${pool header}
+		// BODY   ${pool rows}
+		// BODY 
 		// BODY </pre>
 		// BODY </body>
 		
@@ -119,7 +137,9 @@ public class Status extends AdminRoute {
 			.expand( "remote header", this.remoteStats.header() )
 			.expand( "remote rows", this.getRemoteEntries().map( this::getRemoteStats ) )
 			.expand( "error header", this.errorStats.header() )
-			.expand( "error rows", Registrar.get().getRoutes().map( this::getErrorStats ) );
+			.expand( "error rows", Registrar.get().getRoutes().map( this::getErrorStats ) )
+			.expand( "pool header", this.poolStats.header() )
+			.expand( "pool rows", Concurrent.live().map( Concurrent::stats ).map( this::getPoolStats ) );
 		
 		this.sendHtml( exchange, this.getCommentedLines( "BODY" ).flatMap( mapper ) );
 				
@@ -134,6 +154,11 @@ public class Status extends AdminRoute {
 		return this.errorStats.format( r.getErrorCount(), r.getPath() );
 	}
 	
+	private String getPoolStats( Concurrent.Stats stats ) {
+		return this.poolStats.format( stats.workers(), stats.queued(), stats.active(), stats.completed(),
+			String.format( "%.1f", stats.throughput() ), stats.waitMicros( 0.99 ), stats.execMicros( 0.5 ), stats.execMicros( 0.99 ), stats.label() );
+	}
+	
 	private String getRemoteStats( Map.Entry<String, Integer> entry ) {
 		return this.remoteStats.format( entry.getValue(), entry.getKey() );
 	}
@@ -21,14 +21,23 @@ package sog.core;
 
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Implement byte array behavior for large arrays, up to 1 billion bytes.
  * 
- * Not thread-safe
+ * The backing file is held open by a FileChannel for the lifetime of the ByteFile, so
+ * reads and writes do not pay for an open/close per call. A mapped ByteFile additionally
+ * maps the file into memory, growing the mapping in chunks of MAP_CHUNK bytes, so reads and
+ * writes become memory copies. The physical file of a mapped ByteFile may be longer than
+ * the logical length.
+ * 
+ * The ByteBuffer writes and all reads may be used by multiple threads concurrently provided
+ * their regions do not overlap; the length only grows. Other operations are not thread-safe.
  */
 @Test.Subject( "test." )
 public class ByteFile implements AutoCloseable {
@@ -36,8 +45,9 @@ public class ByteFile implements AutoCloseable {
 	/* For defining lengths in terms of 1 gig */
 	private static long GB = 1_000_000_000L;
 
-	/* Configurable max data file length in bytes (1 GB default) */
-	private static long MAX_LENGTH = Property.get( "maxLength", 1L * GB, Parser.LONG );
+	/* Configurable max data file length in bytes (1 GB default). Also bounds SegmentedByteFile segments. */
+	@Test.Decl( "Is positive" )
+	static long MAX_LENGTH = Property.get( "maxLength", 1L * GB, Parser.LONG );
 
 	/*
 	 * Configurable data usage limit.
@@ -53,6 +63,9 @@ public class ByteFile implements AutoCloseable {
 	 */
 	private static long FAIL_LIMIT = Property.get( "failLimit", 5L * GB, Parser.LONG );
 	
+	/* Configurable increment in bytes used to grow the mapping of a mapped ByteFile (16 MB default) */
+	private static long MAP_CHUNK = Property.get( "mapChunk", 16L * 1024 * 1024, Parser.LONG );
+	
 
 	/*
 	 * The total (across all ByteFile instances) number of bytes being stored.
@@ -77,8 +90,17 @@ public class ByteFile implements AutoCloseable {
 	/* Temporary file holding the data as raw bytes. */
 	private File file;
 	
+	/* Open for the lifetime of this ByteFile; null after dispose. */
+	private FileChannel channel;
+	
+	/* When true reads and writes go through a memory mapping of the file. */
+	private final boolean mapped;
+	
+	/* The current mapping, or null if not mapped or nothing has been written. */
+	private volatile MappedByteBuffer map;
+	
 	/* Current length of the file in bytes. */
-	private int length;
+	private volatile int length;
 	
 	/** 
 	 * Construct an empty {@code ByteFile} backed by a temporary file.
@@ -90,8 +112,63 @@ public class ByteFile implements AutoCloseable {
 	@Test.Decl( "Creates empty file" )
 	@Test.Decl( "Creates open file" )
 	public ByteFile() {
+		this( false );
+	}
+	
+	/** 
+	 * Construct an empty {@code ByteFile} backed by a temporary file, optionally
+	 * accessed through a memory mapping.
+	 * The temporary file is automatically deleted when the JVM exists.
+	 * 
+	 * @param mapped
+	 * 		If true, reads and writes are memory copies into a mapping of the file.
+	 */
+	@Test.Decl( "Creates empty file" )
+	@Test.Decl( "Creates open file" )
+	@Test.Decl( "Mapped file can recover bytes written" )
+	@Test.Decl( "Mapped file can grow beyond one chunk" )
+	@Test.Decl( "Mapped file length is the logical length" )
+	public ByteFile( boolean mapped ) {
 		this.file = new LocalDir().sub( "tmp" ).getTmpFile( "BYTES" );
+		this.mapped = mapped;
+		this.map = null;
 		this.length = 0;
+		try {
+			this.channel = FileChannel.open( this.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE );
+		} catch ( IOException e ) {
+			Fatal.error( "Framework should ensure tmp files exist.", e );
+		}
+	}
+	
+	/** Tells if reads and writes go through a memory mapping. */
+	@Test.Decl( "False for default" )
+	@Test.Decl( "True for mapped" )
+	public boolean isMapped() {
+		return this.mapped;
+	}
+	
+	/* 
+	 * Ensure the mapping covers at least the given length, growing in MAP_CHUNK increments. 
+	 * A replaced mapping remains valid for readers still holding it.
+	 */
+	private synchronized MappedByteBuffer ensureMapped( int newLength ) throws IOException {
+		if ( this.map != null && this.map.capacity() >= newLength ) {
+			return this.map;
+		}
+		
+		long chunks = ((long) newLength + ByteFile.MAP_CHUNK - 1) / ByteFile.MAP_CHUNK;
+		long size = Math.min( chunks * ByteFile.MAP_CHUNK, Math.max( ByteFile.MAX_LENGTH, newLength ) );
+		size = Math.min( size, Integer.MAX_VALUE );
+		this.map = this.channel.map( FileChannel.MapMode.READ_WRITE, 0L, size );
+		return this.map;
+	}
+	
+	/* Grow the length, if needed, to cover bytes written up to newLength. */
+	private synchronized void extendTo( int newLength ) {
+		if ( newLength > this.length ) {
+			ByteFile.newBytes( newLength - this.length );
+			this.length = newLength;
+		}
 	}
 	
 	/**
@@ -131,8 +208,8 @@ public class ByteFile implements AutoCloseable {
 	 * 		Start location in {@code src} of data 
 	 * @param count
 	 * 		Number of bytes to write
-	 * @throws IOException
-	 * 		If {@code RandomAccessFile} operations fail or if the maximum length is exceeded.
+	 * @throws AppRuntime
+	 * 		If {@code FileChannel} operations fail or if the maximum length is exceeded.
 	 */
 	@Test.Decl( "Throws AssertionError for disposed" )
 	@Test.Decl( "Throws AssertionError for negative position" )
@@ -168,15 +245,20 @@ public class ByteFile implements AutoCloseable {
 		int newLength = Math.max( this.length, position + count );
 		Assert.isTrue( (long) newLength <= ByteFile.MAX_LENGTH );
 		
-		try ( RandomAccessFile raf = new RandomAccessFile( this.file, "rw" ) ) {
-			Assert.isTrue( (long) oldLength == raf.length() );
-			raf.seek( (long) position );
-			raf.write( src, offset, count );
-			Assert.isTrue( (long) newLength == raf.length() );
+		try {
+			if ( this.mapped ) {
+				this.ensureMapped( newLength ).put( position, src, offset, count );
+			} else {
+				Assert.isTrue( (long) oldLength == this.channel.size() );
+				ByteBuffer buf = ByteBuffer.wrap( src, offset, count );
+				long pos = position;
+				while ( buf.hasRemaining() ) {
+					pos += this.channel.write( buf, pos );
+				}
+				Assert.isTrue( (long) newLength == this.channel.size() );
+			}
 			this.length = newLength;
 			ByteFile.newBytes( newLength - oldLength );
-		} catch ( FileNotFoundException e ) {
-			Fatal.impossible( "Framework should ensure tmp files exist." );
 		} catch ( IOException e ) {
 			throw new AppRuntime( e );
 		}
@@ -189,8 +271,8 @@ public class ByteFile implements AutoCloseable {
 	 * 		Start location in this ByteFile for the source bytes
 	 * @param src
 	 * 		Bytes to be written
-	 * @throws IOException
-	 * 		If {@code RandomAccessFile} operations fail or if the maximum length is exceeded.
+	 * @throws AppRuntime
+	 * 		If {@code FileChannel} operations fail or if the maximum length is exceeded.
 	 */
 	@Test.Decl( "Throws AssertionError for disposed" )
 	@Test.Decl( "Throws AssertionError for negative position" )
@@ -207,6 +289,55 @@ public class ByteFile implements AutoCloseable {
 	public void write( int position, byte[] src ) {
 		this.write( position, Assert.nonNull( src ), 0, src.length );
 	}
+
+	/**
+	 * Write the remaining bytes of the buffer into this {@code ByteFile}. The buffer's position
+	 * is advanced to its limit. Direct buffers are written without an intermediate heap copy.
+	 * 
+	 * @param position
+	 * 		Start location in this ByteFile for the source bytes
+	 * @param src
+	 * 		Buffer holding the bytes to be written, from position to limit
+	 * @throws AppRuntime
+	 * 		If {@code FileChannel} operations fail
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative position" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Throws AssertionError for position + remaining > MAX_LENGTH" )
+	@Test.Decl( "Increases length if position + remaining > length" )
+	@Test.Decl( "Advances source position to limit" )
+	@Test.Decl( "Can recover bytes written from heap buffer" )
+	@Test.Decl( "Can recover bytes written from direct buffer" )
+	@Test.Decl( "Can recover bytes written when mapped" )
+	public void write( long position, ByteBuffer src ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( position >= 0L );
+		Assert.nonNull( src );
+		
+		int count = src.remaining();
+		if ( count == 0 ) {
+			return;
+		}
+		
+		Assert.isTrue( position + count <= ByteFile.MAX_LENGTH );
+		int end = (int) position + count;
+		
+		try {
+			if ( this.mapped ) {
+				this.ensureMapped( end ).put( (int) position, src, src.position(), count );
+				src.position( src.limit() );
+			} else {
+				long pos = position;
+				while ( src.hasRemaining() ) {
+					pos += this.channel.write( src, pos );
+				}
+			}
+			this.extendTo( end );
+		} catch ( IOException e ) {
+			throw new AppRuntime( e );
+		}
+	}
 	
 	/**
 	 * Determine if this {@code ByteFile} can hold {@code count} new bytes.
@@ -270,6 +401,90 @@ public class ByteFile implements AutoCloseable {
 		return this.append( Assert.nonNull( src ), 0, src.length );
 	}
 	
+	/**
+	 * Write the remaining bytes of each buffer, in order, starting at the given position.
+	 * The buffers go out in a single gathering write, so many small records cost one call.
+	 * Each buffer's position is advanced to its limit.
+	 * 
+	 * @param position
+	 * 		Start location in this ByteFile for the first buffer
+	 * @param srcs
+	 * 		Buffers holding the bytes to be written
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative position" )
+	@Test.Decl( "Throws AssertionError for null sources" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Throws AssertionError for position + total remaining > MAX_LENGTH" )
+	@Test.Decl( "Increases length if position + total remaining > length" )
+	@Test.Decl( "Buffers are contiguous in order" )
+	@Test.Decl( "Can recover bytes written when mapped" )
+	public void writeAll( long position, ByteBuffer... srcs ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( position >= 0L );
+		Assert.nonNull( srcs );
+		
+		long total = 0L;
+		for ( ByteBuffer src : srcs ) {
+			total += Assert.nonNull( src ).remaining();
+		}
+		
+		Assert.isTrue( position + total <= ByteFile.MAX_LENGTH );
+		if ( total == 0L ) {
+			return;
+		}
+		int end = (int) (position + total);
+		
+		try {
+			if ( this.mapped ) {
+				MappedByteBuffer m = this.ensureMapped( end );
+				int pos = (int) position;
+				for ( ByteBuffer src : srcs ) {
+					int count = src.remaining();
+					m.put( pos, src, src.position(), count );
+					src.position( src.limit() );
+					pos += count;
+				}
+			} else {
+				// The gathering write uses the channel position, shared by all writers
+				synchronized ( this.channel ) {
+					this.channel.position( position );
+					long written = 0L;
+					while ( written < total ) {
+						written += this.channel.write( srcs );
+					}
+				}
+			}
+			this.extendTo( end );
+		} catch ( IOException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
+	/**
+	 * Add the remaining bytes of each buffer, in order, to the end of this {@code ByteFile}.
+	 * The buffers go out in a single gathering write, so many small records cost one call.
+	 * Each buffer's position is advanced to its limit.
+	 * 
+	 * @param srcs
+	 * 		Buffers holding the bytes to be written
+	 * @return
+	 * 		The position in this {@code ByteFile} where the first buffer starts
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null sources" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Throws AssertionError for length + total remaining > MAX_LENGTH" )
+	@Test.Decl( "Increases length by total remaining" )
+	@Test.Decl( "Returns previous length" )
+	@Test.Decl( "Buffers are contiguous in order" )
+	@Test.Decl( "Can recover bytes written when mapped" )
+	public long appendAll( ByteBuffer... srcs ) {
+		long position = this.length;
+		this.writeAll( position, srcs );
+		return position;
+	}
+	
 	/**
 	 * Determine if this {@code ByteFile} can read {@code count} bytes at {@code position}.
 	 * 
@@ -296,8 +511,8 @@ public class ByteFile implements AutoCloseable {
 	 * 		Start position in the buffer.
 	 * @param count
 	 * 		Number of bytes to read.
-	 * @throws IOException
-	 * 		If {@code RandomAccessFile} operations fail or if the maximum length is exceeded.
+	 * @throws AppRuntime
+	 * 		If {@code FileChannel} operations fail or if the maximum length is exceeded.
 	 */
 	@Test.Decl( "Throws AssertionError for disposed" )
 	@Test.Decl( "Throws AssertionError for negative position" )
@@ -322,11 +537,19 @@ public class ByteFile implements AutoCloseable {
 			return;
 		}
 		
-		try ( RandomAccessFile raf = new RandomAccessFile( this.file, "r" ) ) {
-			raf.seek( position );
-			raf.read( dest, offset, count );
-		} catch ( FileNotFoundException e ) {
-			Fatal.impossible( "Framework should ensure tmp files exist." );
+		if ( this.mapped ) {
+			this.map.get( position, dest, offset, count );
+			return;
+		}
+		
+		try {
+			ByteBuffer buf = ByteBuffer.wrap( dest, offset, count );
+			long pos = position;
+			while ( buf.hasRemaining() ) {
+				int n = this.channel.read( buf, pos );
+				Assert.isTrue( n >= 0 );  // Unexpected end of file
+				pos += n;
+			}
 		} catch ( IOException e ) {
 			throw new AppRuntime( e );
 		}
@@ -353,6 +576,53 @@ public class ByteFile implements AutoCloseable {
 		this.read( position, result, 0, count );
 		return result;
 	}
+	
+	/**
+	 * Fill the remaining space of the destination buffer with bytes from this {@code ByteFile}.
+	 * The buffer's position is advanced to its limit. Direct buffers are filled without an 
+	 * intermediate heap copy.
+	 * 
+	 * @param position
+	 * 		Location in this {@code ByteFile} to start reading.
+	 * @param dest
+	 * 		Buffer to read into, from position to limit.
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative position" )
+	@Test.Decl( "Throws AssertionError for null destination" )
+	@Test.Decl( "Throws AssertionError for position + remaining > length" )
+	@Test.Decl( "Advances destination position to limit" )
+	@Test.Decl( "Read is consistent with write" )
+	@Test.Decl( "Read is consistent with write when mapped" )
+	public void read( long position, ByteBuffer dest ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( position >= 0L );
+		Assert.nonNull( dest );
+		int count = dest.remaining();
+		Assert.isTrue( position + count <= this.length );  // Read beyond end of file
+		
+		if ( count == 0 ) {
+			return;
+		}
+		
+		if ( this.mapped ) {
+			dest.put( dest.position(), this.map, (int) position, count );
+			dest.position( dest.limit() );
+			return;
+		}
+		
+		try {
+			long pos = position;
+			while ( dest.hasRemaining() ) {
+				int n = this.channel.read( dest, pos );
+				Assert.isTrue( n >= 0 );  // Unexpected end of file
+				pos += n;
+			}
+		} catch ( IOException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
 	/**
 	 * @return
 	 * 		The current length of the file in bytes
@@ -373,6 +643,16 @@ public class ByteFile implements AutoCloseable {
 	@Test.Decl( "Releases resources" )
 	@Test.Decl( "Idempotent" )
 	public void dispose() {
+		if ( this.channel != null ) {
+			try {
+				this.channel.close();
+			} catch ( IOException e ) {
+				// Closing a temporary file; the file is deleted next
+			}
+		}
+		this.channel = null;
+		this.map = null;
+		
 		if ( this.file != null && this.file.delete() ) {
 			ByteFile.newBytes( -1 * this.length );
 		}
@@ -22,8 +22,24 @@ package sog.core;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import sog.util.Concurrent;
 
 /**
  * A Cache implementation built on java SoftReferences.
@@ -32,30 +48,206 @@ import java.util.TreeMap;
  * and values (type parameter V) are retrieved from a map using soft references. When a softly
  * held value is garbage-collected the association is removed from the map and if subsequently
  * needed, the missing value is reconstructed on demand by the associated Builder.
+ * 
+ * The cache is safe for concurrent use. Lookups of held values never block. A miss installs
+ * an in-flight build for its key; concurrent misses on the same key wait for and share that
+ * single build, while misses on other keys build in parallel. References to collected values
+ * are removed a few at a time by each call to get().
+ * 
+ * Optional policies bound the cache independently of garbage collection. A cache configured
+ * with maximumSize() or maximumWeight() evicts its least recently used entries when the bound
+ * is exceeded, and entries configured to expire with expireAfterWrite() or expireAfterAccess()
+ * are discarded when next seen. Policies should be configured before the cache is used. The
+ * stats() snapshot reports hits, misses, loads, load time, evictions and collections.
+ * 
+ * Values can also be requested without blocking using getAsync(), which runs the builder on
+ * the executor of the cache. With refreshAfterWrite() a read of an entry that is due for
+ * refresh returns the current value and rebuilds the entry on the executor, so frequently
+ * read keys are replaced before they go stale and are not loaded on the request path.
+ * 
+ * A cache configured with secondTier() also writes each value it makes to a disk-backed
+ * store through a Codec. When a value is not held, because it was collected or evicted, the
+ * disk copy is decoded before the builder is used. The oldest disk copies are dropped when
+ * the store exceeds its bound.
  */
 @Test.Subject( "test." )
 public final class Cache<K extends Comparable<K>, V> {
 	
+	/** Maximum number of collected references removed from the map by a single call to get() */
+	private static int DRAIN_LIMIT = Property.get( "drainLimit", 64, Parser.INTEGER );
+	
+	/** Maximum number of recorded accesses waiting to be applied to the LRU order; beyond this they are dropped */
+	private static int ACCESS_BUFFER = Property.get( "accessBuffer", 1024, Parser.INTEGER );
+	
+	/** Number of worker threads in the executor shared by caches that do not configure their own */
+	private static int ASYNC_THREADS = Property.get( "asyncThreads", 4, Parser.INTEGER );
+	
+	/** Length in bytes of the segments of a second tier store; the oldest segment is dropped as a unit */
+	private static int DISK_SEGMENT_LENGTH = Property.get( "diskSegmentLength", 16 * 1024 * 1024, Parser.INTEGER );
+	
+	/* Created on first use so that caches without asynchronous loads start no threads. */
+	private static class Shared {
+		private static final Concurrent EXECUTOR = new Concurrent( "Cache", Cache.ASYNC_THREADS );
+	}
+	
 
 	/**
 	 * When the value corresponding to a key is not found in the cache
 	 * we use a Builder to make a value instance. The key must
 	 * contain all the information needed by the builder
-	 * to create the object. A Builder must never make null objects.
+	 * to create the object. A Builder must never make null objects,
+	 * and must not request its own key from the cache.
 	 */
 	@FunctionalInterface
 	public interface Builder<K, V> {
 		public V make( K key ) throws AppRuntime;
 	}
+	
+	/**
+	 * Makes the values for several keys in one call, for example with a single pass over
+	 * a file or a single query. The result must contain a non-null value for every given key;
+	 * entries for other keys are ignored.
+	 */
+	@FunctionalInterface
+	public interface BatchBuilder<K, V> {
+		public Map<K, V> makeAll( Collection<K> keys ) throws AppRuntime;
+	}
+
+	/**
+	 * Determines the contribution of an entry to the maximum weight of a cache.
+	 * Weights must be non-negative and are computed once when the value is made.
+	 */
+	@FunctionalInterface
+	public interface Weigher<K, V> {
+		public int weigh( K key, V value );
+	}
 
-	/** A SoftReference that also holds the key */
+	/**
+	 * Converts values to and from the bytes held by the second tier. decode( encode( v ) )
+	 * must produce a value equivalent to v.
+	 */
+	public interface Codec<V> {
+		public byte[] encode( V value );
+		
+		public V decode( byte[] bytes );
+	}
+
+	/**
+	 * A SoftReference that also holds the key, the bookkeeping used by expiration,
+	 * and the links of the LRU order. The links and the linked flag are guarded by
+	 * the policy lock.
+	 */
 	private static final class SoftRef<K, V> extends SoftReference<V> {
 
 		private final K key;
+		
+		private final int weight;
+		
+		private final long written;
+		
+		private volatile long accessed;
+		
+		private SoftRef<K, V> prev;
+		
+		private SoftRef<K, V> next;
+		
+		private boolean linked;
 
-		private SoftRef( K key, V value, ReferenceQueue<V> rq ) {
+		private SoftRef( K key, V value, ReferenceQueue<V> rq, int weight, long written ) {
 			super( value, rq );
 			this.key = Assert.nonNull( key );
+			this.weight = weight;
+			this.written = written;
+			this.accessed = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * An immutable snapshot of the counters of a cache.
+	 */
+	public static final class Stats {
+		
+		private final long hits;
+		private final long misses;
+		private final long loads;
+		private final long loadNanos;
+		private final long evictions;
+		private final long collected;
+		private final long diskHits;
+		
+		private Stats( long hits, long misses, long loads, long loadNanos, long evictions, long collected, long diskHits ) {
+			this.hits = hits;
+			this.misses = misses;
+			this.loads = loads;
+			this.loadNanos = loadNanos;
+			this.evictions = evictions;
+			this.collected = collected;
+			this.diskHits = diskHits;
+		}
+		
+		/** Number of calls to get() that found a held value. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Counts repeated gets" )
+		public long hits() {
+			return this.hits;
+		}
+		
+		/** Number of calls to get() that did not find a held value, including those that waited for another build. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Counts first get" )
+		public long misses() {
+			return this.misses;
+		}
+		
+		/** Number of calls to the builder or batch builder, whether or not they succeeded. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Counts failed builds" )
+		@Test.Decl( "Concurrent misses load once" )
+		public long loads() {
+			return this.loads;
+		}
+		
+		/** Total time in milliseconds spent in the builder. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Includes time spent building" )
+		public long loadMillis() {
+			return this.loadNanos / 1_000_000L;
+		}
+		
+		/** Number of entries removed by the size, weight or expiration policies. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Counts entries over maximum size" )
+		@Test.Decl( "Counts expired entries" )
+		public long evictions() {
+			return this.evictions;
+		}
+		
+		/** Number of entries removed because the value was garbage collected. */
+		@Test.Decl( "Consistent with Cache.collected()" )
+		public long collected() {
+			return this.collected;
+		}
+		
+		/** Number of misses answered from the second tier without calling the builder. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Counts values read from disk" )
+		public long diskHits() {
+			return this.diskHits;
+		}
+		
+		/** Ratio of hits to requests, or 1.0 if there have been no requests. */
+		@Test.Decl( "One at creation" )
+		@Test.Decl( "Consistent with hits and misses" )
+		public double hitRate() {
+			long requests = this.hits + this.misses;
+			return requests == 0L ? 1.0 : (double) this.hits / requests;
+		}
+		
+		@Override
+		@Test.Decl( "Result is not empty" )
+		public String toString() {
+			return String.format( "Stats(hits=%d, misses=%d, loads=%d, loadMillis=%d, evictions=%d, collected=%d, diskHits=%d)",
+				this.hits, this.misses, this.loads, this.loadMillis(), this.evictions, this.collected, this.diskHits );
 		}
 	}
 
@@ -67,29 +259,239 @@ public final class Cache<K extends Comparable<K>, V> {
 	private final ReferenceQueue<V> rq;
 
 	/** The contents of the cache are stored here. **/
-	private final SortedMap<K, SoftRef<K, V>> map;
+	private final ConcurrentMap<K, SoftRef<K, V>> map;
+	
+	/** Builds in progress. A key is present only while its value is being made. */
+	private final ConcurrentMap<K, CompletableFuture<V>> pending;
 
 	/** The number of Values that have been garbage collected. */
-	private int collected;
+	private final AtomicInteger collected;
+	
+	/** Statistics counters. */
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder loadNanos = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder diskHits = new LongAdder();
+	
+	/** Policy configuration. A maximum of zero means unbounded; an expiration of zero means never. */
+	private volatile long maximum = 0L;
+	private volatile Weigher<K, V> weigher = null;
+	private volatile long expireAfterWriteNanos = 0L;
+	private volatile long expireAfterAccessNanos = 0L;
+	private volatile long refreshAfterWriteNanos = 0L;
+	
+	/** Optional builder used by getAll() for the keys that are missing. */
+	private volatile BatchBuilder<K, V> batchBuilder = null;
+	
+	/** Optional disk-backed second tier. */
+	private volatile Disk disk = null;
+	
+	/** Runs asynchronous loads and refreshes. Null until configured or first needed. */
+	private volatile Executor executor = null;
+	
+	/** Guards the LRU order and the total weight. Only bounded caches use it. */
+	private final ReentrantLock policyLock = new ReentrantLock();
+	
+	/** Least recently used entry; evicted first. */
+	private SoftRef<K, V> first = null;
+	
+	/** Most recently used entry. */
+	private SoftRef<K, V> last = null;
+	
+	/** Sum of the weights of linked entries. */
+	private long weight = 0L;
+	
+	/** Hits waiting to be applied to the LRU order, so that readers never wait for the policy lock. */
+	private final ConcurrentLinkedQueue<SoftRef<K, V>> accesses = new ConcurrentLinkedQueue<SoftRef<K, V>>();
+	private final AtomicInteger accessCount = new AtomicInteger();
 	
 	/** Construct */
 	@Test.Decl( "Throws AssertionError for null builder" )
 	public Cache( Builder<K, V> builder ) {
 		this.builder = Assert.nonNull( builder );
 		this.rq = new ReferenceQueue<V>();
-		this.map = new TreeMap<K, SoftRef<K, V>>();
-		this.collected = 0;
+		this.map = new ConcurrentHashMap<K, SoftRef<K, V>>();
+		this.pending = new ConcurrentHashMap<K, CompletableFuture<V>>();
+		this.collected = new AtomicInteger();
+	}
+	
+	/**
+	 * Bound the number of entries. When a new entry would exceed the bound the least
+	 * recently used entries are evicted. Cannot be combined with maximumWeight().
+	 * 
+	 * @param maximumSize
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive size" )
+	@Test.Decl( "Throws AssertionError if maximum weight configured" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Size does not exceed maximum" )
+	@Test.Decl( "Evicts least recently used" )
+	@Test.Decl( "Recently read entries are retained" )
+	public Cache<K, V> maximumSize( long maximumSize ) {
+		Assert.isTrue( maximumSize > 0L );
+		Assert.isTrue( this.maximum == 0L );
+		this.weigher = (k, v) -> 1;
+		this.maximum = maximumSize;
+		return this;
+	}
+	
+	/**
+	 * Bound the total weight of entries as computed by the given Weigher. When a new entry
+	 * would exceed the bound the least recently used entries are evicted. An entry that alone
+	 * exceeds the bound is returned by get() but not retained. Cannot be combined with
+	 * maximumSize().
+	 * 
+	 * @param maximumWeight
+	 * @param weigher
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive weight" )
+	@Test.Decl( "Throws AssertionError for null weigher" )
+	@Test.Decl( "Throws AssertionError if maximum size configured" )
+	@Test.Decl( "Throws AssertionError for negative weights" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Total weight does not exceed maximum" )
+	@Test.Decl( "Zero weight entries are not evicted for weight" )
+	public Cache<K, V> maximumWeight( long maximumWeight, Weigher<K, V> weigher ) {
+		Assert.isTrue( maximumWeight > 0L );
+		Assert.nonNull( weigher );
+		Assert.isTrue( this.maximum == 0L );
+		this.weigher = weigher;
+		this.maximum = maximumWeight;
+		return this;
+	}
+	
+	/**
+	 * Discard entries the given number of milliseconds after their value was made.
+	 * 
+	 * @param millis
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive duration" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Rebuilds after expiration" )
+	@Test.Decl( "Reads do not extend lifetime" )
+	public Cache<K, V> expireAfterWrite( long millis ) {
+		Assert.isTrue( millis > 0L );
+		this.expireAfterWriteNanos = 1_000_000L * millis;
+		return this;
+	}
+	
+	/**
+	 * Discard entries that have not been read for the given number of milliseconds.
+	 * 
+	 * @param millis
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive duration" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Rebuilds after idle period" )
+	@Test.Decl( "Reads extend lifetime" )
+	public Cache<K, V> expireAfterAccess( long millis ) {
+		Assert.isTrue( millis > 0L );
+		this.expireAfterAccessNanos = 1_000_000L * millis;
+		return this;
+	}
+
+	/**
+	 * Rebuild entries the given number of milliseconds after their value was made. The
+	 * rebuild is triggered by the first read after the entry is due and runs on the executor
+	 * while readers continue to receive the current value. If the rebuild fails the current
+	 * value is kept. The duration should be shorter than any expireAfterWrite() duration.
+	 * 
+	 * @param millis
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive duration" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Serves current value during refresh" )
+	@Test.Decl( "Replaces value after refresh" )
+	@Test.Decl( "Failed refresh keeps current value" )
+	@Test.Decl( "Refreshes once per due entry" )
+	public Cache<K, V> refreshAfterWrite( long millis ) {
+		Assert.isTrue( millis > 0L );
+		this.refreshAfterWriteNanos = 1_000_000L * millis;
+		return this;
+	}
+	
+	/**
+	 * Use the given executor for getAsync() loads and refreshes. By default caches share
+	 * a Concurrent instance with asyncThreads workers.
+	 * 
+	 * @param executor
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for null executor" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Asynchronous loads run on executor" )
+	public Cache<K, V> executor( Executor executor ) {
+		this.executor = Assert.nonNull( executor );
+		return this;
+	}
+	
+	/**
+	 * Use the given BatchBuilder in getAll() to make all missing values in a single call.
+	 * Without one, getAll() makes each missing value with the Builder.
+	 * 
+	 * @param batchBuilder
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for null batch builder" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Missing keys are made in one call" )
+	@Test.Decl( "Not used by get()" )
+	public Cache<K, V> batchBuilder( BatchBuilder<K, V> batchBuilder ) {
+		this.batchBuilder = Assert.nonNull( batchBuilder );
+		return this;
+	}
+	
+	/**
+	 * Add a disk-backed second tier. Every value made by the builder is encoded with the codec
+	 * and written to the tier, and a miss on the heap reads the disk copy before building.
+	 * Disk copies follow the expiration policies of the cache, measured from when the value was
+	 * made. When the tier holds more than maximumBytes the oldest copies are dropped.
+	 * 
+	 * @param codec
+	 * @param maximumBytes
+	 * @return	this Cache instance to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for null codec" )
+	@Test.Decl( "Throws AssertionError for non-positive maximum" )
+	@Test.Decl( "Throws AssertionError if already configured" )
+	@Test.Decl( "Returns this Cache instance" )
+	@Test.Decl( "Evicted values are read from disk" )
+	@Test.Decl( "Collected values are read from disk" )
+	@Test.Decl( "Values read from disk are consistent" )
+	@Test.Decl( "Expired values are not read from disk" )
+	@Test.Decl( "Refresh replaces disk copy" )
+	@Test.Decl( "Oldest values are dropped beyond maximum" )
+	public Cache<K, V> secondTier( Codec<V> codec, long maximumBytes ) {
+		Assert.nonNull( codec );
+		Assert.isTrue( maximumBytes > 0L );
+		Assert.isTrue( this.disk == null );
+		this.disk = new Disk( codec, maximumBytes );
+		return this;
+	}
+	
+	private Executor getExecutor() {
+		if ( this.executor == null ) {
+			this.executor = Shared.EXECUTOR;
+		}
+		return this.executor;
 	}
 
 	/**
 	 * Return the value corresponding to the given key. If the value is not currently
-	 * held, the associated builder is used to construct an instance.
+	 * held, the associated builder is used to construct an instance. If another thread
+	 * is already building the value for the key the caller waits for that build.
 	 * 
 	 * @param key
 	 * @return
 	 * @throws AppRuntime		If the builder is unable to construct the value.
 	 */
-	@SuppressWarnings( "unchecked" )
 	@Test.Decl( "Throws AssertionError for null key" )
 	@Test.Decl( "Throws AssertionError if Builder produces null" )
 	@Test.Decl( "Throws AppRuntime if Builder throws exception" )
@@ -102,47 +504,513 @@ public final class Cache<K extends Comparable<K>, V> {
 	@Test.Decl( "Produces identical values for identical keys after collection" )
 	@Test.Decl( "Values before and after collection are equivalent" )
 	@Test.Decl( "Values before and after collection are not identical" )
+	@Test.Decl( "Concurrent misses on one key build once" )
+	@Test.Decl( "Concurrent misses share the built value" )
+	@Test.Decl( "Concurrent waiters see builder exception" )
+	@Test.Decl( "Failed build is not cached" )
+	@Test.Decl( "Slow build does not block other keys" )
 	public V get( K key ) throws AppRuntime {
 		Assert.nonNull( key );
-		V value = null;
-
-		synchronized ( this.map ) {
-			// Attempt to find a SoftRef for the given key and its associated Value
-			SoftRef<K, V> sr = this.map.get( key );
-			value = (sr == null) ? null : sr.get();
+		
+		// Before continuing we poll the reference queue to see if collection has occurred.
+		this.drain();
 
-			// If value == null there are a number of possible cases:
-			//		This is the first request for the desired SofRef and it has never been added to the map.
-			// 		The map does not contain a SoftRef for the key because it was removed.
-			//		The SoftRef is in the map but its value was collected before sr.get() completed.
+		// If value != null we now hold a strong reference to it, it cannot be collected,
+		// and the map holds the association
+		SoftRef<K, V> sr = this.map.get( key );
+		V value = this.live( sr );
+		if ( value != null ) {
+			this.hit( sr );
+			return value;
+		}
+		this.misses.increment();
 
-			// If value != null we now hold a strong reference to it, it cannot be collected,
-			// and the map holds the association
+		// Miss. Either join the build already in flight for this key or start our own.
+		CompletableFuture<V> mine = new CompletableFuture<V>();
+		CompletableFuture<V> theirs = this.pending.putIfAbsent( key, mine );
+		if ( theirs != null ) {
+			return this.await( theirs );
+		}
+		
+		return this.build( key, mine, false );
+	}
+	
+	/**
+	 * Return the values for the given keys, in the iteration order of the keys with duplicates
+	 * removed. Held values are returned directly. Keys that another thread is already building
+	 * wait for that build. All remaining keys are made together, by a single call to the
+	 * BatchBuilder if one is configured, and their values are added to the cache only after
+	 * every one of them has been made; if the batch fails none are added.
+	 * 
+	 * @param keys
+	 * @return
+	 * @throws AppRuntime		If the builder is unable to construct the values.
+	 */
+	@Test.Decl( "Throws AssertionError for null keys" )
+	@Test.Decl( "Throws AssertionError for null key" )
+	@Test.Decl( "Throws AssertionError if BatchBuilder omits a key" )
+	@Test.Decl( "Throws AppRuntime if BatchBuilder throws exception" )
+	@Test.Decl( "Empty for empty keys" )
+	@Test.Decl( "Results are in key order" )
+	@Test.Decl( "Duplicate keys are returned once" )
+	@Test.Decl( "Results consistent with get" )
+	@Test.Decl( "Held values are not rebuilt" )
+	@Test.Decl( "Uses Builder without BatchBuilder" )
+	@Test.Decl( "Failed batch adds no values" )
+	@Test.Decl( "Failed batch is seen by concurrent get" )
+	@Test.Decl( "Waits for builds in flight" )
+	public Map<K, V> getAll( Collection<K> keys ) throws AppRuntime {
+		Assert.nonNull( keys );
+		keys.forEach( Assert::nonNull );
+		this.drain();
+		
+		Map<K, V> result = new LinkedHashMap<K, V>();
+		Map<K, CompletableFuture<V>> mine = new LinkedHashMap<K, CompletableFuture<V>>();
+		Map<K, CompletableFuture<V>> theirs = new LinkedHashMap<K, CompletableFuture<V>>();
+		for ( K key : keys ) {
+			if ( result.containsKey( key ) || mine.containsKey( key ) || theirs.containsKey( key ) ) {
+				continue;
+			}
+			// Reserve the key's position in the result
+			result.put( key, null );
 			
-			// Before continuing we poll the reference queue to see if collection has occurred.
-			// If it has we can remove the associations from the map.
-			while ( (sr = (SoftRef<K, V>) this.rq.poll()) != null ) {
-				this.map.remove( sr.key );
-				this.collected++;
+			SoftRef<K, V> sr = this.map.get( key );
+			V value = this.live( sr );
+			if ( value != null ) {
+				this.hit( sr );
+				result.put( key, value );
+				continue;
+			}
+			this.misses.increment();
+			
+			CompletableFuture<V> future = new CompletableFuture<V>();
+			CompletableFuture<V> other = this.pending.putIfAbsent( key, future );
+			if ( other == null ) {
+				mine.put( key, future );
+			} else {
+				theirs.put( key, other );
+			}
+		}
+		
+		if ( !mine.isEmpty() ) {
+			result.putAll( this.buildAll( mine ) );
+		}
+		for ( Map.Entry<K, CompletableFuture<V>> e : theirs.entrySet() ) {
+			result.put( e.getKey(), this.await( e.getValue() ) );
+		}
+		
+		return result;
+	}
+	
+	/*
+	 * Make the values for the keys whose pending builds the caller has installed, admit them
+	 * together, and complete the futures. On failure every future completes exceptionally.
+	 */
+	private Map<K, V> buildAll( Map<K, CompletableFuture<V>> mine ) throws AppRuntime {
+		Map<K, V> values = new LinkedHashMap<K, V>();
+		try {
+			List<K> missing = new ArrayList<K>();
+			for ( K key : mine.keySet() ) {
+				V value = this.live( this.map.get( key ) );
+				if ( value == null ) {
+					value = this.fromDisk( key );
+				}
+				if ( value == null ) {
+					missing.add( key );
+				} else {
+					values.put( key, value );
+				}
+			}
+			
+			Map<K, V> made = this.makeAll( missing );
+			missing.forEach( key -> this.store( key, made.get( key ) ) );
+			values.putAll( made );
+			mine.forEach( (key, future) -> future.complete( values.get( key ) ) );
+		} catch ( Throwable t ) {
+			mine.values().forEach( future -> future.completeExceptionally( t ) );
+			throw t;
+		} finally {
+			mine.forEach( this.pending::remove );
+		}
+		
+		return values;
+	}
+	
+	/* Make the values with the BatchBuilder if configured, otherwise one at a time. */
+	private Map<K, V> makeAll( List<K> keys ) throws AppRuntime {
+		Map<K, V> values = new LinkedHashMap<K, V>();
+		if ( keys.isEmpty() ) {
+			return values;
+		}
+		
+		BatchBuilder<K, V> batch = this.batchBuilder;
+		if ( batch == null ) {
+			keys.forEach( key -> values.put( key, this.make( key ) ) );
+			return values;
+		}
+		
+		Map<K, V> made = null;
+		long start = System.nanoTime();
+		try {
+			made = batch.makeAll( List.copyOf( keys ) );
+		} catch ( Throwable t ) {
+			throw new AppRuntime( t );
+		} finally {
+			this.loads.increment();
+			this.loadNanos.add( System.nanoTime() - start );
+		}
+		Assert.nonNull( made );
+		for ( K key : keys ) {
+			values.put( key, Assert.nonNull( made.get( key ) ) );
+		}
+		return values;
+	}
+	
+	/**
+	 * Return a future for the value corresponding to the given key. If the value is held
+	 * the future is already complete. Otherwise the value is built on the executor of this
+	 * cache, or the future completes when a build already in flight for the key completes.
+	 * If the builder fails the future completes exceptionally with the failure reported by get().
+	 * 
+	 * Each call returns a distinct future; completing or cancelling it does not affect
+	 * other callers or the build.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	@Test.Decl( "Throws AssertionError for null key" )
+	@Test.Decl( "Completed for held value" )
+	@Test.Decl( "Completes with built value" )
+	@Test.Decl( "Builder runs on executor" )
+	@Test.Decl( "Shares build with concurrent get" )
+	@Test.Decl( "Completes exceptionally if Builder throws" )
+	@Test.Decl( "Completes exceptionally if executor rejects" )
+	@Test.Decl( "Cancelling does not affect other callers" )
+	public CompletableFuture<V> getAsync( K key ) {
+		Assert.nonNull( key );
+		this.drain();
+		
+		SoftRef<K, V> sr = this.map.get( key );
+		V value = this.live( sr );
+		if ( value != null ) {
+			this.hit( sr );
+			return CompletableFuture.completedFuture( value );
+		}
+		this.misses.increment();
+		
+		CompletableFuture<V> mine = new CompletableFuture<V>();
+		CompletableFuture<V> theirs = this.pending.putIfAbsent( key, mine );
+		if ( theirs != null ) {
+			return theirs.copy();
+		}
+		
+		this.submit( key, mine, false );
+		return mine.copy();
+	}
+	
+	/*
+	 * Make and admit the value for the key, completing the given future which the caller has
+	 * installed as the pending build. Unless refreshing, a value that arrived between the
+	 * caller's lookup and installing the future is used instead.
+	 */
+	private V build( K key, CompletableFuture<V> mine, boolean refresh ) throws AppRuntime {
+		V value = null;
+		try {
+			value = refresh ? null : this.live( this.map.get( key ) );
+			if ( value == null && !refresh ) {
+				value = this.fromDisk( key );
 			}
-
 			if ( value == null ) {
+				value = this.make( key );
+				this.store( key, value );
+			}
+			mine.complete( value );
+		} catch ( Throwable t ) {
+			mine.completeExceptionally( t );
+			throw t;
+		} finally {
+			// The map holds the value before the build is withdrawn, so there is no window in
+			// which a caller sees neither.
+			this.pending.remove( key, mine );
+		}
+		
+		return value;
+	}
+	
+	/* Run build() on the executor. Failures are reported through the future. */
+	private void submit( K key, CompletableFuture<V> mine, boolean refresh ) {
+		try {
+			this.getExecutor().execute( () -> {
 				try {
-					value = this.builder.make( key );
+					this.build( key, mine, refresh );
 				} catch ( Throwable t ) {
-					throw new AppRuntime( t );
+					// Already delivered to the future
 				}
-				this.map.put( key, new SoftRef<K, V>( key, Assert.nonNull( value ), this.rq ) );
+			} );
+		} catch ( Throwable t ) {
+			mine.completeExceptionally( t );
+			this.pending.remove( key, mine );
+		}
+	}
+	
+	/* Record a hit, and start a refresh if the entry is due and no build is in flight. */
+	private void hit( SoftRef<K, V> sr ) {
+		this.hits.increment();
+		this.touch( sr );
+		
+		if ( this.refreshAfterWriteNanos > 0L && System.nanoTime() - sr.written >= this.refreshAfterWriteNanos ) {
+			CompletableFuture<V> mine = new CompletableFuture<V>();
+			if ( this.pending.putIfAbsent( sr.key, mine ) == null ) {
+				this.submit( sr.key, mine, true );
 			}
 		}
-
+	}
+	
+	/* The held value, or null if absent, collected or expired. Expired entries are removed. */
+	private V live( SoftRef<K, V> sr ) {
+		V value = sr == null ? null : sr.get();
+		if ( value != null && this.expired( sr, System.nanoTime() ) ) {
+			if ( this.map.remove( sr.key, sr ) ) {
+				this.evictions.increment();
+				this.unlink( sr );
+			}
+			Disk d = this.disk;
+			if ( d != null ) {
+				d.remove( sr.key );
+			}
+			value = null;
+		}
+		return value;
+	}
+	
+	private boolean expired( SoftRef<K, V> sr, long now ) {
+		return (this.expireAfterWriteNanos > 0L && now - sr.written >= this.expireAfterWriteNanos)
+			|| (this.expireAfterAccessNanos > 0L && now - sr.accessed >= this.expireAfterAccessNanos);
+	}
+	
+	/* Admit a newly made value and write it to the second tier. */
+	private void store( K key, V value ) {
+		long now = System.nanoTime();
+		this.admit( key, value, now );
+		Disk d = this.disk;
+		if ( d != null ) {
+			d.put( key, value, now );
+		}
+	}
+	
+	/*
+	 * The value decoded from the second tier, admitted to the heap with its original write time,
+	 * or null if there is no current disk copy.
+	 */
+	private V fromDisk( K key ) {
+		Disk d = this.disk;
+		if ( d == null ) {
+			return null;
+		}
+		
+		Slot slot = d.slot( key );
+		if ( slot == null ) {
+			return null;
+		}
+		// Disk copies are not tracked on access, so an idle period is measured from the write
+		long now = System.nanoTime();
+		if ( (this.expireAfterWriteNanos > 0L && now - slot.written >= this.expireAfterWriteNanos)
+			|| (this.expireAfterAccessNanos > 0L && now - slot.written >= this.expireAfterAccessNanos) ) {
+			d.remove( key );
+			return null;
+		}
+		
+		V value = d.read( key, slot );
+		if ( value != null ) {
+			this.diskHits.increment();
+			this.admit( key, value, slot.written );
+		}
 		return value;
 	}
 	
+	/* Use the builder to make the value. Failures are reported as AppRuntime. */
+	private V make( K key ) throws AppRuntime {
+		V value = null;
+		long start = System.nanoTime();
+		try {
+			value = this.builder.make( key );
+		} catch ( Throwable t ) {
+			throw new AppRuntime( t );
+		} finally {
+			this.loads.increment();
+			this.loadNanos.add( System.nanoTime() - start );
+		}
+		return Assert.nonNull( value );
+	}
+	
+	/*
+	 * Record a hit. For a bounded cache the access is queued and applied to the LRU order
+	 * by whichever thread next holds the policy lock; a reader never waits for the lock.
+	 */
+	private void touch( SoftRef<K, V> sr ) {
+		if ( this.expireAfterAccessNanos > 0L ) {
+			sr.accessed = System.nanoTime();
+		}
+		if ( this.maximum > 0L ) {
+			if ( this.accessCount.incrementAndGet() <= Cache.ACCESS_BUFFER ) {
+				this.accesses.add( sr );
+			} else {
+				this.accessCount.decrementAndGet();
+			}
+			if ( this.policyLock.tryLock() ) {
+				try {
+					this.applyAccesses();
+				} finally {
+					this.policyLock.unlock();
+				}
+			}
+		}
+	}
+	
+	/* Add a newly made value. A bounded cache links the entry and evicts to restore the bound. */
+	private void admit( K key, V value, long written ) {
+		if ( this.maximum == 0L ) {
+			this.map.put( key, new SoftRef<K, V>( key, value, this.rq, 0, written ) );
+			return;
+		}
+		
+		SoftRef<K, V> sr = new SoftRef<K, V>( key, value, this.rq, Assert.nonNeg( this.weigher.weigh( key, value ) ), written );
+		this.policyLock.lock();
+		try {
+			this.applyAccesses();
+			SoftRef<K, V> old = this.map.put( key, sr );
+			if ( old != null ) {
+				this.unlinkLocked( old );
+			}
+			this.linkLocked( sr );
+			while ( this.weight > this.maximum && this.first != null ) {
+				SoftRef<K, V> victim = this.first;
+				this.unlinkLocked( victim );
+				if ( this.map.remove( victim.key, victim ) ) {
+					this.evictions.increment();
+				}
+			}
+		} finally {
+			this.policyLock.unlock();
+		}
+	}
+	
+	/* Move recently read entries to the end of the LRU order. Caller holds the policy lock. */
+	private void applyAccesses() {
+		SoftRef<K, V> sr = null;
+		while ( (sr = this.accesses.poll()) != null ) {
+			this.accessCount.decrementAndGet();
+			if ( sr.linked && sr != this.last ) {
+				this.unlinkLocked( sr );
+				this.linkLocked( sr );
+			}
+		}
+	}
+	
+	/* Remove the entry from the LRU order of a bounded cache. */
+	private void unlink( SoftRef<K, V> sr ) {
+		if ( this.maximum > 0L ) {
+			this.policyLock.lock();
+			try {
+				this.unlinkLocked( sr );
+			} finally {
+				this.policyLock.unlock();
+			}
+		}
+	}
+	
+	private void linkLocked( SoftRef<K, V> sr ) {
+		sr.prev = this.last;
+		sr.next = null;
+		if ( this.last == null ) {
+			this.first = sr;
+		} else {
+			this.last.next = sr;
+		}
+		this.last = sr;
+		sr.linked = true;
+		this.weight += sr.weight;
+	}
+	
+	private void unlinkLocked( SoftRef<K, V> sr ) {
+		if ( !sr.linked ) {
+			return;
+		}
+		if ( sr.prev == null ) {
+			this.first = sr.next;
+		} else {
+			sr.prev.next = sr.next;
+		}
+		if ( sr.next == null ) {
+			this.last = sr.prev;
+		} else {
+			sr.next.prev = sr.prev;
+		}
+		sr.prev = sr.next = null;
+		sr.linked = false;
+		this.weight -= sr.weight;
+	}
+	
+	/* Wait for another thread's build, rethrowing its failure. */
+	private V await( CompletableFuture<V> future ) throws AppRuntime {
+		try {
+			return future.join();
+		} catch ( CompletionException ex ) {
+			Throwable cause = ex.getCause();
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new AppRuntime( cause );
+		}
+	}
+	
+	/*
+	 * Remove up to DRAIN_LIMIT associations whose values have been collected. An association
+	 * is removed only if it still holds the collected reference; a key rebuilt since collection
+	 * keeps its new value.
+	 */
+	@SuppressWarnings( "unchecked" )
+	private void drain() {
+		SoftRef<K, V> sr = null;
+		for ( int i = 0; i < Cache.DRAIN_LIMIT && (sr = (SoftRef<K, V>) this.rq.poll()) != null; i++ ) {
+			if ( this.map.remove( sr.key, sr ) ) {
+				this.collected.incrementAndGet();
+				this.unlink( sr );
+			}
+		}
+	}
+	
 
+	/**
+	 * Remove all values, including those in the second tier.
+	 */
 	@Test.Decl( "Idempotent" )
+	@Test.Decl( "Clears second tier" )
 	public void clear() {
-		this.map.clear();
+		Disk d = this.disk;
+		if ( d != null ) {
+			d.clear();
+		}
+		
+		if ( this.maximum == 0L ) {
+			this.map.clear();
+			return;
+		}
+		
+		this.policyLock.lock();
+		try {
+			this.map.clear();
+			while ( this.first != null ) {
+				this.unlinkLocked( this.first );
+			}
+			this.accesses.clear();
+			this.accessCount.set( 0 );
+		} finally {
+			this.policyLock.unlock();
+		}
 	}
 	
 	/**
@@ -155,7 +1023,7 @@ public final class Cache<K extends Comparable<K>, V> {
 	@Test.Decl( "Greater than zero when the size of the map decreases" )
 	@Test.Decl( "collected() + size() is invariant across collections" )
 	public int collected() {
-		return this.collected;
+		return this.collected.get();
 	}
 	
 	/**
@@ -170,6 +1038,33 @@ public final class Cache<K extends Comparable<K>, V> {
 		return this.map.size();
 	}
 
+	/**
+	 * A snapshot of the statistics of this cache. Counters are read individually so a
+	 * snapshot taken during concurrent use may be slightly inconsistent.
+	 * 
+	 * @return
+	 */
+	@Test.Decl( "Not null" )
+	@Test.Decl( "Snapshot is unchanged by later use" )
+	public Stats stats() {
+		return new Stats( this.hits.sum(), this.misses.sum(), this.loads.sum(), this.loadNanos.sum(),
+			this.evictions.sum(), this.collected.get(), this.diskHits.sum() );
+	}
+	
+	/**
+	 * Release the file resources of the second tier. The cache remains usable without it.
+	 * Must not be called while the cache is in use by other threads.
+	 */
+	@Test.Decl( "Idempotent" )
+	@Test.Decl( "Cache is usable after dispose" )
+	public void dispose() {
+		Disk d = this.disk;
+		this.disk = null;
+		if ( d != null ) {
+			d.dispose();
+		}
+	}
+
 	@Override
 	@Test.Decl( "Result is not empty" )
 	public String toString() {
@@ -177,4 +1072,130 @@ public final class Cache<K extends Comparable<K>, V> {
 	}
 
 	
+	
+	/* Location and write time of a disk copy. */
+	private static final class Slot {
+		
+		private final long address;
+		
+		private final int length;
+		
+		private final long written;
+		
+		private Slot( long address, int length, long written ) {
+			this.address = address;
+			this.length = length;
+			this.written = written;
+		}
+	}
+	
+	/*
+	 * The second tier: encoded values appended to a SegmentedByteFile, located by an index
+	 * from key to slot. Whole segments are released, oldest first, to bound the file. Reads and
+	 * writes hold the read lock; releasing a segment holds the write lock.
+	 */
+	private final class Disk {
+		
+		private final Codec<V> codec;
+		
+		private final long maximumBytes;
+		
+		private final int segmentLength;
+		
+		private final SegmentedByteFile file;
+		
+		private final ConcurrentMap<K, Slot> index;
+		
+		private final ReadWriteLock lock;
+		
+		/* Index of the oldest segment not yet released; guarded by the write lock. */
+		private int oldest;
+		
+		private Disk( Codec<V> codec, long maximumBytes ) {
+			this.codec = codec;
+			this.maximumBytes = maximumBytes;
+			this.segmentLength = Cache.DISK_SEGMENT_LENGTH;
+			this.file = new SegmentedByteFile( false, this.segmentLength );
+			this.index = new ConcurrentHashMap<K, Slot>();
+			this.lock = new ReentrantReadWriteLock();
+			this.oldest = 0;
+		}
+		
+		/* Values too large for a segment are not written. */
+		private void put( K key, V value, long written ) {
+			byte[] bytes = Assert.nonNull( this.codec.encode( value ) );
+			if ( bytes.length > this.segmentLength ) {
+				return;
+			}
+			
+			this.lock.readLock().lock();
+			try {
+				long address = this.file.reserveWithinSegment( bytes.length );
+				this.file.write( address, bytes, 0, bytes.length );
+				this.index.put( key, new Slot( address, bytes.length, written ) );
+			} finally {
+				this.lock.readLock().unlock();
+			}
+			
+			if ( this.file.length() - (long) this.oldest * this.segmentLength > this.maximumBytes ) {
+				this.trim();
+			}
+		}
+		
+		private Slot slot( K key ) {
+			return this.index.get( key );
+		}
+		
+		/* Decode the copy at the slot, or null if its segment has been released. */
+		private V read( K key, Slot slot ) {
+			byte[] bytes = null;
+			this.lock.readLock().lock();
+			try {
+				if ( this.file.isReleased( this.file.segment( slot.address ) ) ) {
+					this.index.remove( key, slot );
+					return null;
+				}
+				bytes = this.file.read( slot.address, slot.length );
+			} finally {
+				this.lock.readLock().unlock();
+			}
+			return Assert.nonNull( this.codec.decode( bytes ) );
+		}
+		
+		private void remove( K key ) {
+			this.index.remove( key );
+		}
+		
+		private void clear() {
+			this.index.clear();
+		}
+		
+		/* Release the oldest segments, never the one being appended, until within the bound. */
+		private void trim() {
+			this.lock.writeLock().lock();
+			try {
+				int released = this.oldest;
+				while ( this.file.length() - (long) this.oldest * this.segmentLength > this.maximumBytes
+						&& this.oldest < this.file.segmentCount() - 1 ) {
+					this.file.release( this.oldest++ );
+				}
+				if ( this.oldest > released ) {
+					this.index.values().removeIf( slot -> this.file.segment( slot.address ) < this.oldest );
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		
+		private void dispose() {
+			this.lock.writeLock().lock();
+			try {
+				this.index.clear();
+				this.file.dispose();
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,536 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** *
+ * Sundquist
+ */
+package sog.core;
+
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implement byte array behavior with 64-bit addresses by chaining fixed-size ByteFile segments.
+ *
+ * Segment i holds the bytes with addresses in [i * SEGMENT_LENGTH, (i+1) * SEGMENT_LENGTH), so an
+ * address maps to its (segment, offset) pair with one division. Reads and writes that cross a
+ * segment boundary are split. New segments are created as the length grows; there is no search
+ * for space.
+ *
+ * The bytes are contiguous: a write may overwrite or extend the current contents but may not
+ * start beyond the current length.
+ *
+ * Space is claimed by atomically advancing the length, either implicitly by the append methods
+ * or explicitly with {@link #reserve(long)}. Threads may then write their reserved regions and
+ * read any completely written region concurrently without locking. Only segment creation is
+ * synchronized. Dispose is not safe while other operations are in progress.
+ *
+ * A segment whose contents are no longer needed may be released individually; addresses are
+ * never reused, so the remaining segments are unaffected.
+ */
+@Test.Subject( "test." )
+public class SegmentedByteFile implements AutoCloseable {
+
+	/* Configurable segment length in bytes (256 MB default). At most ByteFile.MAX_LENGTH. */
+	private static long SEGMENT_LENGTH = Property.get( "segmentLength", 256L * 1024 * 1024, Parser.LONG );
+
+
+	/* Segment length fixed at construction. */
+	private final int segmentLength;
+
+	/* When true segments are memory mapped. */
+	private final boolean mapped;
+
+	/* Segment i holds addresses starting at i * segmentLength; copy on write; null after dispose. */
+	private volatile ByteFile[] segments;
+
+	/* Current length in bytes, including reserved regions not yet written. */
+	private final AtomicLong length;
+
+	/**
+	 * Construct an empty {@code SegmentedByteFile}. Segments are backed by temporary files.
+	 */
+	@Test.Decl( "Creates empty file" )
+	@Test.Decl( "Creates open file" )
+	public SegmentedByteFile() {
+		this( false );
+	}
+
+	/**
+	 * Construct an empty {@code SegmentedByteFile} whose segments are optionally memory mapped.
+	 *
+	 * @param mapped
+	 * 		If true, each segment is a mapped {@code ByteFile}
+	 */
+	@Test.Decl( "Creates empty file" )
+	@Test.Decl( "Mapped file can recover bytes across segments" )
+	public SegmentedByteFile( boolean mapped ) {
+		this( mapped, (int) Math.min( SegmentedByteFile.SEGMENT_LENGTH, Integer.MAX_VALUE ) );
+	}
+
+	/**
+	 * Construct an empty {@code SegmentedByteFile} with the given segment length.
+	 *
+	 * @param mapped
+	 * 		If true, each segment is a mapped {@code ByteFile}
+	 * @param segmentLength
+	 * 		Number of bytes in each segment
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive segment length" )
+	@Test.Decl( "Throws AssertionError for segment length beyond ByteFile limit" )
+	@Test.Decl( "Segment boundaries follow segment length" )
+	public SegmentedByteFile( boolean mapped, int segmentLength ) {
+		Assert.positive( segmentLength );
+		Assert.isTrue( segmentLength <= ByteFile.MAX_LENGTH, "Segment length exceeds ByteFile.MAX_LENGTH" );
+		this.segmentLength = segmentLength;
+		this.mapped = mapped;
+		this.segments = new ByteFile[0];
+		this.length = new AtomicLong( 0L );
+	}
+
+	/**
+	 * The current length in bytes, including reserved regions
+	 *
+	 * @return
+	 */
+	@Test.Decl( "Length increases with append" )
+	@Test.Decl( "Length is sum of bytes appended" )
+	@Test.Decl( "Length increases with reserve" )
+	public long length() {
+		return this.length.get();
+	}
+
+	/**
+	 * Atomically claim the next {@code count} bytes at the end of this {@code SegmentedByteFile}.
+	 * The caller owns the region and is responsible for writing it before it is read.
+	 *
+	 * @param count
+	 * 		Number of bytes to reserve
+	 * @return
+	 * 		The address of the start of the reserved region
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative count" )
+	@Test.Decl( "Returns previous length" )
+	@Test.Decl( "Regions reserved concurrently are disjoint" )
+	@Test.Decl( "Reserved region can be written and read" )
+	public long reserve( long count ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( count >= 0L );
+		return this.length.getAndAdd( count );
+	}
+
+	/**
+	 * Atomically claim {@code count} bytes that lie within a single segment. If the region does
+	 * not fit in the rest of the current segment, the remainder of that segment is skipped and
+	 * never written.
+	 *
+	 * @param count
+	 * 		Number of bytes to reserve; at most the segment length
+	 * @return
+	 * 		The address of the start of the reserved region
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for count greater than segment length" )
+	@Test.Decl( "Returns previous length when region fits" )
+	@Test.Decl( "Skips to next segment when region does not fit" )
+	@Test.Decl( "Regions reserved concurrently are disjoint" )
+	public long reserveWithinSegment( int count ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.nonNeg( count );
+		Assert.lessThanOrEqual( count, this.segmentLength );
+
+		while ( true ) {
+			long current = this.length.get();
+			long start = current;
+			if ( this.offset( current ) + count > this.segmentLength ) {
+				start = (long) (this.segment( current ) + 1) * this.segmentLength;
+			}
+			if ( this.length.compareAndSet( current, start + count ) ) {
+				return start;
+			}
+		}
+	}
+
+	/**
+	 * The number of segments currently holding data.
+	 *
+	 * @return
+	 */
+	@Test.Decl( "Zero for new" )
+	@Test.Decl( "Consistent with length" )
+	public int segmentCount() {
+		return this.segments.length;
+	}
+
+	/** The index of the segment containing the given address. */
+	@Test.Decl( "Zero for address zero" )
+	@Test.Decl( "Increments at segment boundary" )
+	public int segment( long address ) {
+		return (int) (address / this.segmentLength);
+	}
+
+	/** The offset within its segment of the given address. */
+	@Test.Decl( "Zero at segment boundary" )
+	@Test.Decl( "Less than segment length" )
+	public int offset( long address ) {
+		return (int) (address % this.segmentLength);
+	}
+
+	/* The segment for the given index, creating it and any missing predecessors if needed. */
+	private ByteFile getSegment( int index ) {
+		ByteFile[] current = this.segments;
+		if ( index < current.length ) {
+			return Assert.nonNull( current[index] );  // Segment has been released
+		}
+		
+		synchronized ( this ) {
+			current = this.segments;
+			if ( index >= current.length ) {
+				ByteFile[] grown = Arrays.copyOf( current, index + 1 );
+				for ( int i = current.length; i < grown.length; i++ ) {
+					grown[i] = new ByteFile( this.mapped );
+				}
+				this.segments = grown;
+				current = grown;
+			}
+		}
+		return current[index];
+	}
+
+	/**
+	 * Write data from the source buffer into this {@code SegmentedByteFile}.
+	 *
+	 * @param address
+	 * 		Start location for the source bytes; at most the current length
+	 * @param src
+	 * 		Bytes to be written
+	 * @param offset
+	 * 		Start location in {@code src} of data
+	 * @param count
+	 * 		Number of bytes to write
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative address" )
+	@Test.Decl( "Throws AssertionError for address greater than length" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Throws AssertionError for offset + count > source.length" )
+	@Test.Decl( "Increases length if address + count > length" )
+	@Test.Decl( "Does not increase length if address + count <= length" )
+	@Test.Decl( "Can recover bytes written across a segment boundary" )
+	public void write( long address, byte[] src, int offset, int count ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( address >= 0L );
+		Assert.isTrue( address <= this.length.get() );
+		Assert.nonNull( src );
+		Assert.nonNeg( offset );
+		Assert.nonNeg( count );
+		Assert.lessThanOrEqual( offset + count, src.length );
+
+		this.write( address, ByteBuffer.wrap( src, offset, count ) );
+	}
+
+	/**
+	 * Write the remaining bytes of the buffer into this {@code SegmentedByteFile}. The buffer's
+	 * position is advanced to its limit.
+	 *
+	 * @param address
+	 * 		Start location for the source bytes; at most the current length
+	 * @param src
+	 * 		Buffer holding the bytes to be written, from position to limit
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for address greater than length" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Can recover bytes written across a segment boundary" )
+	public void write( long address, ByteBuffer src ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( address >= 0L );
+		Assert.isTrue( address <= this.length.get() );
+		Assert.nonNull( src );
+
+		long end = address + src.remaining();
+		long addr = address;
+		int limit = src.limit();
+		while ( src.hasRemaining() ) {
+			int segOffset = this.offset( addr );
+			int n = Math.min( src.remaining(), this.segmentLength - segOffset );
+			src.limit( src.position() + n );
+			this.getSegment( this.segment( addr ) ).write( segOffset, src );
+			src.limit( limit );
+			addr += n;
+		}
+
+		this.length.accumulateAndGet( end, Math::max );
+	}
+
+	/**
+	 * Add to the end of this {@code SegmentedByteFile}
+	 *
+	 * @param src
+	 * @param offset
+	 * @param count
+	 * @return
+	 * 		The address where the write starts
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Returns previous length" )
+	@Test.Decl( "Can recover bytes written with positive offset" )
+	public long append( byte[] src, int offset, int count ) {
+		Assert.nonNull( src );
+		Assert.nonNeg( count );
+		long address = this.reserve( count );
+		this.write( address, src, offset, count );
+		return address;
+	}
+
+	/**
+	 * Add to the end of this {@code SegmentedByteFile}
+	 *
+	 * @param src
+	 * @return
+	 * 		The address where the write starts
+	 */
+	@Test.Decl( "Throws AssertionError for null source" )
+	@Test.Decl( "Returns previous length" )
+	@Test.Decl( "Can recover bytes" )
+	public long append( byte[] src ) {
+		return this.append( Assert.nonNull( src ), 0, src.length );
+	}
+
+	/**
+	 * Add the remaining bytes of each buffer, in order, to the end of this {@code SegmentedByteFile}.
+	 * The space is reserved first so concurrent appends do not interleave. Buffers that fit in
+	 * one segment go out in a single gathering write.
+	 *
+	 * @param srcs
+	 * 		Buffers holding the bytes to be written
+	 * @return
+	 * 		The address where the first buffer starts
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null sources" )
+	@Test.Decl( "Returns previous length" )
+	@Test.Decl( "Buffers are contiguous in order" )
+	@Test.Decl( "Buffers are contiguous across a segment boundary" )
+	public long appendAll( ByteBuffer... srcs ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.nonNull( srcs );
+
+		long total = 0L;
+		for ( ByteBuffer src : srcs ) {
+			total += Assert.nonNull( src ).remaining();
+		}
+
+		long address = this.reserve( total );
+		if ( total == 0L ) {
+			return address;
+		}
+		
+		if ( (long) this.offset( address ) + total <= this.segmentLength ) {
+			this.getSegment( this.segment( address ) ).writeAll( this.offset( address ), srcs );
+		} else {
+			long addr = address;
+			for ( ByteBuffer src : srcs ) {
+				int n = src.remaining();
+				this.write( addr, src );
+				addr += n;
+			}
+		}
+
+		return address;
+	}
+
+	/**
+	 * Determine if this {@code SegmentedByteFile} can read {@code count} bytes at {@code address}.
+	 *
+	 * @param address
+	 * @param count
+	 * @return
+	 */
+	@Test.Decl( "True for small count" )
+	@Test.Decl( "False for large count" )
+	@Test.Decl( "False for disposed" )
+	public boolean canRead( long address, int count ) {
+		return this.isOpen() && address >= 0L && count >= 0 && address + count <= this.length.get();
+	}
+
+	/**
+	 * Read data from this {@code SegmentedByteFile} into the destination buffer.
+	 *
+	 * @param address
+	 * 		Location to start reading.
+	 * @param dest
+	 * 		Buffer to read into.
+	 * @param offset
+	 * 		Start position in the buffer.
+	 * @param count
+	 * 		Number of bytes to read.
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for negative address" )
+	@Test.Decl( "Throws AssertionError for null destination" )
+	@Test.Decl( "Throws AssertionError for address + count > length" )
+	@Test.Decl( "Read is consistent with write across a segment boundary" )
+	public void read( long address, byte[] dest, int offset, int count ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( address >= 0L );
+		Assert.nonNull( dest );
+		Assert.nonNeg( offset );
+		Assert.nonNeg( count );
+		Assert.lessThanOrEqual( offset + count, dest.length );
+		Assert.isTrue( address + count <= this.length.get() );  // Read beyond end of file
+
+		ByteFile[] current = this.segments;
+		long addr = address;
+		int off = offset;
+		int remaining = count;
+		while ( remaining > 0 ) {
+			int segOffset = this.offset( addr );
+			int n = Math.min( remaining, this.segmentLength - segOffset );
+			Assert.nonNull( current[this.segment( addr )] ).read( segOffset, dest, off, n );
+			addr += n;
+			off += n;
+			remaining -= n;
+		}
+	}
+
+	/**
+	 * Construct a new {@code byte} array and read into it.
+	 *
+	 * @param address
+	 * 		Location to start reading.
+	 * @param count
+	 * 		Number of bytes to read.
+	 * @return
+	 * 		The newly constructed byte array
+	 */
+	@Test.Decl( "Throws AssertionError for negative count" )
+	@Test.Decl( "Read is consistent with write" )
+	public byte[] read( long address, int count ) {
+		byte[] result = new byte[ Assert.nonNeg( count ) ];
+		this.read( address, result, 0, count );
+		return result;
+	}
+
+	/**
+	 * Fill the remaining space of the destination buffer. The buffer's position is advanced
+	 * to its limit.
+	 *
+	 * @param address
+	 * 		Location to start reading.
+	 * @param dest
+	 * 		Buffer to read into, from position to limit.
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for address + remaining > length" )
+	@Test.Decl( "Read is consistent with write across a segment boundary" )
+	public void read( long address, ByteBuffer dest ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.isTrue( address >= 0L );
+		Assert.nonNull( dest );
+		Assert.isTrue( address + dest.remaining() <= this.length.get() );  // Read beyond end of file
+
+		ByteFile[] current = this.segments;
+		long addr = address;
+		int limit = dest.limit();
+		while ( dest.hasRemaining() ) {
+			int segOffset = this.offset( addr );
+			int n = Math.min( dest.remaining(), this.segmentLength - segOffset );
+			dest.limit( dest.position() + n );
+			Assert.nonNull( current[this.segment( addr )] ).read( segOffset, dest );
+			dest.limit( limit );
+			addr += n;
+		}
+	}
+
+	/**
+	 * Dispose the given segment, returning its space. Addresses in the segment may no longer be
+	 * read or written. The caller must ensure no operation on the segment is in progress.
+	 *
+	 * @param index
+	 * 		Index of the segment to release
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for index beyond segment count" )
+	@Test.Decl( "Read from released segment throws AssertionError" )
+	@Test.Decl( "Other segments remain readable" )
+	@Test.Decl( "Idempotent" )
+	public void release( int index ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.nonNeg( index );
+
+		ByteFile segment = null;
+		synchronized ( this ) {
+			ByteFile[] current = this.segments;
+			Assert.lessThan( index, current.length );
+			segment = current[index];
+			if ( segment != null ) {
+				ByteFile[] copy = current.clone();
+				copy[index] = null;
+				this.segments = copy;
+			}
+		}
+
+		if ( segment != null ) {
+			segment.dispose();
+		}
+	}
+
+	/** Determine if the segment at the given index has been released */
+	@Test.Decl( "False for new segment" )
+	@Test.Decl( "True after release" )
+	public boolean isReleased( int index ) {
+		ByteFile[] current = this.segments;
+		return index < current.length && current[index] == null;
+	}
+
+	/** Determine if this {@code SegmentedByteFile} can accept read/write requests */
+	@Test.Decl( "True for new" )
+	@Test.Decl( "False after dispose" )
+	public boolean isOpen() {
+		return this.segments != null;
+	}
+
+	/** Close this {@code SegmentedByteFile} and release the resources of all segments. */
+	@Test.Decl( "Releases segments" )
+	@Test.Decl( "Idempotent" )
+	public void dispose() {
+		ByteFile[] current = this.segments;
+		this.segments = null;
+		if ( current != null ) {
+			Arrays.stream( current ).filter( s -> s != null ).forEach( ByteFile::dispose );
+		}
+	}
+
+	@Override
+	@Test.Decl( "Indicates length" )
+	@Test.Decl( "Indicates segment count" )
+	public String toString() {
+		ByteFile[] current = this.segments;
+		return "SegmentedByteFile(Length = " + this.length.get()
+			+ ", Segments = " + (current != null ? "" + current.length : "CLOSED") + ")";
+	}
+
+	@Override
+	@Test.Decl( "Idempotent" )
+	public void close() {
+		this.dispose();
+	}
+
+}
@@ -21,8 +21,9 @@ package sog.core;
 
 
 import java.lang.ref.SoftReference;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 /**
@@ -32,6 +33,12 @@ import java.util.List;
  * soft reference to the String (the payload) and a reference to ByteFile location that
  * maintains the String across collections.
  * 
+ * Each SoftString also keeps the String's hash code, length and a short prefix, so most calls to
+ * compareTo, equals and hashCode are decided without reloading a collected payload. Only strings
+ * that agree on all of these are compared in full.
+ * 
+ * Instances may be created from many threads; the backing StringStore does not serialize them.
+ * 
  * NOT thread safe
  */
 @Test.Subject( "test." )
@@ -40,41 +47,19 @@ public class SoftString implements Comparable<SoftString> {
 	/* Where the persistent data resides */
 	private static class Location {
 
-		private static final List<ByteFile> BYTE_FILES = new ArrayList<ByteFile>();
+		private static final StringStore STORE = new StringStore();
 		
-		private final int fileIndex;
-		private final int offset;
-		private final int length;
+		private final StringStore.Extent extent;
 				
 		private Location( String s ) {
-			byte[] data = s.getBytes();
-
-			synchronized ( Location.BYTE_FILES ) {
-				ByteFile file = null;
-				int i = 0;
-				while ( file == null && i < BYTE_FILES.size() ) {
-					if ( BYTE_FILES.get( i ).canAppend( data.length ) ) {
-						file = BYTE_FILES.get( i );
-					} else {
-						i++;
-					}
-				}
-				
-				if ( file == null ) {
-					file = new ByteFile();
-					BYTE_FILES.add( file );
-				}
-				
-				this.fileIndex = i;
-				this.offset = file.append( data );
-				this.length = data.length;
-			}
+			// The space is released once this Location is collected
+			this.extent = Location.STORE.put( s, this );
 		}
 	
 		@Override
 		@Test.Decl( "Consistent with constructed value" )
 		public String toString() {
-			return new String( BYTE_FILES.get( this.fileIndex ).read( this.offset, this.length ) );
+			return Location.STORE.get( this.extent );
 		}
 	}
 
@@ -82,6 +67,9 @@ public class SoftString implements Comparable<SoftString> {
 	/* Configurable minimum string length for soft references */
 	private static Integer THRESHOLD = Property.get( "threshold", 50, Parser.INTEGER );
 
+	/* Configurable number of leading characters kept inline for soft strings */
+	private static Integer PREFIX_LENGTH = Property.get( "prefixLength", 16, Parser.INTEGER );
+
 	
 	
 	private final String hard;
@@ -89,6 +77,15 @@ public class SoftString implements Comparable<SoftString> {
 	private final Location location;
 	
 	private SoftReference<String> soft;
+	
+	/* Same as String.hashCode() */
+	private final int hash;
+	
+	/* Number of characters */
+	private final int length;
+	
+	/* Leading characters; the whole string for hard references */
+	private final String prefix;
 
 	/**
 	 * Create string reference; if the length is less than {@code THRESHOLD} use a
@@ -102,17 +99,23 @@ public class SoftString implements Comparable<SoftString> {
 	@Test.Decl( "Can construct short strings" )
 	@Test.Decl( "Can construct long strings" )
 	@Test.Decl( "Strings longer or equal to threshold are soft" )
+	@Test.Decl( "Soft strings from short-lived threads do not pin buffers" )
 	public SoftString( String s ) {
 		Assert.nonNull( s );
 		
+		this.hash = s.hashCode();
+		this.length = s.length();
+		
 		if ( s.length() < SoftString.THRESHOLD ) {
 			this.hard = s;
 			this.location = null;
 			this.soft = null;
+			this.prefix = s;
 		} else {
 			this.hard = null;
 			this.location = new Location( s );
 			this.soft = new SoftReference<String>( s );
+			this.prefix = s.substring( 0, Math.min( s.length(), SoftString.PREFIX_LENGTH ) );
 		}
 	}
 	
@@ -137,11 +140,86 @@ public class SoftString implements Comparable<SoftString> {
 		return Assert.nonNull( result );
 	}
 	
+	/**
+	 * Determine if the value is available without reading the backing store.
+	 * 
+	 * @return
+	 */
+	@Test.Decl( "True for short strings" )
+	@Test.Decl( "True for new long strings" )
+	@Test.Decl( "False after collection" )
+	@Test.Decl( "True after reload" )
+	public boolean isLoaded() {
+		return this.location == null || this.soft.get() != null;
+	}
+	
+	/**
+	 * Reload every collected value among the given strings with one sorted, coalesced pass over
+	 * the backing store, instead of a random read per string.
+	 * 
+	 * @param strings
+	 * 		The strings to reload; loaded strings are skipped
+	 */
+	@Test.Decl( "Throws AssertionError for null collection" )
+	@Test.Decl( "Reloads collected values" )
+	@Test.Decl( "Values are consistent after reload" )
+	@Test.Decl( "Empty collection is a no-op" )
+	public static void reload( Collection<SoftString> strings ) {
+		List<SoftString> collected = Assert.nonNull( strings ).stream()
+			.filter( ss -> !ss.isLoaded() ).collect( Collectors.toList() );
+		if ( collected.isEmpty() ) {
+			return;
+		}
+		
+		String[] values = Location.STORE.getAll( 
+			collected.stream().map( ss -> ss.location.extent ).collect( Collectors.toList() ) );
+		for ( int i = 0; i < values.length; i++ ) {
+			collected.get( i ).soft = new SoftReference<String>( values[i] );
+		}
+	}
+	
+	/*
+	 * Agrees with String.compareTo(). The first difference within the common prefix, or a
+	 * prefix that covers a whole string, decides the result without reloading.
+	 */
 	@Override
 	@Test.Decl( "Can sort large collections" )
 	@Test.Decl( "Consistent with String.compareTo()" )
+	@Test.Decl( "Consistent with String.compareTo() after collection" )
+	@Test.Decl( "Differing prefixes resolve without reload" )
+	@Test.Decl( "Common prefix resolves with reload" )
 	public int compareTo( SoftString other ) {
-		return this.toString().compareTo( other.toString() );
+		int result = this.comparePrefix( other );
+		return result != 0 ? result : this.toString().compareTo( other.toString() );
+	}
+	
+	/*
+	 * Compare using at most PREFIX_LENGTH characters and the length, never reloading. Strings
+	 * longer than that are ordered by their first PREFIX_LENGTH characters only, which makes this
+	 * a consistent preorder for hard and soft strings alike. Agrees in sign with compareTo()
+	 * whenever it is non-zero; zero means the values must be read to decide.
+	 */
+	@Test.Decl( "Agrees with compareTo() when non-zero" )
+	@Test.Decl( "Zero for long strings with a common prefix" )
+	@Test.Decl( "Consistent for hard and soft strings with a common prefix" )
+	@Test.Decl( "Does not reload" )
+	int comparePrefix( SoftString other ) {
+		int width = SoftString.PREFIX_LENGTH;
+		int n = Math.min( width, Math.min( this.prefix.length(), other.prefix.length() ) );
+		for ( int i = 0; i < n; i++ ) {
+			char c1 = this.prefix.charAt( i );
+			char c2 = other.prefix.charAt( i );
+			if ( c1 != c2 ) {
+				return c1 - c2;
+			}
+		}
+		
+		if ( this.length <= width || other.length <= width ) {
+			// The compared characters cover one string, so it is a prefix of the other
+			return this.length - other.length;
+		}
+		
+		return 0;
 	}
 	
 	@Override
@@ -149,11 +227,16 @@ public class SoftString implements Comparable<SoftString> {
 	@Test.Decl( "SampleAction cases not equal" )
 	@Test.Decl( "If equals then compareTo is zero" )
 	@Test.Decl( "If compareTo is zero then equals" )
+	@Test.Decl( "Different hashes resolve without reload" )
 	public boolean equals( Object other ) {
 		boolean result = false;
 		
-		if ( other != null && this.getClass().equals( other.getClass() ) ) {
-			result = this.toString().equals( other.toString() );
+		if ( this == other ) {
+			result = true;
+		} else if ( other != null && this.getClass().equals( other.getClass() ) ) {
+			SoftString ss = (SoftString) other;
+			result = this.hash == ss.hash && this.length == ss.length 
+				&& this.prefix.equals( ss.prefix ) && this.toString().equals( ss.toString() );
 		}
 
 		return result;
@@ -161,8 +244,10 @@ public class SoftString implements Comparable<SoftString> {
 	
 	@Override
 	@Test.Decl( "If equals then hashCodes are the same" )
+	@Test.Decl( "Consistent with String.hashCode()" )
+	@Test.Decl( "Resolves without reload" )
 	public int hashCode() {
-		return this.toString().hashCode();
+		return this.hash;
 	}
 	
 	
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package sog.core;
+
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A list of SoftStrings that reloads collected values in batches.
+ * 
+ * Reading a value that has been collected also reloads the collected values of the elements that
+ * follow it, up to PREFETCH elements, in one sorted and coalesced pass over the backing store.
+ * Iterating the values therefore proceeds at close to sequential disk throughput instead of one
+ * random read per string. Sorting in natural order is decided by the inline prefixes of the
+ * elements, and only runs of elements that share a prefix are reloaded, one run at a time.
+ * 
+ * NOT thread safe
+ */
+@Test.Subject( "test." )
+public class SoftStringList implements Iterable<SoftString> {
+	
+	/* Configurable number of elements reloaded together */
+	private static Integer PREFETCH = Property.get( "prefetch", 1024, Parser.INTEGER );
+	
+	
+	private final List<SoftString> elements;
+	
+	/** Construct an empty list */
+	@Test.Decl( "Creates empty list" )
+	public SoftStringList() {
+		this.elements = new ArrayList<SoftString>();
+	}
+	
+	/**
+	 * Construct a list holding a SoftString for each of the given strings, in order.
+	 * 
+	 * @param strings
+	 */
+	@Test.Decl( "Throws AssertionError for null collection" )
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Values are consistent with collection" )
+	public SoftStringList( Collection<String> strings ) {
+		this();
+		for ( String s : Assert.nonNull( strings ) ) {
+			this.elements.add( new SoftString( s ) );
+		}
+	}
+	
+	/**
+	 * Append a SoftString for the given string.
+	 * 
+	 * @param s
+	 * @return
+	 * 		this {@code SoftStringList} to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for null string" )
+	@Test.Decl( "Increases size" )
+	@Test.Decl( "Value is consistent" )
+	@Test.Decl( "Returns this SoftStringList instance" )
+	public SoftStringList add( String s ) {
+		return this.add( new SoftString( s ) );
+	}
+	
+	/**
+	 * Append the given SoftString.
+	 * 
+	 * @param ss
+	 * @return
+	 * 		this {@code SoftStringList} to allow chaining
+	 */
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Increases size" )
+	@Test.Decl( "Returns this SoftStringList instance" )
+	public SoftStringList add( SoftString ss ) {
+		this.elements.add( Assert.nonNull( ss ) );
+		return this;
+	}
+	
+	/**
+	 * The element at the given index. The value is not loaded.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Test.Decl( "Throws IndexOutOfBoundsException for bad index" )
+	@Test.Decl( "Returns element at index" )
+	@Test.Decl( "Does not load value" )
+	public SoftString get( int index ) {
+		return this.elements.get( index );
+	}
+	
+	/** The number of elements */
+	@Test.Decl( "Zero for empty" )
+	@Test.Decl( "Consistent with elements added" )
+	public int size() {
+		return this.elements.size();
+	}
+	
+	/** The elements in order; values are not loaded. Does not support removal. */
+	@Override
+	@Test.Decl( "Consistent with get" )
+	@Test.Decl( "Remove throws UnsupportedOperationException" )
+	public Iterator<SoftString> iterator() {
+		return Collections.unmodifiableList( this.elements ).iterator();
+	}
+	
+	/**
+	 * The value of the element at the given index. If it has been collected, the collected
+	 * values of the following elements are reloaded with it.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Test.Decl( "Throws IndexOutOfBoundsException for bad index" )
+	@Test.Decl( "Consistent with added value" )
+	@Test.Decl( "Reloads following elements after collection" )
+	@Test.Decl( "Does not reload beyond prefetch window" )
+	public String getString( int index ) {
+		SoftString ss = this.elements.get( index );
+		if ( !ss.isLoaded() ) {
+			SoftString.reload( this.elements.subList( index, Math.min( this.size(), index + SoftStringList.PREFETCH ) ) );
+		}
+		return ss.toString();
+	}
+	
+	/**
+	 * The values of the elements in order, reloaded in batches.
+	 * 
+	 * @return
+	 */
+	@Test.Decl( "Empty for empty list" )
+	@Test.Decl( "Consistent with added values" )
+	@Test.Decl( "Consistent after collection" )
+	@Test.Decl( "Throws NoSuchElementException when exhausted" )
+	public Iterable<String> strings() {
+		return () -> new Iterator<String>() {
+			private int next = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return this.next < SoftStringList.this.size();
+			}
+			
+			@Override
+			public String next() {
+				if ( !this.hasNext() ) {
+					throw new NoSuchElementException();
+				}
+				return SoftStringList.this.getString( this.next++ );
+			}
+		};
+	}
+	
+	/**
+	 * Sort the elements. In natural order the elements are first sorted by prefix, which never
+	 * reads the backing store; each run of elements sharing a prefix is then reloaded in one pass
+	 * and sorted by value. A general comparator may inspect any part of the values, so for one
+	 * all values are first reloaded in batches and held until the sort completes.
+	 * 
+	 * @param c
+	 * 		Comparator for the elements, or null for natural order
+	 */
+	@Test.Decl( "Natural order for null comparator" )
+	@Test.Decl( "Consistent with comparator" )
+	@Test.Decl( "Consistent after collection" )
+	@Test.Decl( "Distinct prefixes sort without reload" )
+	@Test.Decl( "Common prefixes sort correctly after collection" )
+	@Test.Decl( "Mixed hard and soft strings with a common prefix sort correctly" )
+	public void sort( Comparator<? super SoftString> c ) {
+		if ( c == null || c.equals( Comparator.naturalOrder() ) ) {
+			this.elements.sort( SoftString::comparePrefix );
+			int from = 0;
+			while ( from < this.size() ) {
+				int to = from + 1;
+				while ( to < this.size() && this.elements.get( from ).comparePrefix( this.elements.get( to ) ) == 0 ) {
+					to++;
+				}
+				if ( to - from > 1 ) {
+					this.sortLoaded( this.elements.subList( from, to ), null );
+				}
+				from = to;
+			}
+		} else {
+			this.sortLoaded( this.elements, c );
+		}
+	}
+	
+	/* Reload the given elements in one pass and hold the values while sorting. */
+	private void sortLoaded( List<SoftString> run, Comparator<? super SoftString> c ) {
+		SoftString.reload( run );
+		String[] values = run.stream().map( SoftString::toString ).toArray( String[]::new );
+		run.sort( c );
+		Reference.reachabilityFence( values );
+	}
+	
+}
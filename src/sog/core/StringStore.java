@@ -0,0 +1,1051 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package sog.core;
+
+
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * A log-structured store for strings, backed by a SegmentedByteFile.
+ * 
+ * Each thread accumulates encoded strings in its own buffer. When the buffer fills, or on an
+ * explicit flush, the whole buffer goes to disk in one write at a region claimed by an atomic
+ * reservation, so writers never wait on each other's I/O. A string larger than a buffer is
+ * written directly.
+ * 
+ * A put returns an Extent. While the bytes are still buffered a get decodes them from the buffer;
+ * once flushed the extent records its place in the file and reads go to the file without locking.
+ * 
+ * Strings are encoded by a pluggable Codec; the default stores Latin-1 text at one byte per
+ * character. Optionally each flushed buffer is Deflate compressed as one block. A read then
+ * inflates only as much of the block as it needs.
+ * 
+ * A list of extents can be retrieved together. Their places are sorted and neighbouring extents
+ * are loaded with one read, so a large batch costs close to a sequential scan.
+ * 
+ * Buffers are not tied to thread lifetimes: background passes write the buffers of terminated
+ * threads and of threads that have stopped storing, and drop the former.
+ * 
+ * Space is reclaimed by segment. An extent is released explicitly or, when put with an owner,
+ * once the owner becomes unreachable. Compaction copies the live extents of mostly dead segments
+ * to the end of the file and then releases those segments. Readers never wait: each moved extent
+ * is switched to its new place before a grace period that lets reads of the old place finish.
+ * 
+ * Thread safe
+ */
+@Test.Subject( "test." )
+public final class StringStore implements AutoCloseable {
+	
+	/* Configurable per-thread write buffer size in bytes (64 KB default). */
+	private static int BUFFER_SIZE = Property.get( "bufferSize", 64 * 1024, Parser.INTEGER );
+	
+	/* Configurable name of the Encoding used by the default constructor. */
+	private static String ENCODING = Property.get( "encoding", "COMPACT", Parser.STRING );
+	
+	/* Configurable block compression for the default constructor. */
+	private static boolean COMPRESS = Property.get( "compress", false, Parser.BOOLEAN );
+	
+	/* Configurable segment length in bytes (64 MB default). The unit of reclamation, and the
+	 * largest block, so also a bound on the encoded size of one string. */
+	private static int SEGMENT_LENGTH = Property.get( "segmentLength", 64 * 1024 * 1024, Parser.INTEGER );
+	
+	/* Configurable percentage of live bytes at or below which a full segment is compacted. */
+	private static int COMPACT_PERCENT = Property.get( "compactPercent", 50, Parser.INTEGER );
+	
+	/* Configurable interval between background compaction passes; zero disables them. */
+	private static long COMPACT_MILLIS = Property.get( "compactMillis", 10_000L, Parser.LONG );
+	
+	/* Configurable largest gap in bytes between extents that are loaded by a single read. */
+	private static int COALESCE_GAP = Property.get( "coalesceGap", 16 * 1024, Parser.INTEGER );
+	
+	/* Releases the extents of collected owners. */
+	private static final Cleaner CLEANER = Cleaner.create();
+	
+	
+	/**
+	 * Converts between strings and the bytes held in the store.
+	 */
+	public interface Codec {
+		
+		/** The encoded bytes for the string */
+		public byte[] encode( String s );
+		
+		/** The string represented by {@code length} encoded bytes starting at {@code offset} */
+		public String decode( byte[] data, int offset, int length );
+	}
+	
+	
+	/**
+	 * The standard codecs. Decoding goes directly from the bytes to a String.
+	 */
+	public enum Encoding implements Codec {
+		
+		/** Any string; one to four bytes per character */
+		@Test.Skip( "Enumerated constant" )
+		UTF_8 {
+			@Override
+			public byte[] encode( String s ) {
+				return s.getBytes( StandardCharsets.UTF_8 );
+			}
+
+			@Override
+			public String decode( byte[] data, int offset, int length ) {
+				return new String( data, offset, length, StandardCharsets.UTF_8 );
+			}
+		},
+		
+		/** One byte per character; throws AssertionError for characters outside Latin-1 */
+		@Test.Skip( "Enumerated constant" )
+		LATIN_1 {
+			@Override
+			public byte[] encode( String s ) {
+				Assert.isTrue( Encoding.isLatin1( s ) );
+				return s.getBytes( StandardCharsets.ISO_8859_1 );
+			}
+
+			@Override
+			public String decode( byte[] data, int offset, int length ) {
+				return new String( data, offset, length, StandardCharsets.ISO_8859_1 );
+			}
+		},
+		
+		/** Latin-1 when possible, otherwise UTF-8; one leading byte records the choice */
+		@Test.Skip( "Enumerated constant" )
+		COMPACT {
+			@Override
+			public byte[] encode( String s ) {
+				boolean latin1 = Encoding.isLatin1( s );
+				byte[] chars = s.getBytes( latin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8 );
+				byte[] result = new byte[chars.length + 1];
+				result[0] = latin1 ? (byte) 0 : (byte) 1;
+				System.arraycopy( chars, 0, result, 1, chars.length );
+				return result;
+			}
+
+			@Override
+			public String decode( byte[] data, int offset, int length ) {
+				Assert.isTrue( length > 0 );
+				return data[offset] == 0 
+					? Encoding.LATIN_1.decode( data, offset + 1, length - 1 )
+					: Encoding.UTF_8.decode( data, offset + 1, length - 1 );
+			}
+		};
+		
+		private static boolean isLatin1( String s ) {
+			for ( int i = 0; i < s.length(); i++ ) {
+				if ( s.charAt( i ) > 0xFF ) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	
+	/* Where a written extent resides: the block address, the stored size of the block if 
+	 * compressed (zero if not), and the position of the bytes in the uncompressed block. */
+	private static final class Place {
+		
+		private final long address;
+		
+		private final int stored;
+		
+		private final int offset;
+		
+		private Place( long address, int stored, int offset ) {
+			this.address = address;
+			this.stored = stored;
+			this.offset = offset;
+		}
+	}
+	
+	
+	/**
+	 * Handle for a stored string.
+	 */
+	public static final class Extent {
+		
+		/* Number of encoded bytes. */
+		private final int length;
+		
+		/* Position of the bytes in the pending batch's buffer. */
+		private final int offset;
+		
+		/* The batch holding the bytes until flushed; null once written. Cleared after place is set. */
+		private volatile Batch pending;
+		
+		/* Location in the file once written; replaced when the extent is moved. */
+		private volatile Place place;
+		
+		/* Released while pending; guarded by the pending batch. */
+		private boolean dead;
+		
+		private Extent( int length, Batch pending, int offset ) {
+			this.length = length;
+			this.offset = offset;
+			this.pending = pending;
+			this.place = null;
+			this.dead = false;
+		}
+		
+		/** The number of encoded bytes */
+		@Test.Decl( "Zero for empty string" )
+		@Test.Decl( "Consistent with encoded length" )
+		public int length() {
+			return this.length;
+		}
+		
+		/** True if the bytes have been written to the file */
+		@Test.Decl( "False before flush" )
+		@Test.Decl( "True after flush" )
+		@Test.Decl( "True for oversize string" )
+		public boolean isWritten() {
+			return this.pending == null;
+		}
+		
+		@Override
+		@Test.Decl( "Indicates length" )
+		@Test.Decl( "Indicates pending" )
+		public String toString() {
+			Place p = this.place;
+			return "Extent(Length = " + this.length + ", Address = " 
+				+ (p == null ? "PENDING" : "" + (p.address + (p.stored == 0 ? p.offset : 0))) + ")";
+		}
+	}
+	
+	
+	/* Bytes staged for one block: new extents (origin null) or extents being moved. */
+	private static final class Entry {
+		
+		private final Extent extent;
+		
+		private final Place origin;
+		
+		private final int offset;
+		
+		private Entry( Extent extent, Place origin, int offset ) {
+			this.extent = extent;
+			this.origin = origin;
+			this.offset = offset;
+		}
+	}
+	
+	
+	/* Accounting for one segment of the file; guarded by its own lock. */
+	private static final class Segment {
+		
+		/* Extents currently placed in this segment. */
+		private final Set<Extent> extents = new HashSet<Extent>();
+		
+		/* Encoded bytes ever placed in this segment. */
+		private long written = 0L;
+		
+		/* Encoded bytes of the extents currently placed here. */
+		private long live = 0L;
+		
+		private void add( Extent extent ) {
+			if ( this.extents.add( extent ) ) {
+				this.live += extent.length;
+			}
+		}
+		
+		private boolean remove( Extent extent ) {
+			boolean result = this.extents.remove( extent );
+			if ( result ) {
+				this.live -= extent.length;
+			}
+			return result;
+		}
+	}
+	
+	
+	/* Write buffer. Per-thread batches are only added to by their owner; the lock is contended
+	 * only by readers of pending extents and by flushes from other threads. */
+	private final class Batch {
+		
+		private final Thread owner;
+		
+		private final byte[] buffer;
+		
+		private int used;
+		
+		private final List<Entry> entries;
+		
+		/* Set by each add; cleared by each sweep, so a pending batch left clear is idle. */
+		private boolean touched;
+		
+		private Batch() {
+			this.owner = Thread.currentThread();
+			this.buffer = new byte[StringStore.this.bufferSize];
+			this.used = 0;
+			this.entries = new ArrayList<Entry>();
+			this.touched = false;
+		}
+		
+		private synchronized Extent add( byte[] data ) {
+			if ( this.used + data.length > this.buffer.length ) {
+				this.flush();
+			}
+			this.touched = true;
+			
+			Extent extent = new Extent( data.length, this, this.used );
+			System.arraycopy( data, 0, this.buffer, this.used, data.length );
+			this.entries.add( new Entry( extent, null, this.used ) );
+			this.used += data.length;
+			return extent;
+		}
+		
+		/* Stage a written extent for a move; it keeps its current place until the flush. */
+		private synchronized void move( Extent extent, Place origin, byte[] data, int offset ) {
+			if ( this.used + extent.length > this.buffer.length ) {
+				this.flush();
+			}
+			
+			System.arraycopy( data, offset, this.buffer, this.used, extent.length );
+			this.entries.add( new Entry( extent, origin, this.used ) );
+			this.used += extent.length;
+		}
+		
+		private synchronized void flush() {
+			if ( this.used == 0 ) {
+				return;
+			}
+			
+			StringStore.this.store( this.buffer, this.used, this.entries );
+			this.entries.clear();
+			this.used = 0;
+		}
+		
+		/* True if bytes are pending and nothing was added since the previous call. */
+		private synchronized boolean idle() {
+			boolean result = this.used > 0 && !this.touched;
+			this.touched = false;
+			return result;
+		}
+		
+		/* Decode the bytes if still pending; null if the extent has been written. */
+		private synchronized String read( Extent extent ) {
+			if ( extent.pending == null ) {
+				return null;
+			}
+			
+			return StringStore.this.codec.decode( this.buffer, extent.offset, extent.length );
+		}
+		
+		/* Mark a pending extent dead so it is never placed; false if already written. */
+		private synchronized boolean kill( Extent extent ) {
+			if ( extent.pending == null ) {
+				return false;
+			}
+			
+			extent.dead = true;
+			return true;
+		}
+	}
+	
+	
+	/* Holds the flushed bytes. */
+	private final SegmentedByteFile file;
+	
+	/* Buffer size fixed at construction. */
+	private final int bufferSize;
+	
+	/* Converts strings to stored bytes. */
+	private final Codec codec;
+	
+	/* When true each flushed block is deflated. */
+	private final boolean compress;
+	
+	/* The calling thread's buffer. */
+	private final ThreadLocal<Batch> local;
+	
+	/* The buffer of every live thread that has stored a string, so that flush can reach other
+	 * threads' pending bytes. Buffers of terminated threads are written and dropped by sweep. */
+	private final List<Batch> batches;
+	
+	/* Accounting for each segment holding blocks, by segment index. */
+	private final Map<Integer, Segment> segments;
+	
+	/* Block writes hold the read lock from reservation until their extents are placed; compaction
+	 * takes the write lock briefly to find the segments that no write will touch again. */
+	private final ReadWriteLock sealing;
+	
+	/* Readers of the file announce themselves in the counter for the current epoch. */
+	private final LongAdder[] readers;
+	
+	/* Advanced by compaction to start a grace period. */
+	private volatile int epoch;
+	
+	/* Runs periodic compaction; null if disabled. */
+	private final Thread compactor;
+
+	
+	/**
+	 * Construct an empty {@code StringStore} with the configured encoding and compression.
+	 */
+	@Test.Decl( "Creates empty store" )
+	@Test.Decl( "Creates open store" )
+	@Test.Decl( "Uses configured encoding" )
+	public StringStore() {
+		this( Encoding.valueOf( StringStore.ENCODING ), StringStore.COMPRESS );
+	}
+	
+	/**
+	 * Construct an empty {@code StringStore}.
+	 * 
+	 * @param codec
+	 * 		Converts strings to stored bytes
+	 * @param compress
+	 * 		If true, flushed blocks are Deflate compressed
+	 */
+	@Test.Decl( "Throws AssertionError for null codec" )
+	@Test.Decl( "Creates empty store" )
+	@Test.Decl( "Compressed store is consistent" )
+	@Test.Decl( "Compressed store is smaller for repetitive text" )
+	@Test.Decl( "Background compaction releases dead segments" )
+	@Test.Decl( "Background pass writes buffers of terminated threads" )
+	@Test.Decl( "Background pass writes idle buffers" )
+	public StringStore( Codec codec, boolean compress ) {
+		Assert.isTrue( StringStore.BUFFER_SIZE > 0 );
+		Assert.lessThanOrEqual( StringStore.BUFFER_SIZE, StringStore.SEGMENT_LENGTH );
+		this.codec = Assert.nonNull( codec );
+		this.compress = compress;
+		this.file = new SegmentedByteFile( false, StringStore.SEGMENT_LENGTH );
+		this.bufferSize = StringStore.BUFFER_SIZE;
+		this.local = ThreadLocal.withInitial( this::newBatch );
+		this.batches = new ArrayList<Batch>();
+		this.segments = new ConcurrentHashMap<Integer, Segment>();
+		this.sealing = new ReentrantReadWriteLock();
+		this.readers = new LongAdder[] { new LongAdder(), new LongAdder() };
+		this.epoch = 0;
+		
+		if ( StringStore.COMPACT_MILLIS > 0L ) {
+			this.compactor = new Thread( this::compactPeriodically, "StringStore compactor" );
+			this.compactor.setDaemon( true );
+			this.compactor.start();
+		} else {
+			this.compactor = null;
+		}
+	}
+	
+	private Batch newBatch() {
+		Batch batch = new Batch();
+		synchronized ( this.batches ) {
+			this.batches.add( batch );
+		}
+		this.sweep( false );
+		return batch;
+	}
+	
+	/* Write and drop the buffers of terminated threads, which would otherwise hold their pending
+	 * strings, their buffers and the threads themselves. If idle is true, also write buffers that
+	 * have had nothing added since the previous sweep. */
+	private void sweep( boolean idle ) {
+		List<Batch> stale = new ArrayList<Batch>();
+		synchronized ( this.batches ) {
+			Iterator<Batch> iter = this.batches.iterator();
+			while ( iter.hasNext() ) {
+				Batch batch = iter.next();
+				if ( !batch.owner.isAlive() ) {
+					iter.remove();
+					stale.add( batch );
+				} else if ( idle && batch.idle() ) {
+					stale.add( batch );
+				}
+			}
+		}
+		
+		for ( Batch batch : stale ) {
+			batch.flush();
+		}
+	}
+	
+	/**
+	 * Store the string. Only the calling thread's buffer is locked, and only briefly unless the
+	 * buffer is full.
+	 * 
+	 * @param s
+	 * 		The string to store
+	 * @return
+	 * 		The extent used to retrieve the string
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null string" )
+	@Test.Decl( "Throws AssertionError for non Latin-1 with LATIN_1" )
+	@Test.Decl( "Short strings are pending" )
+	@Test.Decl( "Full buffer is flushed" )
+	@Test.Decl( "Oversize strings are written directly" )
+	@Test.Decl( "Concurrent puts are consistent" )
+	@Test.Decl( "Buffers of terminated threads do not accumulate" )
+	public Extent put( String s ) {
+		Assert.isTrue( this.isOpen() );
+		byte[] data = this.codec.encode( Assert.nonNull( s ) );
+		
+		if ( data.length > this.bufferSize ) {
+			Extent extent = new Extent( data.length, null, 0 );
+			this.store( data, data.length, List.of( new Entry( extent, null, 0 ) ) );
+			return extent;
+		}
+		
+		return this.local.get().add( data );
+	}
+	
+	/**
+	 * Store the string and release it automatically once the owner is unreachable.
+	 * 
+	 * @param s
+	 * 		The string to store
+	 * @param owner
+	 * 		The object whose lifetime bounds the string's; must not be reachable from the action
+	 * @return
+	 * 		The extent used to retrieve the string
+	 */
+	@Test.Decl( "Throws AssertionError for null owner" )
+	@Test.Decl( "Consistent with put" )
+	@Test.Decl( "Releases extent after owner is collected" )
+	public Extent put( String s, Object owner ) {
+		Assert.nonNull( owner );
+		Extent extent = this.put( s );
+		StringStore.CLEANER.register( owner, () -> this.release( extent ) );
+		return extent;
+	}
+	
+	/* 
+	 * Write the first count bytes of data as one block within a segment and place the entries.
+	 * Holds the sealing read lock throughout, so compaction never sees a segment with unplaced bytes.
+	 */
+	private void store( byte[] data, int count, List<Entry> entries ) {
+		byte[] block = this.compress ? StringStore.deflate( data, count ) : data;
+		int blockLength = this.compress ? block.length : count;
+		int stored = this.compress ? block.length : 0;
+		Assert.lessThanOrEqual( blockLength, StringStore.SEGMENT_LENGTH );  // String too large
+		
+		this.sealing.readLock().lock();
+		try {
+			long address = this.file.reserveWithinSegment( blockLength );
+			this.file.write( address, block, 0, blockLength );
+			
+			Segment target = this.segment( address );
+			for ( Entry entry : entries ) {
+				Extent extent = entry.extent;
+				Place place = new Place( address, stored, entry.offset );
+				if ( entry.origin == null ) {
+					synchronized ( target ) {
+						target.written += extent.length;
+						if ( !extent.dead ) {
+							extent.place = place;
+							target.add( extent );
+						}
+					}
+					extent.pending = null;
+				} else {
+					Segment source = this.segment( entry.origin.address );
+					synchronized ( source ) {
+						// Skip extents released since the move was staged
+						if ( extent.place == entry.origin && source.remove( extent ) ) {
+							extent.place = place;
+							synchronized ( target ) {
+								target.add( extent );
+							}
+						}
+					}
+					synchronized ( target ) {
+						target.written += extent.length;
+					}
+				}
+			}
+		} finally {
+			this.sealing.readLock().unlock();
+		}
+	}
+	
+	/* Accounting for the segment holding the address. */
+	private Segment segment( long address ) {
+		return this.segments.computeIfAbsent( this.file.segment( address ), k -> new Segment() );
+	}
+	
+	/**
+	 * Retrieve a stored string. Reads of flushed extents do not lock.
+	 * 
+	 * @param extent
+	 * 		Extent returned by {@code put}
+	 * @return
+	 * 		The stored string
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null extent" )
+	@Test.Decl( "Consistent with put for pending" )
+	@Test.Decl( "Consistent with put for written" )
+	@Test.Decl( "Consistent with put for oversize" )
+	@Test.Decl( "Consistent with put for empty" )
+	@Test.Decl( "Pending extent can be read by other threads" )
+	@Test.Decl( "Consistent with put for compressed" )
+	@Test.Decl( "Consistent with put for compressed oversize" )
+	@Test.Decl( "Consistent with put for non Latin-1" )
+	@Test.Decl( "Consistent with put after compaction" )
+	public String get( Extent extent ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.nonNull( extent );
+		
+		Batch batch = extent.pending;
+		String result = batch == null ? null : batch.read( extent );
+		if ( result != null ) {
+			return result;
+		}
+		
+		// Compaction does not release a segment until readers of the prior epoch are done
+		LongAdder active = this.enterRead();
+		try {
+			Place place = Assert.nonNull( extent.place );  // Released before it was written
+			if ( place.stored == 0 ) {
+				byte[] data = this.file.read( place.address + place.offset, extent.length );
+				return this.codec.decode( data, 0, data.length );
+			}
+			
+			byte[] block = this.file.read( place.address, place.stored );
+			byte[] data = StringStore.inflate( block, place.offset + extent.length );
+			return this.codec.decode( data, place.offset, extent.length );
+		} finally {
+			active.decrement();
+		}
+	}
+	
+	/**
+	 * Retrieve several stored strings with sorted, coalesced reads. Extents in the same block,
+	 * or within {@code coalesceGap} bytes of each other in the same segment, are loaded by one
+	 * read; each compressed block is inflated once.
+	 * 
+	 * @param extents
+	 * 		Extents returned by {@code put}, in any order
+	 * @return
+	 * 		The stored strings, in the order of the extents
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Throws AssertionError for null extents" )
+	@Test.Decl( "Throws AssertionError for null extent" )
+	@Test.Decl( "Empty for empty" )
+	@Test.Decl( "Consistent with get in given order" )
+	@Test.Decl( "Consistent with get for pending" )
+	@Test.Decl( "Consistent with get for compressed" )
+	@Test.Decl( "Consistent with get for repeated extent" )
+	@Test.Decl( "Consistent with get across segments" )
+	public String[] getAll( List<Extent> extents ) {
+		Assert.isTrue( this.isOpen() );
+		Assert.nonNull( extents );
+		
+		String[] result = new String[extents.size()];
+		Extent[] written = new Extent[result.length];
+		Place[] places = new Place[result.length];
+		List<Integer> order = new ArrayList<Integer>();
+		for ( int i = 0; i < result.length; i++ ) {
+			Extent extent = Assert.nonNull( extents.get( i ) );
+			Batch batch = extent.pending;
+			result[i] = batch == null ? null : batch.read( extent );
+			if ( result[i] == null ) {
+				written[i] = extent;
+				order.add( i );
+			}
+		}
+		
+		LongAdder active = this.enterRead();
+		try {
+			for ( int i : order ) {
+				places[i] = Assert.nonNull( written[i].place );  // Released before it was written
+			}
+			order.sort( (i, j) -> places[i].address != places[j].address 
+				? Long.compare( places[i].address, places[j].address ) 
+				: Integer.compare( places[i].offset, places[j].offset ) );
+			
+			int first = 0;
+			while ( first < order.size() ) {
+				// Extend the run while the next extent is in the same block or close by in the same segment
+				Place start = places[order.get( first )];
+				long runStart = start.address + (start.stored == 0 ? start.offset : 0);
+				long runEnd = start.stored == 0 ? runStart : 0L;
+				int last = first;
+				while ( last < order.size() ) {
+					int k = order.get( last );
+					Place place = places[k];
+					if ( start.stored != 0 || place.stored != 0 ) {
+						if ( place.address != start.address ) {
+							break;
+						}
+						runEnd = Math.max( runEnd, place.offset + written[k].length );
+					} else {
+						long from = place.address + place.offset;
+						long to = from + written[k].length;
+						if ( from > runEnd + StringStore.COALESCE_GAP 
+							|| this.file.segment( Math.max( from, to - 1 ) ) != this.file.segment( runStart ) ) {
+							if ( last > first ) {
+								break;
+							}
+						}
+						runEnd = Math.max( runEnd, to );
+					}
+					last++;
+				}
+				
+				byte[] data;
+				long base;
+				if ( start.stored == 0 ) {
+					data = this.file.read( runStart, (int) (runEnd - runStart) );
+					base = runStart;
+				} else {
+					data = StringStore.inflate( this.file.read( start.address, start.stored ), (int) runEnd );
+					base = 0L;
+				}
+				
+				for ( int n = first; n < last; n++ ) {
+					int k = order.get( n );
+					long from = start.stored == 0 ? places[k].address + places[k].offset : places[k].offset;
+					result[k] = this.codec.decode( data, (int) (from - base), written[k].length );
+				}
+				first = last;
+			}
+		} finally {
+			active.decrement();
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Give up the space held by the extent. The extent must not be read afterwards.
+	 * 
+	 * @param extent
+	 * 		Extent returned by {@code put}
+	 */
+	@Test.Decl( "Throws AssertionError for null extent" )
+	@Test.Decl( "Reduces live bytes for written extent" )
+	@Test.Decl( "Pending extent is never placed" )
+	@Test.Decl( "Idempotent" )
+	@Test.Decl( "Ignored after dispose" )
+	public void release( Extent extent ) {
+		Assert.nonNull( extent );
+		if ( !this.isOpen() ) {
+			return;
+		}
+		
+		Batch batch = extent.pending;
+		if ( batch != null && batch.kill( extent ) ) {
+			return;
+		}
+		
+		// Retry if compaction moves the extent while we wait for the segment
+		while ( true ) {
+			Place place = extent.place;
+			if ( place == null ) {
+				return;
+			}
+			Segment segment = this.segment( place.address );
+			synchronized ( segment ) {
+				if ( extent.place == place ) {
+					segment.remove( extent );
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Copy the live extents of mostly dead segments to the end of the file, then release every
+	 * segment left without live extents. Only segments that no pending write can reach are
+	 * considered. Readers are not blocked; a released segment waits until reads that may have
+	 * started before the moves are complete.
+	 * 
+	 * @return
+	 * 		The number of segments released
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Releases segments without live extents" )
+	@Test.Decl( "Moves live extents from mostly dead segments" )
+	@Test.Decl( "Keeps mostly live segments" )
+	@Test.Decl( "Ignores the current segment" )
+	@Test.Decl( "Moved extents are consistent when compressed" )
+	public synchronized int compact() {
+		Assert.isTrue( this.isOpen() );
+		
+		long sealed;
+		this.sealing.writeLock().lock();
+		try {
+			sealed = this.file.length();
+		} finally {
+			this.sealing.writeLock().unlock();
+		}
+		int tail = this.file.segment( sealed );
+		
+		Batch mover = new Batch();
+		List<Integer> candidates = new ArrayList<Integer>();
+		for ( Map.Entry<Integer, Segment> entry : new TreeMap<Integer, Segment>( this.segments ).entrySet() ) {
+			if ( entry.getKey() >= tail ) {
+				continue;
+			}
+			Segment segment = entry.getValue();
+			Map<Extent, Place> live = new IdentityHashMap<Extent, Place>();
+			synchronized ( segment ) {
+				if ( segment.live * 100 > segment.written * StringStore.COMPACT_PERCENT ) {
+					continue;
+				}
+				segment.extents.forEach( e -> live.put( e, e.place ) );
+			}
+			candidates.add( entry.getKey() );
+			this.move( live, mover );
+		}
+		mover.flush();
+		
+		List<Integer> empty = new ArrayList<Integer>();
+		for ( Integer index : candidates ) {
+			Segment segment = this.segments.get( index );
+			synchronized ( segment ) {
+				if ( segment.extents.isEmpty() ) {
+					empty.add( index );
+				}
+			}
+		}
+		if ( empty.isEmpty() ) {
+			return 0;
+		}
+		
+		this.awaitReaders();
+		for ( Integer index : empty ) {
+			this.file.release( index );
+			this.segments.remove( index );
+		}
+		
+		return empty.size();
+	}
+	
+	/* Stage the extents for copying, reading each of their blocks once. */
+	private void move( Map<Extent, Place> live, Batch mover ) {
+		Map<Long, List<Extent>> blocks = new TreeMap<Long, List<Extent>>();
+		live.forEach( (e, p) -> blocks.computeIfAbsent( p.address, k -> new ArrayList<Extent>() ).add( e ) );
+		
+		for ( List<Extent> extents : blocks.values() ) {
+			Place first = live.get( extents.get( 0 ) );
+			int end = extents.stream().mapToInt( e -> live.get( e ).offset + e.length ).max().getAsInt();
+			byte[] data = first.stored == 0 
+				? this.file.read( first.address, end ) 
+				: StringStore.inflate( this.file.read( first.address, first.stored ), end );
+			
+			for ( Extent extent : extents ) {
+				Place origin = live.get( extent );
+				if ( extent.length > this.bufferSize ) {
+					this.store( Arrays.copyOfRange( data, origin.offset, origin.offset + extent.length ), 
+						extent.length, List.of( new Entry( extent, origin, 0 ) ) );
+				} else {
+					mover.move( extent, origin, data, origin.offset );
+				}
+			}
+		}
+	}
+	
+	/* Announce a read in the counter of the current epoch. The epoch is checked again once the
+	 * read is counted: a reader that counted itself after the epoch advanced could land in the
+	 * counter of a later epoch that no compaction is waiting for, so it retries instead. */
+	private LongAdder enterRead() {
+		while ( true ) {
+			int current = this.epoch;
+			LongAdder active = this.readers[current & 1];
+			active.increment();
+			if ( this.epoch == current ) {
+				return active;
+			}
+			active.decrement();
+		}
+	}
+	
+	/* Start a new epoch and wait for reads begun in the previous one. Reads are usually short, so
+	 * spin briefly; a read blocked on the disk gets parks that back off up to a millisecond. */
+	private void awaitReaders() {
+		int previous = this.epoch;
+		this.epoch = previous + 1;
+		long park = 1_000L;
+		for ( int spins = 0; this.readers[previous & 1].sum() > 0L; spins++ ) {
+			if ( spins < 100 ) {
+				Thread.onSpinWait();
+			} else {
+				LockSupport.parkNanos( park );
+				park = Math.min( 2 * park, 1_000_000L );
+			}
+		}
+	}
+	
+	private void compactPeriodically() {
+		try {
+			while ( true ) {
+				Thread.sleep( StringStore.COMPACT_MILLIS );
+				if ( !this.isOpen() ) {
+					return;
+				}
+				this.sweep( true );
+				this.compact();
+			}
+		} catch ( InterruptedException e ) {
+			// Disposed
+		}
+	}
+	
+	/**
+	 * Write all buffered bytes, from every thread, to the file. Buffers of terminated threads
+	 * are released.
+	 */
+	@Test.Decl( "Throws AssertionError for disposed" )
+	@Test.Decl( "Pending extents are written" )
+	@Test.Decl( "Flushes buffers of other threads" )
+	@Test.Decl( "Idempotent" )
+	public void flush() {
+		Assert.isTrue( this.isOpen() );
+		
+		synchronized ( this.batches ) {
+			for ( Batch batch : this.batches ) {
+				batch.flush();
+			}
+		}
+		this.sweep( false );
+	}
+	
+	/** The number of bytes in the file, including reserved regions and released segments */
+	@Test.Decl( "Zero for new" )
+	@Test.Decl( "Increases after flush" )
+	public long length() {
+		return this.file.length();
+	}
+	
+	/** The number of encoded bytes of written extents that have not been released */
+	@Test.Decl( "Zero for new" )
+	@Test.Decl( "Increases after flush" )
+	@Test.Decl( "Decreases after release" )
+	public long liveBytes() {
+		long result = 0L;
+		for ( Segment segment : this.segments.values() ) {
+			synchronized ( segment ) {
+				result += segment.live;
+			}
+		}
+		return result;
+	}
+	
+	/** The number of segments holding blocks that have not been released */
+	@Test.Decl( "Zero for new" )
+	@Test.Decl( "Decreases after compaction" )
+	public int segmentCount() {
+		return this.segments.size();
+	}
+	
+	/** Determine if this {@code StringStore} can accept requests */
+	@Test.Decl( "True for new" )
+	@Test.Decl( "False after dispose" )
+	public boolean isOpen() {
+		return this.file.isOpen();
+	}
+	
+	/** Release the backing file. Not safe while other operations are in progress. */
+	@Test.Decl( "Idempotent" )
+	@Test.Decl( "Stops background compaction" )
+	public void dispose() {
+		if ( this.compactor != null && this.compactor != Thread.currentThread() ) {
+			this.compactor.interrupt();
+			try {
+				this.compactor.join();
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		synchronized ( this ) {
+			this.file.dispose();
+		}
+		synchronized ( this.batches ) {
+			this.batches.clear();
+		}
+		this.segments.clear();
+	}
+	
+	@Override
+	@Test.Decl( "Indicates length" )
+	public String toString() {
+		return "StringStore(Length = " + (this.isOpen() ? "" + this.file.length() : "CLOSED") + ")";
+	}
+	
+	@Override
+	@Test.Decl( "Idempotent" )
+	public void close() {
+		this.dispose();
+	}
+	
+	/* Deflate the first count bytes of data. */
+	private static byte[] deflate( byte[] data, int count ) {
+		Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+		try {
+			deflater.setInput( data, 0, count );
+			deflater.finish();
+			byte[] result = new byte[count + count / 16 + 64];
+			int n = 0;
+			while ( !deflater.finished() ) {
+				if ( n == result.length ) {
+					result = Arrays.copyOf( result, 2 * result.length );
+				}
+				n += deflater.deflate( result, n, result.length - n );
+			}
+			return Arrays.copyOf( result, n );
+		} finally {
+			deflater.end();
+		}
+	}
+	
+	/* Inflate only the first count bytes of a deflated block. */
+	private static byte[] inflate( byte[] block, int count ) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput( block );
+			byte[] result = new byte[count];
+			int n = 0;
+			while ( n < count ) {
+				int k = inflater.inflate( result, n, count - n );
+				Assert.isTrue( k > 0 || !inflater.needsInput() && !inflater.finished() );  // Unexpected end of block
+				n += k;
+			}
+			return result;
+		} catch ( DataFormatException e ) {
+			throw new AppRuntime( e );
+		} finally {
+			inflater.end();
+		}
+	}
+
+}
@@ -69,6 +69,9 @@ public class Trace implements Runnable, OnShutdown {
 	/* After this many files have been written a Fatal.error is triggered. */
 	private static final Integer FILE_LIMIT = Property.get( "file.limit", 100, Parser.INTEGER );
 	
+	/* When this many messages are pending, writers block until the worker catches up. */
+	private static final Integer QUEUE_LIMIT = Property.get( "queue.limit", 10_000, Parser.INTEGER );
+	
 	
 
 	/* Produces the fixed width formatted message. */
@@ -184,7 +187,7 @@ public class Trace implements Runnable, OnShutdown {
 	private Trace() {
 		App.get().terminateOnShutdown( this );
 		
-		this.entries = new MultiQueue<String>( new FifoQueue<String>() );
+		this.entries = new MultiQueue<String>( new FifoQueue<String>(), Trace.QUEUE_LIMIT );
 		this.buffer = new ArrayList<String>();
 		this.buffer.add(  Trace.FORMATTER.header() );
 		this.lineCount = 0;
@@ -215,9 +218,8 @@ public class Trace implements Runnable, OnShutdown {
 			throw new AppRuntime( "Cannot start externally." );
 		}
 
-		String msg = null;
-		while ( (msg = this.entries.get()) != null ) {
-			this.buffer.add( msg );
+		// Take pending messages in batches, never filling the buffer past its limit
+		while ( this.entries.drainTo( this.buffer, Trace.BUFFER_LIMIT + 1 - this.buffer.size() ) > 0 ) {
 			if ( this.buffer.size() > Trace.BUFFER_LIMIT ) {
 				this.emptyBuffer();
 			}
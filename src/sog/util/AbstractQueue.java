@@ -18,6 +18,9 @@
  */
 package sog.util;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 import sog.core.Assert;
 import sog.core.Test;
 
@@ -168,6 +171,83 @@ public abstract class AbstractQueue<E> implements Queue<E> {
 	 */
 	protected abstract E getImpl();
 	
+	/**
+	 * Response to add each of the given non-null elements to the queue, in order.
+	 * Stops at the first element that is not accepted.
+	 *
+	 * @param elts
+	 * 		The non-null elements to add to the queue.
+	 * 
+	 * @return
+	 * 		The number of elements accepted.
+	 */
+	@Test.Decl( "Throws AssertionError for null elements" )
+	@Test.Decl( "Returns count when OPEN" )
+	@Test.Decl( "Returns zero when CLOSED" )
+	@Test.Decl( "Returns zero when TERMINATED" )
+	@Test.Decl( "Consistent with putImpl when OPEN" )
+	public int putAll( Iterable<? extends E> elts ) {
+		int count = 0;
+		for ( E elt : Assert.nonNull( elts ) ) {
+			if ( !this.put( elt ) ) {
+				break;
+			}
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Move up to max available elements to the given collection, in the order get produces
+	 * them. Does not wait for elements.
+	 *
+	 * @param c
+	 * 		The collection receiving the elements.
+	 * @param max
+	 * 		The maximum number of elements to move.
+	 * 
+	 * @return
+	 * 		The number of elements moved.
+	 */
+	@Test.Decl( "Throws AssertionError for null collection" )
+	@Test.Decl( "Throws AssertionError for negative max" )
+	@Test.Decl( "Consistent with getImpl when OPEN" )
+	@Test.Decl( "Consistent with getImpl when CLOSED" )
+	@Test.Decl( "Returns zero when TERMINATED" )
+	@Test.Decl( "Moves at most max elements" )
+	public int drainTo( Collection<? super E> c, int max ) {
+		Assert.nonNull( c );
+		Assert.nonNeg( max );
+		
+		int count = 0;
+		E elt;
+		while ( count < max && (elt = this.state.get( this )) != null ) {
+			c.add( elt );
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Get the next element. This implementation does not wait, and returns what get
+	 * would; queues that block when empty override it.
+	 *
+	 * @param timeout
+	 * 		The maximum time to wait.
+	 * @param unit
+	 * 		The unit of the timeout.
+	 * 
+	 * @return
+	 *       The next element of the queue or null if none is available.
+	 */
+	@Test.Decl( "Throws AssertionError for null unit" )
+	@Test.Decl( "Consistent with getImpl when OPEN" )
+	@Test.Decl( "Returns null when TERMINATED" )
+	public E poll( long timeout, TimeUnit unit ) {
+		Assert.nonNull( unit );
+		return this.state.get( this );
+	}
+	
 	/**
 	 * Tells if the queue is empty.
 	 *
@@ -175,6 +255,14 @@ public abstract class AbstractQueue<E> implements Queue<E> {
 	 *      <tt>true</tt> if the queue contains no elements.
 	 */
 	public abstract boolean isEmpty();
+	
+	/**
+	 * The number of elements in the queue.
+	 *
+	 * @return
+	 *      The number of elements that have been accepted and not yet retrieved.
+	 */
+	public abstract int size();
 
 	/**
 	 * Tells if the queue is open.
@@ -19,11 +19,34 @@
 
 package sog.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import sog.core.App;
 import sog.core.AppRuntime;
@@ -35,17 +58,47 @@ import sog.core.Test;
 
 /**
  * Provides services for executing functions concurrently by a pool of Wroker threads.
+ * 
+ * Requests are held in a StealingQueue with one lane per Worker, so Workers take requests
+ * without contending on a single lock and an idle Worker steals from busy ones.
+ * 
+ * A Concurrent instance is also an Executor so that it can run asynchronous work such
+ * as CompletableFuture stages.
+ * 
+ * In virtual mode there are no Workers. Each request runs on its own virtual thread, so
+ * thousands of blocking requests can be in flight at once. An optional limit bounds the
+ * number evaluating at the same time; requests beyond the limit wait on cheap virtual
+ * threads. Virtual mode is selected with ofVirtual(), or for every instance by the
+ * "virtual" property, with the limit given by "virtualLimit".
+ * 
+ * The results of applyGetLater() can be waited on with a timeout and can be cancelled. An
+ * optional default timeout, from the "timeout" property or set with timeout(), bounds every
+ * blocking get() so that a hung function cannot block its caller forever.
+ * 
+ * An elastic instance, from ofElastic(), adds Workers when requests wait in the queue longer
+ * than a target and retires Workers that have been idle for a keep-alive time, staying
+ * between a minimum and a maximum.
+ * 
+ * Requests are normally taken in the order they arrive. Requests given a priority, or made
+ * through a named Group, are scheduled separately: those with higher priority are taken first,
+ * and among equal priority the Groups share the Workers in proportion to their weights, so
+ * interactive work is not delayed behind a burst of background work. See submit(Supplier, int)
+ * and group().
+ * 
+ * Each instance counts its requests and records how long they wait in the queue and how long
+ * they take to evaluate; see stats(). The instances not yet terminated are listed by live().
  */
 @Test.Subject( "test." )
-public class Concurrent implements App.OnShutdown {
+public final class Concurrent implements App.OnShutdown, Executor {
 
 	
 	/*
 	 * When true, framework checks for potential deadlock.
 	 * 
-	 * If the thread requesting a service is one of the Worker threads the call could result
-	 * in deadlock. This can happen if the implementation of a concurrent function or procedure
-	 * uses the same Concurrent instance to execute code.
+	 * A Worker waiting on a request to its own instance runs queued requests while it waits,
+	 * so nested calls are safe. In virtual mode with a limit there is no queue to help with,
+	 * and a nested call holding a permit could deadlock if the implementation of a concurrent
+	 * function or procedure uses the same Concurrent instance to execute code.
 	 */
 	private static boolean safeMode = Property.get( "safeMode", true, Parser.BOOLEAN );
 	
@@ -58,43 +111,345 @@ public class Concurrent implements App.OnShutdown {
 	public static void safeModeOff() {
 		Concurrent.safeMode = false;
 	}
+	
+	/* When true, instances constructed with a thread count run requests on virtual threads instead. */
+	private static boolean useVirtual = Property.get( "virtual", false, Parser.BOOLEAN );
+	
+	/* Default limit on concurrent evaluations in virtual mode; zero for no limit. */
+	private static int virtualLimit = Property.get( "virtualLimit", 0, Parser.INTEGER );
+	
+	/* The instance whose Worker or virtual thread is the current thread, if any. */
+	private static final ThreadLocal<Concurrent> POOL = new ThreadLocal<Concurrent>();
+	
+	/* Instances constructed and not yet terminated. */
+	private static final Set<Concurrent> LIVE = ConcurrentHashMap.newKeySet();
+	
+	/* Default bound in milliseconds on blocking waits for results; zero for no bound. */
+	private static long defaultTimeout = Property.get( "timeout", 0L, Parser.LONG );
+	
+	/* Elastic mode: default queue wait in milliseconds beyond which a Worker is added. */
+	private static long defaultTargetWait = Property.get( "targetWait", 10L, Parser.LONG );
+	
+	/* Elastic mode: default idle time in milliseconds after which a Worker above the minimum retires. */
+	private static long defaultKeepAlive = Property.get( "keepAlive", 60000L, Parser.LONG );
+	
+	/* Elastic mode: checks for requests stalled behind busy Workers. The thread starts on first use. */
+	private static final ScheduledExecutorService MONITOR = Executors.newSingleThreadScheduledExecutor( r -> {
+		Thread thread = new Thread( r, "Concurrent monitor" );
+		thread.setDaemon( true );
+		return thread;
+	} );
 
 
 	
 	private final String label;
 	
-	private final Queue<Procedure> procedures;
+	private final StealingQueue<Procedure> procedures;
 	
+	/* Requests with a priority or a Group. Null in virtual mode. */
+	private final Scheduler scheduler;
+	
+	private final Map<String, Group> groups = new ConcurrentHashMap<String, Group>();
+	
+	/* Guarded by itself; changes only in elastic mode. */
 	private final List<Worker> workers;
+	
+	/* Bounds on the number of Workers; equal unless elastic. */
+	private final int minWorkers;
+	private final int maxWorkers;
+	
+	/* Elastic mode: see targetWait() and keepAlive(). */
+	private volatile long targetWaitNanos = TimeUnit.MILLISECONDS.toNanos( Concurrent.defaultTargetWait );
+	private volatile long keepAliveNanos = TimeUnit.MILLISECONDS.toNanos( Concurrent.defaultKeepAlive );
+	
+	/* Elastic mode: when a request last started, and when a Worker was last added; guarded by workers. */
+	private volatile long lastStart = System.nanoTime();
+	private long lastGrow = System.nanoTime();
+	
+	/* Virtual mode: threads evaluating or waiting for a permit; guards termination. Null for Workers. */
+	private final Set<Thread> running;
+	
+	/* Virtual mode: bounds concurrent evaluations. Null when unlimited or for Workers. */
+	private final Semaphore permits;
+	
+	/* Virtual mode: set when terminate() is called; guarded by running. */
+	private boolean terminated = false;
+	
+	/* Bound in milliseconds on blocking waits for results; zero for no bound. */
+	private volatile long timeout = Concurrent.defaultTimeout;
+	
+	/* Counters for stats(). A request is submitted when accepted, started when evaluation begins. */
+	private final long created = System.nanoTime();
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder started = new LongAdder();
+	private final LongAdder completed = new LongAdder();
+	private final Histogram waits = new Histogram();
+	private final Histogram execs = new Histogram();
 
+	/**
+	 * Construct an instance with the given number of Worker threads, or in virtual mode if
+	 * the "virtual" property is set, in which case the thread count is not used and the
+	 * "virtualLimit" property gives the limit.
+	 * 
+	 * @param label
+	 * @param threadCount
+	 */
 	@Test.Decl( "Throws AssertionError for null or empty label" )
 	@Test.Decl( "Throws AssertionError for non-positive thread count" )
 	@Test.Decl( "Terminates workers on shutdown" )
+	@Test.Decl( "Uses virtual threads when property is set" )
 	public Concurrent( String label, int threadCount ) {
-		Assert.positive( threadCount );
-		
+		this( label, Assert.positive( threadCount ), threadCount, Concurrent.useVirtual, Concurrent.virtualLimit );
+	}
+	
+	private Concurrent( String label, int minWorkers, int maxWorkers, boolean virtual, int limit ) {
 		this.label = Assert.nonEmpty( label );
-		this.procedures = new MultiQueue<>( new FifoQueue<>() );
-		this.workers = Stream.generate( Worker::new ).limit( threadCount ).map( Worker::init ).collect( Collectors.toList() );
+		this.minWorkers = minWorkers;
+		this.maxWorkers = maxWorkers;
+		if ( virtual ) {
+			this.procedures = null;
+			this.scheduler = null;
+			this.workers = List.of();
+			this.running = ConcurrentHashMap.newKeySet();
+			this.permits = limit > 0 ? new Semaphore( limit ) : null;
+		} else {
+			this.procedures = new StealingQueue<>( maxWorkers );
+			this.scheduler = new Scheduler();
+			this.workers = Stream.generate( Worker::new ).limit( minWorkers ).map( Worker::init ).collect( Collectors.toCollection( ArrayList::new ) );
+			this.running = null;
+			this.permits = null;
+		}
 
+		Concurrent.LIVE.add( this );
 		App.get().terminateOnShutdown( this );
+		if ( this.isElastic() ) {
+			this.monitor();
+		}
 	}
 	
-	private void addProcedure( Procedure p ) {
+	/**
+	 * Construct an instance in virtual mode: each request runs on its own virtual thread.
+	 * 
+	 * @param label
+	 * @param limit		Maximum number of concurrent evaluations, or zero for no limit
+	 * @return
+	 */
+	@Test.Decl( "Throws AssertionError for null or empty label" )
+	@Test.Decl( "Throws AssertionError for negative limit" )
+	@Test.Decl( "Functions are evaluated by virtual threads" )
+	@Test.Decl( "Result is consistent with given function and argument" )
+	@Test.Decl( "Unlimited instance evaluates many blocking functions at once" )
+	@Test.Decl( "Limit bounds concurrent evaluations" )
+	@Test.Decl( "Terminate waits for requests in progress" )
+	@Test.Decl( "Throws AppRuntime for requests after terminated" )
+	public static Concurrent ofVirtual( String label, int limit ) {
+		return new Concurrent( label, 1, 1, true, Assert.nonNeg( limit ) );
+	}
+	
+	/**
+	 * Construct an elastic instance with between min and max Worker threads. It starts with
+	 * min Workers. A Worker is added, at most one per target wait, when a request has waited
+	 * in the queue longer than the target wait, as measured by the queue latency of this
+	 * instance, including requests stalled behind Workers that are all busy. A Worker idle
+	 * for the keep-alive time retires while more than min remain.
+	 * 
+	 * The target wait and keep-alive default to the "targetWait" and "keepAlive" properties.
+	 * 
+	 * @param label
+	 * @param min		The minimum number of Workers, possibly zero
+	 * @param max		The maximum number of Workers
+	 * @return
+	 */
+	@Test.Decl( "Throws AssertionError for null or empty label" )
+	@Test.Decl( "Throws AssertionError for negative min" )
+	@Test.Decl( "Throws AssertionError for max less than min" )
+	@Test.Decl( "Throws AssertionError for zero max" )
+	@Test.Decl( "Starts with min Workers" )
+	@Test.Decl( "Result is consistent with given function and argument" )
+	@Test.Decl( "Grows when requests wait longer than target" )
+	@Test.Decl( "Does not grow beyond max" )
+	@Test.Decl( "Grows from zero Workers" )
+	@Test.Decl( "Idle Workers retire after keep alive" )
+	@Test.Decl( "Does not retire below min" )
+	@Test.Decl( "Nested calls from a Worker do not deadlock" )
+	public static Concurrent ofElastic( String label, int min, int max ) {
+		Assert.nonNeg( min );
+		Assert.positive( max );
+		Assert.isTrue( min <= max );
+		return new Concurrent( label, min, max, false, 0 );
+	}
+	
+	/**
+	 * Elastic mode: set the queue wait beyond which a Worker is added. No effect otherwise.
+	 * 
+	 * @param millis		The target wait in milliseconds
+	 * @return				This Concurrent instance
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive target" )
+	@Test.Decl( "Returns this Concurrent instance" )
+	public Concurrent targetWait( long millis ) {
+		Assert.isTrue( millis > 0L );
+		this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos( millis );
+		return this;
+	}
+	
+	/**
+	 * Elastic mode: set the idle time after which a Worker above the minimum retires. No
+	 * effect otherwise.
+	 * 
+	 * @param millis		The keep-alive in milliseconds
+	 * @return				This Concurrent instance
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive keep alive" )
+	@Test.Decl( "Returns this Concurrent instance" )
+	public Concurrent keepAlive( long millis ) {
+		Assert.isTrue( millis > 0L );
+		this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos( millis );
+		return this;
+	}
+	
+	/**
+	 * Bound the time a blocking get() waits for a result. When the bound is reached the
+	 * request is cancelled and the get() throws AppRuntime with a TimeoutException cause.
+	 * This applies to apply(), map() and the results of applyGetLater() and wrap().
+	 * 
+	 * @param millis		The bound in milliseconds, or zero for no bound
+	 * @return				This Concurrent instance
+	 */
+	@Test.Decl( "Throws AssertionError for negative timeout" )
+	@Test.Decl( "Returns this Concurrent instance" )
+	@Test.Decl( "Blocking get throws AppRuntime after timeout" )
+	@Test.Decl( "Request is cancelled after timeout" )
+	@Test.Decl( "Zero timeout waits indefinitely" )
+	@Test.Decl( "Applies to apply" )
+	public Concurrent timeout( long millis ) {
+		Assert.isTrue( millis >= 0L );
+		this.timeout = millis;
+		return this;
+	}
+	
+	private boolean isVirtual() {
+		return this.running != null;
+	}
+	
+	private boolean isElastic() {
+		return this.minWorkers < this.maxWorkers;
+	}
+	
+	private int workerCount() {
+		synchronized ( this.workers ) {
+			return this.workers.size();
+		}
+	}
+	
+	/*
+	 * Elastic mode: add a Worker if below the maximum and none was added within the target
+	 * wait, or at once if there are none.
+	 */
+	private void grow() {
+		synchronized ( this.workers ) {
+			long now = System.nanoTime();
+			if ( this.workers.size() >= this.maxWorkers || !this.procedures.isOpen()
+				|| (!this.workers.isEmpty() && now - this.lastGrow < this.targetWaitNanos) ) {
+				return;
+			}
+			this.lastGrow = now;
+			this.workers.add( new Worker().init() );
+		}
+	}
+	
+	/* Elastic mode: a Worker that timed out waiting for work leaves if above the minimum and the queue is empty. */
+	private boolean retire( Worker worker ) {
+		synchronized ( this.workers ) {
+			if ( this.workers.size() <= this.minWorkers || !this.procedures.isEmpty() ) {
+				return false;
+			}
+			return this.workers.remove( worker );
+		}
+	}
+	
+	/*
+	 * Elastic mode: runs every target wait while the queue is open. Requests are waiting and
+	 * none has started within the target wait when every Worker is busy with long requests;
+	 * then no queue wait is being measured, so growth is driven from here.
+	 */
+	private void monitor() {
 		if ( !this.procedures.isOpen() ) {
+			return;
+		}
+		long queued = this.submitted.sum() - this.started.sum();
+		if ( queued > 0L && System.nanoTime() - this.lastStart > this.targetWaitNanos ) {
+			this.grow();
+		}
+		Concurrent.MONITOR.schedule( this::monitor, this.targetWaitNanos, TimeUnit.NANOSECONDS );
+	}
+	
+	private void addProcedure( Procedure p ) {
+		this.addProcedure( p, 0, null );
+	}
+	
+	/* A request with priority zero and no Group is plain. */
+	private void addProcedure( Procedure p, int priority, Group group ) {
+		if ( !this.isVirtual() && !this.procedures.isOpen() ) {
 			throw new AppRuntime( "This Concurrent instance has been terminated and is not accpeting rquests" );
 		}
 		
-		if ( Concurrent.safeMode ) {
-			Thread caller = this.workers.stream()
-				.filter( Thread.currentThread()::equals ).findFirst().orElse( null );
+		// Workers help while they wait, and execute() does not block, so only a limited virtual
+		// instance can run out of threads.
+		if ( Concurrent.safeMode && this.permits != null && !(p instanceof Task) ) {
+			Thread caller = Concurrent.POOL.get() == this ? Thread.currentThread() : null;
 			if ( caller != null ) {
 				System.err.println( "WARNING: Potential deadlock identified. In Concurrent, calling thread is a Worker thread: " + caller );
 				App.get().getLocationMatching( "^sog.*|^test.*" ).map( s -> "\t" + s ).forEach( System.err::println );
 			}
 		}
 		
-		this.procedures.put( p );
+		Procedure metered = new Metered( p );
+		if ( this.isVirtual() ) {
+			this.startVirtual( metered );
+		} else if ( priority == 0 && group == null ) {
+			this.procedures.put( metered );
+		} else {
+			// The token wakes a Worker, which then consults the scheduler; see next().
+			this.scheduler.put( metered, priority, group );
+			this.procedures.put( Procedure.NOOP );
+		}
+		this.submitted.increment();
+		if ( this.isElastic() && this.workerCount() == 0 ) {
+			this.grow();
+		}
+	}
+	
+	/*
+	 * Virtual mode: start a thread for the procedure. The thread is registered before it starts
+	 * and under the same lock as termination, so terminate() sees every accepted procedure.
+	 */
+	private void startVirtual( Procedure p ) {
+		Thread thread = Thread.ofVirtual().name( this.label ).unstarted( () -> {
+			Concurrent.POOL.set( this );
+			try {
+				if ( this.permits != null ) {
+					this.permits.acquireUninterruptibly();
+				}
+				try {
+					p.exec();
+				} finally {
+					if ( this.permits != null ) {
+						this.permits.release();
+					}
+				}
+			} finally {
+				this.running.remove( Thread.currentThread() );
+			}
+		} );
+		
+		synchronized ( this.running ) {
+			if ( this.terminated ) {
+				throw new AppRuntime( "This Concurrent instance has been terminated and is not accpeting rquests" );
+			}
+			this.running.add( thread );
+		}
+		thread.start();
 	}
 
 
@@ -106,33 +461,168 @@ public class Concurrent implements App.OnShutdown {
 	@Test.Decl( "Throws AppRuntime for requests after terminated" )
 	@Test.Decl( "Worker threads are stopped after terminate()" )
 	public void terminate() {
+		Concurrent.LIVE.remove( this );
+		if ( this.isVirtual() ) {
+			List<Thread> threads = null;
+			synchronized ( this.running ) {
+				this.terminated = true;
+				threads = List.copyOf( this.running );
+			}
+			threads.forEach( Concurrent::quietJoin );
+			return;
+		}
+		
 		if ( this.procedures == null || this.procedures.isClosed() ) {
 			return;
 		}
 		this.procedures.close();
-		this.workers.forEach( Worker::quietJoin );
+		List<Worker> workers = null;
+		synchronized ( this.workers ) {
+			workers = List.copyOf( this.workers );
+		}
+		workers.forEach( Worker::quietJoin );
 	}
 	
 	
 	
 	
+	/**
+	 * Returns a CompletableFuture for the result of evaluating the function with the given argument
+	 * on this pool. The call does not block. If the function throws, the future completes
+	 * exceptionally.
+	 * 
+	 * Dependent stages compose without blocking. Stages added with the asynchronous methods,
+	 * such as thenApplyAsync or thenCombineAsync, run on this pool when no executor is given.
+	 * 
+	 * @param <T>			The argument type of the function
+	 * @param <R>			The return type of the function
+	 * @param function		The function to evaluate
+	 * @param t				The argument
+	 * @return				A future for the result
+	 */
+	@Test.Decl( "Throws AssertionError for null function" )
+	@Test.Decl( "Throws AppRuntime for requests after terminated" )
+	@Test.Decl( "Function is evaluated by a Worker thread" )
+	@Test.Decl( "Result is consistent with given function and argument" )
+	@Test.Decl( "Completes exceptionally if the function throws" )
+	@Test.Decl( "Asynchronous stages run on the pool by default" )
+	@Test.Decl( "Stages can be combined" )
+	public <T, R> CompletableFuture<R> submit( Function<T, R> function, T t ) {
+		Assert.nonNull( function );
+		return this.submit( () -> function.apply( t ) );
+	}
+	
+	/**
+	 * Returns a CompletableFuture for the value of the supplier evaluated on this pool.
+	 * 
+	 * @see #submit(Function, Object)
+	 * 
+	 * @param <R>			The type of the result
+	 * @param supplier		Provides the result
+	 * @return				A future for the result
+	 */
+	@Test.Decl( "Throws AssertionError for null supplier" )
+	@Test.Decl( "Supplier is evaluated by a Worker thread" )
+	@Test.Decl( "Result is consistent with supplier" )
+	@Test.Decl( "Completes exceptionally if the supplier throws" )
+	public <R> CompletableFuture<R> submit( Supplier<R> supplier ) {
+		return this.submit( supplier, 0, null );
+	}
+	
+	/**
+	 * Returns a CompletableFuture for the value of the supplier evaluated on this pool, scheduled
+	 * by the given priority. Requests with higher priority are taken first. Requests with
+	 * positive priority are taken before plain requests, those made without a priority, and
+	 * requests with negative priority only when no plain request is waiting. Priority zero is
+	 * the same as a plain request. A request that has started is not preempted.
+	 * 
+	 * In virtual mode every request starts at once and the priority is ignored.
+	 * 
+	 * @see #submit(Supplier)
+	 * 
+	 * @param <R>			The type of the result
+	 * @param supplier		Provides the result
+	 * @param priority		Higher values are taken first
+	 * @return				A future for the result
+	 */
+	@Test.Decl( "Throws AssertionError for null supplier" )
+	@Test.Decl( "Result is consistent with supplier" )
+	@Test.Decl( "Higher priority is taken first" )
+	@Test.Decl( "Equal priority is taken in order" )
+	@Test.Decl( "Positive priority is taken before plain requests" )
+	@Test.Decl( "Negative priority is taken after plain requests" )
+	@Test.Decl( "Priority is ignored in virtual mode" )
+	public <R> CompletableFuture<R> submit( Supplier<R> supplier, int priority ) {
+		return this.submit( supplier, priority, null );
+	}
+	
+	private <R> CompletableFuture<R> submit( Supplier<R> supplier, int priority, Group group ) {
+		Assert.nonNull( supplier );
+		Stage<R> stage = new Stage<R>();
+		this.addProcedure( new Task( () -> {
+			try {
+				stage.complete( supplier.get() );
+			} catch ( Throwable t ) {
+				stage.completeExceptionally( t );
+			}
+		} ), priority, group );
+		return stage;
+	}
+	
+	/**
+	 * Returns the Group with the given name, creating it if needed. The weight replaces any
+	 * previous weight of the Group.
+	 * 
+	 * Groups with pending requests share the Workers in proportion to their weights. A Group
+	 * that has been idle does not accumulate credit, so it cannot monopolize the Workers when
+	 * it becomes busy again. Group requests are taken before plain requests unless they are
+	 * given negative priority.
+	 * 
+	 * @param name		The name of the Group
+	 * @param weight	The relative share of the Workers
+	 * @return			The Group
+	 */
+	@Test.Decl( "Throws AssertionError for null or empty name" )
+	@Test.Decl( "Throws AssertionError for non-positive weight" )
+	@Test.Decl( "Returns the same Group for the same name" )
+	@Test.Decl( "Groups share in proportion to weight" )
+	@Test.Decl( "Idle Group does not accumulate credit" )
+	public Group group( String name, int weight ) {
+		Assert.nonEmpty( name );
+		Assert.positive( weight );
+		Group group = this.groups.computeIfAbsent( name, Group::new );
+		group.weight = weight;
+		return group;
+	}
+
 	/**
 	 * Returns a blocking Supplier that can be used to get the result.
 	 * 
 	 * This enqueues a request to evaluate the given function with the given argument.
-	 * The call returns immediately with a Supplier that can be used the retrieve the result.
-	 * The Supplier.get() call blocks until a Worker thread completes the evaluation
+	 * The call returns immediately with a Result that can be used the retrieve the result.
+	 * The Result.get() call blocks until a Worker thread completes the evaluation, or until the
+	 * timeout for this instance is reached. The Result can also be waited on with a given timeout
+	 * or cancelled.
 	 * 
 	 * @param <T>			The argument type of the function
 	 * @param <R>			The return type of the function
 	 * @param function		The function to evaluate
 	 * @param t				The argument
-	 * @return				Blocking Supplier with the retrievable result
+	 * @return				Blocking Result with the retrievable result
 	 */
 	@Test.Decl( "Throws AssertionError for null function" )
 	@Test.Decl( "Function is evaluated by a Worker thread" )
 	@Test.Decl( "Result is consistent with given function and argument" )
-	public <T, R> Supplier<R> applyGetLater( Function<T, R> function, T t ) {
+	@Test.Decl( "If the function application throws an unchecked exception it is thrown by the Result" )
+	@Test.Decl( "Timed get returns result when ready" )
+	@Test.Decl( "Timed get throws TimeoutException if result is not ready" )
+	@Test.Decl( "Cancel skips a request that has not started" )
+	@Test.Decl( "Cancel interrupts a running request" )
+	@Test.Decl( "Cancel returns false after completion" )
+	@Test.Decl( "Get throws CancellationException after cancel" )
+	@Test.Decl( "Interrupted caller cancels the request" )
+	@Test.Decl( "Worker continues after a cancelled request" )
+	public <T, R> Result<R> applyGetLater( Function<T, R> function, T t ) {
 		Assert.nonNull( function );
 		return new FunctionProcedure<T, R>( function, t ).add();
 	}
@@ -150,6 +640,9 @@ public class Concurrent implements App.OnShutdown {
 	@Test.Decl( "Throws AssertionError for null function" )
 	@Test.Decl( "Function is evaluated by a Worker thread" )
 	@Test.Decl( "Result is consistent with given function and argument" )
+	@Test.Decl( "Nested calls from a Worker do not deadlock" )
+	@Test.Decl( "Recursive divide and conquer completes with few Workers" )
+	@Test.Decl( "Waiting Worker runs queued requests" )
 	public <T, R> R apply( Function<T, R> function, T t ) {
 		Assert.nonNull( function );
 		return this.applyGetLater( function, t ).get();
@@ -204,6 +697,7 @@ public class Concurrent implements App.OnShutdown {
 	@Test.Decl( "Call blocks until all results are ready" )
 	@Test.Decl( "Results are presented in the order of the original steram of inputs" )
 	@Test.Decl( "Results are consistent with the given function and arguments" )
+	@Test.Decl( "Nested calls from a Worker do not deadlock" )
 	public <T, R> Stream<R> map( Function<T, R> function, Stream<T> stream ) {
 		Assert.nonNull( function );
 		Assert.nonNull( stream );
@@ -213,11 +707,78 @@ public class Concurrent implements App.OnShutdown {
 			.map( Supplier::get );						// Block until all procedures are complete
 	}
 
+	/**
+	 * Streaming form of map() with backpressure. Inputs are taken from the stream only as room
+	 * becomes available, so at most window evaluations are in flight, and results are produced
+	 * lazily as the returned stream is consumed. The input stream may be infinite. Results are
+	 * presented in the same order as the inputs, so a slow evaluation holds back later results.
+	 * 
+	 * If an evaluation throws, the exception is thrown when its result is reached. Closing the
+	 * returned stream closes the input stream.
+	 * 
+	 * @param <T>			The argument type of the function
+	 * @param <R>			The return type of the function
+	 * @param function		The function to evaluate
+	 * @param stream		The sequence of inputs for function applications
+	 * @param window		The maximum number of evaluations in flight
+	 * @return				The lazy stream of results
+	 */
+	@Test.Decl( "Throws AssertionError for null function" )
+	@Test.Decl( "Throws AssertionError for null stream" )
+	@Test.Decl( "Throws AssertionError for non-positive window" )
+	@Test.Decl( "Inputs are not consumed until results are requested" )
+	@Test.Decl( "Supports infinite input streams" )
+	@Test.Decl( "At most window evaluations are in flight" )
+	@Test.Decl( "Results are presented in the order of the original stream of inputs" )
+	@Test.Decl( "Results are consistent with the given function and arguments" )
+	@Test.Decl( "Exception from function is thrown when its result is reached" )
+	@Test.Decl( "Closing the result closes the input stream" )
+	@Test.Decl( "Nested calls from a Worker do not deadlock" )
+	public <T, R> Stream<R> mapWindowed( Function<T, R> function, Stream<T> stream, int window ) {
+		return this.windowed( function, stream, window, true );
+	}
+
+	/**
+	 * Like mapWindowed() but results are presented in the order the evaluations complete, so a
+	 * slow evaluation does not hold back the others.
+	 * 
+	 * @see #mapWindowed(Function, Stream, int)
+	 * 
+	 * @param <T>			The argument type of the function
+	 * @param <R>			The return type of the function
+	 * @param function		The function to evaluate
+	 * @param stream		The sequence of inputs for function applications
+	 * @param window		The maximum number of evaluations in flight
+	 * @return				The lazy stream of results
+	 */
+	@Test.Decl( "Throws AssertionError for null function" )
+	@Test.Decl( "Throws AssertionError for null stream" )
+	@Test.Decl( "Throws AssertionError for non-positive window" )
+	@Test.Decl( "Supports infinite input streams" )
+	@Test.Decl( "At most window evaluations are in flight" )
+	@Test.Decl( "Results are presented in completion order" )
+	@Test.Decl( "Each result is presented once" )
+	@Test.Decl( "Exception from function is thrown when its result is reached" )
+	@Test.Decl( "Nested calls from a Worker do not deadlock" )
+	public <T, R> Stream<R> mapWindowedUnordered( Function<T, R> function, Stream<T> stream, int window ) {
+		return this.windowed( function, stream, window, false );
+	}
+	
+	private <T, R> Stream<R> windowed( Function<T, R> function, Stream<T> stream, int window, boolean ordered ) {
+		Assert.nonNull( function );
+		Assert.nonNull( stream );
+		Assert.positive( window );
+		Window<T, R> iter = new Window<T, R>( function, stream.iterator(), window, ordered );
+		return StreamSupport.stream( Spliterators.spliteratorUnknownSize( iter, ordered ? Spliterator.ORDERED : 0 ), false )
+			.onClose( stream::close );
+	}
+
 	
 	
 	/**
 	 * Returns a blocking Supplier that can be used to get the result.
 	 * If the evaluation of the function raises an exception the Supplier.get() call will throw it.
+	 * The returned Result also supports a bounded wait and cancellation.
 	 * 
 	 * @param <T>			The argument type of the function
 	 * @param <R>			The return type of the function
@@ -231,7 +792,10 @@ public class Concurrent implements App.OnShutdown {
 	@Test.Decl( "Result is consistent with given function and argument" )
 	@Test.Decl( "If the function application throws a checked exception it is thrown by the Supplier" )
 	@Test.Decl( "If the function application throws an unchecked excpetion it is thrown by the Supplier" )
-	public <T, R, E extends Exception> SupplierWithException<R, E> applyGetLater( FunctionWithException<T, R, E> function, T t ) {
+	@Test.Decl( "Timed get throws checked exception from function" )
+	@Test.Decl( "Timed get throws TimeoutException if result is not ready" )
+	@Test.Decl( "Get throws CancellationException after cancel" )
+	public <T, R, E extends Exception> ResultWithException<R, E> applyGetLater( FunctionWithException<T, R, E> function, T t ) {
 		Assert.nonNull( function );
 		return new FunctionWithExceptionProcedure<T, R, E>( function, t ).add();
 	}
@@ -297,14 +861,487 @@ public class Concurrent implements App.OnShutdown {
 
 	
 	
+	/**
+	 * Enqueue the command for evaluation by a Worker thread and return immediately.
+	 * Exceptions and errors raised by the command are reported and do not stop the Worker. A
+	 * VirtualMachineError is also passed to the uncaught exception handler of the Worker thread.
+	 * 
+	 * @param command		The command to run
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null command" )
+	@Test.Decl( "Throws AppRuntime after terminated" )
+	@Test.Decl( "Command is evaluated by a Worker thread" )
+	@Test.Decl( "Exception in command does not stop Worker" )
+	@Test.Decl( "Error in command does not stop Worker" )
+	@Test.Decl( "Fatal error in command reaches uncaught exception handler" )
+	@Test.Decl( "Worker thread may submit commands" )
+	public void execute( Runnable command ) {
+		Assert.nonNull( command );
+		this.addProcedure( new Task( command ) );
+	}
+
+	
+	
+	/**
+	 * Returns a snapshot of the counters and latency histograms of this instance.
+	 * 
+	 * @return		The current statistics
+	 */
+	@Test.Decl( "Counts submitted requests" )
+	@Test.Decl( "Counts completed requests" )
+	@Test.Decl( "Counts queued requests" )
+	@Test.Decl( "Counts active requests" )
+	@Test.Decl( "Records evaluation time" )
+	@Test.Decl( "Records queue wait time" )
+	@Test.Decl( "Counts requests made with execute" )
+	@Test.Decl( "Counts requests in virtual mode" )
+	public Stats stats() {
+		// Read in the reverse of the order of increments so that no difference is negative.
+		long completed = this.completed.sum();
+		long started = this.started.sum();
+		long submitted = this.submitted.sum();
+		return new Stats( this.label, this.isVirtual() ? 0 : this.workerCount(), submitted, started, completed,
+			this.waits.snapshot(), this.execs.snapshot(), System.nanoTime() - this.created );
+	}
+	
+	/**
+	 * The instances that have been constructed and not yet terminated, ordered by label.
+	 * 
+	 * @return		The live instances
+	 */
+	@Test.Decl( "Includes new instance" )
+	@Test.Decl( "Excludes terminated instance" )
+	@Test.Decl( "Ordered by label" )
+	public static Stream<Concurrent> live() {
+		return Concurrent.LIVE.stream().sorted( Comparator.comparing( c -> c.label ) );
+	}
+
 	@Override 
 	@Test.Decl( "Includes label" )
 	@Test.Decl( "Reports when procedures are pending" )
 	@Test.Decl( "Reports number of Worker threads" )
+	@Test.Decl( "Reports virtual mode" )
+	@Test.Decl( "Reports elastic bounds" )
 	public String toString() {
+		if ( this.isVirtual() ) {
+			return "Concurrent(" + this.label
+				+ ", " + this.running.size() + " running"
+				+ ", virtual" + (this.permits == null ? "" : ", " + this.permits.availablePermits() + " permits available") + ")";
+		}
 		return "Concurrent(" + this.label 
 			+ ", " + (this.procedures.isEmpty() ? "no procedures" : "has procedures")
-			+ ", " + this.workers.size() + " workers)";
+			+ ", " + this.workerCount() + " workers" + (this.isElastic() ? ", elastic " + this.minWorkers + " to " + this.maxWorkers : "") + ")";
+	}
+
+
+	
+	/**
+	 * The pending result of a request made with applyGetLater(Function, Object).
+	 * 
+	 * A caller interrupted while waiting cancels the request, which interrupts the thread
+	 * evaluating it, and get() throws AppRuntime with the interrupt status restored.
+	 */
+	@Test.Skip( "Interface" )
+	public interface Result<R> extends Supplier<R> {
+		
+		/**
+		 * Waits at most the given time for the result.
+		 * 
+		 * @throws TimeoutException		If the result is not ready in time. The request is not cancelled.
+		 * @throws CancellationException	If the request was cancelled
+		 */
+		public R get( long timeout, TimeUnit unit ) throws TimeoutException;
+		
+		/**
+		 * Cancels the request. A request not yet started is skipped; a running request is interrupted.
+		 * 
+		 * @return		False if the request had already completed or been cancelled
+		 */
+		public boolean cancel();
+		
+		/** True when the request has completed or been cancelled. */
+		public boolean isDone();
+	}
+	
+	/**
+	 * The pending result of a request made with applyGetLater(FunctionWithException, Object).
+	 * 
+	 * @see Result
+	 */
+	@Test.Skip( "Interface" )
+	public interface ResultWithException<R, E extends Exception> extends SupplierWithException<R, E> {
+		
+		public R get( long timeout, TimeUnit unit ) throws E, TimeoutException;
+		
+		public boolean cancel();
+		
+		public boolean isDone();
+	}
+
+
+	
+	/**
+	 * An immutable snapshot of the counters of a Concurrent instance. Latencies are recorded
+	 * in power of two buckets of microseconds, so quantiles are upper bounds accurate to a
+	 * factor of two.
+	 */
+	public static final class Stats {
+		
+		private final String label;
+		private final int workers;
+		private final long submitted;
+		private final long started;
+		private final long completed;
+		private final long[] waits;
+		private final long[] execs;
+		private final long elapsedNanos;
+		
+		private Stats( String label, int workers, long submitted, long started, long completed, long[] waits, long[] execs, long elapsedNanos ) {
+			this.label = label;
+			this.workers = workers;
+			this.submitted = submitted;
+			this.started = started;
+			this.completed = completed;
+			this.waits = waits;
+			this.execs = execs;
+			this.elapsedNanos = elapsedNanos;
+		}
+		
+		/** The label of the instance. */
+		@Test.Decl( "Consistent with label given to constructor" )
+		public String label() {
+			return this.label;
+		}
+		
+		/** Number of Worker threads, or zero in virtual mode. */
+		@Test.Decl( "Consistent with thread count" )
+		@Test.Decl( "Zero in virtual mode" )
+		public int workers() {
+			return this.workers;
+		}
+		
+		/** Number of requests accepted. */
+		@Test.Decl( "Zero at creation" )
+		public long submitted() {
+			return this.submitted;
+		}
+		
+		/** Number of requests accepted and not yet started. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Not negative" )
+		public long queued() {
+			return Math.max( 0L, this.submitted - this.started );
+		}
+		
+		/** Number of requests being evaluated. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Not negative" )
+		public long active() {
+			return Math.max( 0L, this.started - this.completed );
+		}
+		
+		/** Number of requests finished, including those that failed or were cancelled. */
+		@Test.Decl( "Zero at creation" )
+		public long completed() {
+			return this.completed;
+		}
+		
+		/** Completed requests per second since the instance was constructed. */
+		@Test.Decl( "Zero at creation" )
+		@Test.Decl( "Positive after completions" )
+		public double throughput() {
+			return this.elapsedNanos <= 0L ? 0.0 : this.completed * 1.0e9 / this.elapsedNanos;
+		}
+		
+		/** Upper bound in microseconds on the given quantile of the time requests waited to start. */
+		@Test.Decl( "Throws AssertionError for quantile out of range" )
+		@Test.Decl( "Zero when nothing recorded" )
+		@Test.Decl( "Non-decreasing in quantile" )
+		public long waitMicros( double quantile ) {
+			return Histogram.quantile( this.waits, quantile );
+		}
+		
+		/** Upper bound in microseconds on the given quantile of the time requests took to evaluate. */
+		@Test.Decl( "Throws AssertionError for quantile out of range" )
+		@Test.Decl( "Zero when nothing recorded" )
+		@Test.Decl( "Bounds evaluation time" )
+		public long execMicros( double quantile ) {
+			return Histogram.quantile( this.execs, quantile );
+		}
+		
+		@Override
+		@Test.Decl( "Result is not empty" )
+		@Test.Decl( "Includes label" )
+		public String toString() {
+			return "Concurrent.Stats(" + this.label
+				+ ", workers=" + this.workers
+				+ ", submitted=" + this.submitted
+				+ ", queued=" + this.queued()
+				+ ", active=" + this.active()
+				+ ", completed=" + this.completed
+				+ ", throughput=" + String.format( "%.1f/s", this.throughput() )
+				+ ", wait p50/p99=" + this.waitMicros( 0.5 ) + "/" + this.waitMicros( 0.99 ) + "us"
+				+ ", exec p50/p99=" + this.execMicros( 0.5 ) + "/" + this.execMicros( 0.99 ) + "us)";
+		}
+	}
+	
+	/**
+	 * A named set of requests that shares the Workers with other Groups in proportion to its
+	 * weight. Obtained from Concurrent.group().
+	 */
+	public final class Group {
+		
+		private final String name;
+		
+		/* Read by the scheduler. */
+		private volatile int weight;
+		
+		/* Virtual finish time of the last request of this Group; guarded by the scheduler. */
+		private double finish;
+		
+		private Group( String name ) {
+			this.name = name;
+			this.weight = 1;
+			this.finish = 0.0;
+		}
+		
+		/**
+		 * Returns a CompletableFuture for the value of the supplier, evaluated on the pool
+		 * with this Group's share.
+		 * 
+		 * @param <R>			The type of the result
+		 * @param supplier		Provides the result
+		 * @return				A future for the result
+		 */
+		@Test.Decl( "Throws AssertionError for null supplier" )
+		@Test.Decl( "Result is consistent with supplier" )
+		@Test.Decl( "Taken before plain requests" )
+		public <R> CompletableFuture<R> submit( Supplier<R> supplier ) {
+			return Concurrent.this.submit( supplier, 0, this );
+		}
+		
+		/**
+		 * As submit(Supplier), with a priority that is applied before the Group shares.
+		 * 
+		 * @see Concurrent#submit(Supplier, int)
+		 */
+		@Test.Decl( "Throws AssertionError for null supplier" )
+		@Test.Decl( "Higher priority is taken first" )
+		@Test.Decl( "Negative priority is taken after plain requests" )
+		public <R> CompletableFuture<R> submit( Supplier<R> supplier, int priority ) {
+			return Concurrent.this.submit( supplier, priority, this );
+		}
+		
+		/**
+		 * Enqueue the command for evaluation with this Group's share and return immediately.
+		 * 
+		 * @param command		The command to run
+		 */
+		@Test.Decl( "Throws AssertionError for null command" )
+		@Test.Decl( "Command is evaluated by a Worker thread" )
+		public void execute( Runnable command ) {
+			Assert.nonNull( command );
+			Concurrent.this.addProcedure( new Task( command ), 0, this );
+		}
+		
+		@Override
+		@Test.Decl( "Includes name" )
+		@Test.Decl( "Includes weight" )
+		public String toString() {
+			return "Group(" + this.name + ", weight " + this.weight + ")";
+		}
+	}
+	
+	/*
+	 * Orders scheduled requests by priority, then by virtual finish time, self-clocked fair
+	 * queuing: a request of a Group with weight w finishes 1/w after the later of the Group's
+	 * previous finish and the finish of the request last taken. Requests without a Group finish
+	 * at the current clock. Ties are taken in arrival order.
+	 */
+	private static final class Scheduler {
+		
+		private final HeapQueue<Scheduled> heap = new HeapQueue<Scheduled>( Scheduled::compare );
+		
+		/* Finish time of the request last taken. */
+		private double clock = 0.0;
+		
+		/* Lets Workers skip the lock when nothing is scheduled. */
+		private volatile int size = 0;
+		
+		private synchronized void put( Procedure procedure, int priority, Group group ) {
+			double finish = this.clock;
+			if ( group != null ) {
+				finish = Math.max( this.clock, group.finish ) + 1.0 / group.weight;
+				group.finish = finish;
+			}
+			this.heap.put( new Scheduled( procedure, priority, finish ) );
+			this.size = this.heap.size();
+		}
+		
+		/* The next request, or null. Requests with negative priority only if all is true. */
+		private Procedure poll( boolean all ) {
+			if ( this.size == 0 ) {
+				return null;
+			}
+			synchronized ( this ) {
+				Scheduled next = this.heap.peek();
+				if ( next == null || (next.priority < 0 && !all) ) {
+					return null;
+				}
+				this.heap.get();
+				this.size = this.heap.size();
+				this.clock = Math.max( this.clock, next.finish );
+				return next.procedure;
+			}
+		}
+	}
+	
+	private static final class Scheduled {
+		
+		private final Procedure procedure;
+		
+		private final int priority;
+		
+		private final double finish;
+		
+		private Scheduled( Procedure procedure, int priority, double finish ) {
+			this.procedure = procedure;
+			this.priority = priority;
+			this.finish = finish;
+		}
+		
+		/* Higher priority first, then earlier finish. */
+		private static int compare( Scheduled a, Scheduled b ) {
+			int cmp = Integer.compare( b.priority, a.priority );
+			return cmp != 0 ? cmp : Double.compare( a.finish, b.finish );
+		}
+	}
+	
+	/*
+	 * Counts of latencies in power of two buckets of microseconds. Bucket zero holds latencies
+	 * under two microseconds and bucket i > 0 those in [2^i, 2^(i+1)). Recording is lock free.
+	 */
+	private static final class Histogram {
+		
+		private static final int BUCKETS = 40;
+		
+		private final AtomicLongArray counts = new AtomicLongArray( Histogram.BUCKETS );
+		
+		private void record( long nanos ) {
+			long micros = nanos / 1000L;
+			int bucket = micros < 2L ? 0 : 63 - Long.numberOfLeadingZeros( micros );
+			this.counts.incrementAndGet( Math.min( bucket, Histogram.BUCKETS - 1 ) );
+		}
+		
+		private long[] snapshot() {
+			long[] result = new long[Histogram.BUCKETS];
+			for ( int i = 0; i < result.length; i++ ) {
+				result[i] = this.counts.get( i );
+			}
+			return result;
+		}
+		
+		/* Upper bound of the bucket holding the quantile, or zero if nothing was recorded. */
+		private static long quantile( long[] counts, double quantile ) {
+			Assert.isTrue( quantile >= 0.0 && quantile <= 1.0 );
+			long total = 0L;
+			for ( long count : counts ) {
+				total += count;
+			}
+			if ( total == 0L ) {
+				return 0L;
+			}
+			long rank = Math.max( 1L, (long) Math.ceil( quantile * total ) );
+			long seen = 0L;
+			int i = 0;
+			while ( (seen += counts[i]) < rank ) {
+				i++;
+			}
+			return 1L << (i + 1);
+		}
+	}
+	
+	/* Wraps each accepted procedure to record its queue wait and evaluation time. */
+	private final class Metered implements Procedure {
+		
+		private final Procedure procedure;
+		
+		private final long queued;
+		
+		private Metered( Procedure procedure ) {
+			this.procedure = procedure;
+			this.queued = System.nanoTime();
+		}
+		
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public void exec() {
+			long start = System.nanoTime();
+			Concurrent.this.waits.record( start - this.queued );
+			Concurrent.this.started.increment();
+			if ( Concurrent.this.isElastic() ) {
+				Concurrent.this.lastStart = start;
+				if ( start - this.queued > Concurrent.this.targetWaitNanos ) {
+					Concurrent.this.grow();
+				}
+			}
+			try {
+				this.procedure.exec();
+			} finally {
+				Concurrent.this.execs.record( System.nanoTime() - start );
+				Concurrent.this.completed.increment();
+			}
+		}
+	}
+	
+	/*
+	 * Called by a thread about to wait for a result. If it is a Worker of this instance it runs
+	 * one queued procedure instead, so that nested requests from Workers make progress without
+	 * idle Workers, fork/join style. Returns false if the thread is not a Worker of this instance
+	 * or nothing is queued, in which case the caller may block: anything it waits on is then
+	 * already running on another Worker.
+	 */
+	private boolean helpOne() {
+		if ( Concurrent.POOL.get() != this || this.isVirtual() ) {
+			return false;
+		}
+		Procedure proc = this.next( false );
+		if ( proc == null ) {
+			return false;
+		}
+		proc.exec();
+		return true;
+	}
+	
+	/*
+	 * The next procedure for a Worker: scheduled requests with non-negative priority, then plain
+	 * requests, then the rest of the scheduled requests. Each scheduled request has a token in
+	 * the plain queue, and a Worker that takes a token checks the scheduler again before it
+	 * blocks, so no scheduled request is stranded. Returns null if not blocking and there is
+	 * nothing to do, when the queue is closed and empty, or in elastic mode after waiting for
+	 * the keep-alive time.
+	 */
+	private Procedure next( boolean block ) {
+		Procedure proc = this.scheduler.poll( false );
+		if ( proc == null ) {
+			proc = this.procedures.poll();
+		}
+		if ( proc == null ) {
+			proc = this.scheduler.poll( true );
+		}
+		if ( proc == null && block ) {
+			proc = this.isElastic() ? this.procedures.poll( this.keepAliveNanos, TimeUnit.NANOSECONDS ) : this.procedures.get();
+		}
+		return proc;
+	}
+	
+	private static void quietJoin( Thread thread ) {
+		try {
+			thread.join();
+		} catch ( InterruptedException ex ) {
+			App.get().getLocation( ex ).map( s -> ">>> " + s ).forEach( System.out::println );
+		}
 	}
 
 
@@ -314,9 +1351,14 @@ public class Concurrent implements App.OnShutdown {
 		@Override
 		@Test.Decl( "Worker evaluates procedures" )
 		public  void run() {
-			Procedure proc;
-			while ( (proc = Concurrent.this.procedures.get()) != null ) {
-				proc.exec();
+			Concurrent.POOL.set( Concurrent.this );
+			while ( true ) {
+				Procedure proc = Concurrent.this.next( true );
+				if ( proc != null ) {
+					proc.exec();
+				} else if ( !Concurrent.this.procedures.isOpen() || Concurrent.this.retire( this ) ) {
+					return;
+				}
 			}
 		}
 		
@@ -327,12 +1369,147 @@ public class Concurrent implements App.OnShutdown {
 		}
 		
 		private void quietJoin() {
+			Concurrent.quietJoin( this );
+		}
+	}
+	
+	
+	/*
+	 * A command submitted through execute(). No result is held. Whatever the command throws is
+	 * reported here, so the Worker survives and a helping caller never sees it. A fatal error is
+	 * also given to the uncaught exception handler, as if it had ended the thread.
+	 */
+	private static class Task implements Procedure {
+		
+		private final Runnable command;
+		
+		private Task( Runnable command ) {
+			this.command = command;
+		}
+		
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public void exec() {
+			try {
+				this.command.run();
+			} catch ( Throwable t ) {
+				App.get().getLocation( t ).map( s -> ">>> " + s ).forEach( System.err::println );
+				if ( t instanceof VirtualMachineError ) {
+					Thread thread = Thread.currentThread();
+					thread.getUncaughtExceptionHandler().uncaughtException( thread, t );
+				}
+			}
+		}
+	}
+	
+	
+	/*
+	 * Produces the results for mapWindowed(). The window is refilled from the source only when
+	 * the consumer asks for the next result, which is what limits the work in flight. Only the
+	 * consuming thread touches the source and the counters; completions arrive on the done queue.
+	 */
+	@Test.Skip( "Covered by cases in Concurrent" )
+	private final class Window<T, R> implements Iterator<R> {
+		
+		private final Function<T, R> function;
+		
+		private final Iterator<T> source;
+		
+		private final int window;
+		
+		private final boolean ordered;
+		
+		/* Ordered: futures in input order. */
+		private final ArrayDeque<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+		
+		/* Unordered: futures in completion order. */
+		private final LinkedBlockingQueue<CompletableFuture<R>> done = new LinkedBlockingQueue<>();
+		
+		private int pending = 0;
+		
+		private Window( Function<T, R> function, Iterator<T> source, int window, boolean ordered ) {
+			this.function = function;
+			this.source = source;
+			this.window = window;
+			this.ordered = ordered;
+		}
+		
+		private void fill() {
+			while ( this.pending < this.window && this.source.hasNext() ) {
+				CompletableFuture<R> future = Concurrent.this.submit( this.function, this.source.next() );
+				this.pending++;
+				if ( this.ordered ) {
+					this.inFlight.add( future );
+				} else {
+					future.whenComplete( (r, t) -> this.done.add( future ) );
+				}
+			}
+		}
+
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public boolean hasNext() {
+			this.fill();
+			return this.pending > 0;
+		}
+
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public R next() {
+			if ( !this.hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			CompletableFuture<R> future = this.ordered ? this.inFlight.remove() : this.takeDone();
+			this.pending--;
+			while ( !future.isDone() && Concurrent.this.helpOne() ) {}
 			try {
-				this.join();
-			} catch ( InterruptedException ex ) {
-				App.get().getLocation( ex ).map( s -> ">>> " + s ).forEach( System.out::println );
+				return future.join();
+			} catch ( CompletionException ex ) {
+				if ( ex.getCause() instanceof RuntimeException re ) {
+					throw re;
+				}
+				if ( ex.getCause() instanceof Error er ) {
+					throw er;
+				}
+				throw new AppRuntime( ex.getCause() );
 			}
 		}
+		
+		/* As in BaseProcedure, an interrupt does not abandon the wait but is restored. */
+		private CompletableFuture<R> takeDone() {
+			while ( this.done.isEmpty() && Concurrent.this.helpOne() ) {}
+			boolean interrupted = false;
+			CompletableFuture<R> future = null;
+			while ( future == null ) {
+				try {
+					future = this.done.take();
+				} catch ( InterruptedException ex ) {
+					interrupted = true;
+				}
+			}
+			if ( interrupted ) {
+				Thread.currentThread().interrupt();
+			}
+			return future;
+		}
+	}
+	
+	
+	/* A CompletableFuture whose dependent stages default to this pool for asynchronous execution. */
+	@Test.Skip( "Covered by cases in Concurrent" )
+	private final class Stage<T> extends CompletableFuture<T> {
+		
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public Executor defaultExecutor() {
+			return Concurrent.this;
+		}
+		
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public <U> CompletableFuture<U> newIncompleteFuture() {
+			return new Stage<U>();
+		}
 	}
 	
 	
@@ -341,6 +1518,11 @@ public class Concurrent implements App.OnShutdown {
 		
 		private boolean completed = false;
 		
+		private boolean cancelled = false;
+		
+		/* The thread evaluating this procedure, so that cancel() can interrupt it. */
+		private Thread runner = null;
+		
 		protected abstract S getThis();
 		
 		protected abstract void execImpl();
@@ -353,31 +1535,95 @@ public class Concurrent implements App.OnShutdown {
 		/* Called by a Worker thread */
 		@Override
 		public void exec() {
-			this.execImpl();
-			this.complete();
+			synchronized ( this ) {
+				if ( this.cancelled ) {
+					return;
+				}
+				this.runner = Thread.currentThread();
+			}
+			boolean interrupted = false;
+			try {
+				this.execImpl();
+			} finally {
+				synchronized ( this ) {
+					this.runner = null;
+					this.completed = true;
+					interrupted = this.cancelled;
+					this.notifyAll();
+				}
+				// An interrupt from cancel() must not reach the next procedure run by this thread
+				if ( interrupted ) {
+					Thread.interrupted();
+				}
+			}
 		}
 		
-		/* Called by a Worker thread */
-		private synchronized void complete() {
-			this.completed = true;
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public synchronized boolean cancel() {
+			if ( this.completed || this.cancelled ) {
+				return false;
+			}
+			this.cancelled = true;
+			if ( this.runner != null ) {
+				this.runner.interrupt();
+			}
 			this.notifyAll();
+			return true;
+		}
+		
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public synchronized boolean isDone() {
+			return this.completed || this.cancelled;
 		}
 		
 		/*
-		 * Concrete subclasses wait until this is true before presenting results. For example
+		 * Concrete subclasses wait until completed before presenting results. Returns false if the
+		 * given time passes first. An interrupt cancels the procedure, so the interrupt reaches the
+		 * thread evaluating it, and is restored for the caller.
 		 * 
-		 * 		protected synchronized Result get() {
-		 * 			while ( true ) {
-		 * 				if ( this.isCompleted() ) {
-		 * 					return this.result;
-		 * 				} else {
-		 * 					try { this.wait(); } catch ( InterruptedException ex ) {}
-		 * 				}
-		 * 			}
-		 * 		}
+		 * A Worker first helps with queued procedures, possibly this one, outside the lock so
+		 * that the Worker evaluating this procedure can complete it.
 		 */
-		protected boolean isCompleted() {
-			return this.completed;
+		protected boolean awaitCompletion( long nanos ) {
+			long end = System.nanoTime() + nanos;
+			while ( !this.isDone() && end - System.nanoTime() > 0L && Concurrent.this.helpOne() ) {}
+			return this.waitUntil( end );
+		}
+		
+		private synchronized boolean waitUntil( long end ) {
+			while ( !this.completed && !this.cancelled ) {
+				long remaining = end - System.nanoTime();
+				if ( remaining <= 0L ) {
+					return false;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait( this, remaining );
+				} catch ( InterruptedException ex ) {
+					this.cancel();
+					Thread.currentThread().interrupt();
+					throw new AppRuntime( "Interrupted while waiting for result", ex );
+				}
+			}
+			if ( this.cancelled ) {
+				throw new CancellationException();
+			}
+			return true;
+		}
+		
+		/* Waits subject to the timeout of the Concurrent instance, cancelling if it is reached. */
+		protected void awaitCompletion() {
+			long millis = Concurrent.this.timeout;
+			if ( !this.awaitCompletion( millis > 0L ? TimeUnit.MILLISECONDS.toNanos( millis ) : Long.MAX_VALUE ) ) {
+				this.cancel();
+				throw new AppRuntime( "Result not ready in time", new TimeoutException( millis + " ms" ) );
+			}
+		}
+		
+		protected void awaitCompletion( long timeout, TimeUnit unit ) throws TimeoutException {
+			Assert.nonNull( unit );
+			if ( !this.awaitCompletion( unit.toNanos( timeout ) ) ) {
+				throw new TimeoutException( timeout + " " + unit );
+			}
 		}
 
 	}
@@ -387,7 +1633,7 @@ public class Concurrent implements App.OnShutdown {
 	 * The Supplier.get() method blocks until the result has been calculated.
 	 */
 	@Test.Skip( "Covered by cases in Concurrent" )
-	private class FunctionProcedure<T, R> extends BaseProcedure<FunctionProcedure<T, R>> implements Supplier<R> {
+	private class FunctionProcedure<T, R> extends BaseProcedure<FunctionProcedure<T, R>> implements Result<R> {
 		
 		private final Function<T, R> function;
 		
@@ -395,10 +1641,16 @@ public class Concurrent implements App.OnShutdown {
 		
 		private R result;
 		
+		private RuntimeException runtime;
+		
+		private Error error;
+		
 		private FunctionProcedure( Function<T, R> function, T arg ) {
 			this.function = function;
 			this.arg = arg;
 			this.result = null;
+			this.runtime = null;
+			this.error = null;
 		}
 		
 		@Override
@@ -408,22 +1660,38 @@ public class Concurrent implements App.OnShutdown {
 		
 		@Override
 		protected void execImpl() {
-			this.result = this.function.apply( this.arg );
+			try {
+				this.result = this.function.apply( this.arg );
+			} catch ( RuntimeException ex ) {
+				this.runtime = ex;
+			} catch ( Error ex ) {
+				this.error = ex;
+			}
 		}
 
 		@Override
 		@Test.Decl( "Blocks until evaluation is complete" )
 		@Test.Decl( "Result agrees with value of the function" )
-		public synchronized R get() {
-			while  ( true ) {
-				if ( this.isCompleted() ) { 
-					return this.result; 
-				}
-				
-				try {
-					this.wait();
-				} catch ( InterruptedException ex ) {}
+		public R get() {
+			this.awaitCompletion();
+			return this.result();
+		}
+
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public R get( long timeout, TimeUnit unit ) throws TimeoutException {
+			this.awaitCompletion( timeout, unit );
+			return this.result();
+		}
+		
+		private R result() {
+			if ( this.runtime != null ) {
+				throw this.runtime;
+			}
+			if ( this.error != null ) {
+				throw this.error;
 			}
+			return this.result;
 		}
 
 	}
@@ -431,7 +1699,7 @@ public class Concurrent implements App.OnShutdown {
 	@Test.Skip( "Covered by cases in Concurrent" )
 	private class FunctionWithExceptionProcedure<T, R, E extends Exception> 
 		extends BaseProcedure<FunctionWithExceptionProcedure<T, R, E>> 
-		implements SupplierWithException<R, E> {
+		implements ResultWithException<R, E> {
 		
 		private final FunctionWithException<T, R, E> function;
 		
@@ -475,25 +1743,29 @@ public class Concurrent implements App.OnShutdown {
 		@Override
 		@Test.Decl( "Blocks until evaluation is complete" )
 		@Test.Decl( "Result is agrees with value of the function" )
-		public synchronized R get() throws E {
-			while  ( true ) {
-				if ( this.isCompleted() ) { 
-					if ( this.checked != null ) {
-						throw this.checked;
-					}
-					if ( this.runtime != null ) {
-						throw this.runtime;
-					}
-					if ( this.error != null ) {
-						throw this.error;
-					}
-					return this.result; 
-				}
-				
-				try {
-					this.wait();
-				} catch ( InterruptedException ex ) {}
+		public R get() throws E {
+			this.awaitCompletion();
+			return this.result();
+		}
+
+		@Override
+		@Test.Skip( "Covered by cases in Concurrent" )
+		public R get( long timeout, TimeUnit unit ) throws E, TimeoutException {
+			this.awaitCompletion( timeout, unit );
+			return this.result();
+		}
+		
+		private R result() throws E {
+			if ( this.checked != null ) {
+				throw this.checked;
+			}
+			if ( this.runtime != null ) {
+				throw this.runtime;
+			}
+			if ( this.error != null ) {
+				throw this.error;
 			}
+			return this.result;
 		}
 
 	}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+
+package sog.util;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import sog.core.Assert;
+import sog.core.Test;
+
+/**
+ * A thread-safe blocking priority queue backed by a lock-free skip list.
+ * 
+ * The element returned by get is the least element with respect to a given Comparator.
+ * Elements that compare equal are kept, and are retrieved in the order they were put.
+ * Put and get are O(log n) and do not take a lock, so producers and consumers do not
+ * serialize on a monitor the way they do for a PriorityQueue inside a MultiQueue.
+ * 
+ * Blocking semantics follow MultiQueue: get() blocks while the queue is open and empty, returns
+ * remaining elements and then null once closed, and returns null once terminated. drainTo()
+ * does not wait. The queue may also be wrapped in a MultiQueue, for example to bound it.
+ * 
+ * Queue Implementation:
+ * 	1. Determine behavior for put( E elt ) when the queue is open and full
+ * 		No full property.
+ * 
+ * 	2. Determine behavior for E get() when the queue is open and empty
+ * 		Block, awaiting an element.
+ * 
+ * 	3. Determine the order retrieval policy
+ * 		Smallest element with respect to the Comparator, then first put among equals
+ */
+@Test.Subject( "test." )
+public class ConcurrentPriorityQueue<E> extends AbstractQueue<E> {
+	
+	/* Pairs an element with its put order, making equal elements distinct in the set. */
+	private static final class Entry<E> {
+		
+		private final E elt;
+		
+		private final long sequence;
+		
+		private Entry( E elt, long sequence ) {
+			this.elt = elt;
+			this.sequence = sequence;
+		}
+		
+	}
+	
+	private final ConcurrentSkipListSet<Entry<E>> entries;
+	
+	private final AtomicLong nextSequence;
+	
+	/* The skip list counts by traversal, so the size is kept separately. */
+	private final AtomicInteger size;
+	
+	/* Consumers wait on the condition; the count lets producers skip the lock when none wait. */
+	private final ReentrantLock lock;
+	private final Condition available;
+	private final AtomicInteger waiting;
+
+	/**
+	 * Constructs an empty queue ordered by the given Comparator. The queue is open and
+	 * accepting input.
+	 * 
+	 * @param comparator
+	 */
+	@Test.Decl( "Throws AssertionError for null comparator" )
+	@Test.Decl( "Created open and empty" )
+	public ConcurrentPriorityQueue( Comparator<? super E> comparator ) {
+		Assert.nonNull( comparator );
+		Comparator<Entry<E>> byElement = (a, b) -> comparator.compare( a.elt, b.elt );
+		this.entries = new ConcurrentSkipListSet<Entry<E>>( 
+			byElement.thenComparingLong( entry -> entry.sequence ) );
+		this.nextSequence = new AtomicLong();
+		this.size = new AtomicInteger();
+		this.lock = new ReentrantLock();
+		this.available = this.lock.newCondition();
+		this.waiting = new AtomicInteger();
+	}
+
+	@Override
+	@Test.Decl( "True when constructed" )
+	@Test.Decl( "False after put" )
+	@Test.Decl( "True after put then get" )
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	/**
+	 * The number of elements in the queue. The value is only an estimate while other
+	 * threads put and get.
+	 */
+	@Override
+	@Test.Decl( "Zero when constructed" )
+	@Test.Decl( "Counts equal elements" )
+	@Test.Decl( "Decreases after get" )
+	public int size() {
+		return Math.max( 0, this.size.get() );  // A get can briefly run ahead of its put
+	}
+
+	@Override
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Put on open is accepted" )
+	@Test.Decl( "Put on closed is ignored" )
+	@Test.Decl( "Put on terminated is ignored" )
+	@Test.Decl( "Wakes a waiting consumer" )
+	protected boolean putImpl( E elt ) {
+		this.entries.add( new Entry<E>( Assert.nonNull( elt ), this.nextSequence.getAndIncrement() ) );
+		this.size.incrementAndGet();
+		
+		// As for StealingQueue: the element is visible before waiting is read, and a consumer
+		// increments waiting before its final check.
+		if ( this.waiting.get() > 0 ) {
+			this.lock.lock();
+			try {
+				this.available.signal();
+			} finally {
+				this.lock.unlock();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	@Test.Decl( "Returns null when empty" )
+	@Test.Decl( "Elements retrieved in comparator order" )
+	@Test.Decl( "Equal elements retrieved in put order" )
+	protected E getImpl() {
+		Entry<E> entry = this.entries.pollFirst();
+		if ( entry == null ) {
+			return null;
+		}
+		
+		this.size.decrementAndGet();
+		return entry.elt;
+	}
+	
+	/**
+	 * Get the next element from the queue. The return value depends on the
+	 * state of the queue and on the empty/non-empty status of the queue:
+	 *
+	 * OPEN and non-empty: The next non-null element
+	 * OPEN and empty: block, awaiting an element
+	 * CLOSED: The next element or null if empty
+	 * TERMINATED: null
+	 *
+	 * An interrupt does not abandon the wait; the interrupt status is restored on return.
+	 *
+	 * @return
+	 *       The next element of the queue or null if the queue is done
+	 *       producing elements.
+	 */
+	@Override
+	@Test.Decl( "Get on open non empty returns least element" )
+	@Test.Decl( "Get on open empty blocks awaiting put" )
+	@Test.Decl( "Get on closed non empty returns non null" )
+	@Test.Decl( "Get on closed empty returns null" )
+	@Test.Decl( "Get on terminated non empty returns null" )
+	@Test.Decl( "Blocked get returns null after close" )
+	@Test.Decl( "Each element is retrieved once by concurrent consumers" )
+	@Test.Decl( "Interrupt while waiting is restored on return" )
+	public E get() {
+		return this.poll( Long.MAX_VALUE, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * Get the next element, waiting at most the given time while the queue is open and empty.
+	 * An interrupt does not abandon the wait; the interrupt status is restored on return.
+	 *
+	 * @return
+	 *       The next element of the queue, or null if the time passes first or the queue is
+	 *       done producing elements.
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null unit" )
+	@Test.Decl( "Returns element when non empty" )
+	@Test.Decl( "Returns null after timeout when open and empty" )
+	@Test.Decl( "Returns element put while waiting" )
+	@Test.Decl( "Interrupt while waiting is restored on return" )
+	public E poll( long timeout, TimeUnit unit ) {
+		Assert.nonNull( unit );
+		long nanos = unit.toNanos( timeout );
+		long end = System.nanoTime() + nanos;
+		boolean interrupted = false;
+		try {
+			while ( true ) {
+				E elt = super.get();
+				if ( elt != null || !this.isOpen() ) {
+					return elt;
+				}
+				
+				long remaining = nanos == Long.MAX_VALUE ? Long.MAX_VALUE : end - System.nanoTime();
+				if ( remaining <= 0L ) {
+					return null;
+				}
+				this.lock.lock();
+				this.waiting.incrementAndGet();
+				try {
+					if ( this.isOpen() && this.isEmpty() ) {
+						this.available.awaitNanos( remaining );
+					}
+				} catch ( InterruptedException ex ) {
+					interrupted = true;
+				} finally {
+					this.waiting.decrementAndGet();
+					this.lock.unlock();
+				}
+			}
+		} finally {
+			if ( interrupted ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	@Test.Decl( "Can close if open" )
+	@Test.Decl( "Wakes waiting consumers" )
+	public void close() {
+		super.close();
+		this.wakeAll();
+	}
+
+	@Override
+	@Test.Decl( "Can terminate if open" )
+	@Test.Decl( "Wakes waiting consumers" )
+	public void terminate() {
+		super.terminate();
+		this.wakeAll();
+	}
+	
+	private void wakeAll() {
+		this.lock.lock();
+		try {
+			this.available.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+	@Override
+	@Test.Decl( "Includes size" )
+	public String toString() {
+		return "ConcurrentPriorityQueue(" + this.size() + " elements)";
+	}
+
+}
@@ -18,8 +18,7 @@
  */
 package sog.util;
 
-import java.util.LinkedList;
-
+import sog.core.Assert;
 import sog.core.Test;
 
 /**
@@ -35,19 +34,49 @@ import sog.core.Test;
  * 	3. Determine the order retrieval policy
  * 		"First in first out"
  * 
+ * Elements are held in an array used as a ring buffer. The length of the array is a power
+ * of two, so positions wrap with a mask, and the array doubles when it fills.
  */
 @Test.Subject( "test." )
 public class FifoQueue<E> extends AbstractQueue<E> {
 
 
-	private LinkedList<E> elements;
+	/* Initial array length when none is given. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/* The ring buffer; the length is always a power of two. */
+	private Object[] elements;
+	
+	/* Position of the next element to get. */
+	private int head;
+	
+	/* Number of elements held. */
+	private int count;
 
 	/**
 	 * Constructs an empty FIFO queue. The queue is open and accepting input.
 	 */
 	@Test.Decl( "FifoQueues are created empty" )
 	public FifoQueue() {
-		this.elements = new LinkedList<E>();
+		this( FifoQueue.DEFAULT_CAPACITY );
+	}
+
+	/**
+	 * Constructs an empty FIFO queue with room for the given number of elements before
+	 * the buffer must grow. The queue is open and accepting input.
+	 * 
+	 * @param initialCapacity
+	 * 		Positive hint for the number of elements; rounded up to a power of two.
+	 */
+	@Test.Decl( "Throws AssertionError for non-positive capacity" )
+	@Test.Decl( "FifoQueues are created empty" )
+	@Test.Decl( "Accepts more elements than the initial capacity" )
+	public FifoQueue( int initialCapacity ) {
+		Assert.lessThanOrEqual( Assert.positive( initialCapacity ), 1 << 30 );
+		int length = Integer.highestOneBit( initialCapacity );
+		this.elements = new Object[length < initialCapacity ? length << 1 : length];
+		this.head = 0;
+		this.count = 0;
 	}
 
 	/**
@@ -62,17 +91,48 @@ public class FifoQueue<E> extends AbstractQueue<E> {
 	@Test.Decl( "Put then get on empty is empty" )
 	@Test.Decl( "Put then put then get is not empty" )
 	public boolean isEmpty() {
-		return this.elements.isEmpty();
+		return this.count == 0;
+	}
+
+	/**
+	 * The number of elements in the queue.
+	 * 
+	 * @return
+	 * 		The number of elements that have been put and not yet retrieved.
+	 */
+	@Override
+	@Test.Decl( "Zero when constructed" )
+	@Test.Decl( "Increases after put" )
+	@Test.Decl( "Decreases after get" )
+	@Test.Decl( "Unchanged by put on closed" )
+	public int size() {
+		return this.count;
 	}
 
 	@Override
 	@Test.Decl( "Put on open is accepted" )
 	@Test.Decl( "Put on closed is ignored" )
 	@Test.Decl( "Put on terminated is ignored" )
+	@Test.Decl( "Put on full buffer grows the buffer" )
 	protected boolean putImpl( E elt ) {
-		this.elements.addLast( elt );
+		if ( this.count == this.elements.length ) {
+			this.grow();
+		}
+		this.elements[(this.head + this.count) & (this.elements.length - 1)] = elt;
+		this.count++;
 		return true;
 	}
+	
+	/* Double the array, unwrapping the elements to start at position 0. */
+	private void grow() {
+		Assert.lessThan( this.elements.length, 1 << 30, "Queue is too large" );
+		Object[] larger = new Object[this.elements.length << 1];
+		int first = this.elements.length - this.head;
+		System.arraycopy( this.elements, this.head, larger, 0, first );
+		System.arraycopy( this.elements, 0, larger, first, this.head );
+		this.elements = larger;
+		this.head = 0;
+	}
 
 
 	@Override
@@ -83,8 +143,19 @@ public class FifoQueue<E> extends AbstractQueue<E> {
 	@Test.Decl( "Get on terminated non empty returns null" )
 	@Test.Decl( "Get on terminated empty returns null" )
 	@Test.Decl( "Elements retrieved in FIFO order" )
+	@Test.Decl( "Elements retrieved in FIFO order after the buffer wraps" )
+	@Test.Decl( "Elements retrieved in FIFO order after the buffer grows" )
 	protected E getImpl() {
-		return this.isEmpty() ? null : this.elements.removeFirst();
+		if ( this.count == 0 ) {
+			return null;
+		}
+		
+		@SuppressWarnings( "unchecked" )
+		E elt = (E) this.elements[this.head];
+		this.elements[this.head] = null;  // Release for collection
+		this.head = (this.head + 1) & (this.elements.length - 1);
+		this.count--;
+		return elt;
 	}
 
 	
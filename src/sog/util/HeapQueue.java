@@ -0,0 +1,390 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+
+package sog.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import sog.core.Assert;
+import sog.core.Test;
+
+/**
+ * Implements Queue behavior with an array-backed binary heap. The element returned by
+ * <code>get</code> is the least element with respect to a given Comparator. Elements that
+ * compare equal are kept, and are retrieved in the order they were put.
+ * 
+ * Put and get are O(log n). The queue is not thread-safe; callers that share it provide
+ * their own locking.
+ * 
+ * An element put with insert() comes with a Handle that can later change the element in
+ * place, for example to decrease its key, or remove it. Plain puts allocate nothing extra.
+ * 
+ * Queue Implementation:
+ * 	1. Determine behavior for put( E elt ) when the queue is open and full
+ * 		No full property. The array grows as needed.
+ * 
+ * 	2. Determine behavior for E get() when the queue is open and empty
+ * 		Return null if open and empty.
+ * 
+ * 	3. Determine the order retrieval policy
+ * 		Smallest element with respect to the Comparator, then first put among equals
+ */
+@Test.Subject( "test." )
+public class HeapQueue<E> extends AbstractQueue<E> {
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private final Comparator<? super E> comparator;
+	
+	/* The heap; slots 0 through size - 1 are in use. */
+	private Object[] elements;
+	
+	/* Put order of the element in the same slot, breaking ties among equal elements. */
+	private long[] sequence;
+	
+	/* Handle for the element in the same slot, or null if it was put without one. */
+	private Handle<E>[] handles;
+	
+	private int size;
+	
+	private long nextSequence;
+
+	/**
+	 * Constructs an empty queue ordered by the given Comparator. The queue is open and
+	 * accepting input.
+	 * 
+	 * @param comparator
+	 */
+	@Test.Decl( "Throws AssertionError for null comparator" )
+	@Test.Decl( "Created open and empty" )
+	public HeapQueue( Comparator<? super E> comparator ) {
+		this.comparator = Assert.nonNull( comparator );
+		this.elements = new Object[HeapQueue.INITIAL_CAPACITY];
+		this.sequence = new long[HeapQueue.INITIAL_CAPACITY];
+		this.handles = HeapQueue.newHandles( HeapQueue.INITIAL_CAPACITY );
+		this.size = 0;
+		this.nextSequence = 0L;
+	}
+	
+	/**
+	 * Constructs a queue ordered by the given Comparator and holding the given elements. Later
+	 * changes to the collection do not affect the queue. The queue is open and accepting input.
+	 * 
+	 * @param comparator
+	 * @param elts
+	 */
+	@Test.Decl( "Throws AssertionError for null comparator" )
+	@Test.Decl( "Throws AssertionError for null collection" )
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Elements retrieved in comparator order" )
+	@Test.Decl( "Equal elements retrieved in collection order" )
+	public HeapQueue( Comparator<? super E> comparator, Collection<? extends E> elts ) {
+		this( comparator );
+		for ( E elt : Assert.nonNull( elts ) ) {
+			this.add( Assert.nonNull( elt ), null );
+		}
+	}
+	
+	@SuppressWarnings( "unchecked" )
+	private static <E> Handle<E>[] newHandles( int length ) {
+		return (Handle<E>[]) new Handle<?>[length];
+	}
+	
+	@SuppressWarnings( "unchecked" )
+	private E elt( int i ) {
+		return (E) this.elements[i];
+	}
+	
+	/* True if the element in slot i comes before the element in slot j. */
+	private boolean before( int i, int j ) {
+		int cmp = this.comparator.compare( this.elt( i ), this.elt( j ) );
+		return cmp < 0 || (cmp == 0 && this.sequence[i] < this.sequence[j]);
+	}
+	
+	private void swap( int i, int j ) {
+		Object e = this.elements[i];
+		this.elements[i] = this.elements[j];
+		this.elements[j] = e;
+		long s = this.sequence[i];
+		this.sequence[i] = this.sequence[j];
+		this.sequence[j] = s;
+		Handle<E> h = this.handles[i];
+		this.handles[i] = this.handles[j];
+		this.handles[j] = h;
+		if ( this.handles[i] != null ) {
+			this.handles[i].index = i;
+		}
+		if ( this.handles[j] != null ) {
+			this.handles[j].index = j;
+		}
+	}
+	
+	/* Move the element in slot i toward the root until its parent comes before it. */
+	private int siftUp( int i ) {
+		while ( i > 0 && this.before( i, (i - 1) / 2 ) ) {
+			this.swap( i, (i - 1) / 2 );
+			i = (i - 1) / 2;
+		}
+		return i;
+	}
+	
+	/* Move the element in slot i toward the leaves until it comes before its children. */
+	private void siftDown( int i ) {
+		while ( true ) {
+			int least = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if ( left < this.size && this.before( left, least ) ) {
+				least = left;
+			}
+			if ( right < this.size && this.before( right, least ) ) {
+				least = right;
+			}
+			if ( least == i ) {
+				break;
+			}
+			this.swap( i, least );
+			i = least;
+		}
+	}
+	
+	/* Add the element in a new slot and restore heap order. */
+	private void add( E elt, Handle<E> handle ) {
+		if ( this.size == this.elements.length ) {
+			this.elements = Arrays.copyOf( this.elements, 2 * this.size );
+			this.sequence = Arrays.copyOf( this.sequence, 2 * this.size );
+			this.handles = Arrays.copyOf( this.handles, 2 * this.size );
+		}
+		int i = this.size++;
+		this.elements[i] = elt;
+		this.sequence[i] = this.nextSequence++;
+		this.handles[i] = handle;
+		if ( handle != null ) {
+			handle.index = i;
+		}
+		this.siftUp( i );
+	}
+	
+	/* Remove and return the element in slot i, restoring heap order. */
+	private E removeAt( int i ) {
+		E result = this.elt( i );
+		this.size--;
+		this.swap( i, this.size );
+		if ( this.handles[this.size] != null ) {
+			this.handles[this.size].index = -1;
+		}
+		this.elements[this.size] = null;
+		this.handles[this.size] = null;
+		if ( i < this.size ) {
+			this.siftDown( this.siftUp( i ) );
+		}
+		return result;
+	}
+
+	@Override
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Put on open is accepted" )
+	@Test.Decl( "Put on closed is ignored" )
+	@Test.Decl( "Put on terminated is ignored" )
+	@Test.Decl( "Equal elements are kept" )
+	@Test.Decl( "Grows beyond initial capacity" )
+	protected boolean putImpl( E elt ) {
+		Assert.nonNull( elt );
+		this.add( elt, null );
+		return true;
+	}
+	
+	/**
+	 * Put the element and return a Handle for it. The handle can later replace the element,
+	 * for example with one of smaller key, or remove it from the queue.
+	 * 
+	 * @param elt
+	 * 		The non-null element to add to the queue.
+	 * 
+	 * @return
+	 * 		The handle, or null if the queue is closed or terminated and the call has been ignored
+	 */
+	@Test.Decl( "Throws AssertionError for null element" )
+	@Test.Decl( "Returns handle on open" )
+	@Test.Decl( "Returns null on closed" )
+	@Test.Decl( "Returns null on terminated" )
+	@Test.Decl( "Element is retrieved in order" )
+	public Handle<E> insert( E elt ) {
+		Assert.nonNull( elt );
+		if ( !this.isOpen() ) {
+			return null;
+		}
+		
+		Handle<E> handle = new Handle<E>( this );
+		this.add( elt, handle );
+		return handle;
+	}
+
+	@Override
+	@Test.Decl( "Get on open non empty returns non null" )
+	@Test.Decl( "Get on open empty returns null" )
+	@Test.Decl( "Get on closed non empty returns non null" )
+	@Test.Decl( "Get on closed empty returns null" )
+	@Test.Decl( "Get on terminated non empty returns null" )
+	@Test.Decl( "Elements retrieved in comparator order" )
+	@Test.Decl( "Equal elements retrieved in put order" )
+	@Test.Decl( "Order is correct for many random elements" )
+	protected E getImpl() {
+		return this.size == 0 ? null : this.removeAt( 0 );
+	}
+	
+	/**
+	 * The element that the next get() would return, without removing it.
+	 * 
+	 * @return		The least element, or null if empty
+	 */
+	@Test.Decl( "Returns null when empty" )
+	@Test.Decl( "Returns least element" )
+	@Test.Decl( "Does not remove element" )
+	public E peek() {
+		return this.size == 0 ? null : this.elt( 0 );
+	}
+	
+	/**
+	 * The number of elements in the queue.
+	 * 
+	 * @return
+	 */
+	@Override
+	@Test.Decl( "Zero when created" )
+	@Test.Decl( "Counts equal elements" )
+	@Test.Decl( "Decreases after get" )
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	@Test.Decl( "True when created" )
+	@Test.Decl( "False after put" )
+	@Test.Decl( "True after put then get" )
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+	
+	@Override
+	@Test.Decl( "Includes size" )
+	public String toString() {
+		return this.getClass().getSimpleName() + "(" + this.size + " elements)";
+	}
+	
+	
+	/**
+	 * Refers to one element of a HeapQueue while it remains in the queue. Like the queue,
+	 * a handle is not thread-safe.
+	 */
+	public static final class Handle<E> {
+		
+		private final HeapQueue<E> queue;
+		
+		/* Slot of the element, or -1 once it has left the queue. */
+		private int index;
+		
+		private Handle( HeapQueue<E> queue ) {
+			this.queue = queue;
+			this.index = -1;
+		}
+		
+		/**
+		 * Tells if the element is still in the queue.
+		 * 
+		 * @return
+		 * 		false once the element has been retrieved or removed, or the queue terminated
+		 */
+		@Test.Decl( "True after insert" )
+		@Test.Decl( "False after element is retrieved" )
+		@Test.Decl( "False after remove" )
+		@Test.Decl( "False after terminate" )
+		public boolean isQueued() {
+			return this.index >= 0 && !this.queue.isTerminated();
+		}
+		
+		/**
+		 * The element this handle refers to.
+		 * 
+		 * @return
+		 * 		The element, or null if it is no longer queued
+		 */
+		@Test.Decl( "Returns element after insert" )
+		@Test.Decl( "Returns replacement after update" )
+		@Test.Decl( "Returns null after element is retrieved" )
+		public E get() {
+			return this.isQueued() ? this.queue.elt( this.index ) : null;
+		}
+		
+		/**
+		 * Replace the element and restore the order of the queue. The replacement keeps
+		 * the put order of the original among equal elements.
+		 * 
+		 * @param elt
+		 * 		The non-null replacement.
+		 * 
+		 * @return
+		 * 		true if the element was replaced, false if it is no longer queued
+		 */
+		@Test.Decl( "Throws AssertionError for null element" )
+		@Test.Decl( "Decreased element moves forward" )
+		@Test.Decl( "Increased element moves back" )
+		@Test.Decl( "Keeps put order among equals" )
+		@Test.Decl( "Returns false after element is retrieved" )
+		@Test.Decl( "Order is correct after many random updates" )
+		public boolean update( E elt ) {
+			Assert.nonNull( elt );
+			if ( !this.isQueued() ) {
+				return false;
+			}
+			
+			this.queue.elements[this.index] = elt;
+			this.queue.siftDown( this.queue.siftUp( this.index ) );
+			return true;
+		}
+		
+		/**
+		 * Remove the element from the queue.
+		 * 
+		 * @return
+		 * 		true if the element was removed, false if it is no longer queued
+		 */
+		@Test.Decl( "Element is not retrieved after remove" )
+		@Test.Decl( "Other elements are retrieved in order" )
+		@Test.Decl( "Returns false when repeated" )
+		public boolean remove() {
+			if ( !this.isQueued() ) {
+				return false;
+			}
+			
+			this.queue.removeAt( this.index );
+			return true;
+		}
+		
+		@Override
+		@Test.Decl( "Includes element" )
+		public String toString() {
+			return "Handle(" + this.get() + ")";
+		}
+		
+	}
+
+}
@@ -237,23 +237,19 @@ public class Macro implements Function<String, Stream<String>> {
 		
 		try ( Queue<String> pending = new FifoQueue<>() ) {
 			pending.put( line );
-			int length = 1;  // Guard against infinite self-reference
 			String current;
 			while ( (current = pending.get()) != null ) {
-				length--;	// FIXME: Could add size() to Queue
 				if ( this.matcher.reset( current ).find() ) {
 					String head = current.substring( 0,  this.matcher.start() );
 					String key = this.matcher.group( 1 );
 					String tail = current.substring( this.matcher.end() );
-					//Stream<String> expansions = this.getExpansions( key );
-					List<String> expansions = this.getExpansions( key );
-					length += expansions.size();
-					//length ++;
-					expansions.forEach( s -> pending.put( head + s + tail ) );
+					pending.putAll( this.getExpansions( key ).stream()
+						.map( s -> head + s + tail ).collect( Collectors.toList() ) );
 				} else {
 					results.add( current );
 				}
-				if ( length > Macro.MAX_ITERATIONS ) {
+				// Guard against infinite self-reference
+				if ( pending.size() > Macro.MAX_ITERATIONS ) {
 					throw new AppRuntime( "Infinite recurrsion detected: " + line );
 				}
 			}			
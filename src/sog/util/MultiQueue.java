@@ -19,12 +19,18 @@
 package sog.util;
 
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 import sog.core.Assert;
 import sog.core.Test;
 
 /**
  * Decorates a queue by adding thread-safe synchronization and blocking
  * semantics to the accessors.
+ * 
+ * A MultiQueue may be bounded. When a bounded queue is open and full, put blocks
+ * until a consumer makes room, giving producers natural backpressure.
  */
 @Test.Subject( "test." )
 public class MultiQueue<E> implements Queue<E> {
@@ -32,6 +38,9 @@ public class MultiQueue<E> implements Queue<E> {
 
 	// The backing Queue
 	private Queue<E> q;
+	
+	// Maximum number of elements held; Integer.MAX_VALUE when unbounded
+	private final int capacity;
 
 	/**
 	 * Constructs a queue containing the elements of the given Queue.
@@ -52,6 +61,27 @@ public class MultiQueue<E> implements Queue<E> {
 	@Test.Decl( "is terminated if queue is terminated" )
 	public MultiQueue( Queue<E> q ) {
 		this.q = Assert.nonNull( q );
+		this.capacity = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Constructs a bounded queue backed by the given empty Queue. While the queue is
+	 * open and holds capacity elements, put blocks awaiting a get.
+	 *
+	 * @param q
+	 *      An empty queue of elements.
+	 * @param capacity
+	 *      The maximum number of elements held.
+	 */
+	@Test.Decl( "Throws AssertionError for null queue" )
+	@Test.Decl( "Throws AssertionError for non-empty queue" )
+	@Test.Decl( "Throws AssertionError for non-positive capacity" )
+	@Test.Decl( "is empty if queue is empty" )
+	@Test.Decl( "Accepts capacity elements without blocking" )
+	public MultiQueue( Queue<E> q, int capacity ) {
+		this.q = Assert.nonNull( q );
+		Assert.isTrue( q.isEmpty() );
+		this.capacity = Assert.positive( capacity );
 	}
 
 	/**
@@ -128,12 +158,103 @@ public class MultiQueue<E> implements Queue<E> {
 	@Test.Decl( "Put on open is accepted" )
 	@Test.Decl( "Put on closed is ignored" )
 	@Test.Decl( "Put on terminated is ignored" )
+	@Test.Decl( "Put on open full blocks awaiting get" )
+	@Test.Decl( "Blocked put is ignored after close" )
 	public synchronized boolean put( E elt ) {
+		while ( this.q.isOpen() && this.isFull() ) {
+			try {
+				this.wait();
+			} catch ( InterruptedException ex ) {}
+		}
+		
+		return this.accept( elt );
+	}
+	
+	/**
+	 * Response to add a non-null element to the queue, waiting at most the given time
+	 * while the queue is open and full.
+	 *
+	 * @param elt
+	 * 		The non-null element to add to the queue.
+	 * @param timeout
+	 * 		The maximum time to wait for room.
+	 * @param unit
+	 * 		The unit of the timeout.
+	 * 
+	 * @return
+	 * 		false if the time passes first or the queue is closed or terminated and the
+	 * 		call has been ignored, true if the element has been accepted
+	 */
+	@Test.Decl( "Throws AssertionError for null unit" )
+	@Test.Decl( "Put on open not full is accepted" )
+	@Test.Decl( "Put on open full returns false after timeout" )
+	@Test.Decl( "Put on open full is accepted after get" )
+	@Test.Decl( "Put on closed is ignored" )
+	public synchronized boolean put( E elt, long timeout, TimeUnit unit ) {
+		Assert.nonNull( unit );
+		long end = System.nanoTime() + unit.toNanos( timeout );
+		while ( this.q.isOpen() && this.isFull() ) {
+			long remaining = end - System.nanoTime();
+			if ( remaining <= 0L ) {
+				return false;
+			}
+			try {
+				TimeUnit.NANOSECONDS.timedWait( this, remaining );
+			} catch ( InterruptedException ex ) {}
+		}
+		
+		return this.accept( elt );
+	}
+	
+	/* Caller holds the lock and has waited for room. */
+	private boolean accept( E elt ) {
 		boolean result = this.q.put( elt );
 		this.notifyAll();
 		return result;
 	}
 	
+	/* Caller holds the lock. An unbounded queue is never full, and its size is not computed. */
+	private boolean isFull() {
+		return this.capacity != Integer.MAX_VALUE && this.q.size() >= this.capacity;
+	}
+	
+	/**
+	 * Response to add each of the given non-null elements to the queue, in order, under
+	 * one acquisition of the lock. While the queue is open and full, waits for consumers
+	 * to make room. Stops at the first element that is not accepted.
+	 *
+	 * @param elts
+	 * 		The non-null elements to add to the queue.
+	 * 
+	 * @return
+	 * 		The number of elements accepted.
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null elements" )
+	@Test.Decl( "Put all on open is accepted" )
+	@Test.Decl( "Put all on closed is ignored" )
+	@Test.Decl( "Put all on open full blocks awaiting get" )
+	@Test.Decl( "Wakes a waiting consumer" )
+	public synchronized int putAll( Iterable<? extends E> elts ) {
+		int count = 0;
+		for ( E elt : Assert.nonNull( elts ) ) {
+			while ( this.q.isOpen() && this.isFull() ) {
+				this.notifyAll();  // Consumers make room
+				try {
+					this.wait();
+				} catch ( InterruptedException ex ) {}
+			}
+			
+			if ( !this.q.put( elt ) ) {
+				break;
+			}
+			count++;
+		}
+		
+		this.notifyAll();
+		return count;
+	}
+	
 	/**
 	 * Get the next element from the queue. The return value depends on the
 	 * state of the queue and on the empty/non-empty status of the queue:
@@ -161,11 +282,11 @@ public class MultiQueue<E> implements Queue<E> {
 			}
 			
 			if ( this.q.isClosed() ) {
-				return this.q.get();
+				return this.taken( this.q.get() );
 			}
 			
 			if ( ! this.q.isEmpty() ) {
-				return this.q.get();
+				return this.taken( this.q.get() );
 			}
 			
 			try {
@@ -175,6 +296,88 @@ public class MultiQueue<E> implements Queue<E> {
 	}
 
 	
+	/* Caller holds the lock. Wakes producers blocked on a full queue. */
+	private E taken( E elt ) {
+		if ( elt != null && this.capacity != Integer.MAX_VALUE && this.q.size() == this.capacity - 1 ) {
+			this.notifyAll();
+		}
+		return elt;
+	}
+	
+	/**
+	 * Get the next element from the queue, waiting at most the given time while the
+	 * queue is open and empty.
+	 *
+	 * @param timeout
+	 * 		The maximum time to wait.
+	 * @param unit
+	 * 		The unit of the timeout.
+	 * 
+	 * @return
+	 *       The next element of the queue, or null if the time passes first or the queue
+	 *       is done producing elements.
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null unit" )
+	@Test.Decl( "Poll on open non empty returns non null" )
+	@Test.Decl( "Poll on open empty returns null after timeout" )
+	@Test.Decl( "Poll on open empty returns element put while waiting" )
+	@Test.Decl( "Poll on closed empty returns null" )
+	@Test.Decl( "Poll on terminated non empty returns null" )
+	public synchronized E poll( long timeout, TimeUnit unit ) {
+		Assert.nonNull( unit );
+		long end = System.nanoTime() + unit.toNanos( timeout );
+		while ( this.q.isOpen() && this.q.isEmpty() ) {
+			long remaining = end - System.nanoTime();
+			if ( remaining <= 0L ) {
+				return null;
+			}
+			try {
+				TimeUnit.NANOSECONDS.timedWait( this, remaining );
+			} catch ( InterruptedException ex ) {}
+		}
+		
+		return this.taken( this.q.get() );
+	}
+	
+	/**
+	 * Move up to max elements to the given collection under one acquisition of the lock.
+	 * While the queue is open and empty, blocks awaiting an element.
+	 *
+	 * @param c
+	 * 		The collection receiving the elements.
+	 * @param max
+	 * 		The maximum number of elements to move.
+	 * 
+	 * @return
+	 * 		The number of elements moved; zero when the queue is done producing elements.
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null collection" )
+	@Test.Decl( "Throws AssertionError for negative max" )
+	@Test.Decl( "Moves available elements in order" )
+	@Test.Decl( "Moves at most max elements" )
+	@Test.Decl( "Drain on open empty blocks awaiting put" )
+	@Test.Decl( "Drain on closed empty returns zero" )
+	@Test.Decl( "Drain on terminated non empty returns zero" )
+	@Test.Decl( "Wakes producers blocked on full" )
+	public synchronized int drainTo( Collection<? super E> c, int max ) {
+		Assert.nonNull( c );
+		Assert.nonNeg( max );
+		while ( max > 0 && this.q.isOpen() && this.q.isEmpty() ) {
+			try {
+				this.wait();
+			} catch ( InterruptedException ex ) {}
+		}
+		
+		boolean full = this.isFull();
+		int count = this.q.drainTo( c, max );
+		if ( full && count > 0 ) {
+			this.notifyAll();
+		}
+		return count;
+	}
+	
 	/**
 	 * Tells if the queue is empty.
 	 *
@@ -190,6 +393,19 @@ public class MultiQueue<E> implements Queue<E> {
 		return this.q.isEmpty();
 	}
 	
+	/**
+	 * The number of elements in the queue.
+	 *
+	 * @return
+	 *      The number of elements that have been accepted and not yet retrieved.
+	 */
+	@Override
+	@Test.Decl( "Zero when queue is empty" )
+	@Test.Decl( "Consistent with queue size" )
+	public synchronized int size() {
+		return this.q.size();
+	}
+	
 	
 
 }
@@ -18,8 +18,8 @@
  */
 package sog.util;
 
+import java.util.Comparator;
 import java.util.SortedSet;
-import java.util.TreeSet;
 
 import sog.core.Assert;
 import sog.core.Test;
@@ -37,8 +37,9 @@ import sog.core.Test;
  * mutually comparable.
  *
  * <p>
- * <b>Important:</b> When implementing <code>Comparable</code> it is required
- * that the order be <i>total</i> and consistent with <tt>equals</tt>.
+ * Elements that compare equal are all kept, and are retrieved in the order
+ * they were put. The queue is a binary heap; see HeapQueue for handles that
+ * support decrease-key.
  * 
  * 
  * Queue Implementation:
@@ -49,72 +50,49 @@ import sog.core.Test;
  * 		Return null if open and empty.
  * 
  * 	3. Determine the order retrieval policy
- * 		Smallest element with respect to the Comparable property
+ * 		Smallest element with respect to the Comparable property, or the comparator of a
+ * 		SortedSet given at construction, then first put among equals
  * 
+ * @see ConcurrentPriorityQueue
  */
 @Test.Subject( "test." )
-public class PriorityQueue<E extends Comparable<E>> extends AbstractQueue<E> {
+public class PriorityQueue<E extends Comparable<E>> extends HeapQueue<E> {
 
 
-	private SortedSet<E> elements;
-
 	/**
 	 * Constructs an empty priority queue. The queue is open and
 	 * accepting input.
 	 */
 	@Test.Decl( "Can be created empty" )
+	@Test.Decl( "Elements retrieved in comparable order" )
+	@Test.Decl( "Equal elements are kept" )
+	@Test.Decl( "Equal elements retrieved in put order" )
 	public PriorityQueue() {
-		this.elements = new TreeSet<E>();
+		super( Comparator.naturalOrder() );
 	}
 
 	/**
 	 * Constructs a priority queue containing the elements of the given
-	 * TreeSet. Note: Operations on the set will affect
-	 * the behavior of the queue. The queue is open and accepting input.
+	 * set. Later changes to the set do not affect the queue. The queue is
+	 * open and accepting input.
 	 *
 	 * @param elements
-	 *      A sorted set of elements. The minimal element( with respect to
-	 *      the implementation of <code>Comparable</code> ) is considered the
-	 *      "head" of the queue and will be the first to be produced by a
+	 *      A sorted set of elements. The queue is ordered by the comparator
+	 *      of the set, or by the implementation of <code>Comparable</code>
+	 *      if the set has none. The first element of the set is considered
+	 *      the "head" of the queue and will be the first to be produced by a
 	 *      call to <code>get</code>.
 	 */
+	@Test.Decl( "Throws AssertionError for null set" )
 	@Test.Decl( "Can be created non empty" )
+	@Test.Decl( "Later changes to the set do not affect the queue" )
+	@Test.Decl( "Ordered by the comparator of the set" )
 	public PriorityQueue( SortedSet<E> elements ) {
-		this.elements = Assert.nonNull( elements );
-	}
-
-	@Override
-	@Test.Decl( "Put on open is accepted" )
-	@Test.Decl( "Put on closed is ignored" )
-	@Test.Decl( "Put on terminated is ignored" )
-	protected boolean putImpl( E elt ) {
-		return this.elements.add( elt );
+		super( PriorityQueue.comparator( Assert.nonNull( elements ) ), elements );
 	}
-
-	@Override
-	@Test.Decl( "Get on open non empty returns non null" )
-	@Test.Decl( "Get on open empty returns null" )
-	@Test.Decl( "Get on closed non empty returns non null" )
-	@Test.Decl( "Get on closed empty returns null" )
-	@Test.Decl( "Get on terminated non empty returns null" )
-	@Test.Decl( "Get on terminated empty returns null" )
-	protected E getImpl() {
-		if ( this.isEmpty() ) {
-			return null;
-		}
-		
-		E result = this.elements.first();
-		this.elements.remove( result );
-		return result;
-	}
-
-	@Override
-	@Test.Decl( "Put on empty is not empty" )
-	@Test.Decl( "Put on non empty is not empty" )
-	@Test.Decl( "Put then get on empty is empty" )
-	@Test.Decl( "Put then put then get is not empty" )
-	public boolean isEmpty() {
-		return this.elements.isEmpty();
+	
+	private static <E extends Comparable<E>> Comparator<? super E> comparator( SortedSet<E> elements ) {
+		return elements.comparator() == null ? Comparator.naturalOrder() : elements.comparator();
 	}
 	
 	
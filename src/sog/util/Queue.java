@@ -18,6 +18,9 @@
  */
 package sog.util;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 import sog.core.Test;
 
 /**
@@ -57,6 +60,11 @@ import sog.core.Test;
  * 		OPEN and empty: unspecified
  * 		CLOSED: The next element or null if empty
  * 		TERMINATED: null
+ * 
+ * Bulk and timed variants follow the same rules:
+ * 		putAll( elts ) puts each element in turn
+ * 		drainTo( c, max ) moves up to max elements that get would produce
+ * 		poll( timeout, unit ) is get, waiting at most the given time when OPEN and empty
  * 		
  * Implementations:
  * 	1. Determine behavior for put( E elt ) when the queue is open and full
@@ -70,6 +78,7 @@ import sog.core.Test;
  * @see FifoQueue
  * @see MultiQueue
  * @see PriorityQueue
+ * @see ConcurrentPriorityQueue
  */
 @Test.Skip( "Abstract" )
 public interface Queue<E> extends AutoCloseable {
@@ -82,6 +91,14 @@ public interface Queue<E> extends AutoCloseable {
 	 */
 	public boolean isEmpty();
 
+	/**
+	 * The number of elements in the queue.
+	 *
+	 * @return
+	 *      The number of elements that have been accepted and not yet retrieved.
+	 */
+	public int size();
+
 	/**
 	 * Tells if the queue is open.
 	 *
@@ -157,5 +174,46 @@ public interface Queue<E> extends AutoCloseable {
 	 */
 	public E get();
 	
+	/**
+	 * Response to add each of the given non-null elements to the queue, in order, as if
+	 * by put. Stops at the first element that is not accepted.
+	 *
+	 * @param elts
+	 * 		The non-null elements to add to the queue.
+	 * 
+	 * @return
+	 * 		The number of elements accepted.
+	 */
+	public int putAll( Iterable<? extends E> elts );
+	
+	/**
+	 * Move up to max elements from the queue to the given collection, in the order get
+	 * would produce them. The OPEN and empty case is unspecified, as for get.
+	 *
+	 * @param c
+	 * 		The collection receiving the elements.
+	 * @param max
+	 * 		The maximum number of elements to move.
+	 * 
+	 * @return
+	 * 		The number of elements moved; zero when the queue is done producing elements.
+	 */
+	public int drainTo( Collection<? super E> c, int max );
+	
+	/**
+	 * Get the next element from the queue, waiting at most the given time when the queue
+	 * is open and empty. Otherwise the return value is the same as for get.
+	 *
+	 * @param timeout
+	 * 		The maximum time to wait.
+	 * @param unit
+	 * 		The unit of the timeout.
+	 * 
+	 * @return
+	 *       The next element of the queue, or null if the time passes first or the queue
+	 *       is done producing elements.
+	 */
+	public E poll( long timeout, TimeUnit unit );
+	
 	
 }
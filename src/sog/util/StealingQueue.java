@@ -0,0 +1,311 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+
+package sog.util;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import sog.core.Assert;
+import sog.core.Test;
+
+/**
+ * A thread-safe blocking queue made of several lanes, each a lock-free deque.
+ * 
+ * Each consumer thread is assigned a home lane on its first get(). A consumer takes from the
+ * head of its home lane and, when that is empty, steals from the tail of the other lanes.
+ * Elements put by a consumer thread go to the head of its own lane, so work a consumer
+ * generates tends to stay with it; elements put by other threads are spread over the lanes
+ * in turn. Producers and consumers of different lanes do not contend.
+ * 
+ * A consumer that finds every lane empty waits, and each put wakes at most one waiting
+ * consumer. Elements are not retrieved in any particular order.
+ * 
+ * Blocking semantics follow MultiQueue: get() blocks while the queue is open and empty, returns
+ * remaining elements and then null once closed, and returns null once terminated.
+ */
+@Test.Subject( "test." )
+public class StealingQueue<E> extends AbstractQueue<E> {
+	
+	/* The lanes; never empty. */
+	private final ConcurrentLinkedDeque<E>[] lanes;
+	
+	/* Home lane of each consumer thread. */
+	private final ThreadLocal<Integer> home;
+	
+	/* Assigns home lanes to consumers in turn. */
+	private final AtomicInteger nextHome;
+	
+	/* Spreads elements from non-consumer threads over the lanes. */
+	private final AtomicInteger nextLane;
+	
+	/* Consumers wait on the condition; the count lets producers skip the lock when none wait. */
+	private final ReentrantLock lock;
+	private final Condition available;
+	private final AtomicInteger waiting;
+
+	/**
+	 * Construct an open, empty queue with the given number of lanes. Normally one lane per
+	 * consumer thread.
+	 * 
+	 * @param laneCount
+	 */
+	@SuppressWarnings( "unchecked" )
+	@Test.Decl( "Throws AssertionError for non-positive lane count" )
+	@Test.Decl( "Created open and empty" )
+	public StealingQueue( int laneCount ) {
+		Assert.positive( laneCount );
+		this.lanes = (ConcurrentLinkedDeque<E>[]) new ConcurrentLinkedDeque<?>[laneCount];
+		for ( int i = 0; i < laneCount; i++ ) {
+			this.lanes[i] = new ConcurrentLinkedDeque<E>();
+		}
+		this.home = new ThreadLocal<Integer>();
+		this.nextHome = new AtomicInteger();
+		this.nextLane = new AtomicInteger();
+		this.lock = new ReentrantLock();
+		this.available = this.lock.newCondition();
+		this.waiting = new AtomicInteger();
+	}
+
+	@Override
+	@Test.Decl( "True when constructed" )
+	@Test.Decl( "False after put" )
+	@Test.Decl( "True after put then get" )
+	@Test.Decl( "False when any lane is non empty" )
+	public boolean isEmpty() {
+		for ( ConcurrentLinkedDeque<E> lane : this.lanes ) {
+			if ( !lane.isEmpty() ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The number of elements in the queue. Lanes are counted one at a time, so the value
+	 * is only an estimate while other threads put and get.
+	 */
+	@Override
+	@Test.Decl( "Zero when constructed" )
+	@Test.Decl( "Counts elements in all lanes" )
+	@Test.Decl( "Decreases after get" )
+	public int size() {
+		int size = 0;
+		for ( ConcurrentLinkedDeque<E> lane : this.lanes ) {
+			size += lane.size();
+		}
+		return size;
+	}
+	
+	/* The home lane of the current thread, or -1 if it has never consumed. */
+	private int homeLane() {
+		Integer index = this.home.get();
+		return index == null ? -1 : index;
+	}
+
+	@Override
+	@Test.Decl( "Put on open is accepted" )
+	@Test.Decl( "Put from consumer goes to its home lane" )
+	@Test.Decl( "Puts from other threads are spread over lanes" )
+	@Test.Decl( "Wakes a waiting consumer" )
+	protected boolean putImpl( E elt ) {
+		int index = this.homeLane();
+		if ( index < 0 ) {
+			this.lanes[Math.floorMod( this.nextLane.getAndIncrement(), this.lanes.length )].addLast( elt );
+		} else {
+			this.lanes[index].addFirst( elt );
+		}
+		
+		// The element is visible before waiting is read, and a consumer increments waiting
+		// before its final check, so either the consumer sees the element or we signal it.
+		if ( this.waiting.get() > 0 ) {
+			this.lock.lock();
+			try {
+				this.available.signal();
+			} finally {
+				this.lock.unlock();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	@Test.Decl( "Returns null when empty" )
+	@Test.Decl( "Takes from home lane first" )
+	@Test.Decl( "Steals from other lanes when home lane is empty" )
+	protected E getImpl() {
+		int index = this.homeLane();
+		if ( index < 0 ) {
+			index = Math.floorMod( this.nextHome.getAndIncrement(), this.lanes.length );
+			this.home.set( index );
+		}
+		
+		E elt = this.lanes[index].pollFirst();
+		for ( int i = 1; elt == null && i < this.lanes.length; i++ ) {
+			elt = this.lanes[(index + i) % this.lanes.length].pollLast();
+		}
+		return elt;
+	}
+	
+	/**
+	 * Get the next element from the queue. The return value depends on the
+	 * state of the queue and on the empty/non-empty status of the queue:
+	 *
+	 * OPEN and non-empty: The next non-null element
+	 * OPEN and empty: block, awaiting an element
+	 * CLOSED: The next element or null if empty
+	 * TERMINATED: null
+	 *
+	 * An interrupt does not abandon the wait; the interrupt status is restored on return.
+	 *
+	 * @return
+	 *       The next element of the queue or null if the queue is done
+	 *       producing elements.
+	 */
+	@Override
+	@Test.Decl( "Get on open non empty returns non null" )
+	@Test.Decl( "Get on open empty blocks awaiting put" )
+	@Test.Decl( "Get on closed non empty returns non null" )
+	@Test.Decl( "Get on closed empty returns null" )
+	@Test.Decl( "Get on terminated non empty returns null" )
+	@Test.Decl( "Blocked get returns null after close" )
+	@Test.Decl( "Each element is retrieved once by concurrent consumers" )
+	@Test.Decl( "Interrupt while waiting is restored on return" )
+	public E get() {
+		boolean interrupted = false;
+		try {
+			while ( true ) {
+				E elt = super.get();
+				if ( elt != null || !this.isOpen() ) {
+					return elt;
+				}
+				
+				this.lock.lock();
+				this.waiting.incrementAndGet();
+				try {
+					if ( this.isOpen() && this.isEmpty() ) {
+						this.available.await();
+					}
+				} catch ( InterruptedException ex ) {
+					interrupted = true;
+				} finally {
+					this.waiting.decrementAndGet();
+					this.lock.unlock();
+				}
+			}
+		} finally {
+			if ( interrupted ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Get the next element without blocking.
+	 *
+	 * @return
+	 *       The next element of the queue, or null if the queue is empty or terminated.
+	 */
+	@Test.Decl( "Returns null when empty" )
+	@Test.Decl( "Returns element when non empty" )
+	@Test.Decl( "Does not block when open and empty" )
+	@Test.Decl( "Returns null when terminated" )
+	public E poll() {
+		return super.get();
+	}
+
+	/**
+	 * Get the next element, waiting at most the given time while the queue is open and empty.
+	 * An interrupt does not abandon the wait; the interrupt status is restored on return.
+	 *
+	 * @return
+	 *       The next element of the queue, or null if the time passes first or the queue is
+	 *       done producing elements.
+	 */
+	@Override
+	@Test.Decl( "Throws AssertionError for null unit" )
+	@Test.Decl( "Returns element when non empty" )
+	@Test.Decl( "Returns null after timeout when open and empty" )
+	@Test.Decl( "Returns element put while waiting" )
+	@Test.Decl( "Returns null after close" )
+	@Test.Decl( "Interrupt while waiting is restored on return" )
+	public E poll( long timeout, TimeUnit unit ) {
+		Assert.nonNull( unit );
+		long end = System.nanoTime() + unit.toNanos( timeout );
+		boolean interrupted = false;
+		try {
+			while ( true ) {
+				E elt = super.get();
+				if ( elt != null || !this.isOpen() ) {
+					return elt;
+				}
+				
+				long remaining = end - System.nanoTime();
+				if ( remaining <= 0L ) {
+					return null;
+				}
+				this.lock.lock();
+				this.waiting.incrementAndGet();
+				try {
+					if ( this.isOpen() && this.isEmpty() ) {
+						this.available.awaitNanos( remaining );
+					}
+				} catch ( InterruptedException ex ) {
+					interrupted = true;
+				} finally {
+					this.waiting.decrementAndGet();
+					this.lock.unlock();
+				}
+			}
+		} finally {
+			if ( interrupted ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	@Test.Decl( "Can close if open" )
+	@Test.Decl( "Wakes waiting consumers" )
+	public void close() {
+		super.close();
+		this.wakeAll();
+	}
+
+	@Override
+	@Test.Decl( "Can terminate if open" )
+	@Test.Decl( "Wakes waiting consumers" )
+	public void terminate() {
+		super.terminate();
+		this.wakeAll();
+	}
+	
+	private void wakeAll() {
+		this.lock.lock();
+		try {
+			this.available.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+	
+}
@@ -20,6 +20,7 @@ package test.sog.core;
 
 import java.io.File;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
@@ -44,10 +45,12 @@ public class ByteFileTest extends Test.Container {
 	private long ORIG_MAX_LENGTH;
 	private long ORIG_WARN_LIMIT;
 	private long ORIG_FAIL_LIMIT;
+	private long ORIG_MAP_CHUNK;
 	
 	private final long NEW_MAX_LENGTH = LIMIT;
 	private final long NEW_WARN_LIMIT = LIMIT * 2;
 	private final long NEW_FAIL_LIMIT = LIMIT * 5;
+	private final long NEW_MAP_CHUNK = LIMIT / 10;
 	
 	public ByteFileTest() {
 		super( ByteFile.class );
@@ -58,11 +61,13 @@ public class ByteFileTest extends Test.Container {
 			this.ORIG_MAX_LENGTH = this.getSubjectField( null, "MAX_LENGTH", null );
 			this.ORIG_WARN_LIMIT = this.getSubjectField( null, "WARN_LIMIT", null );
 			this.ORIG_FAIL_LIMIT = this.getSubjectField( null, "FAIL_LIMIT", null );
+			this.ORIG_MAP_CHUNK = this.getSubjectField( null, "MAP_CHUNK", null );
 
 			// Reduce limits to make it easier to trigger exceptional cases
 			this.setSubjectField( null, "MAX_LENGTH", this.NEW_MAX_LENGTH );
 			this.setSubjectField( null, "WARN_LIMIT", this.NEW_WARN_LIMIT );
 			this.setSubjectField( null, "FAIL_LIMIT", this.NEW_FAIL_LIMIT );
+			this.setSubjectField( null, "MAP_CHUNK", this.NEW_MAP_CHUNK );
 		};
 	}
 	
@@ -72,6 +77,7 @@ public class ByteFileTest extends Test.Container {
 			this.setSubjectField( null, "MAX_LENGTH", this.ORIG_MAX_LENGTH );
 			this.setSubjectField( null, "WARN_LIMIT", this.ORIG_WARN_LIMIT );
 			this.setSubjectField( null, "FAIL_LIMIT", this.ORIG_FAIL_LIMIT );
+			this.setSubjectField( null, "MAP_CHUNK", this.ORIG_MAP_CHUNK );
 		};
 	}
 	
@@ -125,6 +131,84 @@ public class ByteFileTest extends Test.Container {
 		}
 	}
 		
+	@Test.Impl( 
+		member = "constructor: ByteFile(boolean)", 
+		description = "Creates empty file" 
+	)
+	public void tm_0EAE1B8A1( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			tc.assertEqual( 0, bf.getLength() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: ByteFile(boolean)", 
+		description = "Creates open file" 
+	)
+	public void tm_03CCBCF36( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			tc.assertTrue( bf.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: ByteFile(boolean)", 
+		description = "Mapped file can grow beyond one chunk" 
+	)
+	public void tm_03AACD435( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			int position = (int) this.NEW_MAP_CHUNK - this.DATA.length / 2;
+			bf.write( position, this.DATA );
+			bf.append( this.DATA );
+			tc.assertEqual( this.DATA, bf.read( position, this.DATA.length ) );
+			tc.assertEqual( this.DATA, bf.read( position + this.DATA.length, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: ByteFile(boolean)", 
+		description = "Mapped file can recover bytes written" 
+	)
+	public void tm_0DD0B834C( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			int[] positions = Arrays.stream( this.ARGS ).map( String::getBytes ).mapToInt( bf::append ).toArray();
+			for ( int i = 0; i < this.ARGS.length; i++ ) {
+				tc.assertEqual( this.ARGS[i], new String( bf.read( positions[i], this.ARGS[i].getBytes().length ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: ByteFile(boolean)", 
+		description = "Mapped file length is the logical length" 
+	)
+	public void tm_0006EEC08( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			Stream.of( 27, 11, 92, 78, 76, 100 ).forEach( n -> bf.write( n, this.DATA ) );
+			tc.assertEqual( 100 + this.DATA.length, bf.getLength() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ByteFile.isMapped()", 
+		description = "False for default" 
+	)
+	public void tm_03E96D1E8( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.assertFalse( bf.isMapped() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ByteFile.isMapped()", 
+		description = "True for mapped" 
+	)
+	public void tm_0F0FDEEF7( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			tc.assertTrue( bf.isMapped() );
+		}
+	}
+		
 	@Test.Impl( 
 		member = "method: String ByteFile.toString()", 
 		description = "Indicates length" 
@@ -1086,7 +1170,7 @@ public class ByteFileTest extends Test.Container {
 	public void tm_0A1873EA8( Test.Case tc ) {
 		try ( ByteFile bf = new ByteFile() ) {
 			tc.expectError( AssertionError.class );
-			bf.write( 0, null );
+			bf.write( 0, (byte[]) null );
 		}
 	}
 		
@@ -1333,6 +1417,409 @@ public class ByteFileTest extends Test.Container {
 	
 	
 
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Buffers are contiguous in order" 
+	)
+	public void tm_0E5569935( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			ByteBuffer[] bufs = Arrays.stream( this.ARGS ).map( String::getBytes ).map( ByteBuffer::wrap ).toArray( ByteBuffer[]::new );
+			long position = bf.appendAll( bufs );
+			String all = String.join( "", this.ARGS );
+			tc.assertEqual( all, new String( bf.read( (int) position, all.getBytes().length ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Can recover bytes written when mapped" 
+	)
+	public void tm_02F8C6E92( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			bf.append( this.DATA );
+			long position = bf.appendAll( ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, bf.read( (int) position, this.DATA.length ) );
+			tc.assertEqual( this.DATA, bf.read( (int) position + this.DATA.length, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Increases length by total remaining" 
+	)
+	public void tm_0B114911F( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			int before = bf.getLength();
+			bf.appendAll( ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA, 0, 10 ) );
+			tc.assertEqual( before + this.DATA.length + 10, bf.getLength() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Returns previous length" 
+	)
+	public void tm_03A125E15( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			tc.assertEqual( (long) this.DATA.length, bf.appendAll( ByteBuffer.wrap( this.DATA ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0606EC1D6( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.dispose();
+			tc.expectError( AssertionError.class );
+			bf.appendAll( ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for length + total remaining > MAX_LENGTH",
+		threadsafe = false
+	)
+	public void tm_0F2BE57BD( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.write( (int) NEW_MAX_LENGTH - this.DATA.length, this.DATA );
+			tc.expectError( AssertionError.class );
+			bf.appendAll( ByteBuffer.wrap( this.DATA, 0, 1 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_034484419( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.appendAll( ByteBuffer.wrap( this.DATA ), null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long ByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for null sources" 
+	)
+	public void tm_054C16850( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.appendAll( (ByteBuffer[]) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Advances destination position to limit" 
+	)
+	public void tm_0B49DF376( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			ByteBuffer buf = ByteBuffer.allocate( this.DATA.length );
+			bf.read( 0L, buf );
+			tc.assertEqual( buf.limit(), buf.position() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Read is consistent with write when mapped" 
+	)
+	public void tm_0D7EB1E2C( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			bf.write( 42L, ByteBuffer.wrap( this.DATA ) );
+			ByteBuffer buf = ByteBuffer.allocateDirect( this.DATA.length );
+			bf.read( 42L, buf );
+			byte[] result = new byte[ this.DATA.length ];
+			buf.flip().get( result );
+			tc.assertEqual( this.DATA, result );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Read is consistent with write" 
+	)
+	public void tm_0E5C24AB3( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.write( 42, this.DATA );
+			ByteBuffer buf = ByteBuffer.allocateDirect( this.DATA.length );
+			bf.read( 42L, buf );
+			byte[] result = new byte[ this.DATA.length ];
+			buf.flip().get( result );
+			tc.assertEqual( this.DATA, result );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0BCC62F6D( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			bf.dispose();
+			tc.expectError( AssertionError.class );
+			bf.read( 0L, ByteBuffer.allocate( 1 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for negative position" 
+	)
+	public void tm_0EEBF7CC2( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			tc.expectError( AssertionError.class );
+			bf.read( -1L, ByteBuffer.allocate( 1 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for null destination" 
+	)
+	public void tm_0E477E33D( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			tc.expectError( AssertionError.class );
+			bf.read( 0L, (ByteBuffer) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for position + remaining > length" 
+	)
+	public void tm_0C80A69AC( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			bf.read( 1L, ByteBuffer.allocate( this.DATA.length - 1 ) );
+			tc.expectError( AssertionError.class );
+			bf.read( 1L, ByteBuffer.allocate( this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Advances source position to limit" 
+	)
+	public void tm_030ECA58C( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			ByteBuffer buf = ByteBuffer.wrap( this.DATA );
+			bf.write( 0L, buf );
+			tc.assertEqual( buf.limit(), buf.position() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Can recover bytes written from direct buffer" 
+	)
+	public void tm_02A18384C( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			ByteBuffer buf = ByteBuffer.allocateDirect( this.DATA.length );
+			buf.put( this.DATA ).flip();
+			bf.write( 17L, buf );
+			tc.assertEqual( this.DATA, bf.read( 17, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Can recover bytes written from heap buffer" 
+	)
+	public void tm_0A975A029( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.write( 17L, ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, bf.read( 17, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Can recover bytes written when mapped" 
+	)
+	public void tm_028E46864( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			bf.write( 17L, ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, bf.read( 17, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Increases length if position + remaining > length" 
+	)
+	public void tm_0269912BB( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.write( 17L, ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( 17 + this.DATA.length, bf.getLength() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_01CB36944( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.dispose();
+			tc.expectError( AssertionError.class );
+			bf.write( 0L, ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for negative position" 
+	)
+	public void tm_0AD5064CB( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.write( -1L, ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_02DA03DEB( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.write( 0L, (ByteBuffer) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for position + remaining > MAX_LENGTH",
+		threadsafe = false
+	)
+	public void tm_03E1D6AD0( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.write( NEW_MAX_LENGTH - 1, ByteBuffer.wrap( this.DATA, 0, 1 ) );
+			tc.expectError( AssertionError.class );
+			bf.write( NEW_MAX_LENGTH - 1, ByteBuffer.wrap( this.DATA, 0, 2 ) );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Buffers are contiguous in order" 
+	)
+	public void tm_08F7FCB08( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			ByteBuffer[] bufs = Arrays.stream( this.ARGS ).map( String::getBytes ).map( ByteBuffer::wrap ).toArray( ByteBuffer[]::new );
+			bf.writeAll( 10L, bufs );
+			String all = String.join( "", this.ARGS );
+			tc.assertEqual( all, new String( bf.read( 10, all.getBytes().length ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Can recover bytes written when mapped" 
+	)
+	public void tm_0820FB625( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile( true ) ) {
+			bf.append( this.DATA );
+			bf.writeAll( 5L, ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, bf.read( 5, this.DATA.length ) );
+			tc.assertEqual( this.DATA, bf.read( 5 + this.DATA.length, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Increases length if position + total remaining > length" 
+	)
+	public void tm_039834718( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.append( this.DATA );
+			bf.writeAll( 10L, ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA, 0, 10 ) );
+			tc.assertEqual( 10 + this.DATA.length + 10, bf.getLength() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0304BDB23( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			bf.dispose();
+			tc.expectError( AssertionError.class );
+			bf.writeAll( 0L, ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Throws AssertionError for negative position" 
+	)
+	public void tm_05BA09DCC( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.writeAll( -1L, ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_086CB8BAC( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.writeAll( 0L, ByteBuffer.wrap( this.DATA ), null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Throws AssertionError for null sources" 
+	)
+	public void tm_052A7131D( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.writeAll( 0L, (ByteBuffer[]) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void ByteFile.writeAll(long, ByteBuffer[])", 
+		description = "Throws AssertionError for position + total remaining > MAX_LENGTH",
+		threadsafe = false
+	)
+	public void tm_07D0C606D( Test.Case tc ) {
+		try ( ByteFile bf = new ByteFile() ) {
+			tc.expectError( AssertionError.class );
+			bf.writeAll( NEW_MAX_LENGTH - this.DATA.length, ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA, 0, 1 ) );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "field: long ByteFile.MAX_LENGTH", 
+		description = "Is positive" 
+	)
+	public void tm_05604DC48( Test.Case tc ) {
+		long maxLength = this.getSubjectField( null, "MAX_LENGTH", null );
+		tc.assertTrue( maxLength > 0L );
+	}
+
+
 	public static void main( String[] args ) {
 		//* Toggle class results
 		Test.eval( ByteFile.class )
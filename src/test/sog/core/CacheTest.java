@@ -18,7 +18,21 @@
  */
 package test.sog.core;
 
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import sog.core.AppRuntime;
@@ -66,6 +80,18 @@ public class CacheTest extends Test.Container {
 		return new CacheTest.Value( Strings.rightJustify( n.toString(), 20, '_' ) );
 	};
 	
+	/* Builder for caches of small values used by the policy and statistics cases. */
+	public static final Cache.Builder<Integer, String> LABEL = n -> "value " + n;
+	
+	public static final Cache.BatchBuilder<Integer, String> BATCH = keys -> {
+		return keys.stream().collect( Collectors.toMap( Function.identity(), n -> "value " + n ) );
+	};
+	
+	public static final Cache.Codec<String> CODEC = new Cache.Codec<String>() {
+		@Override public byte[] encode( String value ) { return value.getBytes( StandardCharsets.UTF_8 ); }
+		@Override public String decode( byte[] bytes ) { return new String( bytes, StandardCharsets.UTF_8 ); }
+	};
+	
 	// A single shared Cache which is reset after every case, so these tests were
 	// written in a way the disallows concurrent processing
 	
@@ -89,6 +115,50 @@ public class CacheTest extends Test.Container {
 		return map.containsKey( n );
 	}
 	
+	/* Run the action in count threads and wait for all of them. Results are collected in order. */
+	private <T> List<T> concurrently( int count, Supplier<T> action ) {
+		List<T> results = new ArrayList<T>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for ( int i = 0; i < count; i++ ) {
+			results.add( null );
+			final int index = i;
+			threads.add( new Thread( () -> {
+				T result = action.get();
+				synchronized ( results ) { results.set( index, result ); }
+			} ) );
+		}
+		threads.forEach( Thread::start );
+		for ( Thread t : threads ) {
+			try { t.join(); } catch ( InterruptedException e ) { throw new AppRuntime( e ); }
+		}
+		return results;
+	}
+	
+	/* Make the held value for the key appear to have been collected. */
+	private void collect( Cache<Integer, ?> cache, int key ) {
+		Map<Integer, Reference<?>> map = this.getSubjectField( cache, "map", null );
+		map.get( key ).clear();
+	}
+	
+	private static void sleep( long millis ) {
+		try {
+			Thread.sleep( millis );
+		} catch ( InterruptedException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
+	/* Wait for the latch, failing rather than hanging if it is never released. */
+	private static void await( CountDownLatch latch ) {
+		try {
+			if ( !latch.await( 10, TimeUnit.SECONDS ) ) {
+				throw new AppRuntime( "Timed out" );
+			}
+		} catch ( InterruptedException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
 	
 	
 	
@@ -383,6 +453,1178 @@ public class CacheTest extends Test.Container {
 	
 	
 
+	@Test.Impl( 
+		member = "method: Object Cache.get(Comparable)", 
+		description = "Concurrent misses on one key build once",
+		threadsafe = false
+	)
+	public void tm_020083BA1( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			builds.incrementAndGet();
+			try { Thread.sleep( 50L ); } catch ( InterruptedException e ) {}
+			return "value " + n;
+		} );
+		this.concurrently( 8, () -> cache.get( 42 ) );
+		tc.assertEqual( 1, builds.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object Cache.get(Comparable)", 
+		description = "Concurrent misses share the built value",
+		threadsafe = false
+	)
+	public void tm_0CBD35F51( Test.Case tc ) {
+		Cache<Integer, Value> cache = new Cache<>( n -> {
+			try { Thread.sleep( 50L ); } catch ( InterruptedException e ) {}
+			return CacheTest.BUILDER.make( n );
+		} );
+		List<Value> values = this.concurrently( 8, () -> cache.get( 42 ) );
+		for ( Value v : values ) {
+			tc.assertTrue( values.get( 0 ).identical( v ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: Object Cache.get(Comparable)", 
+		description = "Concurrent waiters see builder exception",
+		threadsafe = false
+	)
+	public void tm_0C551C6DC( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			try { Thread.sleep( 50L ); } catch ( InterruptedException e ) {}
+			throw new IllegalStateException();
+		} );
+		List<Boolean> failed = this.concurrently( 4, () -> {
+			try {
+				cache.get( 42 );
+				return false;
+			} catch ( AppRuntime ex ) {
+				return true;
+			}
+		} );
+		tc.assertFalse( failed.contains( false ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object Cache.get(Comparable)", 
+		description = "Failed build is not cached",
+		threadsafe = false
+	)
+	public void tm_0CF754A87( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			if ( builds.incrementAndGet() == 1 ) {
+				throw new IllegalStateException();
+			}
+			return "value " + n;
+		} );
+		try {
+			cache.get( 42 );
+		} catch ( AppRuntime ex ) {}
+		tc.assertEqual( "value 42", cache.get( 42 ) );
+		tc.assertEqual( 2, builds.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object Cache.get(Comparable)", 
+		description = "Slow build does not block other keys",
+		threadsafe = false
+	)
+	public void tm_0515B35F1( Test.Case tc ) {
+		CountDownLatch started = new CountDownLatch( 1 );
+		CountDownLatch release = new CountDownLatch( 1 );
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			if ( n == 0 ) {
+				started.countDown();
+				CacheTest.await( release );
+			}
+			return "value " + n;
+		} );
+		cache.get( 1 );
+		Thread slow = new Thread( () -> cache.get( 0 ) );
+		slow.start();
+		CacheTest.await( started );
+		// Both a hit and a miss on other keys complete while the build for 0 is held
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( "value 2", cache.get( 2 ) );
+		release.countDown();
+		try { slow.join(); } catch ( InterruptedException e ) {}
+		tc.assertEqual( "value 0", cache.get( 0 ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterAccess(long)", 
+		description = "Reads extend lifetime",
+		threadsafe = false
+	)
+	public void tm_0B36C6353( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterAccess( 200L );
+		cache.get( 1 );
+		for ( int i = 0; i < 5; i++ ) {
+			CacheTest.sleep( 100L );
+			cache.get( 1 );
+		}
+		tc.assertEqual( 1L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterAccess(long)", 
+		description = "Rebuilds after idle period",
+		threadsafe = false
+	)
+	public void tm_098E9C450( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterAccess( 50L );
+		cache.get( 1 );
+		CacheTest.sleep( 100L );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( 2L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterAccess(long)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_04C9EF4BF( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.expireAfterAccess( 10L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterAccess(long)", 
+		description = "Throws AssertionError for non-positive duration" 
+	)
+	public void tm_06237D464( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.expireAfterAccess( 0L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterWrite(long)", 
+		description = "Reads do not extend lifetime",
+		threadsafe = false
+	)
+	public void tm_04BB58A26( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterWrite( 200L );
+		cache.get( 1 );
+		for ( int i = 0; i < 5; i++ ) {
+			CacheTest.sleep( 100L );
+			cache.get( 1 );
+		}
+		tc.assertTrue( cache.stats().loads() > 1L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterWrite(long)", 
+		description = "Rebuilds after expiration",
+		threadsafe = false
+	)
+	public void tm_0A6C7D25B( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterWrite( 50L );
+		cache.get( 1 );
+		CacheTest.sleep( 100L );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( 2L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterWrite(long)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_07B9F05F8( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.expireAfterWrite( 10L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.expireAfterWrite(long)", 
+		description = "Throws AssertionError for non-positive duration" 
+	)
+	public void tm_007940F1D( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.expireAfterWrite( -1L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Evicts least recently used" 
+	)
+	public void tm_08DE19E97( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 3L );
+		Stream.of( 1, 2, 3, 4 ).forEach( cache::get );
+		cache.get( 1 );
+		tc.assertEqual( 5L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Recently read entries are retained" 
+	)
+	public void tm_0D947FF41( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 3L );
+		Stream.of( 1, 2, 3, 1, 4 ).forEach( cache::get );
+		cache.get( 1 );
+		tc.assertEqual( 4L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_04985DA3F( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.maximumSize( 10L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Size does not exceed maximum" 
+	)
+	public void tm_062D03F78( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 10L );
+		for ( int i = 0; i < 100; i++ ) {
+			cache.get( i );
+			tc.assertTrue( cache.size() <= 10 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Throws AssertionError for non-positive size" 
+	)
+	public void tm_0BFAD5791( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.maximumSize( 0L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumSize(long)", 
+		description = "Throws AssertionError if maximum weight configured" 
+	)
+	public void tm_008443199( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumWeight( 10L, (k, v) -> v.length() );
+		tc.expectError( AssertionError.class );
+		cache.maximumSize( 10L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_0CFDFC03D( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.maximumWeight( 10L, (k, v) -> 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Throws AssertionError for negative weights" 
+	)
+	public void tm_031DF62BF( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumWeight( 10L, (k, v) -> -1 );
+		tc.expectError( AssertionError.class );
+		cache.get( 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Throws AssertionError for non-positive weight" 
+	)
+	public void tm_0B3731986( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.maximumWeight( 0L, (k, v) -> 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Throws AssertionError for null weigher" 
+	)
+	public void tm_0A06C823F( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.maximumWeight( 10L, null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Throws AssertionError if maximum size configured" 
+	)
+	public void tm_038A10D72( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 10L );
+		tc.expectError( AssertionError.class );
+		cache.maximumWeight( 10L, (k, v) -> 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Total weight does not exceed maximum" 
+	)
+	public void tm_04F280C4D( Test.Case tc ) {
+		// Key n weighs n, so at most the keys summing to 20 are held
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumWeight( 20L, (k, v) -> k );
+		for ( int i = 1; i <= 10; i++ ) {
+			cache.get( i );
+		}
+		tc.assertEqual( 2, cache.size() );
+		tc.assertEqual( 8L, cache.stats().evictions() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.maximumWeight(long, Cache.Weigher)", 
+		description = "Zero weight entries are not evicted for weight" 
+	)
+	public void tm_09276C211( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumWeight( 1L, (k, v) -> 0 );
+		for ( int i = 0; i < 100; i++ ) {
+			cache.get( i );
+		}
+		tc.assertEqual( 100, cache.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache.Stats Cache.stats()", 
+		description = "Not null" 
+	)
+	public void tm_0BE911818( Test.Case tc ) {
+		tc.assertNonNull( new Cache<>( CacheTest.LABEL ).stats() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache.Stats Cache.stats()", 
+		description = "Snapshot is unchanged by later use" 
+	)
+	public void tm_082EA1EAD( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		Cache.Stats stats = cache.stats();
+		cache.get( 1 );
+		cache.get( 1 );
+		tc.assertEqual( 0L, stats.hits() );
+		tc.assertEqual( 0L, stats.misses() );
+	}
+		
+	@Test.Impl( 
+		member = "method: String Cache.Stats.toString()", 
+		description = "Result is not empty" 
+	)
+	public void tm_0F5A4384F( Test.Case tc ) {
+		tc.assertNotEmpty( new Cache<>( CacheTest.LABEL ).stats().toString() );
+	}
+		
+	@Test.Impl( 
+		member = "method: double Cache.Stats.hitRate()", 
+		description = "Consistent with hits and misses" 
+	)
+	public void tm_0B1BD21C0( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		Stream.of( 1, 1, 1, 2 ).forEach( cache::get );
+		tc.assertEqual( 0.5, cache.stats().hitRate() );
+	}
+		
+	@Test.Impl( 
+		member = "method: double Cache.Stats.hitRate()", 
+		description = "One at creation" 
+	)
+	public void tm_0B75A250B( Test.Case tc ) {
+		tc.assertEqual( 1.0, new Cache<>( CacheTest.LABEL ).stats().hitRate() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.collected()", 
+		description = "Consistent with Cache.collected()",
+		threadsafe = false
+	)
+	public void tm_0D52F282C( Test.Case tc ) {
+		int n = 0;
+		while ( this.cache.collected() == 0 ) {
+			this.cache.get( n++ );
+		}
+		tc.assertEqual( (long) this.cache.collected(), this.cache.stats().collected() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.evictions()", 
+		description = "Counts entries over maximum size" 
+	)
+	public void tm_0E7B7BC32( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 5L );
+		for ( int i = 0; i < 12; i++ ) {
+			cache.get( i );
+		}
+		tc.assertEqual( 7L, cache.stats().evictions() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.evictions()", 
+		description = "Counts expired entries",
+		threadsafe = false
+	)
+	public void tm_0CBD3DB0A( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterWrite( 20L );
+		cache.get( 1 );
+		cache.get( 2 );
+		CacheTest.sleep( 50L );
+		cache.get( 1 );
+		cache.get( 2 );
+		tc.assertEqual( 2L, cache.stats().evictions() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.evictions()", 
+		description = "Zero at creation" 
+	)
+	public void tm_06324F3C5( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().evictions() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.hits()", 
+		description = "Counts repeated gets" 
+	)
+	public void tm_06E40C5D2( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		for ( int i = 0; i < 5; i++ ) {
+			cache.get( 1 );
+		}
+		tc.assertEqual( 4L, cache.stats().hits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.hits()", 
+		description = "Zero at creation" 
+	)
+	public void tm_0CA0CB25F( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().hits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.loadMillis()", 
+		description = "Includes time spent building",
+		threadsafe = false
+	)
+	public void tm_0E7284263( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			CacheTest.sleep( 50L );
+			return "value " + n;
+		} );
+		cache.get( 1 );
+		tc.assertTrue( cache.stats().loadMillis() >= 50L );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.loadMillis()", 
+		description = "Zero at creation" 
+	)
+	public void tm_0010CFF13( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().loadMillis() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.loads()", 
+		description = "Concurrent misses load once",
+		threadsafe = false
+	)
+	public void tm_0FA42AECC( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( n -> {
+			CacheTest.sleep( 50L );
+			return "value " + n;
+		} );
+		this.concurrently( 8, () -> cache.get( 1 ) );
+		tc.assertEqual( 1L, cache.stats().loads() );
+		tc.assertEqual( 8L, cache.stats().hits() + cache.stats().misses() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.loads()", 
+		description = "Counts failed builds" 
+	)
+	public void tm_00B421F04( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( n -> { throw new IllegalStateException(); } );
+		for ( int i = 0; i < 3; i++ ) {
+			try {
+				cache.get( 1 );
+			} catch ( AppRuntime ex ) {}
+		}
+		tc.assertEqual( 3L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.loads()", 
+		description = "Zero at creation" 
+	)
+	public void tm_0C40BC30C( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.misses()", 
+		description = "Counts first get" 
+	)
+	public void tm_0DE3310CB( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		cache.get( 1 );
+		cache.get( 1 );
+		tc.assertEqual( 1L, cache.stats().misses() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.misses()", 
+		description = "Zero at creation" 
+	)
+	public void tm_03DEE82F5( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().misses() );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Cache Cache.executor(Executor)", 
+		description = "Asynchronous loads run on executor" 
+	)
+	public void tm_08CFCCB30( Test.Case tc ) {
+		AtomicInteger runs = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).executor( r -> { runs.incrementAndGet(); r.run(); } );
+		cache.getAsync( 1 ).join();
+		tc.assertEqual( 1, runs.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.executor(Executor)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_0CE943512( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.executor( Runnable::run ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.executor(Executor)", 
+		description = "Throws AssertionError for null executor" 
+	)
+	public void tm_0479D7468( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.executor( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Failed refresh keeps current value",
+		threadsafe = false
+	)
+	public void tm_082577CC2( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> {
+			if ( builds.incrementAndGet() > 1 ) {
+				throw new IllegalStateException();
+			}
+			return "value " + n;
+		} ).refreshAfterWrite( 20L ).executor( Runnable::run );
+		cache.get( 1 );
+		CacheTest.sleep( 50L );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertTrue( builds.get() > 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Refreshes once per due entry",
+		threadsafe = false
+	)
+	public void tm_00B86C9CD( Test.Case tc ) {
+		CountDownLatch release = new CountDownLatch( 1 );
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> {
+			if ( builds.incrementAndGet() > 1 ) {
+				CacheTest.await( release );
+			}
+			return "value " + n;
+		} ).refreshAfterWrite( 20L );
+		cache.get( 1 );
+		CacheTest.sleep( 50L );
+		for ( int i = 0; i < 10; i++ ) {
+			cache.get( 1 );
+		}
+		release.countDown();
+		// The refresh runs asynchronously; allow it to finish before counting
+		for ( int i = 0; i < 100 && builds.get() < 2; i++ ) {
+			CacheTest.sleep( 10L );
+		}
+		cache.get( 1 );
+		tc.assertEqual( 2, builds.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Replaces value after refresh",
+		threadsafe = false
+	)
+	public void tm_06E473C39( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> "build " + builds.incrementAndGet() )
+			.refreshAfterWrite( 20L ).executor( Runnable::run );
+		tc.assertEqual( "build 1", cache.get( 1 ) );
+		CacheTest.sleep( 50L );
+		cache.get( 1 );
+		tc.assertEqual( "build 2", cache.get( 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_00CEA87DC( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.refreshAfterWrite( 10L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Serves current value during refresh",
+		threadsafe = false
+	)
+	public void tm_0076F6092( Test.Case tc ) {
+		CountDownLatch release = new CountDownLatch( 1 );
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> {
+			if ( builds.incrementAndGet() > 1 ) {
+				CacheTest.await( release );
+			}
+			return "build " + builds.get();
+		} ).refreshAfterWrite( 20L );
+		cache.get( 1 );
+		CacheTest.sleep( 50L );
+		// The refresh is held by the latch, so these reads would hang if they waited for it
+		tc.assertEqual( "build 1", cache.get( 1 ) );
+		tc.assertEqual( "build 1", cache.get( 1 ) );
+		release.countDown();
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.refreshAfterWrite(long)", 
+		description = "Throws AssertionError for non-positive duration" 
+	)
+	public void tm_0514FB701( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.refreshAfterWrite( 0L );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Builder runs on executor" 
+	)
+	public void tm_0E15234D8( Test.Case tc ) {
+		Cache<Integer, Thread> cache = new Cache<Integer, Thread>( n -> Thread.currentThread() );
+		tc.assertNotEqual( Thread.currentThread(), cache.getAsync( 1 ).join() );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Cancelling does not affect other callers",
+		threadsafe = false
+	)
+	public void tm_0A9680188( Test.Case tc ) {
+		CountDownLatch release = new CountDownLatch( 1 );
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> {
+			CacheTest.await( release );
+			return "value " + n;
+		} );
+		CompletableFuture<String> first = cache.getAsync( 1 );
+		CompletableFuture<String> second = cache.getAsync( 1 );
+		first.cancel( true );
+		release.countDown();
+		tc.assertEqual( "value 1", second.join() );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Completed for held value" 
+	)
+	public void tm_0EE6C0489( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		cache.get( 1 );
+		tc.assertTrue( cache.getAsync( 1 ).isDone() );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Completes exceptionally if Builder throws" 
+	)
+	public void tm_043CF56F5( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> { throw new IllegalStateException(); } );
+		CompletableFuture<String> future = cache.getAsync( 1 );
+		tc.expectError( CompletionException.class );
+		future.join();
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Completes exceptionally if executor rejects" 
+	)
+	public void tm_0780C878A( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).executor( r -> { throw new AppRuntime( "Rejected" ); } );
+		CompletableFuture<String> future = cache.getAsync( 1 );
+		tc.assertTrue( future.isCompletedExceptionally() );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Completes with built value" 
+	)
+	public void tm_090D1C252( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( "value 42", cache.getAsync( 42 ).join() );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Shares build with concurrent get",
+		threadsafe = false
+	)
+	public void tm_01C149E80( Test.Case tc ) {
+		CountDownLatch started = new CountDownLatch( 1 );
+		CountDownLatch release = new CountDownLatch( 1 );
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, Value> cache = new Cache<Integer, Value>( n -> {
+			builds.incrementAndGet();
+			started.countDown();
+			CacheTest.await( release );
+			return CacheTest.BUILDER.make( n );
+		} );
+		CompletableFuture<Value> future = cache.getAsync( 1 );
+		CacheTest.await( started );
+		Thread waiter = new Thread( () -> cache.get( 1 ) );
+		waiter.start();
+		release.countDown();
+		Value value = cache.get( 1 );
+		tc.assertTrue( value.identical( future.join() ) );
+		tc.assertEqual( 1, builds.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: CompletableFuture Cache.getAsync(Comparable)", 
+		description = "Throws AssertionError for null key" 
+	)
+	public void tm_04A14261B( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.getAsync( null );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Cache Cache.batchBuilder(Cache.BatchBuilder)", 
+		description = "Throws AssertionError for null batch builder" 
+	)
+	public void tm_0585FA062( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.batchBuilder( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.batchBuilder(Cache.BatchBuilder)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_06A73F786( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( cache, cache.batchBuilder( CacheTest.BATCH ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.batchBuilder(Cache.BatchBuilder)", 
+		description = "Missing keys are made in one call" 
+	)
+	public void tm_0671D8574( Test.Case tc ) {
+		List<Collection<Integer>> calls = new ArrayList<Collection<Integer>>();
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> {
+			calls.add( keys );
+			return CacheTest.BATCH.makeAll( keys );
+		} );
+		cache.get( 2 );
+		cache.getAll( List.of( 1, 2, 3, 4 ) );
+		tc.assertEqual( 1, calls.size() );
+		tc.assertEqual( List.of( 1, 3, 4 ), calls.get( 0 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.batchBuilder(Cache.BatchBuilder)", 
+		description = "Not used by get()" 
+	)
+	public void tm_01818E192( Test.Case tc ) {
+		AtomicInteger batches = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> {
+			batches.incrementAndGet();
+			return CacheTest.BATCH.makeAll( keys );
+		} );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( 0, batches.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Throws AssertionError for null keys" 
+	)
+	public void tm_00549199C( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.getAll( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Throws AssertionError for null key" 
+	)
+	public void tm_0CE9F394D( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.getAll( Arrays.asList( 1, null, 3 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Throws AssertionError if BatchBuilder omits a key" 
+	)
+	public void tm_070FBC1B4( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> Map.of( 1, "value 1" ) );
+		tc.expectError( AssertionError.class );
+		cache.getAll( List.of( 1, 2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Throws AppRuntime if BatchBuilder throws exception" 
+	)
+	public void tm_0FE240F77( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> { throw new IllegalStateException(); } );
+		tc.expectError( AppRuntime.class );
+		cache.getAll( List.of( 1, 2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Empty for empty keys" 
+	)
+	public void tm_07CF1DE5A( Test.Case tc ) {
+		tc.assertTrue( new Cache<>( CacheTest.LABEL ).getAll( List.of() ).isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Results are in key order" 
+	)
+	public void tm_00B37CC11( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( CacheTest.BATCH );
+		cache.get( 3 );
+		tc.assertEqual( List.of( 5, 3, 9, 1 ), new ArrayList<Integer>( cache.getAll( List.of( 5, 3, 9, 1 ) ).keySet() ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Duplicate keys are returned once" 
+	)
+	public void tm_08EDF86F8( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( CacheTest.BATCH );
+		tc.assertEqual( 2, cache.getAll( List.of( 1, 2, 1, 2, 1 ) ).size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Results consistent with get" 
+	)
+	public void tm_0A0187E0D( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( CacheTest.BATCH );
+		Map<Integer, String> values = cache.getAll( List.of( 1, 2, 3 ) );
+		for ( int key : values.keySet() ) {
+			tc.assertEqual( values.get( key ), cache.get( key ) );
+		}
+		tc.assertEqual( 3L, cache.stats().hits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Held values are not rebuilt" 
+	)
+	public void tm_07BC2BD0C( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> "build " + builds.incrementAndGet() );
+		String first = cache.get( 1 );
+		tc.assertEqual( first, cache.getAll( List.of( 1, 2 ) ).get( 1 ) );
+		tc.assertEqual( 2, builds.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Uses Builder without BatchBuilder" 
+	)
+	public void tm_0F17D3F3F( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.assertEqual( Map.of( 1, "value 1", 2, "value 2" ), cache.getAll( List.of( 1, 2 ) ) );
+		tc.assertEqual( 2L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Failed batch adds no values" 
+	)
+	public void tm_0206BF2C9( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> Map.of( 1, "value 1" ) );
+		try {
+			cache.getAll( List.of( 1, 2 ) );
+		} catch ( AssertionError ex ) {}
+		tc.assertEqual( 0, cache.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Failed batch is seen by concurrent get",
+		threadsafe = false
+	)
+	public void tm_054F2DC27( Test.Case tc ) {
+		CountDownLatch started = new CountDownLatch( 1 );
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).batchBuilder( keys -> {
+			started.countDown();
+			CacheTest.sleep( 100L );
+			throw new IllegalStateException();
+		} );
+		Thread batch = new Thread( () -> {
+			try {
+				cache.getAll( List.of( 1, 2 ) );
+			} catch ( AppRuntime ex ) {}
+		} );
+		batch.start();
+		CacheTest.await( started );
+		tc.expectError( AppRuntime.class );
+		cache.get( 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: Map Cache.getAll(Collection)", 
+		description = "Waits for builds in flight",
+		threadsafe = false
+	)
+	public void tm_0C4FFF6F2( Test.Case tc ) {
+		CountDownLatch started = new CountDownLatch( 1 );
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> {
+			builds.incrementAndGet();
+			started.countDown();
+			CacheTest.sleep( 100L );
+			return "value " + n;
+		} ).batchBuilder( CacheTest.BATCH );
+		Thread slow = new Thread( () -> cache.get( 1 ) );
+		slow.start();
+		CacheTest.await( started );
+		tc.assertEqual( "value 1", cache.getAll( List.of( 1, 2 ) ).get( 1 ) );
+		tc.assertEqual( 1, builds.get() );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Collected values are read from disk" 
+	)
+	public void tm_00867597E( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		cache.get( 1 );
+		this.collect( cache, 1 );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( 1L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Evicted values are read from disk" 
+	)
+	public void tm_0F0E2FE1D( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 1L ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		Stream.of( 1, 2, 1, 2 ).forEach( cache::get );
+		tc.assertEqual( 2L, cache.stats().loads() );
+		tc.assertEqual( 2L, cache.stats().diskHits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Expired values are not read from disk",
+		threadsafe = false
+	)
+	public void tm_0DEA713C7( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).expireAfterWrite( 20L ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		cache.get( 1 );
+		this.collect( cache, 1 );
+		CacheTest.sleep( 50L );
+		cache.get( 1 );
+		tc.assertEqual( 2L, cache.stats().loads() );
+		tc.assertEqual( 0L, cache.stats().diskHits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Oldest values are dropped beyond maximum",
+		threadsafe = false
+	)
+	public void tm_082C36AAC( Test.Case tc ) {
+		int original = this.getSubjectField( null, "DISK_SEGMENT_LENGTH", 0 );
+		this.setSubjectField( null, "DISK_SEGMENT_LENGTH", 64 );
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 1L ).secondTier( CacheTest.CODEC, 128L );
+		this.setSubjectField( null, "DISK_SEGMENT_LENGTH", original );
+		tc.afterThis( cache::dispose );
+		// Each value is 7 or 8 bytes, so 100 values span many segments
+		for ( int i = 0; i < 100; i++ ) {
+			cache.get( i );
+		}
+		long loads = cache.stats().loads();
+		cache.get( 98 );
+		tc.assertEqual( loads, cache.stats().loads() );
+		cache.get( 0 );
+		tc.assertEqual( loads + 1, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Refresh replaces disk copy",
+		threadsafe = false
+	)
+	public void tm_065FB77B0( Test.Case tc ) {
+		AtomicInteger builds = new AtomicInteger();
+		Cache<Integer, String> cache = new Cache<Integer, String>( n -> "build " + builds.incrementAndGet() )
+			.refreshAfterWrite( 20L ).executor( Runnable::run ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		cache.get( 1 );
+		CacheTest.sleep( 50L );
+		cache.get( 1 );
+		this.collect( cache, 1 );
+		tc.assertEqual( "build 2", cache.get( 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Returns this Cache instance" 
+	)
+	public void tm_0CC46753A( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.afterThis( cache::dispose );
+		tc.assertEqual( cache, cache.secondTier( CacheTest.CODEC, 1024L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Throws AssertionError for non-positive maximum" 
+	)
+	public void tm_01173DC4B( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.secondTier( CacheTest.CODEC, 0L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Throws AssertionError for null codec" 
+	)
+	public void tm_0DF7E124F( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL );
+		tc.expectError( AssertionError.class );
+		cache.secondTier( null, 1024L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Throws AssertionError if already configured" 
+	)
+	public void tm_0A3349244( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1024L );
+		tc.afterThis( cache::dispose );
+		tc.expectError( AssertionError.class );
+		cache.secondTier( CacheTest.CODEC, 1024L );
+	}
+		
+	@Test.Impl( 
+		member = "method: Cache Cache.secondTier(Cache.Codec, long)", 
+		description = "Values read from disk are consistent" 
+	)
+	public void tm_058A6CEEB( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).maximumSize( 10L ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		for ( int i = 0; i < 100; i++ ) {
+			cache.get( i );
+		}
+		for ( int i = 0; i < 100; i++ ) {
+			tc.assertEqual( "value " + i, cache.get( i ) );
+		}
+		tc.assertEqual( 100L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.diskHits()", 
+		description = "Counts values read from disk" 
+	)
+	public void tm_046ACCF39( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		cache.get( 1 );
+		cache.get( 2 );
+		this.collect( cache, 1 );
+		this.collect( cache, 2 );
+		cache.getAll( List.of( 1, 2 ) );
+		tc.assertEqual( 2L, cache.stats().diskHits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: long Cache.Stats.diskHits()", 
+		description = "Zero at creation" 
+	)
+	public void tm_096D13902( Test.Case tc ) {
+		tc.assertEqual( 0L, new Cache<>( CacheTest.LABEL ).stats().diskHits() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void Cache.clear()", 
+		description = "Clears second tier" 
+	)
+	public void tm_0B6AEB2E5( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1L << 20 );
+		tc.afterThis( cache::dispose );
+		cache.get( 1 );
+		cache.clear();
+		cache.get( 1 );
+		tc.assertEqual( 2L, cache.stats().loads() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void Cache.dispose()", 
+		description = "Cache is usable after dispose" 
+	)
+	public void tm_06C7F1EE2( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1L << 20 );
+		cache.get( 1 );
+		cache.dispose();
+		this.collect( cache, 1 );
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+		tc.assertEqual( "value 2", cache.get( 2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void Cache.dispose()", 
+		description = "Idempotent" 
+	)
+	public void tm_0770C7318( Test.Case tc ) {
+		Cache<Integer, String> cache = new Cache<>( CacheTest.LABEL ).secondTier( CacheTest.CODEC, 1L << 20 );
+		cache.dispose();
+		cache.dispose();
+		tc.assertEqual( "value 1", cache.get( 1 ) );
+	}
+
+
 	public static void main( String[] args ) {
 		/* Toggle class results
 		Test.eval( Cache.class )
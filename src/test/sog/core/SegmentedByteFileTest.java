@@ -0,0 +1,956 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package test.sog.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import sog.core.Procedure;
+import sog.core.SegmentedByteFile;
+import sog.core.Test;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class SegmentedByteFileTest extends Test.Container {
+	
+	private static final long SEGMENT = 100;
+	
+	private long ORIG_SEGMENT_LENGTH;
+	
+	public SegmentedByteFileTest() {
+		super( SegmentedByteFile.class );
+	}
+	
+	@Override
+	public Procedure beforeAll() {
+		return () -> {
+			this.ORIG_SEGMENT_LENGTH = this.getSubjectField( null, "SEGMENT_LENGTH", null );
+			
+			// Small segments so that most cases cross a segment boundary
+			this.setSubjectField( null, "SEGMENT_LENGTH", SegmentedByteFileTest.SEGMENT );
+		};
+	}
+	
+	@Override
+	public Procedure afterAll() {
+		return () -> {
+			this.setSubjectField( null, "SEGMENT_LENGTH", this.ORIG_SEGMENT_LENGTH );
+		};
+	}
+	
+	/* Longer than one segment. */
+	public final byte[] DATA = ("The answer to the ultimate question of life, the universe, and everything. "
+		+ "Four score and seven years ago our fathers brought forth on this continent a new nation.").getBytes();
+	
+	/* Fill a file up to the given length. */
+	private SegmentedByteFile filled( boolean mapped, int length ) {
+		SegmentedByteFile sbf = new SegmentedByteFile( mapped );
+		sbf.append( new byte[length] );
+		return sbf;
+	}
+	
+	
+	
+	
+	// TEST CASES
+
+
+
+
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile()", 
+		description = "Creates empty file" 
+	)
+	public void tm_0240516CF( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertEqual( 0L, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile()", 
+		description = "Creates open file" 
+	)
+	public void tm_0E3CCF348( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertTrue( sbf.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile(boolean)", 
+		description = "Creates empty file" 
+	)
+	public void tm_009868CE9( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile( true ) ) {
+			tc.assertEqual( 0L, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile(boolean)", 
+		description = "Mapped file can recover bytes across segments" 
+	)
+	public void tm_0054B068E( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( true, 50 ) ) {
+			long address = sbf.append( this.DATA );
+			tc.assertEqual( this.DATA, sbf.read( address, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String SegmentedByteFile.toString()", 
+		description = "Indicates length" 
+	)
+	public void tm_03BDD28A3( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 123 ) ) {
+			tc.assertTrue( sbf.toString().contains( "123" ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String SegmentedByteFile.toString()", 
+		description = "Indicates segment count" 
+	)
+	public void tm_089275CDB( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 250 ) ) {
+			tc.assertTrue( sbf.toString().contains( "Segments = 3" ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.canRead(long, int)", 
+		description = "False for disposed" 
+	)
+	public void tm_082E8E604( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 10 ) ) {
+			tc.assertTrue( sbf.canRead( 0L, 5 ) );
+			sbf.dispose();
+			tc.assertFalse( sbf.canRead( 0L, 5 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.canRead(long, int)", 
+		description = "False for large count" 
+	)
+	public void tm_05C9E8EC1( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.assertFalse( sbf.canRead( 100L, 51 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.canRead(long, int)", 
+		description = "True for small count" 
+	)
+	public void tm_0E1AB42D8( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.assertTrue( sbf.canRead( 90L, 60 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.isOpen()", 
+		description = "False after dispose" 
+	)
+	public void tm_02B341072( Test.Case tc ) {
+		SegmentedByteFile sbf = new SegmentedByteFile();
+		sbf.dispose();
+		tc.assertFalse( sbf.isOpen() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.isOpen()", 
+		description = "True for new" 
+	)
+	public void tm_0A2E4E239( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertTrue( sbf.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: byte[] SegmentedByteFile.read(long, int)", 
+		description = "Read is consistent with write" 
+	)
+	public void tm_01E87E164( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 20 ) ) {
+			long address = sbf.append( this.DATA );
+			tc.assertEqual( this.DATA, sbf.read( address, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: byte[] SegmentedByteFile.read(long, int)", 
+		description = "Throws AssertionError for negative count" 
+	)
+	public void tm_0FA93F5DB( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 20 ) ) {
+			tc.expectError( AssertionError.class );
+			sbf.read( 0L, -1 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.offset(long)", 
+		description = "Less than segment length" 
+	)
+	public void tm_03B4CE9B1( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			for ( long address = 0L; address < 1_000L; address += 7L ) {
+				tc.assertTrue( sbf.offset( address ) < SegmentedByteFileTest.SEGMENT );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.offset(long)", 
+		description = "Zero at segment boundary" 
+	)
+	public void tm_0FB1AA6F2( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertEqual( 0, sbf.offset( 3 * SegmentedByteFileTest.SEGMENT ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.segment(long)", 
+		description = "Increments at segment boundary" 
+	)
+	public void tm_090CA7604( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			long boundary = 3 * SegmentedByteFileTest.SEGMENT;
+			tc.assertEqual( sbf.segment( boundary - 1 ) + 1, sbf.segment( boundary ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.segment(long)", 
+		description = "Zero for address zero" 
+	)
+	public void tm_09D55025D( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertEqual( 0, sbf.segment( 0L ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.segmentCount()", 
+		description = "Consistent with length" 
+	)
+	public void tm_02F47CE33( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 201 ) ) {
+			tc.assertEqual( 3, sbf.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SegmentedByteFile.segmentCount()", 
+		description = "Zero for new" 
+	)
+	public void tm_056E35F52( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.assertEqual( 0, sbf.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[])", 
+		description = "Can recover bytes" 
+	)
+	public void tm_0BCA22237( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			long address = sbf.append( this.DATA );
+			tc.assertEqual( this.DATA, sbf.read( address, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[])", 
+		description = "Returns previous length" 
+	)
+	public void tm_0013C2CAA( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 77 ) ) {
+			tc.assertEqual( 77L, sbf.append( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[])", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_09BE669EE( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.append( null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[], int, int)", 
+		description = "Can recover bytes written with positive offset" 
+	)
+	public void tm_0B6B46E28( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 90 ) ) {
+			long address = sbf.append( this.DATA, 10, 20 );
+			tc.assertEqual( Arrays.copyOfRange( this.DATA, 10, 30 ), sbf.read( address, 20 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[], int, int)", 
+		description = "Returns previous length" 
+	)
+	public void tm_0169FE94A( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 77 ) ) {
+			tc.assertEqual( 77L, sbf.append( this.DATA, 5, 5 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[], int, int)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_026539381( Test.Case tc ) {
+		SegmentedByteFile sbf = new SegmentedByteFile();
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.append( this.DATA, 0, 5 );
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.append(byte[], int, int)", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_053338E8E( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.append( null, 0, 0 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.appendAll(ByteBuffer[])", 
+		description = "Buffers are contiguous across a segment boundary" 
+	)
+	public void tm_0618E945D( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 60 ) ) {
+			long address = sbf.appendAll( ByteBuffer.wrap( this.DATA ), ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, sbf.read( address, this.DATA.length ) );
+			tc.assertEqual( this.DATA, sbf.read( address + this.DATA.length, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.appendAll(ByteBuffer[])", 
+		description = "Buffers are contiguous in order" 
+	)
+	public void tm_058180CE3( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			long address = sbf.appendAll( ByteBuffer.wrap( "abc".getBytes() ), ByteBuffer.wrap( "def".getBytes() ) );
+			tc.assertEqual( "abcdef", new String( sbf.read( address, 6 ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.appendAll(ByteBuffer[])", 
+		description = "Returns previous length" 
+	)
+	public void tm_0E0E15FC3( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 42 ) ) {
+			tc.assertEqual( 42L, sbf.appendAll( ByteBuffer.wrap( this.DATA ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_09EA38768( Test.Case tc ) {
+		SegmentedByteFile sbf = new SegmentedByteFile();
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.appendAll( ByteBuffer.wrap( this.DATA ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.appendAll(ByteBuffer[])", 
+		description = "Throws AssertionError for null sources" 
+	)
+	public void tm_0391514E2( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.appendAll( (ByteBuffer[]) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.length()", 
+		description = "Length increases with append" 
+	)
+	public void tm_0E1486D13( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 42 ) ) {
+			long before = sbf.length();
+			sbf.append( this.DATA );
+			tc.assertTrue( sbf.length() > before );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.length()", 
+		description = "Length is sum of bytes appended" 
+	)
+	public void tm_0AA1240F4( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			sbf.append( this.DATA );
+			sbf.append( this.DATA );
+			sbf.append( this.DATA, 0, 7 );
+			tc.assertEqual( 2L * this.DATA.length + 7, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.close()", 
+		description = "Idempotent" 
+	)
+	public void tm_0A6BD0C0B( Test.Case tc ) {
+		SegmentedByteFile sbf = this.filled( false, 250 );
+		sbf.close();
+		String before = sbf.toString();
+		sbf.close();
+		tc.assertEqual( before, sbf.toString() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.dispose()", 
+		description = "Idempotent" 
+	)
+	public void tm_0A06CA644( Test.Case tc ) {
+		SegmentedByteFile sbf = this.filled( false, 250 );
+		sbf.dispose();
+		String before = sbf.toString();
+		sbf.dispose();
+		tc.assertEqual( before, sbf.toString() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.dispose()", 
+		description = "Releases segments" 
+	)
+	public void tm_089A9B09F( Test.Case tc ) {
+		SegmentedByteFile sbf = this.filled( false, 250 );
+		tc.assertNonNull( this.getSubjectField( sbf, "segments", null ) );
+		sbf.dispose();
+		tc.assertIsNull( this.getSubjectField( sbf, "segments", null ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, ByteBuffer)", 
+		description = "Read is consistent with write across a segment boundary" 
+	)
+	public void tm_0835A11CC( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 60 ) ) {
+			long address = sbf.append( this.DATA );
+			ByteBuffer buf = ByteBuffer.allocateDirect( this.DATA.length );
+			sbf.read( address, buf );
+			byte[] result = new byte[ this.DATA.length ];
+			buf.flip().get( result );
+			tc.assertEqual( this.DATA, result );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for address + remaining > length" 
+	)
+	public void tm_0BB19AA59( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			sbf.read( 50L, ByteBuffer.allocate( 100 ) );
+			tc.expectError( AssertionError.class );
+			sbf.read( 51L, ByteBuffer.allocate( 100 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, ByteBuffer)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_02F5E00CB( Test.Case tc ) {
+		SegmentedByteFile sbf = this.filled( false, 150 );
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.read( 0L, ByteBuffer.allocate( 10 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, byte[], int, int)", 
+		description = "Read is consistent with write across a segment boundary" 
+	)
+	public void tm_0001FF5CA( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 60 ) ) {
+			long address = sbf.append( this.DATA );
+			byte[] result = new byte[ this.DATA.length + 10 ];
+			sbf.read( address, result, 10, this.DATA.length );
+			tc.assertEqual( this.DATA, Arrays.copyOfRange( result, 10, result.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, byte[], int, int)", 
+		description = "Throws AssertionError for address + count > length" 
+	)
+	public void tm_010F178E2( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			byte[] dest = new byte[100];
+			sbf.read( 50L, dest, 0, 100 );
+			tc.expectError( AssertionError.class );
+			sbf.read( 51L, dest, 0, 100 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, byte[], int, int)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0A163DA0D( Test.Case tc ) {
+		SegmentedByteFile sbf = this.filled( false, 150 );
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.read( 0L, new byte[10], 0, 10 );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, byte[], int, int)", 
+		description = "Throws AssertionError for negative address" 
+	)
+	public void tm_08F55D4F1( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.expectError( AssertionError.class );
+			sbf.read( -1L, new byte[10], 0, 10 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.read(long, byte[], int, int)", 
+		description = "Throws AssertionError for null destination" 
+	)
+	public void tm_0F890EDDD( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.expectError( AssertionError.class );
+			sbf.read( 0L, null, 0, 10 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, ByteBuffer)", 
+		description = "Can recover bytes written across a segment boundary" 
+	)
+	public void tm_0063F3A80( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 90 ) ) {
+			sbf.write( 85L, ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, sbf.read( 85L, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for address greater than length" 
+	)
+	public void tm_0F4EF20A8( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 90 ) ) {
+			tc.expectError( AssertionError.class );
+			sbf.write( 91L, ByteBuffer.wrap( this.DATA ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0FD15C3A6( Test.Case tc ) {
+		SegmentedByteFile sbf = new SegmentedByteFile();
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.write( 0L, ByteBuffer.wrap( this.DATA ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, ByteBuffer)", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_003143049( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.write( 0L, (ByteBuffer) null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Can recover bytes written across a segment boundary" 
+	)
+	public void tm_0DFD515BE( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 190 ) ) {
+			sbf.write( 150L, this.DATA, 0, this.DATA.length );
+			tc.assertEqual( this.DATA, sbf.read( 150L, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Does not increase length if address + count <= length" 
+	)
+	public void tm_0C187B271( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 190 ) ) {
+			sbf.write( 90L, this.DATA, 0, 100 );
+			tc.assertEqual( 190L, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Increases length if address + count > length" 
+	)
+	public void tm_00CF82E37( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 190 ) ) {
+			sbf.write( 150L, this.DATA, 0, 100 );
+			tc.assertEqual( 250L, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Throws AssertionError for address greater than length" 
+	)
+	public void tm_0C07B2466( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 190 ) ) {
+			sbf.write( 190L, this.DATA, 0, 1 );
+			tc.expectError( AssertionError.class );
+			sbf.write( 192L, this.DATA, 0, 1 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0C3B6CCA8( Test.Case tc ) {
+		SegmentedByteFile sbf = new SegmentedByteFile();
+		sbf.dispose();
+		tc.expectError( AssertionError.class );
+		sbf.write( 0L, this.DATA, 0, 1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Throws AssertionError for negative address" 
+	)
+	public void tm_0B605FC8C( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.write( -1L, this.DATA, 0, 1 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Throws AssertionError for null source" 
+	)
+	public void tm_0B0EB7007( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.write( 0L, null, 0, 1 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.write(long, byte[], int, int)", 
+		description = "Throws AssertionError for offset + count > source.length" 
+	)
+	public void tm_0497750A7( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.write( 0L, this.DATA, 1, this.DATA.length );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.length()", 
+		description = "Length increases with reserve" 
+	)
+	public void tm_04897D9F9( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			sbf.reserve( 42L );
+			tc.assertEqual( 42L, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserve(long)", 
+		description = "Regions reserved concurrently are disjoint" 
+	)
+	public void tm_0A179498F( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			long[] addresses = IntStream.range( 0, 1000 ).parallel().mapToLong( i -> sbf.reserve( 7L ) ).sorted().toArray();
+			for ( int i = 0; i < addresses.length; i++ ) {
+				tc.assertEqual( 7L * i, addresses[i] );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserve(long)", 
+		description = "Reserved region can be written and read" 
+	)
+	public void tm_05A4D2C15( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 30 ) ) {
+			long address = sbf.reserve( this.DATA.length );
+			sbf.write( address, ByteBuffer.wrap( this.DATA ) );
+			tc.assertEqual( this.DATA, sbf.read( address, this.DATA.length ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserve(long)", 
+		description = "Returns previous length" 
+	)
+	public void tm_012BDCD46( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 30 ) ) {
+			tc.assertEqual( 30L, sbf.reserve( 10L ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserve(long)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_07E989A05( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			sbf.dispose();
+			tc.expectError( AssertionError.class );
+			sbf.reserve( 10L );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserve(long)", 
+		description = "Throws AssertionError for negative count" 
+	)
+	public void tm_0E14E0DC4( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.reserve( -1L );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile(boolean, int)", 
+		description = "Segment boundaries follow segment length" 
+	)
+	public void tm_0EEDDDC21( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile( false, 10 ) ) {
+			tc.assertEqual( 0, sbf.segment( 9L ) );
+			tc.assertEqual( 1, sbf.segment( 10L ) );
+			tc.assertEqual( 3, sbf.offset( 23L ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile(boolean, int)", 
+		description = "Throws AssertionError for non-positive segment length" 
+	)
+	public void tm_0FAB2A2A8( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new SegmentedByteFile( false, 0 );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.isReleased(int)", 
+		description = "False for new segment" 
+	)
+	public void tm_0165B4055( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.assertFalse( sbf.isReleased( 0 ) );
+			tc.assertFalse( sbf.isReleased( 1 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SegmentedByteFile.isReleased(int)", 
+		description = "True after release" 
+	)
+	public void tm_01263A411( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			sbf.release( 0 );
+			tc.assertTrue( sbf.isReleased( 0 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserveWithinSegment(int)", 
+		description = "Regions reserved concurrently are disjoint" 
+	)
+	public void tm_0CC54BEDA( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			long[] addresses = IntStream.range( 0, 1000 ).parallel().mapToLong( i -> sbf.reserveWithinSegment( 30 ) ).sorted().toArray();
+			for ( int i = 1; i < addresses.length; i++ ) {
+				tc.assertTrue( addresses[i] >= addresses[i-1] + 30 );
+				tc.assertEqual( sbf.segment( addresses[i] ), sbf.segment( addresses[i] + 29 ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserveWithinSegment(int)", 
+		description = "Returns previous length when region fits" 
+	)
+	public void tm_0BFF76583( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 30 ) ) {
+			tc.assertEqual( 30L, sbf.reserveWithinSegment( 70 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserveWithinSegment(int)", 
+		description = "Skips to next segment when region does not fit" 
+	)
+	public void tm_0B6442D51( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 30 ) ) {
+			tc.assertEqual( SegmentedByteFileTest.SEGMENT, sbf.reserveWithinSegment( 71 ) );
+			tc.assertEqual( SegmentedByteFileTest.SEGMENT + 71, sbf.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserveWithinSegment(int)", 
+		description = "Throws AssertionError for count greater than segment length" 
+	)
+	public void tm_031408AE6( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			tc.expectError( AssertionError.class );
+			sbf.reserveWithinSegment( (int) SegmentedByteFileTest.SEGMENT + 1 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long SegmentedByteFile.reserveWithinSegment(int)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0AF578A50( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			sbf.dispose();
+			tc.expectError( AssertionError.class );
+			sbf.reserveWithinSegment( 10 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.release(int)", 
+		description = "Idempotent" 
+	)
+	public void tm_0875386A5( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			sbf.release( 0 );
+			sbf.release( 0 );
+			tc.assertTrue( sbf.isReleased( 0 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.release(int)", 
+		description = "Other segments remain readable" 
+	)
+	public void tm_0BA24A7E0( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = new SegmentedByteFile() ) {
+			sbf.append( this.DATA );
+			sbf.release( 0 );
+			tc.assertEqual( Arrays.copyOfRange( this.DATA, 100, this.DATA.length ), sbf.read( 100L, this.DATA.length - 100 ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.release(int)", 
+		description = "Read from released segment throws AssertionError" 
+	)
+	public void tm_0DF22AF01( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			sbf.release( 0 );
+			tc.expectError( AssertionError.class );
+			sbf.read( 10L, 5 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.release(int)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_05286BFCF( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			sbf.dispose();
+			tc.expectError( AssertionError.class );
+			sbf.release( 0 );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SegmentedByteFile.release(int)", 
+		description = "Throws AssertionError for index beyond segment count" 
+	)
+	public void tm_0E34B6D89( Test.Case tc ) {
+		try ( SegmentedByteFile sbf = this.filled( false, 150 ) ) {
+			tc.expectError( AssertionError.class );
+			sbf.release( 2 );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: SegmentedByteFile(boolean, int)", 
+		description = "Throws AssertionError for segment length beyond ByteFile limit" 
+	)
+	public void tm_066568C8B( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new SegmentedByteFile( false, Integer.MAX_VALUE );
+	}
+
+
+	public static void main( String[] args ) {
+		//* Toggle class results
+		Test.eval( SegmentedByteFile.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( SegmentedByteFile.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+}
@@ -0,0 +1,474 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package test.sog.core;
+
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import sog.core.AppRuntime;
+import sog.core.Procedure;
+import sog.core.SoftString;
+import sog.core.SoftStringList;
+import sog.core.Test;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class SoftStringListTest extends Test.Container {
+	
+	private static final int PREFETCH = 4;
+	
+	private int ORIG_PREFETCH;
+	
+	public SoftStringListTest() {
+		super( SoftStringList.class );
+	}
+	
+	@Override
+	public Procedure beforeAll() {
+		return () -> {
+			this.ORIG_PREFETCH = this.getSubjectField( null, "PREFETCH", null );
+			
+			// Small window so that cases span several batches
+			this.setSubjectField( null, "PREFETCH", SoftStringListTest.PREFETCH );
+		};
+	}
+	
+	@Override
+	public Procedure afterAll() {
+		return () -> {
+			this.setSubjectField( null, "PREFETCH", this.ORIG_PREFETCH );
+		};
+	}
+	
+	/* Long enough to be held by a soft reference. */
+	private String value( int i ) {
+		return String.format( "%03d The answer to the ultimate question of life, the universe, and everything.", i );
+	}
+	
+	/* Values in descending order. */
+	private List<String> values( int count ) {
+		return IntStream.range( 0, count ).mapToObj( i -> this.value( count - 1 - i ) ).collect( Collectors.toList() );
+	}
+	
+	/* Make the element appear to have been collected. */
+	private void collect( SoftString ss ) {
+		try {
+			Field field = SoftString.class.getDeclaredField( "soft" );
+			field.setAccessible( true );
+			field.set( ss, new SoftReference<String>( null ) );
+		} catch ( ReflectiveOperationException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
+	/* A list of count values, all collected. */
+	private SoftStringList collected( int count ) {
+		SoftStringList list = new SoftStringList( this.values( count ) );
+		list.forEach( this::collect );
+		return list;
+	}
+	
+	
+	
+	
+	// TEST CASES
+
+	
+	
+
+	@Test.Impl( 
+		member = "constructor: SoftStringList()", 
+		description = "Creates empty list" 
+	)
+	public void tm_0D78EA0A4( Test.Case tc ) {
+		tc.assertEqual( 0, new SoftStringList().size() );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SoftStringList(Collection)", 
+		description = "Throws AssertionError for null collection" 
+	)
+	public void tm_01F77E267( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new SoftStringList( null );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SoftStringList(Collection)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_09F571869( Test.Case tc ) {
+		List<String> values = new ArrayList<String>();
+		values.add( null );
+		tc.expectError( AssertionError.class );
+		new SoftStringList( values );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: SoftStringList(Collection)", 
+		description = "Values are consistent with collection" 
+	)
+	public void tm_025B07882( Test.Case tc ) {
+		List<String> values = this.values( 10 );
+		SoftStringList list = new SoftStringList( values );
+		for ( int i = 0; i < values.size(); i++ ) {
+			tc.assertEqual( values.get( i ), list.getString( i ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterable SoftStringList.strings()", 
+		description = "Consistent after collection" 
+	)
+	public void tm_07321F797( Test.Case tc ) {
+		List<String> values = this.values( 10 );
+		SoftStringList list = this.collected( 10 );
+		int i = 0;
+		for ( String s : list.strings() ) {
+			tc.assertEqual( values.get( i++ ), s );
+		}
+		tc.assertEqual( 10, i );
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterable SoftStringList.strings()", 
+		description = "Consistent with added values" 
+	)
+	public void tm_0DE2775DD( Test.Case tc ) {
+		List<String> values = this.values( 10 );
+		SoftStringList list = new SoftStringList( values );
+		List<String> result = new ArrayList<String>();
+		list.strings().forEach( result::add );
+		tc.assertEqual( values, result );
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterable SoftStringList.strings()", 
+		description = "Empty for empty list" 
+	)
+	public void tm_0DC548DCA( Test.Case tc ) {
+		tc.assertFalse( new SoftStringList().strings().iterator().hasNext() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterable SoftStringList.strings()", 
+		description = "Throws NoSuchElementException when exhausted" 
+	)
+	public void tm_00ED35944( Test.Case tc ) {
+		Iterator<String> iter = new SoftStringList().add( "foo" ).strings().iterator();
+		iter.next();
+		tc.expectError( NoSuchElementException.class );
+		iter.next();
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterator SoftStringList.iterator()", 
+		description = "Consistent with get" 
+	)
+	public void tm_0ACDDBA8B( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 10 ) );
+		int i = 0;
+		for ( SoftString ss : list ) {
+			tc.assertTrue( ss == list.get( i++ ) );
+		}
+		tc.assertEqual( 10, i );
+	}
+		
+	@Test.Impl( 
+		member = "method: Iterator SoftStringList.iterator()", 
+		description = "Remove throws UnsupportedOperationException" 
+	)
+	public void tm_0FF23DFE7( Test.Case tc ) {
+		Iterator<SoftString> iter = new SoftStringList( this.values( 3 ) ).iterator();
+		iter.next();
+		tc.expectError( UnsupportedOperationException.class );
+		iter.remove();
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftString SoftStringList.get(int)", 
+		description = "Does not load value" 
+	)
+	public void tm_0CC432816( Test.Case tc ) {
+		SoftStringList list = this.collected( 10 );
+		list.get( 3 );
+		tc.assertFalse( list.get( 3 ).isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftString SoftStringList.get(int)", 
+		description = "Returns element at index" 
+	)
+	public void tm_01C9D44D1( Test.Case tc ) {
+		SoftString ss = new SoftString( this.value( 42 ) );
+		SoftStringList list = new SoftStringList( this.values( 3 ) ).add( ss );
+		tc.assertTrue( ss == list.get( 3 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftString SoftStringList.get(int)", 
+		description = "Throws IndexOutOfBoundsException for bad index" 
+	)
+	public void tm_0417FF05F( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 3 ) );
+		tc.expectError( IndexOutOfBoundsException.class );
+		list.get( 3 );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(SoftString)", 
+		description = "Increases size" 
+	)
+	public void tm_0648FB102( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 3 ) );
+		list.add( new SoftString( this.value( 3 ) ) );
+		tc.assertEqual( 4, list.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(SoftString)", 
+		description = "Returns this SoftStringList instance" 
+	)
+	public void tm_0B1813689( Test.Case tc ) {
+		SoftStringList list = new SoftStringList();
+		tc.assertEqual( list, list.add( new SoftString( "foo" ) ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(SoftString)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_0C46E6D93( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new SoftStringList().add( (SoftString) null );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(String)", 
+		description = "Increases size" 
+	)
+	public void tm_08B8024B8( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 3 ) );
+		list.add( this.value( 3 ) );
+		tc.assertEqual( 4, list.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(String)", 
+		description = "Returns this SoftStringList instance" 
+	)
+	public void tm_00B8C5DBF( Test.Case tc ) {
+		SoftStringList list = new SoftStringList();
+		tc.assertEqual( list, list.add( "foo" ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(String)", 
+		description = "Throws AssertionError for null string" 
+	)
+	public void tm_050EAB73A( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new SoftStringList().add( (String) null );
+	}
+		
+	@Test.Impl( 
+		member = "method: SoftStringList SoftStringList.add(String)", 
+		description = "Value is consistent" 
+	)
+	public void tm_0E417B947( Test.Case tc ) {
+		tc.assertEqual( this.value( 7 ), new SoftStringList().add( this.value( 7 ) ).getString( 0 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: String SoftStringList.getString(int)", 
+		description = "Consistent with added value" 
+	)
+	public void tm_0A2CEE0D5( Test.Case tc ) {
+		SoftStringList list = new SoftStringList().add( "short" ).add( this.value( 1 ) );
+		tc.assertEqual( "short", list.getString( 0 ) );
+		tc.assertEqual( this.value( 1 ), list.getString( 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: String SoftStringList.getString(int)", 
+		description = "Does not reload beyond prefetch window" 
+	)
+	public void tm_003D782E1( Test.Case tc ) {
+		SoftStringList list = this.collected( 10 );
+		list.getString( 2 );
+		tc.assertFalse( list.get( 1 ).isLoaded() );
+		tc.assertTrue( list.get( 2 + SoftStringListTest.PREFETCH - 1 ).isLoaded() );
+		tc.assertFalse( list.get( 2 + SoftStringListTest.PREFETCH ).isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: String SoftStringList.getString(int)", 
+		description = "Reloads following elements after collection" 
+	)
+	public void tm_032A68846( Test.Case tc ) {
+		List<String> values = this.values( 10 );
+		SoftStringList list = this.collected( 10 );
+		list.getString( 0 );
+		for ( int i = 0; i < SoftStringListTest.PREFETCH; i++ ) {
+			tc.assertTrue( list.get( i ).isLoaded() );
+			tc.assertEqual( values.get( i ), list.get( i ).toString() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String SoftStringList.getString(int)", 
+		description = "Throws IndexOutOfBoundsException for bad index" 
+	)
+	public void tm_0615B0D1A( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 3 ) );
+		tc.expectError( IndexOutOfBoundsException.class );
+		list.getString( -1 );
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftStringList.size()", 
+		description = "Consistent with elements added" 
+	)
+	public void tm_0F718A368( Test.Case tc ) {
+		tc.assertEqual( 17, new SoftStringList( this.values( 17 ) ).size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftStringList.size()", 
+		description = "Zero for empty" 
+	)
+	public void tm_09A0FE3C3( Test.Case tc ) {
+		tc.assertEqual( 0, new SoftStringList().size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Consistent after collection" 
+	)
+	public void tm_06E059531( Test.Case tc ) {
+		List<String> values = this.values( 20 );
+		SoftStringList list = this.collected( 20 );
+		list.sort( null );
+		values.sort( null );
+		for ( int i = 0; i < values.size(); i++ ) {
+			tc.assertEqual( values.get( i ), list.getString( i ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Consistent with comparator" 
+	)
+	public void tm_06A8D1897( Test.Case tc ) {
+		List<String> values = this.values( 20 );
+		SoftStringList list = new SoftStringList( values );
+		list.sort( Comparator.comparing( SoftString::toString ).reversed() );
+		for ( int i = 0; i < values.size(); i++ ) {
+			tc.assertEqual( values.get( i ), list.getString( i ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Natural order for null comparator" 
+	)
+	public void tm_0543AC870( Test.Case tc ) {
+		SoftStringList list = new SoftStringList( this.values( 20 ) );
+		list.sort( null );
+		for ( int i = 0; i < list.size(); i++ ) {
+			tc.assertEqual( this.value( i ), list.getString( i ) );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Distinct prefixes sort without reload" 
+	)
+	public void tm_02C4648B8( Test.Case tc ) {
+		SoftStringList list = this.collected( 20 );
+		list.sort( null );
+		for ( SoftString ss : list ) {
+			tc.assertFalse( ss.isLoaded() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Common prefixes sort correctly after collection" 
+	)
+	public void tm_026433063( Test.Case tc ) {
+		List<String> values = IntStream.range( 0, 20 )
+			.mapToObj( i -> "The answer to the ultimate question of life, the universe, and everything " + (i % 3) + " " + (19 - i) )
+			.collect( Collectors.toList() );
+		SoftStringList list = new SoftStringList( values );
+		list.forEach( this::collect );
+		list.sort( null );
+		values.sort( null );
+		for ( int i = 0; i < values.size(); i++ ) {
+			tc.assertEqual( values.get( i ), list.getString( i ) );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "method: void SoftStringList.sort(Comparator)", 
+		description = "Mixed hard and soft strings with a common prefix sort correctly" 
+	)
+	public void tm_02852B60D( Test.Case tc ) {
+		String common = "a".repeat( 16 );
+		List<String> values = new ArrayList<String>( List.of( common + "b", "a".repeat( 56 ), common + "c", "a".repeat( 60 ), common, common + "ab" ) );
+		SoftStringList list = new SoftStringList( values );
+		list.forEach( this::collect );
+		list.sort( null );
+		values.sort( null );
+		for ( int i = 0; i < values.size(); i++ ) {
+			tc.assertEqual( values.get( i ), list.getString( i ) );
+		}
+	}
+
+
+	public static void main( String[] args ) {
+		//* Toggle class results
+		Test.eval( SoftStringList.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( SoftStringList.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+}
@@ -20,6 +20,7 @@
 package test.sog.core;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.nio.file.Files;
@@ -31,8 +32,10 @@ import java.util.List;
 import java.util.Objects;
 
 import sog.core.App;
+import sog.core.AppRuntime;
 import sog.core.Procedure;
 import sog.core.SoftString;
+import sog.core.StringStore;
 import sog.core.Strings;
 import sog.core.Test;
 import test.sog.core.test.TestCaseTest;
@@ -52,6 +55,19 @@ public class SoftStringTest extends Test.Container {
 		super( SoftString.class );
 	}
 	
+	/* The per-thread buffers of the store behind soft strings. */
+	private List<?> storeBatches() {
+		try {
+			Field store = Class.forName( "sog.core.SoftString$Location" ).getDeclaredField( "STORE" );
+			store.setAccessible( true );
+			Field batches = StringStore.class.getDeclaredField( "batches" );
+			batches.setAccessible( true );
+			return (List<?>) batches.get( store.get( null ) );
+		} catch ( ReflectiveOperationException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
 	@Override
 	public Procedure beforeAll() {
 		return () -> {
@@ -70,6 +86,20 @@ public class SoftStringTest extends Test.Container {
 		};
 	}
 	
+	/* A SoftString whose soft reference appears to have been collected. */
+	private SoftString collected( String s ) {
+		SoftString ss = new SoftString( s );
+		if ( this.getSubjectField( ss, "location", null ) != null ) {
+			this.setSubjectField( ss, "soft", new SoftReference<String>( null ) );
+		}
+		return ss;
+	}
+	
+	/* True if the payload is held, i.e. it was not collected or has been reloaded. */
+	private boolean isLoaded( SoftString ss ) {
+		SoftReference<String> soft = this.getSubjectField( ss, "soft", null );
+		return soft.get() != null;
+	}
 	
 	
 	
@@ -360,6 +390,234 @@ public class SoftStringTest extends Test.Container {
 	
 
 
+	@Test.Impl( 
+		member = "method: int SoftString.compareTo(SoftString)", 
+		description = "Consistent with String.compareTo() after collection" 
+	)
+	public void tm_061927D05( Test.Case tc ) {
+		for ( int i = 0; i < this.ARGS.length; i++ ) {
+			for ( int j = 0; j < this.ARGS.length; j++ ) {
+				tc.assertEqual( this.ARGS[i].compareTo( this.ARGS[j] ), 
+					this.collected( this.ARGS[i] ).compareTo( this.collected( this.ARGS[j] ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.compareTo(SoftString)", 
+		description = "Differing prefixes resolve without reload" 
+	)
+	public void tm_06B8DD4E8( Test.Case tc ) {
+		SoftString ss1 = this.collected( "A" + this.LONG_STRING );
+		SoftString ss2 = this.collected( "B" + this.LONG_STRING );
+		tc.assertTrue( ss1.compareTo( ss2 ) < 0 );
+		tc.assertFalse( this.isLoaded( ss1 ) );
+		tc.assertFalse( this.isLoaded( ss2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.compareTo(SoftString)", 
+		description = "Common prefix resolves with reload" 
+	)
+	public void tm_0EF5815D6( Test.Case tc ) {
+		SoftString ss1 = this.collected( this.LONG_STRING + "A" );
+		SoftString ss2 = this.collected( this.LONG_STRING + "B" );
+		tc.assertTrue( ss1.compareTo( ss2 ) < 0 );
+		tc.assertTrue( this.isLoaded( ss1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SoftString.equals(Object)", 
+		description = "Different hashes resolve without reload" 
+	)
+	public void tm_013A14B89( Test.Case tc ) {
+		SoftString ss1 = this.collected( this.LONG_STRING + "A" );
+		SoftString ss2 = this.collected( this.LONG_STRING + "B" );
+		tc.assertFalse( ss1.equals( ss2 ) );
+		tc.assertFalse( this.isLoaded( ss1 ) );
+		tc.assertFalse( this.isLoaded( ss2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.hashCode()", 
+		description = "Consistent with String.hashCode()" 
+	)
+	public void tm_09A1FCDB6( Test.Case tc ) {
+		for ( String s : this.ARGS ) {
+			tc.assertEqual( s.hashCode(), new SoftString( s ).hashCode() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.hashCode()", 
+		description = "Resolves without reload" 
+	)
+	public void tm_008F7F073( Test.Case tc ) {
+		SoftString ss = this.collected( this.LONG_STRING );
+		tc.assertEqual( this.LONG_STRING.hashCode(), ss.hashCode() );
+		tc.assertFalse( this.isLoaded( ss ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: boolean SoftString.isLoaded()", 
+		description = "True for short strings" 
+	)
+	public void tm_02DB11495( Test.Case tc ) {
+		tc.assertTrue( new SoftString( "short" ).isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SoftString.isLoaded()", 
+		description = "True for new long strings" 
+	)
+	public void tm_0B65BE61D( Test.Case tc ) {
+		tc.assertTrue( new SoftString( this.LONG_STRING ).isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SoftString.isLoaded()", 
+		description = "False after collection" 
+	)
+	public void tm_0690AC51F( Test.Case tc ) {
+		tc.assertFalse( this.collected( this.LONG_STRING ).isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean SoftString.isLoaded()", 
+		description = "True after reload" 
+	)
+	public void tm_0D6B2C3A5( Test.Case tc ) {
+		SoftString ss = this.collected( this.LONG_STRING );
+		SoftString.reload( List.of( ss ) );
+		tc.assertTrue( ss.isLoaded() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftString.reload(Collection)", 
+		description = "Throws AssertionError for null collection" 
+	)
+	public void tm_0D07167CB( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		SoftString.reload( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftString.reload(Collection)", 
+		description = "Reloads collected values" 
+	)
+	public void tm_0271B0AE3( Test.Case tc ) {
+		List<SoftString> strings = new ArrayList<SoftString>();
+		for ( int i = 0; i < 10; i++ ) {
+			strings.add( this.collected( i + this.LONG_STRING ) );
+		}
+		SoftString.reload( strings );
+		for ( SoftString ss : strings ) {
+			tc.assertTrue( this.isLoaded( ss ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftString.reload(Collection)", 
+		description = "Values are consistent after reload" 
+	)
+	public void tm_05B517F45( Test.Case tc ) {
+		List<SoftString> strings = new ArrayList<SoftString>();
+		for ( int i = 0; i < 10; i++ ) {
+			strings.add( this.collected( i + this.LONG_STRING ) );
+		}
+		strings.add( new SoftString( "short" ) );
+		SoftString.reload( strings );
+		for ( int i = 0; i < 10; i++ ) {
+			tc.assertEqual( i + this.LONG_STRING, strings.get( i ).toString() );
+		}
+		tc.assertEqual( "short", strings.get( 10 ).toString() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void SoftString.reload(Collection)", 
+		description = "Empty collection is a no-op" 
+	)
+	public void tm_0E38BE759( Test.Case tc ) {
+		SoftString.reload( Collections.emptyList() );
+		tc.assertTrue( true );
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: SoftString(String)", 
+		description = "Soft strings from short-lived threads do not pin buffers",
+		threadsafe = false
+	)
+	public void tm_09C527E91( Test.Case tc ) throws InterruptedException {
+		new SoftString( this.LONG_STRING );  // Ensure the store exists
+		int before = this.storeBatches().size();
+		List<SoftString> strings = new ArrayList<SoftString>();
+		for ( int i = 0; i < 100; i++ ) {
+			Thread thread = new Thread( () -> strings.add( new SoftString( this.LONG_STRING ) ) );
+			thread.start();
+			thread.join();
+		}
+		tc.assertTrue( this.storeBatches().size() <= before + 1 );
+		tc.assertEqual( 100, strings.size() );
+		strings.forEach( ss -> tc.assertEqual( this.LONG_STRING, ss.toString() ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: int SoftString.comparePrefix(SoftString)", 
+		description = "Agrees with compareTo() when non-zero" 
+	)
+	public void tm_02F8DF638( Test.Case tc ) {
+		String[] values = { "", "A", "AB", "B", this.LONG_STRING + "A", this.LONG_STRING + "B", "B" + this.LONG_STRING };
+		for ( String s1 : values ) {
+			for ( String s2 : values ) {
+				SoftString ss1 = new SoftString( s1 );
+				SoftString ss2 = new SoftString( s2 );
+				int result = this.evalSubjectMethod( ss1, "comparePrefix", 0, ss2 );
+				tc.assertTrue( result == 0 || Integer.signum( result ) == Integer.signum( ss1.compareTo( ss2 ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.comparePrefix(SoftString)", 
+		description = "Zero for long strings with a common prefix" 
+	)
+	public void tm_07214512D( Test.Case tc ) {
+		SoftString ss1 = new SoftString( this.LONG_STRING + "A" );
+		SoftString ss2 = new SoftString( this.LONG_STRING + "B" );
+		tc.assertEqual( 0, this.evalSubjectMethod( ss1, "comparePrefix", 0, ss2 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: int SoftString.comparePrefix(SoftString)", 
+		description = "Does not reload" 
+	)
+	public void tm_09D5CACF7( Test.Case tc ) {
+		SoftString ss1 = this.collected( this.LONG_STRING + "A" );
+		SoftString ss2 = this.collected( this.LONG_STRING + "B" );
+		this.evalSubjectMethod( ss1, "comparePrefix", 0, ss2 );
+		tc.assertFalse( this.isLoaded( ss1 ) );
+		tc.assertFalse( this.isLoaded( ss2 ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: int SoftString.comparePrefix(SoftString)", 
+		description = "Consistent for hard and soft strings with a common prefix" 
+	)
+	public void tm_0D2FD23D3( Test.Case tc ) {
+		String common = "a".repeat( 16 );
+		SoftString hardB = new SoftString( common + "b" );
+		SoftString soft = new SoftString( "a".repeat( 56 ) );
+		SoftString hardC = new SoftString( common + "c" );
+		tc.assertEqual( 0, this.evalSubjectMethod( hardB, "comparePrefix", 0, soft ) );
+		tc.assertEqual( 0, this.evalSubjectMethod( soft, "comparePrefix", 0, hardC ) );
+		tc.assertEqual( 0, this.evalSubjectMethod( hardB, "comparePrefix", 0, hardC ) );
+	}
+
+
 	public static void main( String[] args ) {
 		/* Toggle class results
 		Test.eval( SoftString.class )
@@ -0,0 +1,1127 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package test.sog.core;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import sog.core.Procedure;
+import sog.core.StringStore;
+import sog.core.Test;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class StringStoreTest extends Test.Container {
+	
+	private static final int BUFFER = 100;
+	
+	private static final int SEGMENT = 200;
+	
+	private int ORIG_BUFFER_SIZE;
+	
+	private String ORIG_ENCODING;
+	
+	private boolean ORIG_COMPRESS;
+	
+	private int ORIG_SEGMENT_LENGTH;
+	
+	private long ORIG_COMPACT_MILLIS;
+	
+	public StringStoreTest() {
+		super( StringStore.class );
+	}
+	
+	@Override
+	public Procedure beforeAll() {
+		return () -> {
+			this.ORIG_BUFFER_SIZE = this.getSubjectField( null, "BUFFER_SIZE", null );
+			this.ORIG_ENCODING = this.getSubjectField( null, "ENCODING", null );
+			this.ORIG_COMPRESS = this.getSubjectField( null, "COMPRESS", null );
+			this.ORIG_SEGMENT_LENGTH = this.getSubjectField( null, "SEGMENT_LENGTH", null );
+			this.ORIG_COMPACT_MILLIS = this.getSubjectField( null, "COMPACT_MILLIS", null );
+			
+			// Small buffers so that cases fill them quickly
+			this.setSubjectField( null, "BUFFER_SIZE", StringStoreTest.BUFFER );
+			
+			// Sizes below assume the default store is uncompressed COMPACT
+			this.setSubjectField( null, "ENCODING", "COMPACT" );
+			this.setSubjectField( null, "COMPRESS", false );
+			
+			// Small segments holding two blocks of two SHORT strings; compaction only on demand
+			this.setSubjectField( null, "SEGMENT_LENGTH", StringStoreTest.SEGMENT );
+			this.setSubjectField( null, "COMPACT_MILLIS", 0L );
+		};
+	}
+	
+	@Override
+	public Procedure afterAll() {
+		return () -> {
+			this.setSubjectField( null, "BUFFER_SIZE", this.ORIG_BUFFER_SIZE );
+			this.setSubjectField( null, "ENCODING", this.ORIG_ENCODING );
+			this.setSubjectField( null, "COMPRESS", this.ORIG_COMPRESS );
+			this.setSubjectField( null, "SEGMENT_LENGTH", this.ORIG_SEGMENT_LENGTH );
+			this.setSubjectField( null, "COMPACT_MILLIS", this.ORIG_COMPACT_MILLIS );
+		};
+	}
+	
+	/* Fits in a buffer. */
+	public final String SHORT = "The answer to the ultimate question";
+	
+	/* Longer than a buffer. */
+	public final String LONG = "The answer to the ultimate question of life, the universe, and everything. "
+		+ "Four score and seven years ago our fathers brought forth on this continent a new nation.";
+	
+	/* Not Latin-1. */
+	public final String GREEK = "\u0391\u03b8\u03ae\u03bd\u03b1 \u0394\u03b5\u03bb\u03c6\u03bf\u03af";
+	
+	/* Put count SHORT strings and flush. Twenty fill segments 0 through 4. */
+	private List<StringStore.Extent> fill( StringStore store, int count ) {
+		List<StringStore.Extent> result = IntStream.range( 0, count )
+			.mapToObj( i -> store.put( this.SHORT ) ).collect( Collectors.toList() );
+		store.flush();
+		return result;
+	}
+	
+	/* A store with background compaction every few milliseconds. */
+	private StringStore background() {
+		this.setSubjectField( null, "COMPACT_MILLIS", 5L );
+		try {
+			return new StringStore();
+		} finally {
+			this.setSubjectField( null, "COMPACT_MILLIS", 0L );
+		}
+	}
+	
+	/* Put the string from a thread that terminates before this returns. */
+	private StringStore.Extent putFromThread( StringStore store, String s ) {
+		StringStore.Extent[] result = new StringStore.Extent[1];
+		Thread thread = new Thread( () -> result[0] = store.put( s ) );
+		thread.start();
+		try {
+			thread.join();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+		return result[0];
+	}
+	
+	/* Wait up to five seconds for the extent to be written. */
+	private boolean awaitWritten( StringStore.Extent extent ) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000L;
+		while ( !extent.isWritten() && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 5L );
+		}
+		return extent.isWritten();
+	}
+	
+	/* Size of the default encoding. */
+	private int encoded( String s ) {
+		return StringStore.Encoding.COMPACT.encode( s ).length;
+	}
+	
+	
+	
+	
+	// TEST CASES
+
+	
+	
+
+	@Test.Impl( 
+		member = "constructor: StringStore()", 
+		description = "Creates empty store" 
+	)
+	public void tm_0EE466B7E( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( 0L, store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore()", 
+		description = "Creates open store" 
+	)
+	public void tm_0E3476871( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertTrue( store.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.Extent.toString()", 
+		description = "Indicates length" 
+	)
+	public void tm_0D092692F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertTrue( store.put( this.SHORT ).toString().contains( "" + this.encoded( this.SHORT ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.Extent.toString()", 
+		description = "Indicates pending" 
+	)
+	public void tm_08D16A2C4( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertTrue( store.put( this.SHORT ).toString().contains( "PENDING" ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for empty" 
+	)
+	public void tm_0C7293A0A( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( "", store.get( store.put( "" ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for oversize" 
+	)
+	public void tm_071201F4E( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( this.LONG, store.get( store.put( this.LONG ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for pending" 
+	)
+	public void tm_03BD17B54( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			tc.assertFalse( extent.isWritten() );
+			tc.assertEqual( this.SHORT, store.get( extent ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for written" 
+	)
+	public void tm_0A38532D4( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.flush();
+			tc.assertTrue( extent.isWritten() );
+			tc.assertEqual( this.SHORT, store.get( extent ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Pending extent can be read by other threads" 
+	)
+	public void tm_045E57EAB( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			String[] result = new String[1];
+			Thread reader = new Thread( () -> result[0] = store.get( extent ) );
+			reader.start();
+			reader.join();
+			tc.assertEqual( this.SHORT, result[0] );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0B5901968( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.dispose();
+			tc.expectError( AssertionError.class );
+			store.get( extent );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Throws AssertionError for null extent" 
+	)
+	public void tm_012B6BA96( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.get( null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.toString()", 
+		description = "Indicates length" 
+	)
+	public void tm_0FB53C25D( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.LONG );
+			tc.assertTrue( store.toString().contains( "" + store.length() ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Concurrent puts are consistent" 
+	)
+	public void tm_0631D846F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 1000 ).parallel()
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( this.SHORT + i, store.get( extents.get( i ) ) );
+			}
+			store.flush();
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( this.SHORT + i, store.get( extents.get( i ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Full buffer is flushed" 
+	)
+	public void tm_0CDEF2E9A( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent first = store.put( this.SHORT );
+			store.put( this.SHORT );
+			store.put( this.SHORT );
+			tc.assertTrue( first.isWritten() );
+			tc.assertEqual( this.SHORT, store.get( first ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Oversize strings are written directly" 
+	)
+	public void tm_029E69EEC( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.LONG );
+			tc.assertEqual( (long) this.encoded( this.LONG ), store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Short strings are pending" 
+	)
+	public void tm_0414BE201( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.SHORT );
+			tc.assertEqual( 0L, store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_04DB77C01( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.dispose();
+			tc.expectError( AssertionError.class );
+			store.put( this.SHORT );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Throws AssertionError for null string" 
+	)
+	public void tm_03987A884( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.put( null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StringStore.Extent.isWritten()", 
+		description = "False before flush" 
+	)
+	public void tm_0788287C7( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertFalse( store.put( this.SHORT ).isWritten() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StringStore.Extent.isWritten()", 
+		description = "True after flush" 
+	)
+	public void tm_03580B875( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.flush();
+			tc.assertTrue( extent.isWritten() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StringStore.Extent.isWritten()", 
+		description = "True for oversize string" 
+	)
+	public void tm_08FF62BDA( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertTrue( store.put( this.LONG ).isWritten() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StringStore.isOpen()", 
+		description = "False after dispose" 
+	)
+	public void tm_0BD4693B8( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.dispose();
+			tc.assertFalse( store.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StringStore.isOpen()", 
+		description = "True for new" 
+	)
+	public void tm_0FEF4E1B3( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertTrue( store.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.Extent.length()", 
+		description = "Consistent with encoded length" 
+	)
+	public void tm_04C6CB113( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( this.encoded( this.SHORT ), store.put( this.SHORT ).length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.Extent.length()", 
+		description = "Zero for empty string" 
+	)
+	public void tm_093DC289A( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.UTF_8, false ) ) {
+			tc.assertEqual( 0, store.put( "" ).length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long StringStore.length()", 
+		description = "Increases after flush" 
+	)
+	public void tm_0C42CF4A5( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.SHORT );
+			store.flush();
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long StringStore.length()", 
+		description = "Zero for new" 
+	)
+	public void tm_05BD0F893( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( 0L, store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.close()", 
+		description = "Idempotent" 
+	)
+	public void tm_07E72DAD1( Test.Case tc ) {
+		StringStore store = new StringStore();
+		store.close();
+		store.close();
+		tc.assertFalse( store.isOpen() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.dispose()", 
+		description = "Idempotent" 
+	)
+	public void tm_061E9DB8A( Test.Case tc ) {
+		StringStore store = new StringStore();
+		store.dispose();
+		store.dispose();
+		tc.assertFalse( store.isOpen() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.flush()", 
+		description = "Flushes buffers of other threads" 
+	)
+	public void tm_06C2726D7( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent[] extent = new StringStore.Extent[1];
+			Thread writer = new Thread( () -> extent[0] = store.put( this.SHORT ) );
+			writer.start();
+			writer.join();
+			tc.assertFalse( extent[0].isWritten() );
+			store.flush();
+			tc.assertTrue( extent[0].isWritten() );
+			tc.assertEqual( this.SHORT, store.get( extent[0] ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.flush()", 
+		description = "Idempotent" 
+	)
+	public void tm_0CD84B745( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.SHORT );
+			store.flush();
+			store.flush();
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.flush()", 
+		description = "Pending extents are written" 
+	)
+	public void tm_0801F4435( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent first = store.put( this.SHORT );
+			StringStore.Extent second = store.put( this.SHORT );
+			store.flush();
+			tc.assertTrue( first.isWritten() );
+			tc.assertTrue( second.isWritten() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.flush()", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_00258106F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.dispose();
+			tc.expectError( AssertionError.class );
+			store.flush();
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: StringStore()", 
+		description = "Uses configured encoding" 
+	)
+	public void tm_031379DFE( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( this.encoded( this.SHORT ), store.put( this.SHORT ).length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Compressed store is consistent" 
+	)
+	public void tm_0A7166A03( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.COMPACT, true ) ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 100 )
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			store.flush();
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( this.SHORT + i, store.get( extents.get( i ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Compressed store is smaller for repetitive text" 
+	)
+	public void tm_083748EAE( Test.Case tc ) {
+		try ( 
+			StringStore plain = new StringStore( StringStore.Encoding.COMPACT, false );
+			StringStore compressed = new StringStore( StringStore.Encoding.COMPACT, true ) 
+		) {
+			for ( int i = 0; i < 100; i++ ) {
+				plain.put( this.SHORT );
+				compressed.put( this.SHORT );
+			}
+			plain.flush();
+			compressed.flush();
+			tc.assertTrue( compressed.length() < plain.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Creates empty store" 
+	)
+	public void tm_0DB0DD1C2( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.UTF_8, true ) ) {
+			tc.assertEqual( 0L, store.length() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Throws AssertionError for null codec" 
+	)
+	public void tm_0C76C0094( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new StringStore( null, false );
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for compressed oversize" 
+	)
+	public void tm_052886011( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.UTF_8, true ) ) {
+			tc.assertEqual( this.LONG, store.get( store.put( this.LONG ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for compressed" 
+	)
+	public void tm_06E3B617A( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.LATIN_1, true ) ) {
+			StringStore.Extent first = store.put( this.SHORT );
+			StringStore.Extent second = store.put( this.SHORT + "!" );
+			store.flush();
+			tc.assertEqual( this.SHORT, store.get( first ) );
+			tc.assertEqual( this.SHORT + "!", store.get( second ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put for non Latin-1" 
+	)
+	public void tm_059520A72( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.GREEK );
+			tc.assertEqual( this.GREEK, store.get( extent ) );
+			store.flush();
+			tc.assertEqual( this.GREEK, store.get( extent ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Throws AssertionError for non Latin-1 with LATIN_1" 
+	)
+	public void tm_0311264A3( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.LATIN_1, false ) ) {
+			tc.expectError( AssertionError.class );
+			store.put( this.GREEK );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Background compaction releases dead segments",
+		threadsafe = false
+	)
+	public void tm_0C9E706AA( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = this.background() ) {
+			this.fill( store, 20 ).forEach( store::release );
+			long deadline = System.currentTimeMillis() + 5000L;
+			while ( store.segmentCount() > 1 && System.currentTimeMillis() < deadline ) {
+				Thread.sleep( 5L );
+			}
+			tc.assertEqual( 1, store.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String StringStore.get(StringStore.Extent)", 
+		description = "Consistent with put after compaction" 
+	)
+	public void tm_0F263D70B( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = this.fill( store, 20 );
+			for ( int i = 1; i < extents.size(); i += 2 ) {
+				store.release( extents.get( i ) );
+			}
+			store.compact();
+			for ( int i = 0; i < extents.size(); i += 2 ) {
+				tc.assertEqual( this.SHORT, store.get( extents.get( i ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String, Object)", 
+		description = "Consistent with put" 
+	)
+	public void tm_050DC9DC8( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( this.SHORT, store.get( store.put( this.SHORT, new Object() ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String, Object)", 
+		description = "Releases extent after owner is collected" 
+	)
+	public void tm_073C723F7( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = new StringStore() ) {
+			Object[] owner = { new Object() };
+			store.put( this.SHORT, owner[0] );
+			store.flush();
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.liveBytes() );
+			owner[0] = null;
+			long deadline = System.currentTimeMillis() + 5000L;
+			while ( store.liveBytes() > 0L && System.currentTimeMillis() < deadline ) {
+				System.gc();
+				Thread.sleep( 10L );
+			}
+			tc.assertEqual( 0L, store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String, Object)", 
+		description = "Throws AssertionError for null owner" 
+	)
+	public void tm_0E281A349( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.put( this.SHORT, null );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Ignores the current segment" 
+	)
+	public void tm_07F04FC5E( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			this.fill( store, 1 ).forEach( store::release );
+			tc.assertEqual( 0, store.compact() );
+			tc.assertEqual( 1, store.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Keeps mostly live segments" 
+	)
+	public void tm_0D02746EC( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			this.fill( store, 20 );
+			tc.assertEqual( 0, store.compact() );
+			tc.assertEqual( 5, store.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Moved extents are consistent when compressed" 
+	)
+	public void tm_0061EB7FF( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.COMPACT, true ) ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 40 )
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			store.flush();
+			for ( int i = 1; i < extents.size(); i += 2 ) {
+				store.release( extents.get( i ) );
+			}
+			tc.assertTrue( store.compact() > 0 );
+			for ( int i = 0; i < extents.size(); i += 2 ) {
+				tc.assertEqual( this.SHORT + i, store.get( extents.get( i ) ) );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Moves live extents from mostly dead segments" 
+	)
+	public void tm_0960DB36B( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = this.fill( store, 20 );
+			extents.subList( 1, extents.size() ).forEach( store::release );
+			long length = store.length();
+			tc.assertEqual( 4, store.compact() );
+			tc.assertTrue( extents.get( 0 ).toString().contains( "" + length ) );
+			tc.assertEqual( this.SHORT, store.get( extents.get( 0 ) ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Releases segments without live extents" 
+	)
+	public void tm_05F9EBE2F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			this.fill( store, 20 ).forEach( store::release );
+			tc.assertEqual( 4, store.compact() );
+			tc.assertEqual( 1, store.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.compact()", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0F33D6AB9( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.dispose();
+			tc.expectError( AssertionError.class );
+			store.compact();
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.segmentCount()", 
+		description = "Decreases after compaction" 
+	)
+	public void tm_0FD33CF6F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			this.fill( store, 20 ).forEach( store::release );
+			int before = store.segmentCount();
+			store.compact();
+			tc.assertTrue( store.segmentCount() < before );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: int StringStore.segmentCount()", 
+		description = "Zero for new" 
+	)
+	public void tm_0400AEC8C( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( 0, store.segmentCount() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long StringStore.liveBytes()", 
+		description = "Decreases after release" 
+	)
+	public void tm_0AF7F2045( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = this.fill( store, 2 );
+			store.release( extents.get( 0 ) );
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long StringStore.liveBytes()", 
+		description = "Increases after flush" 
+	)
+	public void tm_0229F7A9E( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.put( this.SHORT );
+			tc.assertEqual( 0L, store.liveBytes() );
+			store.flush();
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: long StringStore.liveBytes()", 
+		description = "Zero for new" 
+	)
+	public void tm_0E426267A( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( 0L, store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.dispose()", 
+		description = "Stops background compaction",
+		threadsafe = false
+	)
+	public void tm_0534C3D2D( Test.Case tc ) throws InterruptedException {
+		StringStore store = this.background();
+		Thread compactor = this.getSubjectField( store, "compactor", null );
+		tc.assertTrue( compactor.isAlive() );
+		store.dispose();
+		tc.assertFalse( compactor.isAlive() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.release(StringStore.Extent)", 
+		description = "Idempotent" 
+	)
+	public void tm_04C36A62A( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = this.fill( store, 2 );
+			store.release( extents.get( 0 ) );
+			store.release( extents.get( 0 ) );
+			tc.assertEqual( (long) this.encoded( this.SHORT ), store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.release(StringStore.Extent)", 
+		description = "Ignored after dispose" 
+	)
+	public void tm_0148D2BD2( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.dispose();
+			store.release( extent );
+			tc.assertFalse( store.isOpen() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.release(StringStore.Extent)", 
+		description = "Pending extent is never placed" 
+	)
+	public void tm_018021AEB( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.release( extent );
+			store.flush();
+			tc.assertTrue( extent.isWritten() );
+			tc.assertEqual( 0L, store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.release(StringStore.Extent)", 
+		description = "Reduces live bytes for written extent" 
+	)
+	public void tm_0AF89EA05( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			store.release( this.fill( store, 1 ).get( 0 ) );
+			tc.assertEqual( 0L, store.liveBytes() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: void StringStore.release(StringStore.Extent)", 
+		description = "Throws AssertionError for null extent" 
+	)
+	public void tm_0C75F7C2A( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.release( null );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Consistent with get across segments" 
+	)
+	public void tm_072A5AA6F( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 30 )
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			extents.add( store.put( this.LONG ) );
+			store.flush();
+			String[] values = store.getAll( extents );
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( store.get( extents.get( i ) ), values[i] );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Consistent with get for compressed" 
+	)
+	public void tm_061C48340( Test.Case tc ) {
+		try ( StringStore store = new StringStore( StringStore.Encoding.COMPACT, true ) ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 30 )
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			store.flush();
+			String[] values = store.getAll( extents );
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( this.SHORT + i, values[i] );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Consistent with get for pending" 
+	)
+	public void tm_04B331F4E( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			tc.assertEqual( this.SHORT, store.getAll( List.of( extent ) )[0] );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Consistent with get for repeated extent" 
+	)
+	public void tm_0DFC6EA07( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.flush();
+			String[] values = store.getAll( List.of( extent, extent ) );
+			tc.assertEqual( this.SHORT, values[0] );
+			tc.assertEqual( this.SHORT, values[1] );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Consistent with get in given order" 
+	)
+	public void tm_0B7D73478( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = IntStream.range( 0, 30 )
+				.mapToObj( i -> store.put( this.SHORT + i ) ).collect( Collectors.toList() );
+			store.flush();
+			Collections.reverse( extents );
+			String[] values = store.getAll( extents );
+			for ( int i = 0; i < extents.size(); i++ ) {
+				tc.assertEqual( this.SHORT + (29 - i), values[i] );
+			}
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Empty for empty" 
+	)
+	public void tm_028632E47( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.assertEqual( 0, store.getAll( List.of() ).length );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Throws AssertionError for disposed" 
+	)
+	public void tm_0A86FE095( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			store.dispose();
+			tc.expectError( AssertionError.class );
+			store.getAll( List.of( extent ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Throws AssertionError for null extent" 
+	)
+	public void tm_09A020849( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.getAll( Arrays.asList( store.put( this.SHORT ), null ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: String[] StringStore.getAll(List)", 
+		description = "Throws AssertionError for null extents" 
+	)
+	public void tm_0A6402A20( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			tc.expectError( AssertionError.class );
+			store.getAll( null );
+		}
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Background pass writes buffers of terminated threads",
+		threadsafe = false
+	)
+	public void tm_0A9857792( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = this.background() ) {
+			StringStore.Extent extent = this.putFromThread( store, this.SHORT );
+			tc.assertTrue( this.awaitWritten( extent ) );
+			tc.assertEqual( this.SHORT, store.get( extent ) );
+			List<?> batches = this.getSubjectField( store, "batches", null );
+			tc.assertTrue( batches.isEmpty() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StringStore(StringStore.Codec, boolean)", 
+		description = "Background pass writes idle buffers",
+		threadsafe = false
+	)
+	public void tm_05E563513( Test.Case tc ) throws InterruptedException {
+		try ( StringStore store = this.background() ) {
+			StringStore.Extent extent = store.put( this.SHORT );
+			tc.assertTrue( this.awaitWritten( extent ) );
+			tc.assertEqual( this.SHORT, store.get( extent ) );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: StringStore.Extent StringStore.put(String)", 
+		description = "Buffers of terminated threads do not accumulate" 
+	)
+	public void tm_0216F3E44( Test.Case tc ) {
+		try ( StringStore store = new StringStore() ) {
+			List<StringStore.Extent> extents = new ArrayList<StringStore.Extent>();
+			for ( int i = 0; i < 100; i++ ) {
+				extents.add( this.putFromThread( store, this.SHORT + i ) );
+			}
+			List<?> batches = this.getSubjectField( store, "batches", null );
+			tc.assertTrue( batches.size() <= 1 );
+			for ( int i = 0; i < extents.size() - 1; i++ ) {
+				tc.assertTrue( extents.get( i ).isWritten() );
+				tc.assertEqual( this.SHORT + i, store.get( extents.get( i ) ) );
+			}
+		}
+	}
+
+
+	public static void main( String[] args ) {
+		//* Toggle class results
+		Test.eval( StringStore.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( StringStore.class )
+			.concurrent( false )
+			.showDetails( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+}
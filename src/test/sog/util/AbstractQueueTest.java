@@ -18,9 +18,18 @@
  */
 package test.sog.util;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import sog.core.AppRuntime;
 import sog.core.Test;
 import sog.util.AbstractQueue;
 import sog.util.Queue;
@@ -45,6 +54,8 @@ public class AbstractQueueTest extends Test.Container {
 			@Override protected String getImpl() { return null; }
 
 			@Override public boolean isEmpty() { return true; }
+
+			@Override public int size() { return 0; }
 			
 		};
 	}
@@ -62,10 +73,55 @@ public class AbstractQueueTest extends Test.Container {
 			}
 
 			@Override public boolean isEmpty() { return false; }
+
+			@Override public int size() { return 1; }
 			
 		};
 	}
 	
+	/* Call get() on a new daemon thread. */
+	static CompletableFuture<String> getLater( Queue<String> q ) {
+		CompletableFuture<String> result = new CompletableFuture<String>();
+		Thread t = new Thread( () -> result.complete( q.get() ) );
+		t.setDaemon( true );
+		t.start();
+		return result;
+	}
+	
+	/* Wait until a consumer is blocked in a blocking queue that counts its waiting consumers. */
+	static void awaitWaiting( Queue<String> q ) {
+		try {
+			Field field = q.getClass().getDeclaredField( "waiting" );
+			field.setAccessible( true );
+			AtomicInteger waiting = (AtomicInteger) field.get( q );
+			for ( int i = 0; i < 1000 && waiting.get() == 0; i++ ) {
+				Thread.sleep( 1L );
+			}
+		} catch ( ReflectiveOperationException | InterruptedException e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
+	static String await( CompletableFuture<String> result ) {
+		try {
+			return result.get( 5L, TimeUnit.SECONDS );
+		} catch ( Exception e ) {
+			throw new AppRuntime( e );
+		}
+	}
+	
+	/* Interrupt a consumer blocked in the given retrieval; true if it returns the element put afterwards still interrupted. */
+	static <Q extends Queue<String>> boolean restoresInterrupt( Q q, Function<Q, String> retrieval ) {
+		CompletableFuture<String> result = new CompletableFuture<String>();
+		Thread t = new Thread( () -> result.complete( retrieval.apply( q ) + Thread.currentThread().isInterrupted() ) );
+		t.setDaemon( true );
+		t.start();
+		AbstractQueueTest.awaitWaiting( q );
+		t.interrupt();
+		q.put( "A" );
+		return "Atrue".equals( AbstractQueueTest.await( result ) );
+	}
+	
 	// TESTS
 	
     @Test.Impl( 
@@ -275,6 +331,155 @@ public class AbstractQueueTest extends Test.Container {
 
 
 
+
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.putAll(Iterable)", 
+    	description = "Throws AssertionError for null elements" 
+    )
+    public void tm_049733DB2( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( null, null );
+    	tc.expectError( AssertionError.class );
+    	q.putAll( null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.putAll(Iterable)", 
+    	description = "Returns count when OPEN" 
+    )
+    public void tm_04E375A02( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( null, null );
+    	tc.assertEqual( 3, q.putAll( List.of( "A", "B", "C" ) ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.putAll(Iterable)", 
+    	description = "Returns zero when CLOSED" 
+    )
+    public void tm_06DDB0AED( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( null, null );
+    	q.close();
+    	tc.assertEqual( 0, q.putAll( List.of( "A", "B", "C" ) ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.putAll(Iterable)", 
+    	description = "Returns zero when TERMINATED" 
+    )
+    public void tm_05B296AE4( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( null, null );
+    	q.terminate();
+    	tc.assertEqual( 0, q.putAll( List.of( "A", "B", "C" ) ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.putAll(Iterable)", 
+    	description = "Consistent with putImpl when OPEN" 
+    )
+    public void tm_00EB27193( Test.Case tc ) {
+    	List<String> accepted = new ArrayList<>();
+    	Queue<String> q = this.getQueue( null, accepted::add );
+    	q.putAll( List.of( "A", "B", "C" ) );
+    	tc.assertEqual( List.of( "A", "B", "C" ), accepted );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Throws AssertionError for null collection" 
+    )
+    public void tm_0131F9B19( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	tc.expectError( AssertionError.class );
+    	q.drainTo( null, 1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Throws AssertionError for negative max" 
+    )
+    public void tm_02D9F710D( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	tc.expectError( AssertionError.class );
+    	q.drainTo( new ArrayList<String>(), -1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Consistent with getImpl when OPEN" 
+    )
+    public void tm_010B71D5A( Test.Case tc ) {
+    	Iterator<String> source = List.of( "A", "B" ).iterator();
+    	Queue<String> q = this.getQueue( () -> source.hasNext() ? source.next() : null, null );
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 2, q.drainTo( drained, 10 ) );
+    	tc.assertEqual( List.of( "A", "B" ), drained );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Consistent with getImpl when CLOSED" 
+    )
+    public void tm_01EA4A2BC( Test.Case tc ) {
+    	Iterator<String> source = List.of( "A", "B" ).iterator();
+    	Queue<String> q = this.getQueue( () -> source.hasNext() ? source.next() : null, null );
+    	q.close();
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 2, q.drainTo( drained, 10 ) );
+    	tc.assertEqual( List.of( "A", "B" ), drained );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Returns zero when TERMINATED" 
+    )
+    public void tm_02E38BD64( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	q.terminate();
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 0, q.drainTo( drained, 10 ) );
+    	tc.assertTrue( drained.isEmpty() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int AbstractQueue.drainTo(Collection, int)", 
+    	description = "Moves at most max elements" 
+    )
+    public void tm_060776CF7( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 5, q.drainTo( drained, 5 ) );
+    	tc.assertEqual( 5, drained.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object AbstractQueue.poll(long, TimeUnit)", 
+    	description = "Throws AssertionError for null unit" 
+    )
+    public void tm_0B9512DA9( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	tc.expectError( AssertionError.class );
+    	q.poll( 1L, null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object AbstractQueue.poll(long, TimeUnit)", 
+    	description = "Consistent with getImpl when OPEN" 
+    )
+    public void tm_008DB4904( Test.Case tc ) {
+    	Supplier<String> getImpl = () -> "Value";
+    	Queue<String> q = this.getQueue( getImpl, null );
+    	tc.assertEqual( getImpl.get(), q.poll( 1L, TimeUnit.SECONDS ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object AbstractQueue.poll(long, TimeUnit)", 
+    	description = "Returns null when TERMINATED" 
+    )
+    public void tm_0EDDEDC99( Test.Case tc ) {
+    	Queue<String> q = this.getQueue( () -> "Value", null );
+    	q.terminate();
+    	tc.assertIsNull( q.poll( 1L, TimeUnit.SECONDS ) );
+    }
+
     
 	public static void main( String[] args ) {
 		/* Toggle class results
@@ -0,0 +1,473 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package test.sog.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sog.core.Test;
+import sog.util.ConcurrentPriorityQueue;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class ConcurrentPriorityQueueTest extends Test.Container {
+
+	public ConcurrentPriorityQueueTest() {
+		super( ConcurrentPriorityQueue.class );
+	}
+	
+	
+	private ConcurrentPriorityQueue<String> queue() {
+		return new ConcurrentPriorityQueue<String>( Comparator.naturalOrder() );
+	}
+	
+	
+	
+	// TEST CASES
+
+	
+
+
+	@Test.Impl( 
+		member = "constructor: ConcurrentPriorityQueue(Comparator)", 
+		description = "Throws AssertionError for null comparator" 
+	)
+	public void tm_0F7D0377A( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new ConcurrentPriorityQueue<String>( null );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: ConcurrentPriorityQueue(Comparator)", 
+		description = "Created open and empty" 
+	)
+	public void tm_018D451B3( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		tc.assertTrue( q.isOpen() );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.isEmpty()", 
+		description = "True when constructed" 
+	)
+	public void tm_0DEEFC281( Test.Case tc ) {
+		tc.assertTrue( this.queue().isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.isEmpty()", 
+		description = "False after put" 
+	)
+	public void tm_077B2776D( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		tc.assertFalse( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.isEmpty()", 
+		description = "True after put then get" 
+	)
+	public void tm_0DBC688B9( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.get();
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int ConcurrentPriorityQueue.size()", 
+		description = "Zero when constructed" 
+	)
+	public void tm_064186BE2( Test.Case tc ) {
+		tc.assertEqual( 0, this.queue().size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int ConcurrentPriorityQueue.size()", 
+		description = "Counts equal elements" 
+	)
+	public void tm_0C4A03799( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "A" );
+		q.put( "B" );
+		tc.assertEqual( 3, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int ConcurrentPriorityQueue.size()", 
+		description = "Decreases after get" 
+	)
+	public void tm_0E247E2E1( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "B" );
+		q.get();
+		tc.assertEqual( 1, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.putImpl(Object)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_05360C00B( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		this.queue().put( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.putImpl(Object)", 
+		description = "Put on open is accepted" 
+	)
+	public void tm_0CB827B83( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		tc.assertTrue( q.put( "A" ) );
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.putImpl(Object)", 
+		description = "Put on closed is ignored" 
+	)
+	public void tm_0899D67EA( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "B" );
+		q.close();
+		tc.assertFalse( q.put( "A" ) );
+		tc.assertEqual( "B", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.putImpl(Object)", 
+		description = "Put on terminated is ignored" 
+	)
+	public void tm_009AB9513( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.terminate();
+		tc.assertFalse( q.put( "A" ) );
+		tc.assertEqual( 0, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean ConcurrentPriorityQueue.putImpl(Object)", 
+		description = "Wakes a waiting consumer" 
+	)
+	public void tm_0356120E3( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.getImpl()", 
+		description = "Returns null when empty" 
+	)
+	public void tm_0B070AC70( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.close();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.getImpl()", 
+		description = "Elements retrieved in comparator order" 
+	)
+	public void tm_0F6473187( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "C" );
+		q.put( "A" );
+		q.put( "B" );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "B", q.get() );
+		tc.assertEqual( "C", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.getImpl()", 
+		description = "Equal elements retrieved in put order" 
+	)
+	public void tm_09E3DFB44( Test.Case tc ) {
+		// Strings with the same first character are equal
+		ConcurrentPriorityQueue<String> q = new ConcurrentPriorityQueue<String>( Comparator.comparing( s -> s.charAt( 0 ) ) );
+		q.put( "B1" );
+		q.put( "A1" );
+		q.put( "B2" );
+		q.put( "A2" );
+		List<String> result = new ArrayList<String>();
+		while ( !q.isEmpty() ) {
+			result.add( q.get() );
+		}
+		tc.assertEqual( List.of( "A1", "A2", "B1", "B2" ), result );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Get on open non empty returns least element" 
+	)
+	public void tm_039D5C030( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "B" );
+		q.put( "A" );
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Get on open empty blocks awaiting put" 
+	)
+	public void tm_03D22F870( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		tc.assertFalse( result.isDone() );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Get on closed non empty returns non null" 
+	)
+	public void tm_0F95540A3( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.close();
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Get on closed empty returns null" 
+	)
+	public void tm_0024C20FD( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.close();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Get on terminated non empty returns null" 
+	)
+	public void tm_0B8169699( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.terminate();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Blocked get returns null after close" 
+	)
+	public void tm_0A7AACC9F( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.close();
+		tc.assertIsNull( AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Each element is retrieved once by concurrent consumers" 
+	)
+	public void tm_0DBA97292( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		Map<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for ( int c = 0; c < 4; c++ ) {
+			threads.add( new Thread( () -> {
+				String s;
+				while ( (s = q.get()) != null ) {
+					counts.computeIfAbsent( s, k -> new AtomicInteger() ).incrementAndGet();
+				}
+			} ) );
+		}
+		threads.forEach( Thread::start );
+		for ( int i = 0; i < 10_000; i++ ) {
+			q.put( "P" + i );
+		}
+		while ( counts.size() < 10_000 ) {
+			Thread.yield();
+		}
+		q.close();
+		for ( Thread t : threads ) {
+			try { t.join(); } catch ( InterruptedException e ) {}
+		}
+		tc.assertEqual( 10_000, counts.size() );
+		tc.assertTrue( counts.values().stream().allMatch( n -> n.get() == 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.poll(long, TimeUnit)", 
+		description = "Throws AssertionError for null unit" 
+	)
+	public void tm_0B493E502( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		this.queue().poll( 1L, null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.poll(long, TimeUnit)", 
+		description = "Returns element when non empty" 
+	)
+	public void tm_05C6B4068( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		tc.assertEqual( "A", q.poll( 0L, TimeUnit.MILLISECONDS ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.poll(long, TimeUnit)", 
+		description = "Returns null after timeout when open and empty" 
+	)
+	public void tm_01C839328( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		long start = System.nanoTime();
+		tc.assertIsNull( q.poll( 20L, TimeUnit.MILLISECONDS ) );
+		tc.assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 20L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.poll(long, TimeUnit)", 
+		description = "Returns element put while waiting" 
+	)
+	public void tm_08BFF938F( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> result = new CompletableFuture<String>();
+		Thread t = new Thread( () -> result.complete( q.poll( 5L, TimeUnit.SECONDS ) ) );
+		t.setDaemon( true );
+		t.start();
+		AbstractQueueTest.awaitWaiting( q );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void ConcurrentPriorityQueue.close()", 
+		description = "Can close if open" 
+	)
+	public void tm_07E3A76B9( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.close();
+		tc.assertTrue( q.isClosed() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void ConcurrentPriorityQueue.close()", 
+		description = "Wakes waiting consumers" 
+	)
+	public void tm_0C70EA09D( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> first = AbstractQueueTest.getLater( q );
+		CompletableFuture<String> second = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.close();
+		tc.assertIsNull( AbstractQueueTest.await( first ) );
+		tc.assertIsNull( AbstractQueueTest.await( second ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void ConcurrentPriorityQueue.terminate()", 
+		description = "Can terminate if open" 
+	)
+	public void tm_017259D4B( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.terminate();
+		tc.assertTrue( q.isTerminated() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void ConcurrentPriorityQueue.terminate()", 
+		description = "Wakes waiting consumers" 
+	)
+	public void tm_093328446( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		CompletableFuture<String> first = AbstractQueueTest.getLater( q );
+		CompletableFuture<String> second = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.terminate();
+		tc.assertIsNull( AbstractQueueTest.await( first ) );
+		tc.assertIsNull( AbstractQueueTest.await( second ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: String ConcurrentPriorityQueue.toString()", 
+		description = "Includes size" 
+	)
+	public void tm_0F5AB5135( Test.Case tc ) {
+		ConcurrentPriorityQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "B" );
+		tc.assertTrue( q.toString().contains( "2" ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.get()", 
+		description = "Interrupt while waiting is restored on return" 
+	)
+	public void tm_0736680EB( Test.Case tc ) {
+		tc.assertTrue( AbstractQueueTest.restoresInterrupt( this.queue(), ConcurrentPriorityQueue::get ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object ConcurrentPriorityQueue.poll(long, TimeUnit)", 
+		description = "Interrupt while waiting is restored on return" 
+	)
+	public void tm_0E5F5AA81( Test.Case tc ) {
+		tc.assertTrue( AbstractQueueTest.restoresInterrupt( this.queue(), q -> q.poll( 5L, TimeUnit.SECONDS ) ) );
+	}
+
+
+	public static void main( String[] args ) {
+		/* Toggle class results
+		Test.eval( ConcurrentPriorityQueue.class )
+			.concurrent( false )
+			.showDetails( true )
+			.showProgress( false )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( ConcurrentPriorityQueue.class )
+			.concurrent( true )
+			.showDetails( false )
+			.showProgress( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+	
+	
+}
@@ -20,10 +20,21 @@
 package test.sog.util;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import sog.core.AppRuntime;
@@ -45,6 +56,57 @@ public class ConcurrentTest extends Test.Container {
 	private Concurrent getConcurrent() {
 		return new Concurrent( "Test", 1 );
 	}
+	
+	private boolean await( CountDownLatch latch ) {
+		try {
+			return latch.await( 2L, TimeUnit.SECONDS );
+		} catch ( InterruptedException ex ) {
+			return false;
+		}
+	}
+	
+	private void sleep( long millis ) {
+		try {
+			Thread.sleep( millis );
+		} catch ( InterruptedException ex ) {}
+	}
+	
+	private void join( Thread thread ) {
+		try {
+			thread.join( 2000L );
+		} catch ( InterruptedException ex ) {}
+	}
+	
+	/* Occupies the Worker of a single Worker instance until the returned latch is released. */
+	private CountDownLatch occupy( Concurrent c ) {
+		CountDownLatch started = new CountDownLatch( 1 );
+		CountDownLatch release = new CountDownLatch( 1 );
+		c.execute( () -> { started.countDown(); this.await( release ); } );
+		this.await( started );
+		return release;
+	}
+	
+	/* Wait until the instance has the given number of Workers. */
+	private boolean awaitWorkers( Concurrent c, int count ) {
+		for ( int i = 0; i < 400 && c.stats().workers() != count; i++ ) {
+			this.sleep( 5L );
+		}
+		return c.stats().workers() == count;
+	}
+	
+	private Supplier<Boolean> record( List<String> order, String s ) {
+		return () -> order.add( s );
+	}
+	
+	private int fib( Concurrent c, int n ) {
+		if ( n < 2 ) {
+			return n;
+		}
+		Function<Integer, Integer> f = m -> this.fib( c, m );
+		Supplier<Integer> left = c.applyGetLater( f, n - 1 );
+		Supplier<Integer> right = c.applyGetLater( f, n - 2 );
+		return left.get() + right.get();
+	}
 
 	
 	// TEST CASES
@@ -409,7 +471,8 @@ public class ConcurrentTest extends Test.Container {
     		return s;
     	};
     	long start = System.currentTimeMillis();
-    	c.map( f, Stream.of( "1", "2", "3" ) ).count();
+    	// Collect rather than count(); a sized stream may skip the map stage when counting
+    	c.map( f, Stream.of( "1", "2", "3" ) ).collect( Collectors.toList() );
     	tc.assertTrue( System.currentTimeMillis() - start >= 1L );
     	c.terminate();
     }
@@ -514,10 +577,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: Supplier Concurrent.applyGetLater(Function, Object)", 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
     	description = "Function is evaluated by a Worker thread" 
     )
-    public void tm_01293843B( Test.Case tc ) {
+    public void tm_019CEDA7F( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	Function<String, Thread> function = (s) -> Thread.currentThread();
     	tc.assertNotEqual( function.apply( "" ), c.applyGetLater( function, "" ).get() );
@@ -525,10 +588,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: Supplier Concurrent.applyGetLater(Function, Object)", 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
     	description = "Result is consistent with given function and argument" 
     )
-    public void tm_068C2520E( Test.Case tc ) {
+    public void tm_0BA0C4A4A( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	Function<String, String> function = (s) -> ">>" + s + "<<";
     	String arg = "jks";
@@ -537,10 +600,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: Supplier Concurrent.applyGetLater(Function, Object)", 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
     	description = "Throws AssertionError for null function" 
     )
-    public void tm_06DF32C35( Test.Case tc ) {
+    public void tm_0FA91FD71( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	tc.afterThis( () -> c.terminate() );
     	Function<String, String> function = null;
@@ -549,10 +612,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: SupplierWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
     	description = "Function is evaluated by a Worker thread" 
     )
-    public void tm_020640ED5( Test.Case tc ) {
+    public void tm_0B9085819( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	Function<String, Thread> function = (s) -> Thread.currentThread();
     	tc.assertNotEqual( function.apply( "" ), c.applyGetLater( function, "" ).get() );
@@ -560,10 +623,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: SupplierWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
     	description = "If the function application throws a checked exception it is thrown by the Supplier" 
     )
-    public void tm_0C730834B( Test.Case tc ) throws IOException {
+    public void tm_0E0E49787( Test.Case tc ) throws IOException {
     	Concurrent c = this.getConcurrent();
     	tc.afterThis( () -> c.terminate() );
     	FunctionWithException<String, String, IOException> function = (s) -> {
@@ -575,10 +638,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: SupplierWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
     	description = "If the function application throws an unchecked excpetion it is thrown by the Supplier" 
     )
-    public void tm_02715DB5A( Test.Case tc ) {
+    public void tm_04A148D9E( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	tc.afterThis( () -> c.terminate() );
     	FunctionWithException<String, String, AppRuntime> function = (s) -> {
@@ -590,10 +653,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: SupplierWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
     	description = "Result is consistent with given function and argument" 
     )
-    public void tm_0BB0D51B4( Test.Case tc ) throws IOException {
+    public void tm_08A5136F0( Test.Case tc ) throws IOException {
     	Concurrent c = this.getConcurrent();
     	FunctionWithException<String, String, IOException> function = (s) -> {
     		if ( s == null ) { throw new IOException(); }
@@ -605,10 +668,10 @@ public class ConcurrentTest extends Test.Container {
     }
     
     @Test.Impl( 
-    	member = "method: SupplierWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
     	description = "Throws AssertionError for null function" 
     )
-    public void tm_0C0F9E65B( Test.Case tc ) {
+    public void tm_041C56497( Test.Case tc ) {
     	Concurrent c = this.getConcurrent();
     	tc.afterThis( () -> c.terminate() );
     	FunctionWithException<String, String, IOException> function = null;
@@ -667,6 +730,1808 @@ public class ConcurrentTest extends Test.Container {
 
 	
 	
+
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Command is evaluated by a Worker thread" 
+    )
+    public void tm_0BAE3CA13( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CompletableFuture<Thread> thread = new CompletableFuture<Thread>();
+    	c.execute( () -> thread.complete( Thread.currentThread() ) );
+    	tc.assertNotEqual( Thread.currentThread(), thread.join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Exception in command does not stop Worker" 
+    )
+    public void tm_0B4FD1320( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CompletableFuture<String> result = new CompletableFuture<String>();
+    	c.execute( () -> { throw new IllegalStateException( "Expected by test case" ); } );
+    	c.execute( () -> result.complete( "done" ) );
+    	tc.assertEqual( "done", result.join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Throws AppRuntime after terminated" 
+    )
+    public void tm_0C733D39A( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.terminate();
+    	tc.expectError( AppRuntime.class );
+    	c.execute( () -> {} );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Throws AssertionError for null command" 
+    )
+    public void tm_03F82BE4D( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.execute( null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Worker thread may submit commands" 
+    )
+    public void tm_0A5212F3A( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CompletableFuture<String> result = new CompletableFuture<String>();
+    	c.execute( () -> c.execute( () -> result.complete( "nested" ) ) );
+    	tc.assertEqual( "nested", result.join() );
+    	c.terminate();
+    }
+
+
+    @Test.Impl( 
+    	member = "constructor: Concurrent(String, int)", 
+    	description = "Uses virtual threads when property is set",
+    	threadsafe = false
+    )
+    public void tm_0911BA6E9( Test.Case tc ) {
+    	boolean original = this.getSubjectField( null, "useVirtual", false );
+    	this.setSubjectField( null, "useVirtual", true );
+    	Concurrent c = new Concurrent( "Test", 1 );
+    	this.setSubjectField( null, "useVirtual", original );
+    	Function<String, Boolean> f = s -> Thread.currentThread().isVirtual();
+    	tc.assertTrue( c.apply( f, "" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Throws AssertionError for null or empty label" 
+    )
+    public void tm_09246DC4F( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofVirtual( "", 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Throws AssertionError for negative limit" 
+    )
+    public void tm_0CC9F8A74( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofVirtual( "Test", -1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Functions are evaluated by virtual threads" 
+    )
+    public void tm_0EF1308F7( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	Function<String, Boolean> f = s -> Thread.currentThread().isVirtual();
+    	tc.assertTrue( c.apply( f, "" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Result is consistent with given function and argument" 
+    )
+    public void tm_0CDC1D4DC( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 4 );
+    	Function<Integer, Integer> f = n -> n * n;
+    	tc.assertEqual( List.of( 0, 1, 4, 9, 16 ), c.map( f, Stream.of( 0, 1, 2, 3, 4 ) ).collect( Collectors.toList() ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Unlimited instance evaluates many blocking functions at once" 
+    )
+    public void tm_0F3FEEA93( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	// Every function blocks until all have started, so this completes only if all run at once
+    	CountDownLatch started = new CountDownLatch( 1000 );
+    	Function<Integer, Integer> f = n -> {
+    		started.countDown();
+    		try {
+    			started.await();
+    		} catch ( InterruptedException e ) {}
+    		return n;
+    	};
+    	tc.assertEqual( 1000L, c.map( f, IntStream.range( 0, 1000 ).boxed() ).count() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Limit bounds concurrent evaluations" 
+    )
+    public void tm_0C19A1064( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 3 );
+    	AtomicInteger active = new AtomicInteger();
+    	AtomicInteger peak = new AtomicInteger();
+    	Function<Integer, Integer> f = n -> {
+    		peak.accumulateAndGet( active.incrementAndGet(), Math::max );
+    		try {
+    			Thread.sleep( 5L );
+    		} catch ( InterruptedException e ) {}
+    		active.decrementAndGet();
+    		return n;
+    	};
+    	c.map( f, IntStream.range( 0, 30 ).boxed() ).collect( Collectors.toList() );
+    	tc.assertTrue( peak.get() <= 3 );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Terminate waits for requests in progress" 
+    )
+    public void tm_05C4B1CEA( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	AtomicInteger done = new AtomicInteger();
+    	for ( int i = 0; i < 10; i++ ) {
+    		c.execute( () -> {
+    			try {
+    				Thread.sleep( 20L );
+    			} catch ( InterruptedException e ) {}
+    			done.incrementAndGet();
+    		} );
+    	}
+    	c.terminate();
+    	tc.assertEqual( 10, done.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.toString()", 
+    	description = "Reports virtual mode" 
+    )
+    public void tm_0206B82EB( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 2 );
+    	tc.assertTrue( c.toString().contains( "virtual" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofVirtual(String, int)", 
+    	description = "Throws AppRuntime for requests after terminated" 
+    )
+    public void tm_0C5B42446( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	c.terminate();
+    	tc.expectError( AppRuntime.class );
+    	c.execute( () -> {} );
+    }
+
+
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Throws AssertionError for null function" 
+    )
+    public void tm_01F76812C( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = null;
+    	c.submit( f, "" );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Throws AppRuntime for requests after terminated" 
+    )
+    public void tm_0D6555CEF( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.terminate();
+    	Function<String, String> f = Function.identity();
+    	tc.expectError( AppRuntime.class );
+    	c.submit( f, "hi" );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Function is evaluated by a Worker thread" 
+    )
+    public void tm_0917ACE24( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, Thread> f = (s) -> Thread.currentThread();
+    	tc.assertNotEqual( Thread.currentThread(), c.submit( f, "" ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Result is consistent with given function and argument" 
+    )
+    public void tm_06A962AC5( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = (s) -> ">>" + s + "<<";
+    	tc.assertEqual( f.apply( "hi" ), c.submit( f, "hi" ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Completes exceptionally if the function throws" 
+    )
+    public void tm_0C1EFE2FF( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = (s) -> { throw new IllegalStateException(); };
+    	CompletableFuture<String> future = c.submit( f, "" );
+    	tc.expectError( CompletionException.class );
+    	future.join();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Asynchronous stages run on the pool by default" 
+    )
+    public void tm_0069A0B51( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	Function<String, String> f = Function.identity();
+    	tc.assertTrue( c.submit( f, "" ).thenApplyAsync( s -> Thread.currentThread().isVirtual() ).join() );
+    	tc.assertTrue( c.submit( f, "" ).thenApplyAsync( s -> s ).thenApplyAsync( s -> Thread.currentThread().isVirtual() ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Function, Object)", 
+    	description = "Stages can be combined" 
+    )
+    public void tm_02ACA6FE4( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<Integer, Integer> square = n -> n * n;
+    	CompletableFuture<Integer> sum = c.submit( square, 3 ).thenCombineAsync( c.submit( square, 4 ), Integer::sum );
+    	tc.assertEqual( 25, sum.join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier)", 
+    	description = "Throws AssertionError for null supplier" 
+    )
+    public void tm_06236199F( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Supplier<String> s = null;
+    	c.submit( s );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier)", 
+    	description = "Supplier is evaluated by a Worker thread" 
+    )
+    public void tm_099980779( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertNotEqual( Thread.currentThread(), c.submit( Thread::currentThread ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier)", 
+    	description = "Result is consistent with supplier" 
+    )
+    public void tm_0199CFF89( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( "hi", c.submit( () -> "hi" ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier)", 
+    	description = "Completes exceptionally if the supplier throws" 
+    )
+    public void tm_0171C732C( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	CompletableFuture<String> future = c.submit( () -> { throw new IllegalStateException(); } );
+    	tc.expectError( CompletionException.class );
+    	future.join();
+    }
+
+
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Throws AssertionError for null function" 
+    )
+    public void tm_0EA5964F0( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = null;
+    	c.mapWindowed( f, Stream.of( "" ), 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Throws AssertionError for null stream" 
+    )
+    public void tm_0EB20F9D8( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = Function.identity();
+    	c.mapWindowed( f, null, 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Throws AssertionError for non-positive window" 
+    )
+    public void tm_07252C316( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = Function.identity();
+    	c.mapWindowed( f, Stream.of( "" ), 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Inputs are not consumed until results are requested" 
+    )
+    public void tm_0477D66AB( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	AtomicInteger pulled = new AtomicInteger();
+    	Function<Integer, Integer> f = Function.identity();
+    	Stream<Integer> results = c.mapWindowed( f, Stream.iterate( 0, n -> n + 1 ).peek( n -> pulled.incrementAndGet() ), 3 );
+    	tc.assertEqual( 0, pulled.get() );
+    	tc.assertEqual( 0, results.findFirst().get() );
+    	tc.assertEqual( 3, pulled.get() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Supports infinite input streams" 
+    )
+    public void tm_0628A75CA( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> 2 * n;
+    	tc.assertEqual( 9900, c.mapWindowed( f, Stream.iterate( 0, n -> n + 1 ), 8 ).limit( 100 ).mapToInt( Integer::intValue ).sum() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "At most window evaluations are in flight" 
+    )
+    public void tm_0457CC34F( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 8 );
+    	AtomicInteger active = new AtomicInteger();
+    	AtomicInteger max = new AtomicInteger();
+    	Function<Integer, Integer> f = n -> {
+    		max.accumulateAndGet( active.incrementAndGet(), Math::max );
+    		try { Thread.sleep( 5L ); } catch ( InterruptedException ex ) {}
+    		active.decrementAndGet();
+    		return n;
+    	};
+    	tc.assertEqual( 40L, c.mapWindowed( f, IntStream.range( 0, 40 ).boxed(), 3 ).count() );
+    	tc.assertTrue( max.get() <= 3 );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Results are presented in the order of the original stream of inputs" 
+    )
+    public void tm_05A8DDAC6( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> {
+    		try { Thread.sleep( 5L - n % 5 ); } catch ( InterruptedException ex ) {}
+    		return n;
+    	};
+    	tc.assertEqual( IntStream.range( 0, 30 ).boxed().collect( Collectors.toList() ),
+    		c.mapWindowed( f, IntStream.range( 0, 30 ).boxed(), 4 ).collect( Collectors.toList() ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Results are consistent with the given function and arguments" 
+    )
+    public void tm_0B24A6832( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, String> f = n -> ">>" + n * n + "<<";
+    	tc.assertEqual( IntStream.range( 0, 20 ).boxed().map( f ).collect( Collectors.toList() ),
+    		c.mapWindowed( f, IntStream.range( 0, 20 ).boxed(), 3 ).collect( Collectors.toList() ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Exception from function is thrown when its result is reached" 
+    )
+    public void tm_058B45ADF( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 2 );
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> f = n -> { if ( n == 5 ) { throw new IllegalStateException(); } return n; };
+    	AtomicInteger seen = new AtomicInteger();
+    	tc.afterThis( () -> tc.assertEqual( 5, seen.get() ) );
+    	tc.expectError( IllegalStateException.class );
+    	c.mapWindowed( f, IntStream.range( 0, 10 ).boxed(), 3 ).forEach( n -> seen.incrementAndGet() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Closing the result closes the input stream" 
+    )
+    public void tm_03238A6DA( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	AtomicBoolean closed = new AtomicBoolean( false );
+    	Function<String, String> f = Function.identity();
+    	c.mapWindowed( f, Stream.of( "a", "b" ).onClose( () -> closed.set( true ) ), 2 ).close();
+    	tc.assertTrue( closed.get() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Throws AssertionError for null function" 
+    )
+    public void tm_073813D40( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = null;
+    	c.mapWindowedUnordered( f, Stream.of( "" ), 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Throws AssertionError for null stream" 
+    )
+    public void tm_0A602A628( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = Function.identity();
+    	c.mapWindowedUnordered( f, null, 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Throws AssertionError for non-positive window" 
+    )
+    public void tm_00C2B1F66( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = Function.identity();
+    	c.mapWindowedUnordered( f, Stream.of( "" ), -1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Supports infinite input streams" 
+    )
+    public void tm_0A1F79E1A( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> 2 * n;
+    	tc.assertEqual( 100L, c.mapWindowedUnordered( f, Stream.iterate( 0, n -> n + 1 ), 8 ).limit( 100 ).count() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "At most window evaluations are in flight" 
+    )
+    public void tm_0E14FF4FF( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 8 );
+    	AtomicInteger active = new AtomicInteger();
+    	AtomicInteger max = new AtomicInteger();
+    	Function<Integer, Integer> f = n -> {
+    		max.accumulateAndGet( active.incrementAndGet(), Math::max );
+    		try { Thread.sleep( 5L ); } catch ( InterruptedException ex ) {}
+    		active.decrementAndGet();
+    		return n;
+    	};
+    	tc.assertEqual( 40L, c.mapWindowedUnordered( f, IntStream.range( 0, 40 ).boxed(), 3 ).count() );
+    	tc.assertTrue( max.get() <= 3 );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Results are presented in completion order" 
+    )
+    public void tm_01B479896( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 2 );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> {
+    		if ( s.equals( "slow" ) ) {
+    			try { latch.await( 2L, TimeUnit.SECONDS ); } catch ( InterruptedException ex ) {}
+    		}
+    		return s;
+    	};
+    	Iterator<String> iter = c.mapWindowedUnordered( f, Stream.of( "slow", "fast" ), 2 ).iterator();
+    	tc.assertEqual( "fast", iter.next() );
+    	latch.countDown();
+    	tc.assertEqual( "slow", iter.next() );
+    	tc.assertFalse( iter.hasNext() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Each result is presented once" 
+    )
+    public void tm_0F5F67EE6( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> {
+    		try { Thread.sleep( n % 3 ); } catch ( InterruptedException ex ) {}
+    		return n;
+    	};
+    	tc.assertEqual( IntStream.range( 0, 50 ).boxed().collect( Collectors.toList() ),
+    		c.mapWindowedUnordered( f, IntStream.range( 0, 50 ).boxed(), 5 ).sorted().collect( Collectors.toList() ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Exception from function is thrown when its result is reached" 
+    )
+    public void tm_0BD2DD48F( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 2 );
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> f = n -> { if ( n == 5 ) { throw new IllegalStateException(); } return n; };
+    	tc.expectError( IllegalStateException.class );
+    	c.mapWindowedUnordered( f, IntStream.range( 0, 10 ).boxed(), 3 ).forEach( n -> {} );
+    }
+
+
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Throws AssertionError for negative timeout" 
+    )
+    public void tm_0656C42A7( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.timeout( -1L );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Returns this Concurrent instance" 
+    )
+    public void tm_0D06A89AC( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( c, c.timeout( 10L ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Blocking get throws AppRuntime after timeout" 
+    )
+    public void tm_0D4E0CB85( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent().timeout( 20L );
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Supplier<String> result = c.applyGetLater( f, "" );
+    	tc.expectError( AppRuntime.class );
+    	result.get();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Request is cancelled after timeout" 
+    )
+    public void tm_04E9128FC( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent().timeout( 20L );
+    	CountDownLatch interrupted = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> {
+    		try { Thread.sleep( 10000L ); } catch ( InterruptedException ex ) { interrupted.countDown(); }
+    		return s;
+    	};
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	try { result.get(); } catch ( AppRuntime ex ) {}
+    	tc.assertTrue( result.isDone() );
+    	tc.assertTrue( this.await( interrupted ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Zero timeout waits indefinitely" 
+    )
+    public void tm_0CF50D17E( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent().timeout( 20L ).timeout( 0L );
+    	Function<String, String> f = s -> { try { Thread.sleep( 60L ); } catch ( InterruptedException ex ) {} return s; };
+    	tc.assertEqual( "slow", c.applyGetLater( f, "slow" ).get() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.timeout(long)", 
+    	description = "Applies to apply" 
+    )
+    public void tm_052F01ED0( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent().timeout( 20L );
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	tc.afterThis( () -> latch.countDown() );
+    	Function<String, String> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	tc.expectError( AppRuntime.class );
+    	c.apply( f, "" );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "If the function application throws an unchecked exception it is thrown by the Result" 
+    )
+    public void tm_029A0E6DF( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, String> f = s -> { throw new IllegalStateException(); };
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	tc.expectError( IllegalStateException.class );
+    	result.get();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Timed get returns result when ready" 
+    )
+    public void tm_0BEE9626E( Test.Case tc ) throws TimeoutException {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = s -> ">>" + s + "<<";
+    	tc.assertEqual( ">>hi<<", c.applyGetLater( f, "hi" ).get( 1L, TimeUnit.SECONDS ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Timed get throws TimeoutException if result is not ready" 
+    )
+    public void tm_03BA5DF4A( Test.Case tc ) throws TimeoutException {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	tc.afterThis( () -> latch.countDown() );
+    	Function<String, String> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	tc.expectError( TimeoutException.class );
+    	result.get( 10L, TimeUnit.MILLISECONDS );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Cancel skips a request that has not started" 
+    )
+    public void tm_08A1F9DD5( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	AtomicInteger count = new AtomicInteger();
+    	Function<String, String> block = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Function<String, String> f = s -> { count.incrementAndGet(); return s; };
+    	c.applyGetLater( block, "" );
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	tc.assertTrue( result.cancel() );
+    	latch.countDown();
+    	c.terminate();
+    	tc.assertEqual( 0, count.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Cancel interrupts a running request" 
+    )
+    public void tm_0A0C18AC3( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch started = new CountDownLatch( 1 );
+    	CountDownLatch interrupted = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> {
+    		started.countDown();
+    		try { Thread.sleep( 10000L ); } catch ( InterruptedException ex ) { interrupted.countDown(); }
+    		return s;
+    	};
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	tc.assertTrue( this.await( started ) );
+    	tc.assertTrue( result.cancel() );
+    	tc.assertTrue( this.await( interrupted ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Cancel returns false after completion" 
+    )
+    public void tm_0517D0D7E( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = Function.identity();
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	result.get();
+    	tc.assertFalse( result.cancel() );
+    	tc.assertTrue( result.isDone() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Get throws CancellationException after cancel" 
+    )
+    public void tm_03B0388B9( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	tc.afterThis( () -> latch.countDown() );
+    	Function<String, String> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	result.cancel();
+    	tc.expectError( CancellationException.class );
+    	result.get();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Interrupted caller cancels the request" 
+    )
+    public void tm_0338BC13A( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch interrupted = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> {
+    		try { Thread.sleep( 10000L ); } catch ( InterruptedException ex ) { interrupted.countDown(); }
+    		return s;
+    	};
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	AtomicBoolean restored = new AtomicBoolean( false );
+    	Thread caller = new Thread( () -> {
+    		try { result.get(); } catch ( AppRuntime ex ) { restored.set( Thread.currentThread().isInterrupted() ); }
+    	} );
+    	caller.start();
+    	this.sleep( 20L );
+    	caller.interrupt();
+    	tc.assertTrue( this.await( interrupted ) );
+    	this.join( caller );
+    	tc.assertTrue( restored.get() );
+    	tc.assertTrue( result.isDone() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Result Concurrent.applyGetLater(Function, Object)", 
+    	description = "Worker continues after a cancelled request" 
+    )
+    public void tm_0A2992DDF( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch started = new CountDownLatch( 1 );
+    	Function<String, String> f = s -> {
+    		started.countDown();
+    		try { Thread.sleep( 10000L ); } catch ( InterruptedException ex ) {}
+    		return s;
+    	};
+    	Function<String, Boolean> g = s -> Thread.currentThread().isInterrupted();
+    	Concurrent.Result<String> result = c.applyGetLater( f, "" );
+    	tc.assertTrue( this.await( started ) );
+    	result.cancel();
+    	tc.assertFalse( c.apply( g, "" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	description = "Timed get throws checked exception from function" 
+    )
+    public void tm_0C1843CD6( Test.Case tc ) throws IOException, TimeoutException {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	FunctionWithException<String, String, IOException> f = s -> { throw new IOException(); };
+    	Concurrent.ResultWithException<String, IOException> result = c.applyGetLater( f, "" );
+    	tc.expectError( IOException.class );
+    	result.get( 1L, TimeUnit.SECONDS );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	description = "Timed get throws TimeoutException if result is not ready" 
+    )
+    public void tm_0C074E8E4( Test.Case tc ) throws IOException, TimeoutException {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	tc.afterThis( () -> latch.countDown() );
+    	FunctionWithException<String, String, IOException> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Concurrent.ResultWithException<String, IOException> result = c.applyGetLater( f, "" );
+    	tc.expectError( TimeoutException.class );
+    	result.get( 10L, TimeUnit.MILLISECONDS );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.ResultWithException Concurrent.applyGetLater(FunctionWithException, Object)", 
+    	description = "Get throws CancellationException after cancel" 
+    )
+    public void tm_08BFA7B5F( Test.Case tc ) throws IOException {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	tc.afterThis( () -> latch.countDown() );
+    	FunctionWithException<String, String, IOException> f = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	Concurrent.ResultWithException<String, IOException> result = c.applyGetLater( f, "" );
+    	result.cancel();
+    	tc.expectError( CancellationException.class );
+    	result.get();
+    }
+
+
+    @Test.Impl( 
+    	member = "method: Object Concurrent.apply(Function, Object)", 
+    	description = "Nested calls from a Worker do not deadlock" 
+    )
+    public void tm_07CBEBA2D( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> inner = m -> m + 1;
+    	Function<Integer, Integer> outer = n -> c.apply( inner, n ) + 1;
+    	tc.assertEqual( 3, c.apply( outer, 1 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object Concurrent.apply(Function, Object)", 
+    	description = "Recursive divide and conquer completes with few Workers" 
+    )
+    public void tm_03E7B7D81( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 2 );
+    	tc.afterThis( () -> c.terminate() );
+    	tc.assertEqual( 6765, this.fib( c, 20 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object Concurrent.apply(Function, Object)", 
+    	description = "Waiting Worker runs queued requests" 
+    )
+    public void tm_0B856C7C1( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<String, Thread> inner = s -> Thread.currentThread();
+    	Function<String, Boolean> outer = s -> c.apply( inner, s ) == Thread.currentThread();
+    	tc.assertTrue( c.apply( outer, "" ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.map(Function, Stream)", 
+    	description = "Nested calls from a Worker do not deadlock" 
+    )
+    public void tm_0499CD481( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> square = n -> n * n;
+    	Function<Integer, Integer> outer = n -> c.map( square, IntStream.range( 0, n ).boxed() ).mapToInt( Integer::intValue ).sum();
+    	tc.assertEqual( List.of( 0, 0, 1, 5, 14 ), c.map( outer, IntStream.range( 0, 5 ).boxed() ).collect( Collectors.toList() ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowed(Function, Stream, int)", 
+    	description = "Nested calls from a Worker do not deadlock" 
+    )
+    public void tm_048F15B29( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> square = n -> n * n;
+    	Function<Integer, Integer> outer = n -> c.mapWindowed( square, IntStream.range( 0, n ).boxed(), 2 ).mapToInt( Integer::intValue ).sum();
+    	tc.assertEqual( 14, c.apply( outer, 4 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.mapWindowedUnordered(Function, Stream, int)", 
+    	description = "Nested calls from a Worker do not deadlock" 
+    )
+    public void tm_03CBEE0D9( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	Function<Integer, Integer> square = n -> n * n;
+    	Function<Integer, Integer> outer = n -> c.mapWindowedUnordered( square, IntStream.range( 0, n ).boxed(), 2 ).mapToInt( Integer::intValue ).sum();
+    	tc.assertEqual( 14, c.apply( outer, 4 ) );
+    }
+
+
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts submitted requests" 
+    )
+    public void tm_0B22EF871( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = Function.identity();
+    	c.apply( f, "" );
+    	c.apply( f, "" );
+    	tc.assertEqual( 2L, c.stats().submitted() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts completed requests" 
+    )
+    public void tm_02B2FF921( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = Function.identity();
+    	c.apply( f, "" );
+    	c.terminate();
+    	tc.assertEqual( 1L, c.stats().completed() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts queued requests" 
+    )
+    public void tm_0D05C8A3F( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> block = s -> { try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	c.applyGetLater( block, "" );
+    	c.applyGetLater( block, "" );
+    	c.applyGetLater( block, "" );
+    	this.sleep( 20L );
+    	tc.assertEqual( 2L, c.stats().queued() );
+    	latch.countDown();
+    	c.terminate();
+    	tc.assertEqual( 0L, c.stats().queued() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts active requests" 
+    )
+    public void tm_07557EACC( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CountDownLatch started = new CountDownLatch( 1 );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> block = s -> { started.countDown(); try { latch.await(); } catch ( InterruptedException ex ) {} return s; };
+    	c.applyGetLater( block, "" );
+    	tc.assertTrue( this.await( started ) );
+    	tc.assertEqual( 1L, c.stats().active() );
+    	latch.countDown();
+    	c.terminate();
+    	tc.assertEqual( 0L, c.stats().active() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Records evaluation time" 
+    )
+    public void tm_0DE7EF2DF( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = s -> { this.sleep( 20L ); return s; };
+    	c.apply( f, "" );
+    	c.terminate();
+    	tc.assertTrue( c.stats().execMicros( 1.0 ) >= 20_000L );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Records queue wait time" 
+    )
+    public void tm_052E0D9F7( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = s -> { this.sleep( 20L ); return s; };
+    	c.applyGetLater( f, "" );
+    	c.apply( f, "" );
+    	c.terminate();
+    	tc.assertTrue( c.stats().waitMicros( 1.0 ) >= 10_000L );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts requests made with execute" 
+    )
+    public void tm_041D5A3D2( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.execute( () -> {} );
+    	c.terminate();
+    	tc.assertEqual( 1L, c.stats().completed() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Stats Concurrent.stats()", 
+    	description = "Counts requests in virtual mode" 
+    )
+    public void tm_0177C5A3F( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	Function<String, String> f = Function.identity();
+    	c.apply( f, "" );
+    	c.terminate();
+    	tc.assertEqual( 1L, c.stats().submitted() );
+    	tc.assertEqual( 1L, c.stats().completed() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.live()", 
+    	description = "Includes new instance" 
+    )
+    public void tm_0CCD1B33D( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertTrue( Concurrent.live().anyMatch( c::equals ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.live()", 
+    	description = "Excludes terminated instance" 
+    )
+    public void tm_0155F36EE( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.terminate();
+    	tc.assertFalse( Concurrent.live().anyMatch( c::equals ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Stream Concurrent.live()", 
+    	description = "Ordered by label",
+    	threadsafe = false
+    )
+    public void tm_02ABE7D41( Test.Case tc ) {
+    	Concurrent b = new Concurrent( "Test B", 1 );
+    	Concurrent a = new Concurrent( "Test A", 1 );
+    	List<Concurrent> pools = Concurrent.live().filter( c -> c == a || c == b ).collect( Collectors.toList() );
+    	tc.assertEqual( List.of( a, b ), pools );
+    	a.terminate();
+    	b.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.Stats.label()", 
+    	description = "Consistent with label given to constructor" 
+    )
+    public void tm_0415B457D( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Label", 1 );
+    	tc.assertEqual( "Label", c.stats().label() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int Concurrent.Stats.workers()", 
+    	description = "Consistent with thread count" 
+    )
+    public void tm_07D535ECB( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 3 );
+    	tc.assertEqual( 3, c.stats().workers() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int Concurrent.Stats.workers()", 
+    	description = "Zero in virtual mode" 
+    )
+    public void tm_044B92501( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	tc.assertEqual( 0, c.stats().workers() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.submitted()", 
+    	description = "Zero at creation" 
+    )
+    public void tm_0D832D0C5( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().submitted() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.queued()", 
+    	description = "Zero at creation" 
+    )
+    public void tm_02E0EEAC5( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().queued() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.queued()", 
+    	description = "Not negative" 
+    )
+    public void tm_05FB5D673( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> n;
+    	Concurrent.Stats[] stats = new Concurrent.Stats[100];
+    	for ( int i = 0; i < stats.length; i++ ) {
+    		c.applyGetLater( f, i );
+    		stats[i] = c.stats();
+    	}
+    	c.terminate();
+    	tc.assertTrue( Stream.of( stats ).allMatch( s -> s.queued() >= 0L ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.active()", 
+    	description = "Zero at creation" 
+    )
+    public void tm_0B324DFD2( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().active() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.active()", 
+    	description = "Not negative" 
+    )
+    public void tm_02D025A00( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 4 );
+    	Function<Integer, Integer> f = n -> n;
+    	Concurrent.Stats[] stats = new Concurrent.Stats[100];
+    	for ( int i = 0; i < stats.length; i++ ) {
+    		c.applyGetLater( f, i );
+    		stats[i] = c.stats();
+    	}
+    	c.terminate();
+    	tc.assertTrue( Stream.of( stats ).allMatch( s -> s.active() >= 0L ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.completed()", 
+    	description = "Zero at creation" 
+    )
+    public void tm_0D1C84975( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().completed() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: double Concurrent.Stats.throughput()", 
+    	description = "Zero at creation" 
+    )
+    public void tm_0C3FD7F39( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0.0, c.stats().throughput() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: double Concurrent.Stats.throughput()", 
+    	description = "Positive after completions" 
+    )
+    public void tm_0AA5E4371( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = Function.identity();
+    	c.apply( f, "" );
+    	c.terminate();
+    	tc.assertTrue( c.stats().throughput() > 0.0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.waitMicros(double)", 
+    	description = "Throws AssertionError for quantile out of range" 
+    )
+    public void tm_010E9B3CE( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.terminate();
+    	tc.expectError( AssertionError.class );
+    	c.stats().waitMicros( 1.5 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.waitMicros(double)", 
+    	description = "Zero when nothing recorded" 
+    )
+    public void tm_093F97B02( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().waitMicros( 0.5 ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.waitMicros(double)", 
+    	description = "Non-decreasing in quantile" 
+    )
+    public void tm_0FED3AE06( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Test", 2 );
+    	Function<Integer, Integer> f = n -> { this.sleep( n % 3 ); return n; };
+    	c.map( f, IntStream.range( 0, 30 ).boxed() ).count();
+    	c.terminate();
+    	Concurrent.Stats stats = c.stats();
+    	tc.assertTrue( stats.waitMicros( 0.0 ) <= stats.waitMicros( 0.5 ) );
+    	tc.assertTrue( stats.waitMicros( 0.5 ) <= stats.waitMicros( 0.9 ) );
+    	tc.assertTrue( stats.waitMicros( 0.9 ) <= stats.waitMicros( 1.0 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.execMicros(double)", 
+    	description = "Throws AssertionError for quantile out of range" 
+    )
+    public void tm_0B5E5A3EA( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.terminate();
+    	tc.expectError( AssertionError.class );
+    	c.stats().execMicros( -0.1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.execMicros(double)", 
+    	description = "Zero when nothing recorded" 
+    )
+    public void tm_0A6A83166( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( 0L, c.stats().execMicros( 0.5 ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: long Concurrent.Stats.execMicros(double)", 
+    	description = "Bounds evaluation time" 
+    )
+    public void tm_0B1BF029B( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	Function<String, String> f = s -> { this.sleep( 5L ); return s; };
+    	long start = System.nanoTime();
+    	c.apply( f, "" );
+    	long elapsed = (System.nanoTime() - start) / 1000L;
+    	c.terminate();
+    	tc.assertTrue( c.stats().execMicros( 0.5 ) >= 5_000L );
+    	tc.assertTrue( c.stats().execMicros( 0.5 ) <= 2 * elapsed );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.Stats.toString()", 
+    	description = "Result is not empty" 
+    )
+    public void tm_07E7609C0( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertNotEmpty( c.stats().toString() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.Stats.toString()", 
+    	description = "Includes label" 
+    )
+    public void tm_0DB4D7A02( Test.Case tc ) {
+    	Concurrent c = new Concurrent( "Label", 1 );
+    	tc.assertTrue( c.stats().toString().contains( "Label" ) );
+    	c.terminate();
+    }
+
+
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Throws AssertionError for null supplier" 
+    )
+    public void tm_0979193C0( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.submit( null, 1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Result is consistent with supplier" 
+    )
+    public void tm_0F4D3F4C8( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( "result", c.submit( () -> "result", 3 ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Higher priority is taken first" 
+    )
+    public void tm_00F46FCC9( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.submit( this.record( order, "1" ), 1 );
+    	c.submit( this.record( order, "3" ), 3 );
+    	c.submit( this.record( order, "2" ), 2 );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "3", "2", "1" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Equal priority is taken in order" 
+    )
+    public void tm_08118566F( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.submit( this.record( order, "A" ), 2 );
+    	c.submit( this.record( order, "B" ), 2 );
+    	c.submit( this.record( order, "C" ), 2 );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "A", "B", "C" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Positive priority is taken before plain requests" 
+    )
+    public void tm_0DC8D269E( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.execute( () -> order.add( "plain" ) );
+    	c.submit( this.record( order, "urgent" ), 1 );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "urgent", "plain" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Negative priority is taken after plain requests" 
+    )
+    public void tm_06E3ADC95( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.submit( this.record( order, "background" ), -1 );
+    	c.execute( () -> order.add( "plain" ) );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "plain", "background" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.submit(Supplier, int)", 
+    	description = "Priority is ignored in virtual mode" 
+    )
+    public void tm_0C29ECAE4( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofVirtual( "Test", 0 );
+    	tc.assertEqual( "result", c.submit( () -> "result", -5 ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Group Concurrent.group(String, int)", 
+    	description = "Throws AssertionError for null or empty name" 
+    )
+    public void tm_0E27D4620( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.group( "", 1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Group Concurrent.group(String, int)", 
+    	description = "Throws AssertionError for non-positive weight" 
+    )
+    public void tm_02CEB8F77( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.group( "Group", 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Group Concurrent.group(String, int)", 
+    	description = "Returns the same Group for the same name" 
+    )
+    public void tm_0FED172B0( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( c.group( "Group", 1 ), c.group( "Group", 2 ) );
+    	tc.assertNotEqual( c.group( "Group", 1 ), c.group( "Other", 1 ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Group Concurrent.group(String, int)", 
+    	description = "Groups share in proportion to weight" 
+    )
+    public void tm_0303393E5( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	Concurrent.Group a = c.group( "A", 3 );
+    	Concurrent.Group b = c.group( "B", 1 );
+    	CountDownLatch release = this.occupy( c );
+    	for ( int i = 0; i < 8; i++ ) {
+    		a.submit( this.record( order, "A" ) );
+    		b.submit( this.record( order, "B" ) );
+    	}
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( 6L, order.subList( 0, 8 ).stream().filter( "A"::equals ).count() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent.Group Concurrent.group(String, int)", 
+    	description = "Idle Group does not accumulate credit" 
+    )
+    public void tm_08EF92BE6( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	Concurrent.Group a = c.group( "A", 1 );
+    	Concurrent.Group b = c.group( "B", 1 );
+    	CountDownLatch first = this.occupy( c );
+    	for ( int i = 0; i < 10; i++ ) {
+    		a.submit( this.record( order, "A" ) );
+    	}
+    	first.countDown();
+    	c.submit( () -> null, -1 ).join();
+    	order.clear();
+    	CountDownLatch second = this.occupy( c );
+    	for ( int i = 0; i < 4; i++ ) {
+    		a.submit( this.record( order, "A" ) );
+    		b.submit( this.record( order, "B" ) );
+    	}
+    	second.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "A", "B", "A", "B", "A", "B", "A", "B" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier)", 
+    	description = "Throws AssertionError for null supplier" 
+    )
+    public void tm_0719A204E( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.group( "Group", 1 ).submit( null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier)", 
+    	description = "Result is consistent with supplier" 
+    )
+    public void tm_0838D477A( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( "result", c.group( "Group", 1 ).submit( () -> "result" ).join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier)", 
+    	description = "Taken before plain requests" 
+    )
+    public void tm_02BEB2DC9( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.execute( () -> order.add( "plain" ) );
+    	c.group( "Group", 1 ).submit( this.record( order, "group" ) );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "group", "plain" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier, int)", 
+    	description = "Throws AssertionError for null supplier" 
+    )
+    public void tm_0EE616271( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.group( "Group", 1 ).submit( null, 1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier, int)", 
+    	description = "Higher priority is taken first" 
+    )
+    public void tm_0E35FB2F8( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	Concurrent.Group heavy = c.group( "Heavy", 100 );
+    	Concurrent.Group light = c.group( "Light", 1 );
+    	CountDownLatch release = this.occupy( c );
+    	heavy.submit( this.record( order, "heavy" ) );
+    	light.submit( this.record( order, "light" ), 1 );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "light", "heavy" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: CompletableFuture Concurrent.Group.submit(Supplier, int)", 
+    	description = "Negative priority is taken after plain requests" 
+    )
+    public void tm_01AAD6A46( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	List<String> order = new CopyOnWriteArrayList<String>();
+    	CountDownLatch release = this.occupy( c );
+    	c.group( "Group", 1 ).submit( this.record( order, "background" ), -1 );
+    	c.execute( () -> order.add( "plain" ) );
+    	release.countDown();
+    	c.terminate();
+    	tc.assertEqual( List.of( "plain", "background" ), order );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.Group.execute(Runnable)", 
+    	description = "Throws AssertionError for null command" 
+    )
+    public void tm_0A6E18DBC( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.group( "Group", 1 ).execute( null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.Group.execute(Runnable)", 
+    	description = "Command is evaluated by a Worker thread" 
+    )
+    public void tm_03F5EE884( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	CompletableFuture<Thread> result = new CompletableFuture<Thread>();
+    	c.group( "Group", 1 ).execute( () -> result.complete( Thread.currentThread() ) );
+    	tc.assertNotEqual( Thread.currentThread(), result.join() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.Group.toString()", 
+    	description = "Includes name" 
+    )
+    public void tm_053C28073( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertTrue( c.group( "Name", 1 ).toString().contains( "Name" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.Group.toString()", 
+    	description = "Includes weight" 
+    )
+    public void tm_0E110A9E0( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertTrue( c.group( "Name", 42 ).toString().contains( "42" ) );
+    	c.terminate();
+    }
+
+
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Throws AssertionError for null or empty label" 
+    )
+    public void tm_00C0D75CA( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofElastic( "", 1, 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Throws AssertionError for negative min" 
+    )
+    public void tm_049580DB0( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofElastic( "Test", -1, 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Throws AssertionError for max less than min" 
+    )
+    public void tm_0CDE6B6EB( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofElastic( "Test", 3, 2 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Throws AssertionError for zero max" 
+    )
+    public void tm_0F3E15775( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent.ofElastic( "Test", 0, 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Starts with min Workers" 
+    )
+    public void tm_0C0251E07( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 2, 5 );
+    	tc.assertEqual( 2, c.stats().workers() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Result is consistent with given function and argument" 
+    )
+    public void tm_044C0C357( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 3 );
+    	Function<String, String> f = s -> ">>" + s + "<<";
+    	tc.assertEqual( f.apply( "hi" ), c.apply( f, "hi" ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Grows when requests wait longer than target" 
+    )
+    public void tm_0A60ACB99( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 4 ).targetWait( 5L );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> block = s -> { this.await( latch ); return s; };
+    	for ( int i = 0; i < 4; i++ ) {
+    		c.applyGetLater( block, "" );
+    	}
+    	tc.assertTrue( this.awaitWorkers( c, 4 ) );
+    	latch.countDown();
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Does not grow beyond max" 
+    )
+    public void tm_05FCE21D7( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 2 ).targetWait( 1L );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> block = s -> { this.await( latch ); return s; };
+    	for ( int i = 0; i < 6; i++ ) {
+    		c.applyGetLater( block, "" );
+    	}
+    	tc.assertTrue( this.awaitWorkers( c, 2 ) );
+    	this.sleep( 50L );
+    	tc.assertEqual( 2, c.stats().workers() );
+    	latch.countDown();
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Grows from zero Workers" 
+    )
+    public void tm_0C629B65E( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 0, 2 );
+    	tc.assertEqual( 0, c.stats().workers() );
+    	Function<String, String> f = Function.identity();
+    	tc.assertEqual( "hi", c.apply( f, "hi" ) );
+    	tc.assertTrue( c.stats().workers() > 0 );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Idle Workers retire after keep alive" 
+    )
+    public void tm_0B41BA50F( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 3 ).targetWait( 1L ).keepAlive( 20L );
+    	CountDownLatch latch = new CountDownLatch( 1 );
+    	Function<String, String> block = s -> { this.await( latch ); return s; };
+    	for ( int i = 0; i < 3; i++ ) {
+    		c.applyGetLater( block, "" );
+    	}
+    	tc.assertTrue( this.awaitWorkers( c, 3 ) );
+    	latch.countDown();
+    	tc.assertTrue( this.awaitWorkers( c, 1 ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Does not retire below min" 
+    )
+    public void tm_05D5C153D( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 2, 3 ).keepAlive( 5L );
+    	this.sleep( 50L );
+    	tc.assertEqual( 2, c.stats().workers() );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.ofElastic(String, int, int)", 
+    	description = "Nested calls from a Worker do not deadlock" 
+    )
+    public void tm_0B9C9141B( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 2 );
+    	tc.afterThis( () -> c.terminate() );
+    	tc.assertEqual( 610, this.fib( c, 15 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.targetWait(long)", 
+    	description = "Throws AssertionError for non-positive target" 
+    )
+    public void tm_009571282( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.targetWait( 0L );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.targetWait(long)", 
+    	description = "Returns this Concurrent instance" 
+    )
+    public void tm_082BA4527( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( c, c.targetWait( 5L ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.keepAlive(long)", 
+    	description = "Throws AssertionError for non-positive keep alive" 
+    )
+    public void tm_001C8EAA5( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	Concurrent c = this.getConcurrent();
+    	tc.afterThis( () -> c.terminate() );
+    	c.keepAlive( 0L );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Concurrent Concurrent.keepAlive(long)", 
+    	description = "Returns this Concurrent instance" 
+    )
+    public void tm_0B85A0065( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	tc.assertEqual( c, c.keepAlive( 5L ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: String Concurrent.toString()", 
+    	description = "Reports elastic bounds" 
+    )
+    public void tm_0880D23B3( Test.Case tc ) {
+    	Concurrent c = Concurrent.ofElastic( "Test", 1, 7 );
+    	tc.assertTrue( c.toString().contains( "elastic" ) );
+    	tc.assertTrue( c.toString().contains( "7" ) );
+    	c.terminate();
+    }
+
+
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Error in command does not stop Worker" 
+    )
+    public void tm_0E205C599( Test.Case tc ) {
+    	Concurrent c = this.getConcurrent();
+    	c.execute( () -> { throw new AssertionError( "Expected by test case" ); } );
+    	Function<Integer, Integer> f = x -> x + 1;
+    	tc.assertEqual( 2, c.apply( f, 1 ) );
+    	c.terminate();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: void Concurrent.execute(Runnable)", 
+    	description = "Fatal error in command reaches uncaught exception handler",
+    	threadsafe = false
+    )
+    public void tm_0EE7CB0C2( Test.Case tc ) {
+    	Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+    	tc.afterThis( () -> Thread.setDefaultUncaughtExceptionHandler( handler ) );
+    	CompletableFuture<Throwable> caught = new CompletableFuture<Throwable>();
+    	Thread.setDefaultUncaughtExceptionHandler( (t, e) -> caught.complete( e ) );
+    	Concurrent c = this.getConcurrent();
+    	c.execute( () -> { throw new StackOverflowError( "Expected by test case" ); } );
+    	tc.assertTrue( caught.join() instanceof StackOverflowError );
+    	Function<Integer, Integer> f = x -> x + 1;
+    	tc.assertEqual( 2, c.apply( f, 1 ) );
+    	c.terminate();
+    }
+
 	
 	public static void main( String[] args ) {
 		//* Toggle class results
@@ -18,6 +18,11 @@
  */
 package test.sog.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import sog.core.Test;
 import sog.util.FifoQueue;
 import sog.util.Queue;
@@ -225,6 +230,136 @@ public class FifoQueueTest extends Test.Container {
 
 	
 
+    @Test.Impl( 
+    	member = "constructor: FifoQueue(int)", 
+    	description = "Throws AssertionError for non-positive capacity" 
+    )
+    public void tm_0D77A6972( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	new FifoQueue<String>( 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: FifoQueue(int)", 
+    	description = "FifoQueues are created empty" 
+    )
+    public void tm_09C365D9E( Test.Case tc ) {
+    	FifoQueue<String> q = new FifoQueue<>( 5 );
+    	tc.assertTrue( q.isEmpty() );
+    	tc.assertEqual( 0, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: FifoQueue(int)", 
+    	description = "Accepts more elements than the initial capacity" 
+    )
+    public void tm_0C99AD000( Test.Case tc ) {
+    	FifoQueue<Integer> q = new FifoQueue<>( 3 );
+    	for ( int i = 0; i < 100; i++ ) {
+    		tc.assertTrue( q.put( i ) );
+    	}
+    	tc.assertEqual( 100, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int FifoQueue.size()", 
+    	description = "Zero when constructed" 
+    )
+    public void tm_08796FCB3( Test.Case tc ) {
+    	tc.assertEqual( 0, new FifoQueue<String>().size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int FifoQueue.size()", 
+    	description = "Increases after put" 
+    )
+    public void tm_02759E247( Test.Case tc ) {
+    	FifoQueue<String> q = new FifoQueue<>();
+    	q.put( "A" );
+    	tc.assertEqual( 1, q.size() );
+    	q.put( "B" );
+    	tc.assertEqual( 2, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int FifoQueue.size()", 
+    	description = "Decreases after get" 
+    )
+    public void tm_0C32673F2( Test.Case tc ) {
+    	FifoQueue<String> q = new FifoQueue<>();
+    	q.put( "A" );
+    	q.put( "B" );
+    	q.get();
+    	tc.assertEqual( 1, q.size() );
+    	q.get();
+    	tc.assertEqual( 0, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int FifoQueue.size()", 
+    	description = "Unchanged by put on closed" 
+    )
+    public void tm_07EC90E03( Test.Case tc ) {
+    	FifoQueue<String> q = new FifoQueue<>();
+    	q.put( "A" );
+    	q.close();
+    	q.put( "B" );
+    	tc.assertEqual( 1, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean FifoQueue.putImpl(Object)", 
+    	description = "Put on full buffer grows the buffer" 
+    )
+    public void tm_08EEF7089( Test.Case tc ) {
+    	FifoQueue<Integer> q = new FifoQueue<>( 2 );
+    	q.put( 1 );
+    	q.put( 2 );
+    	tc.assertTrue( q.put( 3 ) );
+    	tc.assertEqual( 3, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object FifoQueue.getImpl()", 
+    	description = "Elements retrieved in FIFO order after the buffer wraps" 
+    )
+    public void tm_029F6C5C4( Test.Case tc ) {
+    	FifoQueue<Integer> q = new FifoQueue<>( 4 );
+    	for ( int i = 0; i < 3; i++ ) {
+    		q.put( i );
+    	}
+    	List<Integer> actual = new ArrayList<>();
+    	for ( int i = 3; i < 20; i++ ) {
+    		actual.add( q.get() );
+    		q.put( i );
+    	}
+    	while ( !q.isEmpty() ) {
+    		actual.add( q.get() );
+    	}
+    	tc.assertEqual( IntStream.range( 0, 20 ).boxed().collect( Collectors.toList() ), actual );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object FifoQueue.getImpl()", 
+    	description = "Elements retrieved in FIFO order after the buffer grows" 
+    )
+    public void tm_0DC5B895B( Test.Case tc ) {
+    	FifoQueue<Integer> q = new FifoQueue<>( 4 );
+    	q.put( 0 );
+    	q.put( 1 );
+    	q.put( 2 );
+    	q.get();
+    	q.get();
+    	for ( int i = 3; i < 10; i++ ) {
+    		q.put( i );
+    	}
+    	for ( int i = 2; i < 10; i++ ) {
+    		tc.assertEqual( i, q.get() );
+    	}
+    	tc.assertIsNull( q.get() );
+    }
+
+
 	public static void main( String[] args ) {
 		//* Toggle class results
 		Test.eval( FifoQueue.class )
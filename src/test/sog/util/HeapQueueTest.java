@@ -0,0 +1,699 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+
+package test.sog.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import sog.core.Test;
+import sog.util.HeapQueue;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class HeapQueueTest extends Test.Container {
+
+	public HeapQueueTest() {
+		super( HeapQueue.class );
+	}
+	
+	
+	private HeapQueue<String> queue() {
+		return new HeapQueue<String>( Comparator.naturalOrder() );
+	}
+	
+	/* Orders by the first character only, so strings with the same first character are equal. */
+	private HeapQueue<String> byFirst() {
+		return new HeapQueue<String>( Comparator.comparing( s -> s.charAt( 0 ) ) );
+	}
+	
+	
+	
+	// TEST CASES
+
+	
+	
+
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator)", 
+		description = "Throws AssertionError for null comparator" 
+	)
+	public void tm_0791A8729( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new HeapQueue<String>( null );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator)", 
+		description = "Created open and empty" 
+	)
+	public void tm_017163A64( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		tc.assertTrue( q.isOpen() );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_0A11A96FC( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		this.queue().put( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Put on open is accepted" 
+	)
+	public void tm_0F2FDC0B2( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		tc.assertTrue( q.put( "A" ) );
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Put on closed is ignored" 
+	)
+	public void tm_0518AC89B( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "B" );
+		q.close();
+		tc.assertFalse( q.put( "A" ) );
+		tc.assertEqual( "B", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Put on terminated is ignored" 
+	)
+	public void tm_065A73544( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.terminate();
+		tc.assertFalse( q.put( "A" ) );
+		tc.assertEqual( 0, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Equal elements are kept" 
+	)
+	public void tm_0E1479462( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "A" );
+		tc.assertEqual( 2, q.size() );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.putImpl(Object)", 
+		description = "Grows beyond initial capacity" 
+	)
+	public void tm_0151F6CC2( Test.Case tc ) {
+		HeapQueue<Integer> q = new HeapQueue<Integer>( Comparator.naturalOrder() );
+		for ( int i = 100; i > 0; i-- ) {
+			q.put( i );
+		}
+		tc.assertEqual( 100, q.size() );
+		tc.assertEqual( 1, q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Get on open non empty returns non null" 
+	)
+	public void tm_0911707F6( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		tc.assertNonNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Get on open empty returns null" 
+	)
+	public void tm_0B347EB50( Test.Case tc ) {
+		tc.assertIsNull( this.queue().get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Get on closed non empty returns non null" 
+	)
+	public void tm_098418614( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.close();
+		tc.assertNonNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Get on closed empty returns null" 
+	)
+	public void tm_025A9676E( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.close();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Get on terminated non empty returns null" 
+	)
+	public void tm_05702DC0A( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.terminate();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Elements retrieved in comparator order" 
+	)
+	public void tm_0DEB6E5F8( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "C" );
+		q.put( "B2" );
+		q.put( "A" );
+		q.put( "B1" );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "B1", q.get() );
+		tc.assertEqual( "B2", q.get() );
+		tc.assertEqual( "C", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Equal elements retrieved in put order" 
+	)
+	public void tm_0A5BD74B3( Test.Case tc ) {
+		HeapQueue<String> q = this.byFirst();
+		q.put( "B1" );
+		q.put( "A1" );
+		q.put( "B2" );
+		q.put( "A2" );
+		q.put( "B3" );
+		q.put( "A3" );
+		List<String> result = new ArrayList<String>();
+		while ( !q.isEmpty() ) {
+			result.add( q.get() );
+		}
+		tc.assertEqual( List.of( "A1", "A2", "A3", "B1", "B2", "B3" ), result );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.getImpl()", 
+		description = "Order is correct for many random elements" 
+	)
+	public void tm_012E367A0( Test.Case tc ) {
+		HeapQueue<Integer> q = new HeapQueue<Integer>( Comparator.naturalOrder() );
+		Random random = new Random( 42L );
+		List<Integer> expected = new ArrayList<Integer>();
+		for ( int i = 0; i < 1000; i++ ) {
+			int n = random.nextInt( 100 );
+			expected.add( n );
+			q.put( n );
+		}
+		expected.sort( Comparator.naturalOrder() );
+		List<Integer> actual = new ArrayList<Integer>();
+		while ( !q.isEmpty() ) {
+			actual.add( q.get() );
+		}
+		tc.assertEqual( expected, actual );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.peek()", 
+		description = "Returns null when empty" 
+	)
+	public void tm_099CA02F4( Test.Case tc ) {
+		tc.assertIsNull( this.queue().peek() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.peek()", 
+		description = "Returns least element" 
+	)
+	public void tm_02F5DC719( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "B" );
+		q.put( "A" );
+		tc.assertEqual( "A", q.peek() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.peek()", 
+		description = "Does not remove element" 
+	)
+	public void tm_0E1F5FFC5( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.peek();
+		tc.assertEqual( 1, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int HeapQueue.size()", 
+		description = "Zero when created" 
+	)
+	public void tm_02973C285( Test.Case tc ) {
+		tc.assertEqual( 0, this.queue().size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int HeapQueue.size()", 
+		description = "Counts equal elements" 
+	)
+	public void tm_0D9D3C98A( Test.Case tc ) {
+		HeapQueue<String> q = this.byFirst();
+		q.put( "A1" );
+		q.put( "A2" );
+		tc.assertEqual( 2, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int HeapQueue.size()", 
+		description = "Decreases after get" 
+	)
+	public void tm_07A693D12( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "B" );
+		q.get();
+		tc.assertEqual( 1, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.isEmpty()", 
+		description = "True when created" 
+	)
+	public void tm_0E8EF61E2( Test.Case tc ) {
+		tc.assertTrue( this.queue().isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.isEmpty()", 
+		description = "False after put" 
+	)
+	public void tm_0BF0FEADC( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		tc.assertFalse( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.isEmpty()", 
+		description = "True after put then get" 
+	)
+	public void tm_07DAD1D28( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.get();
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: String HeapQueue.toString()", 
+		description = "Includes size" 
+	)
+	public void tm_0C8A6C126( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "A" );
+		q.put( "B" );
+		tc.assertTrue( q.toString().contains( "2" ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: HeapQueue.Handle HeapQueue.insert(Object)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_014E688B9( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		this.queue().insert( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: HeapQueue.Handle HeapQueue.insert(Object)", 
+		description = "Returns handle on open" 
+	)
+	public void tm_008B85348( Test.Case tc ) {
+		tc.assertNonNull( this.queue().insert( "A" ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: HeapQueue.Handle HeapQueue.insert(Object)", 
+		description = "Returns null on closed" 
+	)
+	public void tm_07AEF5889( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.close();
+		tc.assertIsNull( q.insert( "A" ) );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: HeapQueue.Handle HeapQueue.insert(Object)", 
+		description = "Returns null on terminated" 
+	)
+	public void tm_03C529280( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.terminate();
+		tc.assertIsNull( q.insert( "A" ) );
+		tc.assertEqual( 0, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: HeapQueue.Handle HeapQueue.insert(Object)", 
+		description = "Element is retrieved in order" 
+	)
+	public void tm_033A034DB( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "C" );
+		q.insert( "B" );
+		q.put( "A" );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "B", q.get() );
+		tc.assertEqual( "C", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.isQueued()", 
+		description = "True after insert" 
+	)
+	public void tm_0C653FD7D( Test.Case tc ) {
+		tc.assertTrue( this.queue().insert( "A" ).isQueued() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.isQueued()", 
+		description = "False after element is retrieved" 
+	)
+	public void tm_048EFE81F( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.get();
+		tc.assertFalse( h.isQueued() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.isQueued()", 
+		description = "False after remove" 
+	)
+	public void tm_05C8036CD( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		h.remove();
+		tc.assertFalse( h.isQueued() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.isQueued()", 
+		description = "False after terminate" 
+	)
+	public void tm_00EF4C90E( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.terminate();
+		tc.assertFalse( h.isQueued() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.Handle.get()", 
+		description = "Returns element after insert" 
+	)
+	public void tm_09539EB2E( Test.Case tc ) {
+		tc.assertEqual( "A", this.queue().insert( "A" ).get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.Handle.get()", 
+		description = "Returns replacement after update" 
+	)
+	public void tm_087076668( Test.Case tc ) {
+		HeapQueue.Handle<String> h = this.queue().insert( "A" );
+		h.update( "B" );
+		tc.assertEqual( "B", h.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object HeapQueue.Handle.get()", 
+		description = "Returns null after element is retrieved" 
+	)
+	public void tm_0BDCE527C( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.get();
+		tc.assertIsNull( h.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_08213E35C( Test.Case tc ) {
+		HeapQueue.Handle<String> h = this.queue().insert( "A" );
+		tc.expectError( AssertionError.class );
+		h.update( null );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Decreased element moves forward" 
+	)
+	public void tm_072DFED64( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		q.put( "B" );
+		q.put( "C" );
+		HeapQueue.Handle<String> h = q.insert( "D" );
+		tc.assertTrue( h.update( "A" ) );
+		tc.assertEqual( "A", q.peek() );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "B", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Increased element moves back" 
+	)
+	public void tm_098583562( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.put( "B" );
+		q.put( "C" );
+		tc.assertTrue( h.update( "D" ) );
+		tc.assertEqual( "B", q.get() );
+		tc.assertEqual( "C", q.get() );
+		tc.assertEqual( "D", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Keeps put order among equals" 
+	)
+	public void tm_03A9A5C33( Test.Case tc ) {
+		HeapQueue<String> q = this.byFirst();
+		HeapQueue.Handle<String> h = q.insert( "C1" );
+		q.put( "A2" );
+		h.update( "A1" );
+		tc.assertEqual( "A1", q.get() );
+		tc.assertEqual( "A2", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Returns false after element is retrieved" 
+	)
+	public void tm_09EAC036F( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.get();
+		tc.assertFalse( h.update( "B" ) );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.update(Object)", 
+		description = "Order is correct after many random updates" 
+	)
+	public void tm_03F10BB6B( Test.Case tc ) {
+		HeapQueue<Integer> q = new HeapQueue<Integer>( Comparator.naturalOrder() );
+		Random random = new Random( 42L );
+		List<HeapQueue.Handle<Integer>> handles = new ArrayList<HeapQueue.Handle<Integer>>();
+		for ( int i = 0; i < 500; i++ ) {
+			handles.add( q.insert( random.nextInt( 1000 ) ) );
+		}
+		for ( int i = 0; i < 2000; i++ ) {
+			handles.get( random.nextInt( handles.size() ) ).update( random.nextInt( 1000 ) );
+		}
+		List<Integer> expected = new ArrayList<Integer>();
+		handles.forEach( h -> expected.add( h.get() ) );
+		expected.sort( Comparator.naturalOrder() );
+		List<Integer> actual = new ArrayList<Integer>();
+		while ( !q.isEmpty() ) {
+			actual.add( q.get() );
+		}
+		tc.assertEqual( expected, actual );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.remove()", 
+		description = "Element is not retrieved after remove" 
+	)
+	public void tm_0F1AEADF4( Test.Case tc ) {
+		HeapQueue<String> q = this.queue();
+		HeapQueue.Handle<String> h = q.insert( "A" );
+		q.put( "B" );
+		tc.assertTrue( h.remove() );
+		tc.assertEqual( 1, q.size() );
+		tc.assertEqual( "B", q.get() );
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.remove()", 
+		description = "Other elements are retrieved in order" 
+	)
+	public void tm_0D59B8605( Test.Case tc ) {
+		HeapQueue<Integer> q = new HeapQueue<Integer>( Comparator.naturalOrder() );
+		List<HeapQueue.Handle<Integer>> handles = new ArrayList<HeapQueue.Handle<Integer>>();
+		for ( int i = 20; i > 0; i-- ) {
+			handles.add( q.insert( i ) );
+		}
+		for ( int i = 0; i < handles.size(); i += 3 ) {
+			handles.get( i ).remove();
+		}
+		List<Integer> expected = new ArrayList<Integer>();
+		for ( int i = 1; i < handles.size(); i++ ) {
+			if ( i % 3 != 0 ) {
+				expected.add( 20 - i );
+			}
+		}
+		expected.sort( Comparator.naturalOrder() );
+		List<Integer> actual = new ArrayList<Integer>();
+		while ( !q.isEmpty() ) {
+			actual.add( q.get() );
+		}
+		tc.assertEqual( expected, actual );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean HeapQueue.Handle.remove()", 
+		description = "Returns false when repeated" 
+	)
+	public void tm_0AFA4507B( Test.Case tc ) {
+		HeapQueue.Handle<String> h = this.queue().insert( "A" );
+		tc.assertTrue( h.remove() );
+		tc.assertFalse( h.remove() );
+	}
+		
+	@Test.Impl( 
+		member = "method: String HeapQueue.Handle.toString()", 
+		description = "Includes element" 
+	)
+	public void tm_09BEF5B93( Test.Case tc ) {
+		tc.assertTrue( this.queue().insert( "Element" ).toString().contains( "Element" ) );
+	}
+
+
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator, Collection)", 
+		description = "Throws AssertionError for null comparator" 
+	)
+	public void tm_0AE7E82B7( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new HeapQueue<String>( null, List.of( "A" ) );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator, Collection)", 
+		description = "Throws AssertionError for null collection" 
+	)
+	public void tm_00EFB927F( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new HeapQueue<String>( Comparator.naturalOrder(), null );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator, Collection)", 
+		description = "Throws AssertionError for null element" 
+	)
+	public void tm_00EF71F51( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new HeapQueue<String>( Comparator.naturalOrder(), Arrays.asList( "A", null ) );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator, Collection)", 
+		description = "Elements retrieved in comparator order" 
+	)
+	public void tm_0C20F912E( Test.Case tc ) {
+		HeapQueue<String> q = new HeapQueue<String>( Comparator.reverseOrder(), List.of( "B", "C", "A" ) );
+		tc.assertTrue( q.isOpen() );
+		tc.assertEqual( "C", q.get() );
+		tc.assertEqual( "B", q.get() );
+		tc.assertEqual( "A", q.get() );
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: HeapQueue(Comparator, Collection)", 
+		description = "Equal elements retrieved in collection order" 
+	)
+	public void tm_05C4802A2( Test.Case tc ) {
+		HeapQueue<String> q = new HeapQueue<String>( Comparator.comparing( s -> s.charAt( 0 ) ), List.of( "B1", "A1", "B2", "A2" ) );
+		tc.assertEqual( "A1", q.get() );
+		tc.assertEqual( "A2", q.get() );
+		tc.assertEqual( "B1", q.get() );
+		tc.assertEqual( "B2", q.get() );
+	}
+
+
+	public static void main( String[] args ) {
+		/* Toggle class results
+		Test.eval( HeapQueue.class )
+			.concurrent( false )
+			.showDetails( true )
+			.showProgress( false )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( HeapQueue.class )
+			.concurrent( true )
+			.showDetails( false )
+			.showProgress( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+	
+	
+}
@@ -18,9 +18,15 @@
  */
 package test.sog.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import sog.core.App;
 import sog.core.Test;
+import sog.util.FifoQueue;
 import sog.util.MultiQueue;
+import sog.util.Queue;
 
 /**
  * @author sundquis
@@ -661,6 +667,419 @@ public class MultiQueueTest extends Test.Container {
 
 	
 	
+
+    @Test.Impl( 
+    	member = "constructor: MultiQueue(Queue, int)", 
+    	description = "Throws AssertionError for null queue" 
+    )
+    public void tm_02496CF4B( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	new MultiQueue<String>( null, 4 );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: MultiQueue(Queue, int)", 
+    	description = "Throws AssertionError for non-empty queue" 
+    )
+    public void tm_03E8C89E1( Test.Case tc ) {
+    	Queue<String> fifo = new FifoQueue<>();
+    	fifo.put( "A" );
+    	tc.expectError( AssertionError.class );
+    	new MultiQueue<String>( fifo, 4 );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: MultiQueue(Queue, int)", 
+    	description = "Throws AssertionError for non-positive capacity" 
+    )
+    public void tm_0D777C5A4( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	new MultiQueue<String>( new FifoQueue<String>(), 0 );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: MultiQueue(Queue, int)", 
+    	description = "is empty if queue is empty" 
+    )
+    public void tm_0D13A4D15( Test.Case tc ) {
+    	tc.assertTrue( new MultiQueue<String>( new FifoQueue<String>(), 4 ).isEmpty() );
+    }
+    	
+    @Test.Impl( 
+    	member = "constructor: MultiQueue(Queue, int)", 
+    	description = "Accepts capacity elements without blocking" 
+    )
+    public void tm_0489D8F1A( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 3 );
+    	tc.assertTrue( q.put( "A" ) );
+    	tc.assertTrue( q.put( "B" ) );
+    	tc.assertTrue( q.put( "C" ) );
+    	tc.assertFalse( q.put( "D", 0L, TimeUnit.MILLISECONDS ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object)", 
+    	description = "Put on open full blocks awaiting get" 
+    )
+    public void tm_048E90AC5( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.put( "A" );
+    	Thread producer = new Thread( () -> q.put( "B" ) );
+    	producer.start();
+    	producer.join( 50L );
+    	tc.assertTrue( producer.isAlive() );
+    	tc.assertEqual( "A", q.get() );
+    	producer.join( 2000L );
+    	tc.assertFalse( producer.isAlive() );
+    	tc.assertEqual( "B", q.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object)", 
+    	description = "Blocked put is ignored after close" 
+    )
+    public void tm_088CEA489( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.put( "A" );
+    	boolean[] result = { true };
+    	Thread producer = new Thread( () -> result[0] = q.put( "B" ) );
+    	producer.start();
+    	producer.join( 50L );
+    	q.close();
+    	producer.join( 2000L );
+    	tc.assertFalse( producer.isAlive() );
+    	tc.assertFalse( result[0] );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertIsNull( q.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object, long, TimeUnit)", 
+    	description = "Throws AssertionError for null unit" 
+    )
+    public void tm_097EB448C( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	tc.expectError( AssertionError.class );
+    	q.put( "A", 1L, null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object, long, TimeUnit)", 
+    	description = "Put on open not full is accepted" 
+    )
+    public void tm_07949D2A8( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 2 );
+    	tc.assertTrue( q.put( "A", 10L, TimeUnit.MILLISECONDS ) );
+    	tc.assertEqual( "A", q.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object, long, TimeUnit)", 
+    	description = "Put on open full returns false after timeout" 
+    )
+    public void tm_0994E7161( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.put( "A" );
+    	long start = System.nanoTime();
+    	tc.assertFalse( q.put( "B", 20L, TimeUnit.MILLISECONDS ) );
+    	tc.assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 20L ) );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertTrue( q.isEmpty() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object, long, TimeUnit)", 
+    	description = "Put on open full is accepted after get" 
+    )
+    public void tm_0BF1A40AD( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.put( "A" );
+    	Thread consumer = new Thread( () -> {
+    		try {
+    			Thread.sleep( 20L );
+    		} catch ( InterruptedException ex ) {}
+    		q.get();
+    	} );
+    	consumer.start();
+    	tc.assertTrue( q.put( "B", 2L, TimeUnit.SECONDS ) );
+    	consumer.join();
+    	tc.assertEqual( "B", q.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: boolean MultiQueue.put(Object, long, TimeUnit)", 
+    	description = "Put on closed is ignored" 
+    )
+    public void tm_0D01B67E9( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.close();
+    	tc.assertFalse( q.put( "A", 10L, TimeUnit.MILLISECONDS ) );
+    	tc.assertTrue( q.isEmpty() );
+    }
+
+
+    @Test.Impl( 
+    	member = "method: int MultiQueue.size()", 
+    	description = "Zero when queue is empty" 
+    )
+    public void tm_02E913478( Test.Case tc ) {
+    	tc.assertEqual( 0, new MultiQueue<String>( new FifoQueue<String>() ).size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.size()", 
+    	description = "Consistent with queue size" 
+    )
+    public void tm_0EBDC86C0( Test.Case tc ) {
+    	Queue<String> fifo = new FifoQueue<>();
+    	MultiQueue<String> q = new MultiQueue<>( fifo );
+    	q.put( "A" );
+    	q.put( "B" );
+    	tc.assertEqual( fifo.size(), q.size() );
+    	tc.assertEqual( 2, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.putAll(Iterable)", 
+    	description = "Throws AssertionError for null elements" 
+    )
+    public void tm_07F03C4C3( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	tc.expectError( AssertionError.class );
+    	q.putAll( null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.putAll(Iterable)", 
+    	description = "Put all on open is accepted" 
+    )
+    public void tm_0E0A6A3E9( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	tc.assertEqual( 3, q.putAll( List.of( "A", "B", "C" ) ) );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertEqual( "B", q.get() );
+    	tc.assertEqual( "C", q.get() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.putAll(Iterable)", 
+    	description = "Put all on closed is ignored" 
+    )
+    public void tm_018FE4C44( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.close();
+    	tc.assertEqual( 0, q.putAll( List.of( "A", "B", "C" ) ) );
+    	tc.assertTrue( q.isEmpty() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.putAll(Iterable)", 
+    	description = "Put all on open full blocks awaiting get" 
+    )
+    public void tm_056BBA1D5( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 2 );
+    	int[] result = { -1 };
+    	Thread producer = new Thread( () -> result[0] = q.putAll( List.of( "A", "B", "C", "D" ) ) );
+    	producer.start();
+    	producer.join( 50L );
+    	tc.assertTrue( producer.isAlive() );
+    	List<String> actual = new ArrayList<>();
+    	for ( int i = 0; i < 4; i++ ) {
+    		actual.add( q.get() );
+    	}
+    	producer.join( 2000L );
+    	tc.assertFalse( producer.isAlive() );
+    	tc.assertEqual( 4, result[0] );
+    	tc.assertEqual( List.of( "A", "B", "C", "D" ), actual );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.putAll(Iterable)", 
+    	description = "Wakes a waiting consumer" 
+    )
+    public void tm_0A363615E( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	String[] result = { null };
+    	Thread consumer = new Thread( () -> result[0] = q.get() );
+    	consumer.start();
+    	consumer.join( 20L );
+    	q.putAll( List.of( "A", "B" ) );
+    	consumer.join( 2000L );
+    	tc.assertFalse( consumer.isAlive() );
+    	tc.assertEqual( "A", result[0] );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Throws AssertionError for null unit" 
+    )
+    public void tm_0B2739822( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	tc.expectError( AssertionError.class );
+    	q.poll( 1L, null );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Poll on open non empty returns non null" 
+    )
+    public void tm_0402B8656( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.put( "A" );
+    	tc.assertEqual( "A", q.poll( 0L, TimeUnit.MILLISECONDS ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Poll on open empty returns null after timeout" 
+    )
+    public void tm_03AEAC4AD( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	long start = System.nanoTime();
+    	tc.assertIsNull( q.poll( 20L, TimeUnit.MILLISECONDS ) );
+    	tc.assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 20L ) );
+    	tc.assertTrue( q.isOpen() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Poll on open empty returns element put while waiting" 
+    )
+    public void tm_08EB8B276( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	Thread producer = new Thread( () -> {
+    		try {
+    			Thread.sleep( 20L );
+    		} catch ( InterruptedException ex ) {}
+    		q.put( "A" );
+    	} );
+    	producer.start();
+    	tc.assertEqual( "A", q.poll( 2L, TimeUnit.SECONDS ) );
+    	producer.join();
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Poll on closed empty returns null" 
+    )
+    public void tm_0E4142DCE( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.close();
+    	tc.assertIsNull( q.poll( 2L, TimeUnit.SECONDS ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: Object MultiQueue.poll(long, TimeUnit)", 
+    	description = "Poll on terminated non empty returns null" 
+    )
+    public void tm_092F1426A( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.put( "A" );
+    	q.terminate();
+    	tc.assertIsNull( q.poll( 2L, TimeUnit.SECONDS ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Throws AssertionError for null collection" 
+    )
+    public void tm_0122340EA( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	tc.expectError( AssertionError.class );
+    	q.drainTo( null, 1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Throws AssertionError for negative max" 
+    )
+    public void tm_03AAD04DC( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	tc.expectError( AssertionError.class );
+    	q.drainTo( new ArrayList<String>(), -1 );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Moves available elements in order" 
+    )
+    public void tm_0FFED41B8( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.putAll( List.of( "A", "B", "C" ) );
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 3, q.drainTo( drained, 10 ) );
+    	tc.assertEqual( List.of( "A", "B", "C" ), drained );
+    	tc.assertTrue( q.isEmpty() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Moves at most max elements" 
+    )
+    public void tm_06EE0FF46( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.putAll( List.of( "A", "B", "C" ) );
+    	List<String> drained = new ArrayList<>();
+    	tc.assertEqual( 2, q.drainTo( drained, 2 ) );
+    	tc.assertEqual( List.of( "A", "B" ), drained );
+    	tc.assertEqual( 1, q.size() );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Drain on open empty blocks awaiting put" 
+    )
+    public void tm_03CA5C6B6( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	List<String> drained = new ArrayList<>();
+    	Thread consumer = new Thread( () -> q.drainTo( drained, 10 ) );
+    	consumer.start();
+    	consumer.join( 50L );
+    	tc.assertTrue( consumer.isAlive() );
+    	q.put( "A" );
+    	consumer.join( 2000L );
+    	tc.assertFalse( consumer.isAlive() );
+    	tc.assertEqual( List.of( "A" ), drained );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Drain on closed empty returns zero" 
+    )
+    public void tm_0484273D8( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.close();
+    	tc.assertEqual( 0, q.drainTo( new ArrayList<String>(), 10 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Drain on terminated non empty returns zero" 
+    )
+    public void tm_0E2B44F74( Test.Case tc ) {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>() );
+    	q.put( "A" );
+    	q.terminate();
+    	tc.assertEqual( 0, q.drainTo( new ArrayList<String>(), 10 ) );
+    }
+    	
+    @Test.Impl( 
+    	member = "method: int MultiQueue.drainTo(Collection, int)", 
+    	description = "Wakes producers blocked on full" 
+    )
+    public void tm_0B3DD3BBD( Test.Case tc ) throws InterruptedException {
+    	MultiQueue<String> q = new MultiQueue<>( new FifoQueue<String>(), 1 );
+    	q.put( "A" );
+    	Thread producer = new Thread( () -> q.put( "B" ) );
+    	producer.start();
+    	producer.join( 50L );
+    	tc.assertTrue( producer.isAlive() );
+    	q.drainTo( new ArrayList<String>(), 10 );
+    	producer.join( 2000L );
+    	tc.assertFalse( producer.isAlive() );
+    	tc.assertEqual( "B", q.get() );
+    }
+
 	
 	public static void main( String[] args ) {
 		//* Toggle class results
@@ -19,6 +19,10 @@
 package test.sog.util;
 
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
 import sog.core.App;
 import sog.core.Test;
 import sog.util.PriorityQueue;
@@ -34,6 +38,14 @@ public class PriorityQueueTest extends Test.Container {
 		super( PriorityQueue.class );
 	}
 	
+	/* Compares by rank only, so elements with the same rank are equal. */
+	private static class Ranked implements Comparable<Ranked> {
+		private final int rank;
+		private final String name;
+		Ranked( int rank, String name ) { this.rank = rank; this.name = name; }
+		@Override public int compareTo( Ranked other ) { return Integer.compare( this.rank, other.rank ); }
+	}
+	
 //	private Queue<String> queue;
 //	
 //
@@ -193,130 +205,110 @@ public class PriorityQueueTest extends Test.Container {
 	
 	// TEST CASES:
 	
+	
+
     @Test.Impl( 
     	member = "constructor: PriorityQueue()", 
     	description = "Can be created empty" 
     )
     public void tm_0DBD6D408( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "constructor: PriorityQueue(SortedSet)", 
-    	description = "Can be created non empty" 
-    )
-    public void tm_0F73D643A( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    	PriorityQueue<String> q = new PriorityQueue<>();
+    	tc.assertTrue( q.isOpen() );
+    	tc.assertTrue( q.isEmpty() );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on closed empty returns null" 
-    )
-    public void tm_0A36140EB( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on closed non empty returns non null" 
-    )
-    public void tm_0D67A9291( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on open empty returns null" 
-    )
-    public void tm_08332000D( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on open non empty returns non null" 
-    )
-    public void tm_0A6330FB3( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on terminated empty returns null" 
-    )
-    public void tm_0624B9214( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: Comparable PriorityQueue.getImpl()", 
-    	description = "Get on terminated non empty returns null" 
-    )
-    public void tm_0953BE887( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
-    }
-    
-    @Test.Impl( 
-    	member = "method: boolean PriorityQueue.isEmpty()", 
-    	description = "Put on empty is not empty" 
+    	member = "constructor: PriorityQueue()", 
+    	description = "Elements retrieved in comparable order" 
     )
-    public void tm_0187E2B63( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_0EC00D742( Test.Case tc ) {
+    	PriorityQueue<String> q = new PriorityQueue<>();
+    	q.put( "B" );
+    	q.put( "C" );
+    	q.put( "A" );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertEqual( "B", q.get() );
+    	tc.assertEqual( "C", q.get() );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.isEmpty()", 
-    	description = "Put on non empty is not empty" 
+    	member = "constructor: PriorityQueue()", 
+    	description = "Equal elements are kept" 
     )
-    public void tm_0528DF556( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_0F70BE09D( Test.Case tc ) {
+    	PriorityQueue<String> q = new PriorityQueue<>();
+    	q.put( "A" );
+    	q.put( "A" );
+    	tc.assertEqual( 2, q.size() );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertEqual( "A", q.get() );
+    	tc.assertIsNull( q.get() );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.isEmpty()", 
-    	description = "Put then get on empty is empty" 
+    	member = "constructor: PriorityQueue()", 
+    	description = "Equal elements retrieved in put order" 
     )
-    public void tm_0084C5B8F( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_0D691BAAD( Test.Case tc ) {
+    	PriorityQueue<Ranked> q = new PriorityQueue<>();
+    	q.put( new Ranked( 2, "B1" ) );
+    	q.put( new Ranked( 1, "A1" ) );
+    	q.put( new Ranked( 2, "B2" ) );
+    	q.put( new Ranked( 1, "A2" ) );
+    	tc.assertEqual( "A1", q.get().name );
+    	tc.assertEqual( "A2", q.get().name );
+    	tc.assertEqual( "B1", q.get().name );
+    	tc.assertEqual( "B2", q.get().name );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.isEmpty()", 
-    	description = "Put then put then get is not empty" 
+    	member = "constructor: PriorityQueue(SortedSet)", 
+    	description = "Throws AssertionError for null set" 
     )
-    public void tm_0DB94AE94( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_0D81B528C( Test.Case tc ) {
+    	tc.expectError( AssertionError.class );
+    	new PriorityQueue<String>( null );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.putImpl(Comparable)", 
-    	description = "Put on closed is ignored" 
+    	member = "constructor: PriorityQueue(SortedSet)", 
+    	description = "Can be created non empty" 
     )
-    public void tm_05DCFE3AE( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_0F73D643A( Test.Case tc ) {
+    	PriorityQueue<String> q = new PriorityQueue<>( new TreeSet<>( List.of( "C", "A", "B" ) ) );
+    	tc.assertEqual( 3, q.size() );
+    	tc.assertEqual( "A", q.get() );
     }
-    
+    	
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.putImpl(Comparable)", 
-    	description = "Put on open is accepted" 
+    	member = "constructor: PriorityQueue(SortedSet)", 
+    	description = "Later changes to the set do not affect the queue" 
     )
-    public void tm_024EF773F( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_09AD4F03D( Test.Case tc ) {
+    	TreeSet<String> set = new TreeSet<>( List.of( "B" ) );
+    	PriorityQueue<String> q = new PriorityQueue<>( set );
+    	set.add( "A" );
+    	tc.assertEqual( 1, q.size() );
+    	tc.assertEqual( "B", q.get() );
     }
-    
+
+
     @Test.Impl( 
-    	member = "method: boolean PriorityQueue.putImpl(Comparable)", 
-    	description = "Put on terminated is ignored" 
+    	member = "constructor: PriorityQueue(SortedSet)", 
+    	description = "Ordered by the comparator of the set" 
     )
-    public void tm_044F28ED7( Test.Case tc ) {
-    	tc.addMessage( "GENERATED STUB" );
+    public void tm_05C49F254( Test.Case tc ) {
+    	TreeSet<String> set = new TreeSet<>( Comparator.reverseOrder() );
+    	set.addAll( List.of( "B", "C", "A" ) );
+    	PriorityQueue<String> q = new PriorityQueue<>( set );
+    	q.put( "D" );
+    	tc.assertEqual( "D", q.get() );
+    	tc.assertEqual( "C", q.get() );
+    	tc.assertEqual( "B", q.get() );
+    	tc.assertEqual( "A", q.get() );
     }
-	
-	
 
 	
-	
 	public static void main( String[] args ) {
 		//* Toggle class results
 		Test.eval( PriorityQueue.class )
@@ -0,0 +1,528 @@
+/**
+ * Copyright (C) 2021, 2023
+ * *** *** *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ * *** *** * 
+ * Sundquist
+ */
+package test.sog.util;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sog.core.Test;
+import sog.util.StealingQueue;
+
+/**
+ * 
+ */
+@Test.Skip( "Container" )
+public class StealingQueueTest extends Test.Container {
+
+	public StealingQueueTest() {
+		super( StealingQueue.class );
+	}
+	
+	
+	private Deque<String> lane( StealingQueue<String> q, int index ) {
+		Deque<String>[] lanes = this.getSubjectField( q, "lanes", null );
+		return lanes[index];
+	}
+	
+	
+	
+	// TEST CASES
+
+	
+	
+	
+
+	@Test.Impl( 
+		member = "constructor: StealingQueue(int)", 
+		description = "Throws AssertionError for non-positive lane count" 
+	)
+	public void tm_036ADA3FA( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new StealingQueue<String>( 0 );
+	}
+		
+	@Test.Impl( 
+		member = "constructor: StealingQueue(int)", 
+		description = "Created open and empty" 
+	)
+	public void tm_0B77F0EE6( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 3 );
+		tc.assertTrue( q.isOpen() );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.isEmpty()", 
+		description = "True when constructed" 
+	)
+	public void tm_071C9ED49( Test.Case tc ) {
+		tc.assertTrue( new StealingQueue<String>( 2 ).isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.isEmpty()", 
+		description = "False after put" 
+	)
+	public void tm_019165835( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		tc.assertFalse( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.isEmpty()", 
+		description = "True after put then get" 
+	)
+	public void tm_020C12181( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.get();
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.isEmpty()", 
+		description = "False when any lane is non empty" 
+	)
+	public void tm_09CE6200A( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 4 );
+		for ( int i = 0; i < 3; i++ ) {
+			q.put( "" + i );
+		}
+		q.get();
+		q.get();
+		tc.assertTrue( this.lane( q, 0 ).isEmpty() );
+		tc.assertFalse( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.putImpl(Object)", 
+		description = "Put on open is accepted" 
+	)
+	public void tm_0F4095E4B( Test.Case tc ) {
+		tc.assertTrue( new StealingQueue<String>( 2 ).put( "A" ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.putImpl(Object)", 
+		description = "Put from consumer goes to its home lane" 
+	)
+	public void tm_0F806BDA9( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.get();
+		q.put( "B" );
+		q.put( "C" );
+		tc.assertEqual( 2, this.lane( q, 0 ).size() );
+		tc.assertTrue( this.lane( q, 1 ).isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.putImpl(Object)", 
+		description = "Puts from other threads are spread over lanes" 
+	)
+	public void tm_0907A274F( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 3 );
+		for ( int i = 0; i < 6; i++ ) {
+			q.put( "" + i );
+		}
+		for ( int i = 0; i < 3; i++ ) {
+			tc.assertEqual( 2, this.lane( q, i ).size() );
+		}
+	}
+		
+	@Test.Impl( 
+		member = "method: boolean StealingQueue.putImpl(Object)", 
+		description = "Wakes a waiting consumer" 
+	)
+	public void tm_01DB6971B( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.getImpl()", 
+		description = "Returns null when empty" 
+	)
+	public void tm_0B34C32F8( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.close();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.getImpl()", 
+		description = "Takes from home lane first" 
+	)
+	public void tm_0965CA03C( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.put( "B" );
+		tc.assertEqual( "A", q.get() );
+		tc.assertEqual( "B", this.lane( q, 1 ).peek() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.getImpl()", 
+		description = "Steals from other lanes when home lane is empty" 
+	)
+	public void tm_0E15411E2( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 3 );
+		q.put( "A" );
+		q.put( "B" );
+		q.put( "C" );
+		tc.assertEqual( "A", q.get() );
+		tc.assertNonNull( q.get() );
+		tc.assertNonNull( q.get() );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Get on open non empty returns non null" 
+	)
+	public void tm_022DAAEBD( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		tc.assertEqual( "A", q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Get on open empty blocks awaiting put" 
+	)
+	public void tm_0794DF4F8( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		tc.assertFalse( result.isDone() );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Get on closed non empty returns non null" 
+	)
+	public void tm_0C7B6971B( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.put( "B" );
+		q.close();
+		tc.assertNonNull( q.get() );
+		tc.assertNonNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Get on closed empty returns null" 
+	)
+	public void tm_021C76F75( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.close();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Get on terminated non empty returns null" 
+	)
+	public void tm_08677ED11( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.terminate();
+		tc.assertIsNull( q.get() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Blocked get returns null after close" 
+	)
+	public void tm_0E36A1F17( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.close();
+		tc.assertIsNull( AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Each element is retrieved once by concurrent consumers" 
+	)
+	public void tm_040D6170A( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 4 );
+		Map<String, AtomicInteger> counts = new ConcurrentHashMap<String, AtomicInteger>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for ( int c = 0; c < 4; c++ ) {
+			threads.add( new Thread( () -> {
+				String s;
+				while ( (s = q.get()) != null ) {
+					counts.computeIfAbsent( s, k -> new AtomicInteger() ).incrementAndGet();
+					// Consumers also produce, exercising home lanes
+					if ( s.startsWith( "P" ) ) {
+						q.put( "C" + s );
+					}
+				}
+			} ) );
+		}
+		threads.forEach( Thread::start );
+		for ( int i = 0; i < 10_000; i++ ) {
+			q.put( "P" + i );
+		}
+		while ( counts.size() < 20_000 ) {
+			Thread.yield();
+		}
+		q.close();
+		for ( Thread t : threads ) {
+			try { t.join(); } catch ( InterruptedException e ) {}
+		}
+		tc.assertEqual( 20_000, counts.size() );
+		tc.assertTrue( counts.values().stream().allMatch( n -> n.get() == 1 ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StealingQueue.close()", 
+		description = "Can close if open" 
+	)
+	public void tm_0A71CC381( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.close();
+		tc.assertTrue( q.isClosed() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StealingQueue.close()", 
+		description = "Wakes waiting consumers" 
+	)
+	public void tm_0EBE63765( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> first = AbstractQueueTest.getLater( q );
+		CompletableFuture<String> second = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.close();
+		tc.assertIsNull( AbstractQueueTest.await( first ) );
+		tc.assertIsNull( AbstractQueueTest.await( second ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StealingQueue.terminate()", 
+		description = "Can terminate if open" 
+	)
+	public void tm_06472A213( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.terminate();
+		tc.assertTrue( q.isTerminated() );
+	}
+		
+	@Test.Impl( 
+		member = "method: void StealingQueue.terminate()", 
+		description = "Wakes waiting consumers" 
+	)
+	public void tm_0C151770E( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> first = AbstractQueueTest.getLater( q );
+		CompletableFuture<String> second = AbstractQueueTest.getLater( q );
+		AbstractQueueTest.awaitWaiting( q );
+		q.terminate();
+		tc.assertIsNull( AbstractQueueTest.await( first ) );
+		tc.assertIsNull( AbstractQueueTest.await( second ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll()", 
+		description = "Returns null when empty" 
+	)
+	public void tm_061F18A1F( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		tc.assertIsNull( q.poll() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll()", 
+		description = "Returns element when non empty" 
+	)
+	public void tm_0DCB24BEF( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		tc.assertEqual( "A", q.poll() );
+		tc.assertTrue( q.isEmpty() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll()", 
+		description = "Does not block when open and empty" 
+	)
+	public void tm_0716A6307( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = CompletableFuture.supplyAsync( q::poll );
+		tc.assertIsNull( AbstractQueueTest.await( result ) );
+		tc.assertTrue( q.isOpen() );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll()", 
+		description = "Returns null when terminated" 
+	)
+	public void tm_0C8FE1CA7( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.terminate();
+		tc.assertIsNull( q.poll() );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Throws AssertionError for null unit" 
+	)
+	public void tm_05CF5857A( Test.Case tc ) {
+		tc.expectError( AssertionError.class );
+		new StealingQueue<String>( 2 ).poll( 1L, null );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Returns element when non empty" 
+	)
+	public void tm_0F03534F0( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		tc.assertEqual( "A", q.poll( 1L, TimeUnit.SECONDS ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Returns null after timeout when open and empty" 
+	)
+	public void tm_0C02377B0( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		long start = System.nanoTime();
+		tc.assertIsNull( q.poll( 20L, TimeUnit.MILLISECONDS ) );
+		tc.assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 20L ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Returns element put while waiting" 
+	)
+	public void tm_0E6BEF207( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = CompletableFuture.supplyAsync( () -> q.poll( 5L, TimeUnit.SECONDS ) );
+		AbstractQueueTest.awaitWaiting( q );
+		q.put( "A" );
+		tc.assertEqual( "A", AbstractQueueTest.await( result ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Returns null after close" 
+	)
+	public void tm_05CADE513( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		CompletableFuture<String> result = CompletableFuture.supplyAsync( () -> q.poll( 5L, TimeUnit.SECONDS ) );
+		AbstractQueueTest.awaitWaiting( q );
+		q.close();
+		tc.assertIsNull( AbstractQueueTest.await( result ) );
+	}
+
+
+	@Test.Impl( 
+		member = "method: int StealingQueue.size()", 
+		description = "Zero when constructed" 
+	)
+	public void tm_0A3BDD15A( Test.Case tc ) {
+		tc.assertEqual( 0, new StealingQueue<String>( 3 ).size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int StealingQueue.size()", 
+		description = "Counts elements in all lanes" 
+	)
+	public void tm_0D5A2FABE( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 3 );
+		q.put( "A" );
+		q.put( "B" );
+		q.put( "C" );
+		q.put( "D" );
+		tc.assertEqual( 4, q.size() );
+	}
+		
+	@Test.Impl( 
+		member = "method: int StealingQueue.size()", 
+		description = "Decreases after get" 
+	)
+	public void tm_0EC784659( Test.Case tc ) {
+		StealingQueue<String> q = new StealingQueue<String>( 2 );
+		q.put( "A" );
+		q.put( "B" );
+		q.get();
+		tc.assertEqual( 1, q.size() );
+	}
+
+
+	@Test.Impl( 
+		member = "method: Object StealingQueue.get()", 
+		description = "Interrupt while waiting is restored on return" 
+	)
+	public void tm_007307573( Test.Case tc ) {
+		tc.assertTrue( AbstractQueueTest.restoresInterrupt( new StealingQueue<String>( 2 ), StealingQueue::get ) );
+	}
+		
+	@Test.Impl( 
+		member = "method: Object StealingQueue.poll(long, TimeUnit)", 
+		description = "Interrupt while waiting is restored on return" 
+	)
+	public void tm_0040314F9( Test.Case tc ) {
+		tc.assertTrue( AbstractQueueTest.restoresInterrupt( new StealingQueue<String>( 2 ), q -> q.poll( 5L, TimeUnit.SECONDS ) ) );
+	}
+
+
+	public static void main( String[] args ) {
+		/* Toggle class results
+		Test.eval( StealingQueue.class )
+			.concurrent( false )
+			.showDetails( true )
+			.showProgress( false )
+			.print();
+		//*/
+		
+		/* Toggle package results
+		Test.evalPackage( StealingQueue.class )
+			.concurrent( true )
+			.showDetails( false )
+			.showProgress( true )
+			.print();
+		//*/
+		
+		System.out.println( "\nDone!" );
+	}
+	
+	
+}